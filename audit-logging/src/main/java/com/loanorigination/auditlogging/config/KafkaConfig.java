@@ -24,9 +24,14 @@ public class KafkaConfig {
         return new DefaultKafkaProducerFactory<>(configProps);
     }
     
+    /**
+     * Observed sends are timed as spring.kafka.template and carry the current trace in the record headers
+     */
     @Bean
     public KafkaTemplate<String, Object> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(producerFactory());
+        template.setObservationEnabled(true);
+        return template;
     }
 }
 
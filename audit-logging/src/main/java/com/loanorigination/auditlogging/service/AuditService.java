@@ -2,6 +2,8 @@ package com.loanorigination.auditlogging.service;
 
 import com.loanorigination.auditlogging.entity.AuditLogEntity;
 import com.loanorigination.auditlogging.repository.AuditLogRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -18,17 +20,30 @@ public class AuditService {
     
     private final AuditLogRepository auditLogRepository;
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
     
-    public AuditService(AuditLogRepository auditLogRepository, KafkaTemplate<String, Object> kafkaTemplate) {
+    public AuditService(AuditLogRepository auditLogRepository, KafkaTemplate<String, Object> kafkaTemplate,
+                        MeterRegistry meterRegistry) {
         this.auditLogRepository = auditLogRepository;
         this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
     }
     private static final String AUDIT_TOPIC = "audit-events";
     
     @Transactional
     public void logEvent(String requestId, String serviceName, String action, Object details) {
         log.info("Logging audit event for request: {}, service: {}, action: {}", requestId, serviceName, action);
-        
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            persistAndPublish(requestId, serviceName, action, details);
+            outcome = "success";
+        } finally {
+            sample.stop(meterRegistry.timer("audit.stage.log", "service", String.valueOf(serviceName), "outcome", outcome));
+        }
+    }
+    
+    private void persistAndPublish(String requestId, String serviceName, String action, Object details) {
         AuditLogEntity auditLog = new AuditLogEntity();
         auditLog.setId(UUID.randomUUID().toString());
         auditLog.setRequestId(requestId);
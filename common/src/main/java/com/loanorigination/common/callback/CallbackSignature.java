@@ -0,0 +1,48 @@
+package com.loanorigination.common.callback;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * HMAC-SHA256 signature of a service-to-service callback body, sent in {@link #HEADER}. Both
+ * services are configured with the same secret; a callback whose signature does not match the
+ * body is rejected.
+ */
+public final class CallbackSignature {
+    
+    public static final String HEADER = "X-Callback-Signature";
+    
+    private static final String ALGORITHM = "HmacSHA256";
+    
+    private CallbackSignature() {
+    }
+    
+    public static String sign(String secret, byte[] body) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("Callback secret must not be empty");
+        }
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            return HexFormat.of().formatHex(mac.doFinal(body));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+    
+    /**
+     * True if {@code signature} is the body's signature. Always false without a secret.
+     */
+    public static boolean verify(String secret, byte[] body, String signature) {
+        if (secret == null || secret.isBlank() || signature == null) {
+            return false;
+        }
+        byte[] expected = sign(secret, body).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, signature.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,83 @@
+package com.loanorigination.common.deadline;
+
+import java.time.Duration;
+
+/**
+ * Point in time after which the caller no longer wants the result. Deadlines travel between
+ * services as the remaining time in milliseconds, so they do not depend on synchronised clocks.
+ */
+public final class Deadline {
+    
+    public static final String HEADER = "X-Request-Timeout-Ms";
+    
+    private volatile long deadlineNanos;
+    
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+    
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos());
+    }
+    
+    /**
+     * Parses the remaining milliseconds sent in {@link #HEADER}. Returns null for a missing or
+     * malformed value, in which case the request has no deadline.
+     */
+    public static Deadline fromHeader(String remainingMillis) {
+        if (remainingMillis == null || remainingMillis.isBlank()) {
+            return null;
+        }
+        try {
+            return after(Duration.ofMillis(Math.max(0, Long.parseLong(remainingMillis.trim()))));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+    
+    /**
+     * Time elapsed since the deadline passed, zero if it has not passed
+     */
+    public Duration overrun() {
+        return Duration.ofNanos(Math.max(0, System.nanoTime() - deadlineNanos));
+    }
+    
+    public boolean isExpired() {
+        return System.nanoTime() - deadlineNanos >= 0;
+    }
+    
+    /**
+     * Throws {@link DeadlineExceededException} if the deadline has passed
+     */
+    public void check(String stage) {
+        if (isExpired()) {
+            throw new DeadlineExceededException(stage);
+        }
+    }
+    
+    /**
+     * The earlier of this deadline and another one, which may be null
+     */
+    public Deadline earliest(Deadline other) {
+        return other != null && other.deadlineNanos - deadlineNanos < 0 ? other : this;
+    }
+    
+    /**
+     * Moves this deadline to the other one if that is later. Only for the deadline of work
+     * shared by several callers, which lasts as long as the latest of theirs; a caller's own
+     * deadline never moves.
+     */
+    public synchronized void extendTo(Deadline other) {
+        if (other.deadlineNanos - deadlineNanos > 0) {
+            deadlineNanos = other.deadlineNanos;
+        }
+    }
+    
+    public String toHeaderValue() {
+        return String.valueOf(remaining().toMillis());
+    }
+}
@@ -0,0 +1,39 @@
+package com.loanorigination.common.deadline;
+
+/**
+ * Holds the deadline of the request being handled on the current thread. Servlet-based
+ * services set it from the incoming {@link Deadline#HEADER} for the duration of the request.
+ */
+public final class DeadlineContext {
+    
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+    
+    private DeadlineContext() {
+    }
+    
+    /**
+     * The current request's deadline, or null if it has none
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+    
+    public static void set(Deadline deadline) {
+        CURRENT.set(deadline);
+    }
+    
+    public static void clear() {
+        CURRENT.remove();
+    }
+    
+    /**
+     * Throws {@link DeadlineExceededException} if the current request's deadline has passed.
+     * Does nothing for requests without a deadline.
+     */
+    public static void check(String stage) {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null) {
+            deadline.check(stage);
+        }
+    }
+}
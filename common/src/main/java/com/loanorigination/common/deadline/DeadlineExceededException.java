@@ -0,0 +1,21 @@
+package com.loanorigination.common.deadline;
+
+/**
+ * Thrown when work is abandoned because the request's deadline has passed
+ */
+public class DeadlineExceededException extends RuntimeException {
+    
+    private final String stage;
+    
+    public DeadlineExceededException(String stage) {
+        super("Request deadline exceeded at " + stage);
+        this.stage = stage;
+    }
+    
+    /**
+     * Where the work was abandoned, e.g. "experian.check"
+     */
+    public String getStage() {
+        return stage;
+    }
+}
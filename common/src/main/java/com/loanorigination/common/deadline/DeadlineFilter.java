@@ -0,0 +1,79 @@
+package com.loanorigination.common.deadline;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Applies the caller's deadline from {@link Deadline#HEADER} to the request. Requests that
+ * arrive already expired are answered with 504 without doing any work, and work abandoned
+ * or finished after the deadline is counted in {@code deadline.expired}. Servlet services
+ * that honour caller deadlines register it with {@code @Import(DeadlineFilter.class)}.
+ */
+public class DeadlineFilter extends OncePerRequestFilter {
+    
+    private static final Logger log = LoggerFactory.getLogger(DeadlineFilter.class);
+    
+    private final MeterRegistry meterRegistry;
+    
+    public DeadlineFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Deadline deadline = Deadline.fromHeader(request.getHeader(Deadline.HEADER));
+        if (deadline == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (deadline.isExpired()) {
+            expired("arrival");
+            response.sendError(HttpStatus.GATEWAY_TIMEOUT.value(), "Request deadline exceeded");
+            return;
+        }
+        
+        DeadlineContext.set(deadline);
+        try {
+            chain.doFilter(request, response);
+            if (deadline.isExpired()) {
+                expired("completed");
+                meterRegistry.timer("deadline.overrun").record(deadline.overrun());
+            }
+        } catch (ServletException | RuntimeException e) {
+            DeadlineExceededException exceeded = findDeadlineExceeded(e);
+            if (exceeded == null) {
+                throw e;
+            }
+            expired(exceeded.getStage());
+            log.debug("Abandoned {} {}: {}", request.getMethod(), request.getRequestURI(), exceeded.getMessage());
+            if (!response.isCommitted()) {
+                response.sendError(HttpStatus.GATEWAY_TIMEOUT.value(), exceeded.getMessage());
+            }
+        } finally {
+            DeadlineContext.clear();
+        }
+    }
+    
+    private void expired(String stage) {
+        meterRegistry.counter("deadline.expired", "stage", stage).increment();
+    }
+    
+    private static DeadlineExceededException findDeadlineExceeded(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DeadlineExceededException exceeded) {
+                return exceeded;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,67 @@
+package com.loanorigination.common.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Progress event of an asynchronously processed credit application")
+public class ApplicationStageEvent {
+    @Schema(description = "Application identifier", example = "a615ad19-9ab5-482f-b0ae-7d323d7287d4")
+    private String applicationId;
+    
+    @Schema(description = "Processing stage reached", example = "BUREAUS_COMPLETED",
+            allowableValues = {"SUBMITTED", "PROCESSING", "PRE_BUREAU_RULES_PASSED", "BUREAUS_COMPLETED",
+                    "DECISION_COMPLETED", "PROVISIONAL_DECISION", "DECISION_FINALIZED", "FINAL_DECISION_TIMED_OUT",
+                    "COMPLETED", "FAILED"})
+    private String stage;
+    
+    @Schema(description = "Stage details", example = "2 bureau responses received")
+    private String detail;
+    
+    @Schema(description = "When the stage was reached")
+    private LocalDateTime timestamp;
+    
+    public ApplicationStageEvent(String applicationId, String stage, String detail, LocalDateTime timestamp) {
+        this.applicationId = applicationId;
+        this.stage = stage;
+        this.detail = detail;
+        this.timestamp = timestamp;
+    }
+    
+    // Explicit getters and setters for Jackson compatibility
+    public String getApplicationId() {
+        return applicationId;
+    }
+    
+    public void setApplicationId(String applicationId) {
+        this.applicationId = applicationId;
+    }
+    
+    public String getStage() {
+        return stage;
+    }
+    
+    public void setStage(String stage) {
+        this.stage = stage;
+    }
+    
+    public String getDetail() {
+        return detail;
+    }
+    
+    public void setDetail(String detail) {
+        this.detail = detail;
+    }
+    
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+    
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
@@ -0,0 +1,103 @@
+package com.loanorigination.common.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "State of an asynchronously processed credit application")
+public class ApplicationStatus {
+    @Schema(description = "Application identifier, also used as the decision request ID", example = "a615ad19-9ab5-482f-b0ae-7d323d7287d4")
+    private String applicationId;
+    
+    @Schema(description = "Processing status; PROVISIONAL while a provisional decision awaits its final decision",
+            example = "PENDING", allowableValues = {"PENDING", "PROCESSING", "PROVISIONAL", "COMPLETED", "FAILED"})
+    private String status;
+    
+    @Schema(description = "When the application was accepted")
+    private LocalDateTime submittedAt;
+    
+    @Schema(description = "When processing finished, if it has")
+    private LocalDateTime completedAt;
+    
+    @Schema(description = "Credit check result, once completed")
+    private CreditResponse result;
+    
+    @Schema(description = "Failure reason, if processing failed", example = "Request deadline exceeded")
+    private String error;
+    
+    @Schema(description = "Stages reached so far")
+    private List<ApplicationStageEvent> events;
+    
+    public ApplicationStatus(String applicationId, String status, LocalDateTime submittedAt, LocalDateTime completedAt,
+                             CreditResponse result, String error, List<ApplicationStageEvent> events) {
+        this.applicationId = applicationId;
+        this.status = status;
+        this.submittedAt = submittedAt;
+        this.completedAt = completedAt;
+        this.result = result;
+        this.error = error;
+        this.events = events;
+    }
+    
+    // Explicit getters and setters for Jackson compatibility
+    public String getApplicationId() {
+        return applicationId;
+    }
+    
+    public void setApplicationId(String applicationId) {
+        this.applicationId = applicationId;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+    
+    public void setSubmittedAt(LocalDateTime submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+    
+    public CreditResponse getResult() {
+        return result;
+    }
+    
+    public void setResult(CreditResponse result) {
+        this.result = result;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+    
+    public List<ApplicationStageEvent> getEvents() {
+        return events;
+    }
+    
+    public void setEvents(List<ApplicationStageEvent> events) {
+        this.events = events;
+    }
+}
@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -16,8 +17,9 @@ public class CreditResponse {
     @Schema(description = "Unique request identifier", example = "a615ad19-9ab5-482f-b0ae-7d323d7287d4")
     private String requestId;
     
-    @Schema(description = "Loan decision status", example = "APPROVED", allowableValues = {"APPROVED", "REJECTED", "PENDING"})
-    private String status; // APPROVED, REJECTED, PENDING
+    @Schema(description = "Loan decision status. PROVISIONAL means the rules passed and the final decision follows the LLM review",
+            example = "APPROVED", allowableValues = {"APPROVED", "REJECTED", "PENDING", "PROVISIONAL"})
+    private String status; // APPROVED, REJECTED, PENDING, PROVISIONAL
     
     @Schema(description = "Average credit score from all bureaus", example = "699.00")
     private BigDecimal creditScore;
@@ -38,6 +40,9 @@ public class CreditResponse {
     @Schema(description = "Credit response from Equifax bureau")
     private BureauResponse equifaxResponse;
     
+    @Schema(description = "Responses from every credit bureau that was consulted, in registry order")
+    private List<BureauResponse> bureauResponses;
+    
     @Schema(description = "Detailed decision reasoning explaining how the loan decision was made")
     private DecisionReasoning reasoning;
     
@@ -126,6 +131,14 @@ public class CreditResponse {
         this.equifaxResponse = equifaxResponse;
     }
     
+    public List<BureauResponse> getBureauResponses() {
+        return bureauResponses;
+    }
+    
+    public void setBureauResponses(List<BureauResponse> bureauResponses) {
+        this.bureauResponses = bureauResponses;
+    }
+    
     public DecisionReasoning getReasoning() {
         return reasoning;
     }
@@ -16,8 +16,9 @@ public class DecisionResult {
     @Schema(description = "Unique request identifier", example = "a615ad19-9ab5-482f-b0ae-7d323d7287d4")
     private String requestId;
     
-    @Schema(description = "Loan decision", example = "APPROVED", allowableValues = {"APPROVED", "REJECTED"})
-    private String decision; // APPROVED, REJECTED
+    @Schema(description = "Loan decision. PROVISIONAL means the rules passed and the final decision follows the LLM review",
+            example = "APPROVED", allowableValues = {"APPROVED", "REJECTED", "PROVISIONAL"})
+    private String decision; // APPROVED, REJECTED, PROVISIONAL
     
     @Schema(description = "Calculated credit score", example = "699.00")
     private BigDecimal creditScore;
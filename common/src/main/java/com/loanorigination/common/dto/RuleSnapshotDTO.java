@@ -0,0 +1,70 @@
+package com.loanorigination.common.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Schema(description = "Immutable snapshot of the active decisioning rules, identified by a content-derived version")
+public class RuleSnapshotDTO {
+    
+    @Schema(description = "Version of the active rule set; changes whenever any active rule changes", example = "3f9a1c0b7d2e4a51")
+    private String version;
+    
+    @Schema(description = "Timestamp when the snapshot was built")
+    private LocalDateTime generatedAt;
+    
+    @Schema(description = "Active rules in priority order")
+    private List<RuleConfigurationDTO> rules;
+    
+    @Schema(description = "Decision mode of the decision engine serving the snapshot (rules, llm, hybrid or tiered)", example = "rules")
+    private String decisionMode;
+    
+    public RuleSnapshotDTO() {
+        // No-arg constructor for Jackson
+    }
+    
+    public RuleSnapshotDTO(String version, LocalDateTime generatedAt, List<RuleConfigurationDTO> rules) {
+        this.version = version;
+        this.generatedAt = generatedAt;
+        this.rules = rules;
+    }
+    
+    public RuleSnapshotDTO(String version, LocalDateTime generatedAt, List<RuleConfigurationDTO> rules,
+                           String decisionMode) {
+        this(version, generatedAt, rules);
+        this.decisionMode = decisionMode;
+    }
+    
+    public String getVersion() {
+        return version;
+    }
+    
+    public void setVersion(String version) {
+        this.version = version;
+    }
+    
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+    
+    public void setGeneratedAt(LocalDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+    
+    public List<RuleConfigurationDTO> getRules() {
+        return rules;
+    }
+    
+    public void setRules(List<RuleConfigurationDTO> rules) {
+        this.rules = rules;
+    }
+    
+    public String getDecisionMode() {
+        return decisionMode;
+    }
+    
+    public void setDecisionMode(String decisionMode) {
+        this.decisionMode = decisionMode;
+    }
+}
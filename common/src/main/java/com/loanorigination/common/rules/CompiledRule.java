@@ -0,0 +1,85 @@
+package com.loanorigination.common.rules;
+
+import com.loanorigination.common.dto.RuleConfigurationDTO;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable rule with its type and operator resolved up front, so evaluating it is a
+ * single comparison
+ */
+public final class CompiledRule {
+    
+    private final String ruleName;
+    private final String description;
+    private final RuleType type;
+    private final RuleOperator operator;
+    private final BigDecimal threshold;
+    private final String importance;
+    private final String failureReason;
+    
+    public CompiledRule(String ruleName, String description, RuleType type, RuleOperator operator,
+                        BigDecimal threshold, String importance, String failureMessage) {
+        this.ruleName = ruleName;
+        this.description = description;
+        this.type = type;
+        this.operator = operator;
+        this.threshold = threshold;
+        this.importance = importance;
+        this.failureReason = failureMessage == null || failureMessage.isEmpty()
+                ? String.format("Rule '%s' failed: %s", ruleName, description)
+                : failureMessage;
+    }
+    
+    /**
+     * Compiles a rule configuration. Returns null for unknown rule types or operators,
+     * which the decision engine skips.
+     */
+    public static CompiledRule compile(RuleConfigurationDTO rule) {
+        RuleType type = RuleType.fromName(rule.getRuleType());
+        RuleOperator operator = RuleOperator.fromSymbol(rule.getOperator());
+        if (type == null || operator == null || rule.getThresholdValue() == null) {
+            return null;
+        }
+        return new CompiledRule(rule.getRuleName(), rule.getDescription(), type, operator,
+                rule.getThresholdValue(), rule.getImportance(), rule.getFailureMessage());
+    }
+    
+    /**
+     * Evaluates the rule against a value. A missing value fails the rule.
+     */
+    public boolean test(BigDecimal value) {
+        return value != null && operator.test(value.compareTo(threshold));
+    }
+    
+    public String getRuleName() {
+        return ruleName;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public RuleType getType() {
+        return type;
+    }
+    
+    public RuleOperator getOperator() {
+        return operator;
+    }
+    
+    public BigDecimal getThreshold() {
+        return threshold;
+    }
+    
+    public String getImportance() {
+        return importance;
+    }
+    
+    /**
+     * The configured failure message, or a generated one when none is configured
+     */
+    public String getFailureReason() {
+        return failureReason;
+    }
+}
@@ -0,0 +1,210 @@
+package com.loanorigination.common.rules;
+
+import com.loanorigination.common.dto.BureauResponse;
+import com.loanorigination.common.dto.DecisionReasoning;
+import com.loanorigination.common.dto.DecisionRequest;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Renders the reasoning for a decision from the rule outcomes it was made with. The decision
+ * engine and the orchestrator's in-process and pre-bureau decisions all render through here,
+ * so a decision reads the same wherever it was made. No rule is evaluated again.
+ */
+public final class ReasoningRenderer {
+    
+    public static final String PROVISIONAL = "PROVISIONAL";
+    
+    private ReasoningRenderer() {
+    }
+    
+    public static DecisionReasoning render(DecisionRequest request, RuleFacts facts, RuleOutcomes outcomes,
+                                           String finalDecision) {
+        DecisionReasoning reasoning = new DecisionReasoning();
+        
+        // Set input and calculated values
+        DecisionReasoning.DecisionInputs inputs = new DecisionReasoning.DecisionInputs();
+        DecisionReasoning.CalculatedValues calculated = new DecisionReasoning.CalculatedValues();
+        calculated.setAverageCreditScore(facts.averageScore());
+        addRequestValues(request, inputs, calculated);
+        reasoning.setInputs(inputs);
+        reasoning.setCalculated(calculated);
+        
+        // Explain each rule's recorded outcome
+        addRuleEvaluations(reasoning, facts, outcomes);
+        
+        // Generate summary and decision path
+        generateSummary(reasoning, finalDecision, outcomes.isPreBureau());
+        generateDecisionPath(reasoning, outcomes.isPreBureau());
+        
+        return reasoning;
+    }
+    
+    private static void addRequestValues(DecisionRequest request,
+                                         DecisionReasoning.DecisionInputs inputs,
+                                         DecisionReasoning.CalculatedValues calculated) {
+        inputs.setLoanAmount(request.getLoanAmount());
+        inputs.setBureauResponseCount(request.getBureauResponses().size());
+        inputs.setApplicantAge(request.getApplicantAge());
+        
+        List<DecisionReasoning.DecisionInputs.BureauInput> bureauInputs =
+            request.getBureauResponses().stream()
+                .map(br -> {
+                    DecisionReasoning.DecisionInputs.BureauInput input =
+                        new DecisionReasoning.DecisionInputs.BureauInput();
+                    input.setBureauName(br.getBureauName());
+                    input.setCreditScore(br.getCreditScore());
+                    input.setStatus(br.getStatus());
+                    return input;
+                })
+                .collect(Collectors.toList());
+        inputs.setBureauInputs(bureauInputs);
+        
+        List<BigDecimal> validScores = request.getBureauResponses().stream()
+            .filter(r -> "SUCCESS".equals(r.getStatus()) && r.getCreditScore() != null)
+            .map(BureauResponse::getCreditScore)
+            .collect(Collectors.toList());
+        calculated.setValidBureauCount(validScores.size());
+        
+        if (!validScores.isEmpty()) {
+            BigDecimal minScore = validScores.stream().min(BigDecimal::compareTo).orElse(BigDecimal.ZERO);
+            BigDecimal maxScore = validScores.stream().max(BigDecimal::compareTo).orElse(BigDecimal.ZERO);
+            calculated.setCreditScoreRange(minScore + " - " + maxScore);
+        }
+    }
+    
+    private static void addRuleEvaluations(DecisionReasoning reasoning, RuleFacts facts, RuleOutcomes outcomes) {
+        Rulebook rulebook = outcomes.getRulebook();
+        for (int i = 0; i < outcomes.size(); i++) {
+            if (!outcomes.evaluated(i)) {
+                continue;
+            }
+            CompiledRule rule = rulebook.rule(i);
+            BigDecimal value = rulebook.valueFor(i, facts);
+            boolean passed = outcomes.passed(i);
+            
+            String explanation = value == null
+                    ? String.format("Required value for %s was not provided", rule.getType())
+                    : generateExplanation(rule, value, passed);
+            
+            reasoning.addRuleEvaluation(new DecisionReasoning.RuleEvaluation(
+                rule.getRuleName(),
+                rule.getDescription(),
+                passed,
+                actualValue(rule, value),
+                rule.getThreshold().toString(),
+                rule.getOperator().getSymbol(),
+                explanation,
+                rule.getImportance()
+            ));
+        }
+    }
+    
+    private static String actualValue(CompiledRule rule, BigDecimal value) {
+        if (value == null) {
+            return "N/A";
+        }
+        switch (rule.getType()) {
+            case CREDIT_SCORE:
+                return value.setScale(2, RoundingMode.HALF_UP).toString();
+            case AGE_LIMIT:
+                return value.toPlainString();
+            default:
+                return value.toString();
+        }
+    }
+    
+    private static String generateExplanation(CompiledRule rule, BigDecimal actualValue, boolean passed) {
+        BigDecimal threshold = rule.getThreshold();
+        String operator = rule.getOperator().getSymbol();
+        
+        if (passed) {
+            return String.format("%s %.2f %s threshold %.2f - Rule passed",
+                rule.getType(), actualValue, operator, threshold);
+        } else {
+            return String.format("%s %.2f does not meet requirement: %s %.2f - Rule failed",
+                rule.getType(), actualValue, operator, threshold);
+        }
+    }
+    
+    private static void generateSummary(DecisionReasoning reasoning, String finalDecision, boolean preBureau) {
+        long passedRules = reasoning.getRuleEvaluations().stream()
+            .filter(DecisionReasoning.RuleEvaluation::isPassed)
+            .count();
+        long totalRules = reasoning.getRuleEvaluations().size();
+        
+        String summary;
+        if (preBureau) {
+            List<String> failedRules = reasoning.getRuleEvaluations().stream()
+                .filter(eval -> !eval.isPassed())
+                .map(DecisionReasoning.RuleEvaluation::getRuleName)
+                .collect(Collectors.toList());
+            summary = String.format(
+                "Loan REJECTED before credit bureau checks. Failed rules: %s. Loan amount: %s",
+                String.join(", ", failedRules),
+                reasoning.getInputs().getLoanAmount()
+            );
+        } else if ("APPROVED".equals(finalDecision) || PROVISIONAL.equals(finalDecision)) {
+            // A provisional decision passed every rule and awaits the LLM review
+            summary = String.format(
+                "Loan %s: All %d critical rules passed. " +
+                "Credit score of %.2f and loan amount of %s meet all requirements.",
+                "APPROVED".equals(finalDecision) ? "APPROVED" : "PROVISIONALLY APPROVED (pending LLM review)",
+                passedRules,
+                reasoning.getCalculated().getAverageCreditScore(),
+                reasoning.getInputs().getLoanAmount()
+            );
+        } else {
+            List<String> failedRules = reasoning.getRuleEvaluations().stream()
+                .filter(eval -> !eval.isPassed())
+                .map(DecisionReasoning.RuleEvaluation::getRuleName)
+                .collect(Collectors.toList());
+            
+            summary = String.format(
+                "Loan REJECTED: %d out of %d rules failed. " +
+                "Failed rules: %s. " +
+                "Credit score: %.2f, Loan amount: %s",
+                (totalRules - passedRules),
+                totalRules,
+                String.join(", ", failedRules),
+                reasoning.getCalculated().getAverageCreditScore(),
+                reasoning.getInputs().getLoanAmount()
+            );
+        }
+        
+        reasoning.setSummary(summary);
+    }
+    
+    private static void generateDecisionPath(DecisionReasoning reasoning, boolean preBureau) {
+        List<String> pathSteps = new ArrayList<>();
+        if (preBureau) {
+            pathSteps.add("1. Checked rules that do not depend on bureau data; no credit bureau was called");
+        } else {
+            pathSteps.add("1. Received credit bureau responses");
+            pathSteps.add("2. Calculated average credit score from valid responses");
+        }
+        
+        for (DecisionReasoning.RuleEvaluation eval : reasoning.getRuleEvaluations()) {
+            String step = String.format(
+                "%d. Evaluated %s: %s - %s",
+                pathSteps.size() + 1,
+                eval.getRuleName(),
+                eval.isPassed() ? "PASSED" : "FAILED",
+                eval.getExplanation()
+            );
+            pathSteps.add(step);
+        }
+        
+        pathSteps.add(String.format(
+            "%d. Final decision: %s",
+            pathSteps.size() + 1,
+            reasoning.getSummary()
+        ));
+        
+        reasoning.setDecisionPath(String.join("\n", pathSteps));
+    }
+}
@@ -0,0 +1,67 @@
+package com.loanorigination.common.rules;
+
+import com.loanorigination.common.dto.BureauResponse;
+import com.loanorigination.common.dto.CreditRequest;
+import com.loanorigination.common.dto.DecisionRequest;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * The values rules are evaluated against, derived once per request. Null where the request
+ * does not provide a value.
+ */
+public record RuleFacts(BigDecimal averageScore, BigDecimal loanAmount, BigDecimal successfulBureaus,
+                        BigDecimal applicantAge) {
+    
+    public static RuleFacts from(DecisionRequest request) {
+        int successful = 0;
+        List<BureauResponse> responses = request.getBureauResponses();
+        if (responses != null) {
+            for (BureauResponse response : responses) {
+                if ("SUCCESS".equals(response.getStatus())) {
+                    successful++;
+                }
+            }
+        }
+        return new RuleFacts(averageScoreOf(responses), request.getLoanAmount(), BigDecimal.valueOf(successful),
+                request.getApplicantAge());
+    }
+    
+    /**
+     * Facts known before any bureau is called. The bureau facts are null, so only
+     * bureau-independent rules can pass against them.
+     */
+    public static RuleFacts fromApplication(CreditRequest request) {
+        return new RuleFacts(null, request.getLoanAmount(), null, applicantAge(request));
+    }
+    
+    /**
+     * The applicant's age as the decision engine receives it; ages of zero or less are not given
+     */
+    public static BigDecimal applicantAge(CreditRequest request) {
+        return request.getApplicantAge() != null && request.getApplicantAge() > 0
+                ? BigDecimal.valueOf(request.getApplicantAge())
+                : null;
+    }
+    
+    /**
+     * Average score of the successful responses that have one, zero if none do
+     */
+    public static BigDecimal averageScoreOf(List<BureauResponse> responses) {
+        BigDecimal sum = BigDecimal.ZERO;
+        int scored = 0;
+        if (responses != null) {
+            for (BureauResponse response : responses) {
+                if ("SUCCESS".equals(response.getStatus()) && response.getCreditScore() != null) {
+                    sum = sum.add(response.getCreditScore());
+                    scored++;
+                }
+            }
+        }
+        return scored == 0
+                ? BigDecimal.ZERO
+                : sum.divide(BigDecimal.valueOf(scored), 2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,53 @@
+package com.loanorigination.common.rules;
+
+/**
+ * Comparison operators supported by rule configurations
+ */
+public enum RuleOperator {
+    GREATER_OR_EQUAL(">="),
+    LESS_OR_EQUAL("<="),
+    GREATER(">"),
+    LESS("<"),
+    EQUAL("==");
+    
+    private final String symbol;
+    
+    RuleOperator(String symbol) {
+        this.symbol = symbol;
+    }
+    
+    public String getSymbol() {
+        return symbol;
+    }
+    
+    /**
+     * Applies the operator to the result of {@code value.compareTo(threshold)}
+     */
+    public boolean test(int comparison) {
+        switch (this) {
+            case GREATER_OR_EQUAL:
+                return comparison >= 0;
+            case LESS_OR_EQUAL:
+                return comparison <= 0;
+            case GREATER:
+                return comparison > 0;
+            case LESS:
+                return comparison < 0;
+            case EQUAL:
+            default:
+                return comparison == 0;
+        }
+    }
+    
+    /**
+     * Returns the operator for the given symbol, or null if the symbol is unknown
+     */
+    public static RuleOperator fromSymbol(String symbol) {
+        for (RuleOperator operator : values()) {
+            if (operator.symbol.equals(symbol)) {
+                return operator;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,82 @@
+package com.loanorigination.common.rules;
+
+import java.util.BitSet;
+import java.util.HexFormat;
+
+/**
+ * Outcome of every rule in a rulebook for one request, from a single evaluation pass. The
+ * decision, its reason and the reasoning's rule evaluations are all derived from it. Outcomes
+ * of a pre-bureau rejection only cover the rules that do not depend on bureau data.
+ */
+public final class RuleOutcomes {
+    
+    private final Rulebook rulebook;
+    private final BitSet failed;
+    private final boolean preBureau;
+    
+    RuleOutcomes(Rulebook rulebook, BitSet failed, boolean preBureau) {
+        this.rulebook = rulebook;
+        this.failed = failed;
+        this.preBureau = preBureau;
+    }
+    
+    /**
+     * Whether the rule at the given index was evaluated; bureau rules are not before bureau checks
+     */
+    public boolean evaluated(int index) {
+        return !preBureau || rulebook.rule(index).getType().isBureauIndependent();
+    }
+    
+    public boolean isPreBureau() {
+        return preBureau;
+    }
+    
+    public boolean passed(int index) {
+        return !failed.get(index);
+    }
+    
+    public boolean allPassed() {
+        return failed.isEmpty();
+    }
+    
+    /**
+     * Index of the first failed rule in priority order, or {@link Rulebook#NONE_FAILED}
+     */
+    public int firstFailure() {
+        return failed.nextSetBit(0);
+    }
+    
+    public int failedCount() {
+        return failed.cardinality();
+    }
+    
+    public int size() {
+        return rulebook.size();
+    }
+    
+    public Rulebook getRulebook() {
+        return rulebook;
+    }
+    
+    /**
+     * Compact encoding for storage: the failed rule bits as hex, empty when every rule passed
+     */
+    public String encode() {
+        return HexFormat.of().formatHex(failed.toByteArray());
+    }
+    
+    /**
+     * Restores outcomes encoded with {@link #encode()} for the rulebook they were evaluated with
+     */
+    public static RuleOutcomes decode(Rulebook rulebook, String encoded) {
+        return decode(rulebook, encoded, false);
+    }
+    
+    public static RuleOutcomes decode(Rulebook rulebook, String encoded, boolean preBureau) {
+        BitSet failed = BitSet.valueOf(HexFormat.of().parseHex(encoded));
+        if (failed.length() > rulebook.size()) {
+            throw new IllegalArgumentException("Rule outcomes do not match rule set version " + rulebook.getVersion());
+        }
+        return new RuleOutcomes(rulebook, failed, preBureau);
+    }
+}
@@ -0,0 +1,36 @@
+package com.loanorigination.common.rules;
+
+/**
+ * Rule types supported by rule configurations
+ */
+public enum RuleType {
+    CREDIT_SCORE(false),
+    LOAN_AMOUNT(true),
+    BUREAU_RESPONSE(false),
+    AGE_LIMIT(true);
+    
+    private final boolean bureauIndependent;
+    
+    RuleType(boolean bureauIndependent) {
+        this.bureauIndependent = bureauIndependent;
+    }
+    
+    /**
+     * Whether the rule can be evaluated from the application alone, before any bureau is called
+     */
+    public boolean isBureauIndependent() {
+        return bureauIndependent;
+    }
+    
+    /**
+     * Returns the rule type with the given name, or null if the name is unknown
+     */
+    public static RuleType fromName(String name) {
+        for (RuleType type : values()) {
+            if (type.name().equals(name)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
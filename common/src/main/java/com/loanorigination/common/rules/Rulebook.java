@@ -0,0 +1,127 @@
+package com.loanorigination.common.rules;
+
+import com.loanorigination.common.dto.RuleConfigurationDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Immutable, compiled form of the active rules in priority order. Each rule's operator and the
+ * fact it reads are resolved when the rulebook is compiled, so evaluating a request is a loop
+ * of comparisons: no cache lookups, no string switches and no allocation.
+ */
+public final class Rulebook {
+    
+    public static final int NONE_FAILED = -1;
+    
+    private final String version;
+    private final CompiledRule[] rules;
+    private final Fact[] facts;
+    
+    private Rulebook(String version, CompiledRule[] rules, Fact[] facts) {
+        this.version = version;
+        this.rules = rules;
+        this.facts = facts;
+    }
+    
+    /**
+     * Compiles rules given in priority order. Rules with an unknown type or operator are left
+     * out, as the decision engine has always skipped them.
+     */
+    public static Rulebook compile(String version, List<RuleConfigurationDTO> activeRules) {
+        List<CompiledRule> compiled = new ArrayList<>(activeRules.size());
+        for (RuleConfigurationDTO rule : activeRules) {
+            CompiledRule compiledRule = CompiledRule.compile(rule);
+            if (compiledRule != null) {
+                compiled.add(compiledRule);
+            }
+        }
+        CompiledRule[] rules = compiled.toArray(new CompiledRule[0]);
+        Fact[] facts = new Fact[rules.length];
+        for (int i = 0; i < rules.length; i++) {
+            facts[i] = factFor(rules[i].getType());
+        }
+        return new Rulebook(version, rules, facts);
+    }
+    
+    private static Fact factFor(RuleType type) {
+        switch (type) {
+            case CREDIT_SCORE:
+                return RuleFacts::averageScore;
+            case LOAN_AMOUNT:
+                return RuleFacts::loanAmount;
+            case BUREAU_RESPONSE:
+                return RuleFacts::successfulBureaus;
+            case AGE_LIMIT:
+                return RuleFacts::applicantAge;
+            default:
+                throw new IllegalArgumentException("No fact for rule type " + type);
+        }
+    }
+    
+    /**
+     * Evaluates every rule once and records which ones failed
+     */
+    public RuleOutcomes evaluate(RuleFacts ruleFacts) {
+        BitSet failed = new BitSet(rules.length);
+        for (int i = 0; i < rules.length; i++) {
+            if (!rules[i].test(facts[i].of(ruleFacts))) {
+                failed.set(i);
+            }
+        }
+        return new RuleOutcomes(this, failed, false);
+    }
+    
+    /**
+     * Evaluates only the rules that do not depend on bureau data, for an application rejected
+     * before any credit was pulled. The other rules are recorded as not evaluated.
+     */
+    public RuleOutcomes evaluateBureauIndependent(RuleFacts ruleFacts) {
+        BitSet failed = new BitSet(rules.length);
+        for (int i = 0; i < rules.length; i++) {
+            if (rules[i].getType().isBureauIndependent() && !rules[i].test(facts[i].of(ruleFacts))) {
+                failed.set(i);
+            }
+        }
+        return new RuleOutcomes(this, failed, true);
+    }
+    
+    /**
+     * Index of the first rule, in priority order, that the facts fail, or {@link #NONE_FAILED}.
+     * Stops at that rule, for callers that only need the decision.
+     */
+    public int firstFailure(RuleFacts ruleFacts) {
+        for (int i = 0; i < rules.length; i++) {
+            if (!rules[i].test(facts[i].of(ruleFacts))) {
+                return i;
+            }
+        }
+        return NONE_FAILED;
+    }
+    
+    /**
+     * The value the rule at the given index is compared against
+     */
+    public BigDecimal valueFor(int index, RuleFacts ruleFacts) {
+        return facts[index].of(ruleFacts);
+    }
+    
+    public CompiledRule rule(int index) {
+        return rules[index];
+    }
+    
+    public int size() {
+        return rules.length;
+    }
+    
+    public String getVersion() {
+        return version;
+    }
+    
+    @FunctionalInterface
+    private interface Fact {
+        BigDecimal of(RuleFacts facts);
+    }
+}
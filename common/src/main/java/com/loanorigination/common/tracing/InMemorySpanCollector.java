@@ -0,0 +1,133 @@
+package com.loanorigination.common.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the finished spans of the most recent traces in memory, so a service's part of a
+ * trace can be read back without an external tracing backend. The oldest trace is dropped
+ * once {@code maxTraces} traces are held, and a trace keeps at most {@code maxSpansPerTrace}
+ * spans. Traces can be looked up by the values of the {@code indexedTags}.
+ */
+public class InMemorySpanCollector extends SpanHandler {
+    
+    private final int maxSpansPerTrace;
+    private final Set<String> indexedTags;
+    private final Map<String, RecordedTrace> traces;
+    private final Map<String, String> traceIdsByTag = new HashMap<>();
+    private final AtomicLong droppedSpans = new AtomicLong();
+    
+    public InMemorySpanCollector(int maxTraces, int maxSpansPerTrace, Set<String> indexedTags) {
+        if (maxTraces < 1) {
+            throw new IllegalArgumentException("maxTraces must be at least 1");
+        }
+        if (maxSpansPerTrace < 1) {
+            throw new IllegalArgumentException("maxSpansPerTrace must be at least 1");
+        }
+        this.maxSpansPerTrace = maxSpansPerTrace;
+        this.indexedTags = Set.copyOf(indexedTags);
+        this.traces = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RecordedTrace> eldest) {
+                if (size() <= maxTraces) {
+                    return false;
+                }
+                unindex(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+    }
+    
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (cause == Cause.ABANDONED || span.startTimestamp() == 0) {
+            return true;
+        }
+        Map<String, String> tags = new HashMap<>();
+        span.forEachTag((target, key, value) -> target.put(key, value), tags);
+        long finish = span.finishTimestamp() != 0 ? span.finishTimestamp() : span.startTimestamp();
+        TraceSpan recorded = new TraceSpan(
+                span.traceId(),
+                span.id(),
+                span.parentId(),
+                span.localServiceName(),
+                span.name(),
+                span.kind() != null ? span.kind().name() : null,
+                span.remoteServiceName(),
+                span.startTimestamp(),
+                finish - span.startTimestamp(),
+                span.error() != null ? span.error().toString() : tags.get("error"),
+                tags);
+        synchronized (traces) {
+            RecordedTrace trace = traces.computeIfAbsent(span.traceId(), id -> new RecordedTrace());
+            if (trace.spans.size() >= maxSpansPerTrace) {
+                droppedSpans.incrementAndGet();
+                return true;
+            }
+            trace.spans.add(recorded);
+            for (String tag : indexedTags) {
+                String value = tags.get(tag);
+                if (value != null) {
+                    String key = indexKey(tag, value);
+                    traceIdsByTag.put(key, span.traceId());
+                    trace.indexKeys.add(key);
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Spans recorded for a trace, in the order they finished; empty if the trace is unknown
+     */
+    public List<TraceSpan> spans(String traceId) {
+        synchronized (traces) {
+            RecordedTrace trace = traces.get(traceId);
+            return trace != null ? List.copyOf(trace.spans) : List.of();
+        }
+    }
+    
+    /**
+     * ID of the trace that most recently recorded a span with the given tag value, or null.
+     * Only indexed tags can be looked up.
+     */
+    public String findTraceId(String tagKey, String tagValue) {
+        if (!indexedTags.contains(tagKey)) {
+            throw new IllegalArgumentException("Tag " + tagKey + " is not indexed");
+        }
+        synchronized (traces) {
+            return traceIdsByTag.get(indexKey(tagKey, tagValue));
+        }
+    }
+    
+    /**
+     * Spans left out because their trace already held {@code maxSpansPerTrace} spans
+     */
+    public long getDroppedSpans() {
+        return droppedSpans.get();
+    }
+    
+    private void unindex(String traceId, RecordedTrace trace) {
+        for (String key : trace.indexKeys) {
+            traceIdsByTag.remove(key, traceId);
+        }
+    }
+    
+    private static String indexKey(String tag, String value) {
+        return tag + '=' + value;
+    }
+    
+    private static final class RecordedTrace {
+        private final List<TraceSpan> spans = new ArrayList<>();
+        private final List<String> indexKeys = new ArrayList<>(1);
+    }
+}
@@ -0,0 +1,44 @@
+package com.loanorigination.common.tracing;
+
+import brave.handler.SpanHandler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Keeps the service's finished spans in an {@link InMemorySpanCollector} and, when
+ * {@code tracing.endpoint.path} is set, serves them from GET {path}/{traceId}, from where the
+ * orchestrator assembles the trace of an application. Further exporters can be added as
+ * additional SpanHandler beans.
+ */
+@AutoConfiguration
+@ConditionalOnClass(SpanHandler.class)
+@Import({ServletTraceEndpoint.class, ReactiveTraceEndpoint.class})
+public class InMemoryTracingAutoConfiguration {
+    
+    @Bean
+    @ConditionalOnMissingBean
+    public InMemorySpanCollector inMemorySpanCollector(
+            @Value("${tracing.max-traces:10000}") int maxTraces,
+            @Value("${tracing.max-spans-per-trace:1000}") int maxSpansPerTrace,
+            @Value("${tracing.indexed-tags:request.id}") List<String> indexedTags) {
+        return new InMemorySpanCollector(maxTraces, maxSpansPerTrace, new HashSet<>(indexedTags));
+    }
+    
+    @Bean
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+    public MeterBinder inMemorySpanCollectorMetrics(InMemorySpanCollector spanCollector) {
+        return registry -> FunctionCounter
+                .builder("tracing.spans.dropped", spanCollector, InMemorySpanCollector::getDroppedSpans)
+                .description("Spans not kept because their trace already held the maximum number of spans")
+                .register(registry);
+    }
+}
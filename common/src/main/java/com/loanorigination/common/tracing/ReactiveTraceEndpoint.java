@@ -0,0 +1,33 @@
+package com.loanorigination.common.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * GET {tracing.endpoint.path}/{traceId} for reactive services such as the gateway: this
+ * service's spans of a trace, empty if none are held
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnClass(name = "org.springframework.web.reactive.function.server.RouterFunction")
+@ConditionalOnProperty("tracing.endpoint.path")
+class ReactiveTraceEndpoint {
+    
+    @Bean
+    public RouterFunction<ServerResponse> traceRoute(InMemorySpanCollector spanCollector,
+                                                     @Value("${tracing.endpoint.path}") String path) {
+        return RouterFunctions.route()
+            .GET(path + "/{traceId}", request -> ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(spanCollector.spans(request.pathVariable("traceId"))))
+            .build();
+    }
+}
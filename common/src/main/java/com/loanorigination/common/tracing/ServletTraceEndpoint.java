@@ -0,0 +1,33 @@
+package com.loanorigination.common.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+/**
+ * GET {tracing.endpoint.path}/{traceId} for servlet services: this service's spans of a trace,
+ * empty if none are held
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass(name = "org.springframework.web.servlet.function.RouterFunction")
+@ConditionalOnProperty("tracing.endpoint.path")
+class ServletTraceEndpoint {
+    
+    @Bean
+    public RouterFunction<ServerResponse> traceRoute(InMemorySpanCollector spanCollector,
+                                                     @Value("${tracing.endpoint.path}") String path) {
+        return RouterFunctions.route()
+            .GET(path + "/{traceId}", request -> ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(spanCollector.spans(request.pathVariable("traceId"))))
+            .build();
+    }
+}
@@ -0,0 +1,15 @@
+package com.loanorigination.common.tracing;
+
+import java.util.Map;
+
+/**
+ * A finished span as recorded by one service. Timestamps are epoch microseconds.
+ */
+public record TraceSpan(String traceId, String spanId, String parentId, String service, String name,
+                        String kind, String remoteService, long startMicros, long durationMicros,
+                        String error, Map<String, String> tags) {
+    
+    public long endMicros() {
+        return startMicros + durationMicros;
+    }
+}
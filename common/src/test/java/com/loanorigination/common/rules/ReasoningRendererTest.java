@@ -0,0 +1,70 @@
+package com.loanorigination.common.rules;
+
+import com.loanorigination.common.dto.BureauResponse;
+import com.loanorigination.common.dto.DecisionReasoning;
+import com.loanorigination.common.dto.DecisionRequest;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.loanorigination.common.rules.RuleFixtures.rule;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReasoningRendererTest {
+    
+    private static final Rulebook RULEBOOK = Rulebook.compile("v1", List.of(
+            rule("MIN_SCORE", "CREDIT_SCORE", ">=", "650"),
+            rule("MAX_AMOUNT", "LOAN_AMOUNT", "<=", "50000"),
+            rule("MIN_AGE", "AGE_LIMIT", ">=", "18")));
+    
+    @Test
+    void rejectionListsEveryFailedRule() {
+        DecisionRequest request = request("80000", "17", new BureauResponse("EXPERIAN", new BigDecimal("720"),
+                "SUCCESS", null, null));
+        RuleFacts facts = RuleFacts.from(request);
+        
+        DecisionReasoning reasoning = ReasoningRenderer.render(request, facts, RULEBOOK.evaluate(facts), "REJECTED");
+        
+        assertThat(reasoning.getSummary()).isEqualTo("Loan REJECTED: 2 out of 3 rules failed. "
+                + "Failed rules: MAX_AMOUNT, MIN_AGE. Credit score: 720.00, Loan amount: 80000");
+        assertThat(reasoning.getRuleEvaluations())
+                .extracting(DecisionReasoning.RuleEvaluation::getActualValue)
+                .containsExactly("720.00", "80000", "17");
+        assertThat(reasoning.getDecisionPath()).startsWith("1. Received credit bureau responses")
+                .contains("3. Evaluated MIN_SCORE: PASSED - CREDIT_SCORE 720.00 >= threshold 650.00 - Rule passed");
+        assertThat(reasoning.getCalculated().getCreditScoreRange()).isEqualTo("720 - 720");
+    }
+    
+    @Test
+    void preBureauRejectionOnlyExplainsBureauIndependentRules() {
+        DecisionRequest request = request("80000", "17");
+        RuleFacts facts = RuleFacts.from(request);
+        
+        DecisionReasoning reasoning = ReasoningRenderer.render(request, facts,
+                RULEBOOK.evaluateBureauIndependent(facts), "REJECTED");
+        
+        assertThat(reasoning.getSummary()).isEqualTo(
+                "Loan REJECTED before credit bureau checks. Failed rules: MAX_AMOUNT, MIN_AGE. Loan amount: 80000");
+        assertThat(reasoning.getRuleEvaluations())
+                .extracting(DecisionReasoning.RuleEvaluation::getRuleName)
+                .containsExactly("MAX_AMOUNT", "MIN_AGE");
+        assertThat(reasoning.getDecisionPath()).startsWith("1. Checked rules that do not depend on bureau data");
+    }
+    
+    @Test
+    void provisionalApprovalAwaitsTheLlmReview() {
+        DecisionRequest request = request("20000", "35", new BureauResponse("EXPERIAN", new BigDecimal("720"),
+                "SUCCESS", null, null));
+        RuleFacts facts = RuleFacts.from(request);
+        
+        assertThat(ReasoningRenderer.render(request, facts, RULEBOOK.evaluate(facts), ReasoningRenderer.PROVISIONAL)
+                .getSummary()).startsWith("Loan PROVISIONALLY APPROVED (pending LLM review): All 3 critical rules passed");
+    }
+    
+    private static DecisionRequest request(String loanAmount, String applicantAge, BureauResponse... responses) {
+        DecisionRequest request = new DecisionRequest("req-1", new BigDecimal(loanAmount), List.of(responses));
+        request.setApplicantAge(new BigDecimal(applicantAge));
+        return request;
+    }
+}
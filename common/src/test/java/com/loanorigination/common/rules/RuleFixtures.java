@@ -0,0 +1,27 @@
+package com.loanorigination.common.rules;
+
+import com.loanorigination.common.dto.RuleConfigurationDTO;
+
+import java.math.BigDecimal;
+
+/**
+ * Rule configurations for tests. Shared with the other modules' tests through common's test-jar.
+ */
+public final class RuleFixtures {
+    
+    private RuleFixtures() {
+    }
+    
+    /**
+     * An enabled rule described as "{@code name} rule", with the default priority and importance
+     */
+    public static RuleConfigurationDTO rule(String name, String type, String operator, String threshold) {
+        RuleConfigurationDTO rule = new RuleConfigurationDTO();
+        rule.setRuleName(name);
+        rule.setDescription(name + " rule");
+        rule.setRuleType(type);
+        rule.setOperator(operator);
+        rule.setThresholdValue(new BigDecimal(threshold));
+        return rule;
+    }
+}
@@ -0,0 +1,61 @@
+package com.loanorigination.common.rules;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.loanorigination.common.rules.RuleFixtures.rule;
+import static com.loanorigination.common.rules.RulebookTest.facts;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RuleOutcomesTest {
+    
+    private static final Rulebook RULEBOOK = Rulebook.compile("v1", List.of(
+            rule("MIN_SCORE", "CREDIT_SCORE", ">=", "650"),
+            rule("MAX_AMOUNT", "LOAN_AMOUNT", "<=", "50000"),
+            rule("MIN_BUREAUS", "BUREAU_RESPONSE", ">=", "1"),
+            rule("MIN_AGE", "AGE_LIMIT", ">=", "18")));
+    
+    @Test
+    void encodedOutcomesDecodeToTheSameOutcomes() {
+        RuleOutcomes outcomes = RULEBOOK.evaluate(facts("600", "20000", "2", "16"));
+        
+        RuleOutcomes decoded = RuleOutcomes.decode(RULEBOOK, outcomes.encode());
+        
+        assertThat(decoded.failedCount()).isEqualTo(2);
+        for (int i = 0; i < RULEBOOK.size(); i++) {
+            assertThat(decoded.passed(i)).isEqualTo(outcomes.passed(i));
+        }
+        assertThat(decoded.isPreBureau()).isFalse();
+    }
+    
+    @Test
+    void allPassedEncodesAsEmpty() {
+        RuleOutcomes outcomes = RULEBOOK.evaluate(facts("700", "20000", "2", "35"));
+        
+        assertThat(outcomes.encode()).isEmpty();
+        assertThat(RuleOutcomes.decode(RULEBOOK, "").allPassed()).isTrue();
+    }
+    
+    @Test
+    void preBureauOutcomesKeepWhichRulesWereEvaluated() {
+        RuleOutcomes outcomes = RULEBOOK.evaluateBureauIndependent(facts(null, "80000", null, "35"));
+        
+        RuleOutcomes decoded = RuleOutcomes.decode(RULEBOOK, outcomes.encode(), true);
+        
+        assertThat(decoded.firstFailure()).isEqualTo(1);
+        assertThat(decoded.evaluated(0)).isFalse();
+        assertThat(decoded.evaluated(3)).isTrue();
+    }
+    
+    @Test
+    void rejectsOutcomesOfALargerRulebook() {
+        Rulebook smaller = Rulebook.compile("v0", List.of(rule("MIN_SCORE", "CREDIT_SCORE", ">=", "650")));
+        String encoded = RULEBOOK.evaluate(facts("700", "20000", "2", "16")).encode();
+        
+        assertThatThrownBy(() -> RuleOutcomes.decode(smaller, encoded))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("v0");
+    }
+}
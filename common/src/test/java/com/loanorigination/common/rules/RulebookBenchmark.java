@@ -0,0 +1,90 @@
+package com.loanorigination.common.rules;
+
+import com.loanorigination.common.dto.RuleConfigurationDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of evaluating the rules for one request with synthetic rulebooks of 3, 50 and 500
+ * rules. The synthetic rules all pass, so every rule is evaluated. Compares a decision pass
+ * followed by a second pass for the reasoning, as decisions used to be made, with the single
+ * pass that fills the outcome vector. Run with
+ * {@code mvn -pl common -Pbenchmark test-compile exec:exec -Dbenchmark=RulebookBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class RulebookBenchmark {
+    
+    @Param({"3", "50", "500"})
+    private int size;
+    
+    private Rulebook rulebook;
+    private RuleFacts facts;
+    
+    @Setup
+    public void compile() {
+        rulebook = Rulebook.compile("benchmark-" + size, passingRules(size));
+        facts = new RuleFacts(new BigDecimal("720.00"), new BigDecimal("25000"), BigDecimal.valueOf(2),
+                new BigDecimal("35"));
+    }
+    
+    @Benchmark
+    public void decisionThenReasoningPass(Blackhole blackhole) {
+        blackhole.consume(rulebook.firstFailure(facts));
+        blackhole.consume(rulebook.evaluate(facts));
+    }
+    
+    @Benchmark
+    public RuleOutcomes singlePass() {
+        return rulebook.evaluate(facts);
+    }
+    
+    private static List<RuleConfigurationDTO> passingRules(int size) {
+        RuleType[] types = RuleType.values();
+        List<RuleConfigurationDTO> rules = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            RuleType type = types[i % types.length];
+            RuleConfigurationDTO rule = new RuleConfigurationDTO();
+            rule.setId((long) i);
+            rule.setRuleName("BENCHMARK_" + type + "_" + i);
+            rule.setRuleType(type.name());
+            rule.setOperator(type == RuleType.LOAN_AMOUNT ? "<=" : ">=");
+            rule.setThresholdValue(thresholdFor(type));
+            rule.setPriority(i);
+            rules.add(rule);
+        }
+        return rules;
+    }
+    
+    private static BigDecimal thresholdFor(RuleType type) {
+        switch (type) {
+            case CREDIT_SCORE:
+                return new BigDecimal("600");
+            case LOAN_AMOUNT:
+                return new BigDecimal("100000");
+            case BUREAU_RESPONSE:
+                return BigDecimal.ONE;
+            default:
+                return new BigDecimal("18");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.loanorigination.common.rules;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.loanorigination.common.rules.RuleFixtures.rule;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RulebookTest {
+    
+    private static final Rulebook RULEBOOK = Rulebook.compile("v1", List.of(
+            rule("MIN_SCORE", "CREDIT_SCORE", ">=", "650"),
+            rule("MAX_AMOUNT", "LOAN_AMOUNT", "<=", "50000"),
+            rule("UNKNOWN_TYPE", "INCOME", ">=", "1"),
+            rule("MIN_BUREAUS", "BUREAU_RESPONSE", ">=", "1"),
+            rule("MIN_AGE", "AGE_LIMIT", ">=", "18")));
+    
+    @Test
+    void compileSkipsRulesWithUnknownTypeOrOperator() {
+        Rulebook rulebook = Rulebook.compile("v2", List.of(
+                rule("MIN_SCORE", "CREDIT_SCORE", ">=", "650"),
+                rule("BAD_OPERATOR", "LOAN_AMOUNT", "=>", "50000")));
+        
+        assertThat(rulebook.size()).isEqualTo(1);
+        assertThat(rulebook.rule(0).getRuleName()).isEqualTo("MIN_SCORE");
+        assertThat(RULEBOOK.size()).isEqualTo(4);
+        assertThat(RULEBOOK.getVersion()).isEqualTo("v1");
+    }
+    
+    @Test
+    void evaluateRecordsEveryFailedRule() {
+        RuleOutcomes outcomes = RULEBOOK.evaluate(facts("600", "80000", "2", "35"));
+        
+        assertThat(outcomes.allPassed()).isFalse();
+        assertThat(outcomes.failedCount()).isEqualTo(2);
+        assertThat(outcomes.passed(0)).isFalse();
+        assertThat(outcomes.passed(1)).isFalse();
+        assertThat(outcomes.passed(2)).isTrue();
+        assertThat(outcomes.firstFailure()).isEqualTo(0);
+    }
+    
+    @Test
+    void firstFailureStopsAtTheFirstFailedRuleInPriorityOrder() {
+        assertThat(RULEBOOK.firstFailure(facts("700", "80000", "0", "35"))).isEqualTo(1);
+        assertThat(RULEBOOK.firstFailure(facts("700", "20000", "2", "35"))).isEqualTo(Rulebook.NONE_FAILED);
+        assertThat(RULEBOOK.evaluate(facts("700", "20000", "2", "35")).allPassed()).isTrue();
+    }
+    
+    @Test
+    void missingValueFailsTheRule() {
+        RuleOutcomes outcomes = RULEBOOK.evaluate(facts("700", "20000", "2", null));
+        
+        assertThat(outcomes.failedCount()).isEqualTo(1);
+        assertThat(outcomes.passed(3)).isFalse();
+    }
+    
+    @Test
+    void bureauIndependentEvaluationSkipsBureauRules() {
+        RuleOutcomes outcomes = RULEBOOK.evaluateBureauIndependent(facts(null, "80000", null, "35"));
+        
+        assertThat(outcomes.isPreBureau()).isTrue();
+        assertThat(outcomes.evaluated(0)).isFalse();
+        assertThat(outcomes.evaluated(2)).isFalse();
+        assertThat(outcomes.evaluated(1)).isTrue();
+        assertThat(outcomes.firstFailure()).isEqualTo(1);
+        assertThat(outcomes.failedCount()).isEqualTo(1);
+    }
+    
+    @Test
+    void generatesFailureReasonWhenNoneIsConfigured() {
+        assertThat(RULEBOOK.rule(0).getFailureReason()).isEqualTo("Rule 'MIN_SCORE' failed: MIN_SCORE rule");
+    }
+    
+    static RuleFacts facts(String averageScore, String loanAmount, String successfulBureaus, String applicantAge) {
+        return new RuleFacts(decimal(averageScore), decimal(loanAmount), decimal(successfulBureaus),
+                decimal(applicantAge));
+    }
+    
+    private static BigDecimal decimal(String value) {
+        return value == null ? null : new BigDecimal(value);
+    }
+}
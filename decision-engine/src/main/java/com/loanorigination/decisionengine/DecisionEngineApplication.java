@@ -1,11 +1,16 @@
 package com.loanorigination.decisionengine;
 
+import com.loanorigination.common.deadline.DeadlineFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@Import(DeadlineFilter.class)
 @EnableCaching
+@EnableScheduling
 public class DecisionEngineApplication {
     public static void main(String[] args) {
         SpringApplication.run(DecisionEngineApplication.class, args);
@@ -3,23 +3,38 @@ package com.loanorigination.decisionengine.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import org.springframework.cache.CacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
 
+/**
+ * Caches are two-tier: a Caffeine L1 per instance in front of the shared Redis L2, with
+ * evictions broadcast over Redis pub/sub
+ */
 @Configuration
 public class RedisConfig {
     
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public TwoTierCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                            StringRedisTemplate redisTemplate,
+                                            ApplicationEventPublisher eventPublisher,
+                                            MeterRegistry meterRegistry,
+                                            @Value("${cache.invalidation.channel:decision-engine:cache-invalidation}") String channel,
+                                            @Value("${cache.l1.maximum-size:10000}") long l1MaximumSize,
+                                            @Value("${cache.l1.expire-after-write:30s}") Duration l1ExpireAfterWrite) {
         // Configure ObjectMapper to handle Java 8 date/time types
         // and preserve type information for proper deserialization
         ObjectMapper objectMapper = new ObjectMapper();
@@ -38,9 +53,24 @@ public class RedisConfig {
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer));
         
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
                 .build();
+        redisCacheManager.initializeCaches();
+        
+        return new TwoTierCacheManager(redisCacheManager, redisTemplate, eventPublisher, meterRegistry,
+                channel, l1MaximumSize, l1ExpireAfterWrite);
+    }
+    
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListener(
+            RedisConnectionFactory connectionFactory,
+            TwoTierCacheManager cacheManager,
+            @Value("${cache.invalidation.channel:decision-engine:cache-invalidation}") String channel) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(channel));
+        return container;
     }
 }
 
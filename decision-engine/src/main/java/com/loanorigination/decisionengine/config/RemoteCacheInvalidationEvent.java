@@ -0,0 +1,7 @@
+package com.loanorigination.decisionengine.config;
+
+/**
+ * Published when another instance evicts a key from a cache, or clears it when the key is null
+ */
+public record RemoteCacheInvalidationEvent(String cacheName, String key) {
+}
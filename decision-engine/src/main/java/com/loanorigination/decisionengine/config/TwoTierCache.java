@@ -0,0 +1,142 @@
+package com.loanorigination.decisionengine.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/**
+ * A cache whose reads are served from a bounded in-process L1 when possible and from the shared
+ * Redis L2 otherwise. Evictions and clears apply to both tiers and are broadcast, so the other
+ * instances drop the entries from their L1 as well. Inside a transaction they are applied to
+ * both tiers again after commit, as a concurrent read may have cached the old value meanwhile.
+ */
+class TwoTierCache implements Cache {
+    
+    private final String name;
+    private final Cache l2;
+    private final com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> l1;
+    private final TwoTierCacheManager cacheManager;
+    
+    TwoTierCache(String name, Cache l2, com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> l1,
+                 TwoTierCacheManager cacheManager) {
+        this.name = name;
+        this.l2 = l2;
+        this.l1 = l1;
+        this.cacheManager = cacheManager;
+    }
+    
+    @Override
+    public String getName() {
+        return name;
+    }
+    
+    @Override
+    public Object getNativeCache() {
+        return l2.getNativeCache();
+    }
+    
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        ValueWrapper local = l1.getIfPresent(localKey);
+        if (local != null) {
+            return local;
+        }
+        ValueWrapper shared = l2.get(key);
+        if (shared != null) {
+            l1.put(localKey, new SimpleValueWrapper(shared.get()));
+        }
+        return shared;
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value = l2.get(key, valueLoader);
+        l1.put(localKey(key), new SimpleValueWrapper(value));
+        return value;
+    }
+    
+    @Override
+    public void put(Object key, Object value) {
+        l2.put(key, value);
+        l1.put(localKey(key), new SimpleValueWrapper(value));
+    }
+    
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = l2.putIfAbsent(key, value);
+        l1.put(localKey(key), new SimpleValueWrapper(existing != null ? existing.get() : value));
+        return existing;
+    }
+    
+    @Override
+    public void evict(Object key) {
+        evictBoth(key);
+        cacheManager.broadcast(name, localKey(key), () -> evictBoth(key));
+    }
+    
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = l2.evictIfPresent(key);
+        evictLocal(localKey(key));
+        cacheManager.broadcast(name, localKey(key), () -> evictBoth(key));
+        return evicted;
+    }
+    
+    @Override
+    public void clear() {
+        clearBoth();
+        cacheManager.broadcast(name, null, this::clearBoth);
+    }
+    
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = l2.invalidate();
+        clearLocal();
+        cacheManager.broadcast(name, null, this::clearBoth);
+        return invalidated;
+    }
+    
+    private void evictBoth(Object key) {
+        l2.evict(key);
+        evictLocal(localKey(key));
+    }
+    
+    private void clearBoth() {
+        l2.clear();
+        clearLocal();
+    }
+    
+    void evictLocal(String localKey) {
+        l1.invalidate(localKey);
+    }
+    
+    void clearLocal() {
+        l1.invalidateAll();
+    }
+    
+    /**
+     * L1 entries are keyed like the Redis entries, by the key's string form, so an eviction
+     * received from another instance matches the same entries
+     */
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,149 @@
+package com.loanorigination.decisionengine.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache manager that puts a Caffeine L1 in front of each cache of the Redis cache manager.
+ * Evictions are published on a Redis channel; every other instance drops the evicted entries
+ * from its L1 and publishes a {@link RemoteCacheInvalidationEvent}. The L1 time to live bounds
+ * how long an instance can serve a stale entry if it misses a message.
+ */
+public class TwoTierCacheManager implements CacheManager, MessageListener {
+    
+    private static final Logger log = LoggerFactory.getLogger(TwoTierCacheManager.class);
+    
+    private final CacheManager l2;
+    private final StringRedisTemplate redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String channel;
+    private final long l1MaximumSize;
+    private final Duration l1ExpireAfterWrite;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    
+    public TwoTierCacheManager(CacheManager l2,
+                               StringRedisTemplate redisTemplate,
+                               ApplicationEventPublisher eventPublisher,
+                               MeterRegistry meterRegistry,
+                               String channel,
+                               long l1MaximumSize,
+                               Duration l1ExpireAfterWrite) {
+        if (l1MaximumSize < 1) {
+            throw new IllegalArgumentException("cache.l1.maximum-size must be at least 1");
+        }
+        this.l2 = l2;
+        this.redisTemplate = redisTemplate;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.channel = channel;
+        this.l1MaximumSize = l1MaximumSize;
+        this.l1ExpireAfterWrite = l1ExpireAfterWrite;
+    }
+    
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+    
+    @Override
+    public Collection<String> getCacheNames() {
+        return l2.getCacheNames();
+    }
+    
+    private TwoTierCache createCache(String name) {
+        com.github.benmanes.caffeine.cache.Cache<String, Cache.ValueWrapper> l1 = Caffeine.newBuilder()
+                .maximumSize(l1MaximumSize)
+                .expireAfterWrite(l1ExpireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, l1, name, "tier", "l1");
+        return new TwoTierCache(name, l2.getCache(name), l1, this);
+    }
+    
+    /**
+     * Tells the other instances to evict a key, or clear the cache when the key is null. Inside
+     * a transaction the message is sent after commit, so they reload committed data, and
+     * {@code evictAgain} runs first: a read on this instance before the commit may have cached
+     * the old value again.
+     */
+    void broadcast(String cacheName, String key, Runnable evictAgain) {
+        String message;
+        try {
+            message = objectMapper.writeValueAsString(new Invalidation(instanceId, cacheName, key));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode cache invalidation", e);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAgain.run();
+                    send(message);
+                }
+            });
+        } else {
+            send(message);
+        }
+    }
+    
+    private void send(String message) {
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (RuntimeException e) {
+            log.warn("Could not publish cache invalidation; other instances expire it from L1 after {}: {}",
+                    l1ExpireAfterWrite, e.getMessage());
+        }
+    }
+    
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Invalidation invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), Invalidation.class);
+        } catch (IOException e) {
+            log.warn("Ignoring malformed cache invalidation: {}", new String(message.getBody(), StandardCharsets.UTF_8));
+            return;
+        }
+        if (instanceId.equals(invalidation.origin())) {
+            return;
+        }
+        
+        TwoTierCache cache = caches.get(invalidation.cache());
+        if (cache != null) {
+            if (invalidation.key() == null) {
+                cache.clearLocal();
+            } else {
+                cache.evictLocal(invalidation.key());
+            }
+        }
+        log.debug("Cache {} invalidated by another instance (key {})", invalidation.cache(), invalidation.key());
+        eventPublisher.publishEvent(new RemoteCacheInvalidationEvent(invalidation.cache(), invalidation.key()));
+    }
+    
+    private record Invalidation(String origin, String cache, String key) {
+    }
+}
@@ -12,8 +12,11 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequestMapping("/api/decision")
@@ -32,29 +35,96 @@ public class DecisionController {
     @Operation(
             summary = "Evaluate loan decision",
             description = "Evaluates a loan application based on credit bureau responses and loan amount, " +
-                          "returning a decision with detailed reasoning. " +
+                          "returning the decision, credit score and reason. Detailed reasoning is included with " +
+                          "includeReasoning=true, or can be fetched later from /reasoning/{requestId}. " +
                           "Supports multiple decision modes: 'rules' (rule-based only), 'llm' (LLM-based only), " +
-                          "or 'hybrid' (both must agree). The decision mode is configured via 'decision.mode' property."
+                          "'hybrid' (both must agree) or 'tiered' (rule decision now, PROVISIONAL if the rules pass " +
+                          "and finalized by a background LLM review). The decision mode is configured via 'decision.mode' property. " +
+                          "Accepts and returns JSON, or CBOR (application/cbor) for the orchestrator."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Decision evaluated successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid request"),
             @ApiResponse(responseCode = "503", description = "LLM service unavailable (if LLM mode is enabled)")
     })
-    @PostMapping("/evaluate")
+    @PostMapping(value = "/evaluate",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public ResponseEntity<DecisionResult> evaluate(
             @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     description = "Loan decision request with credit bureau responses, loan amount, and optional financial data (income, debt, cashflow)",
                     required = true
             )
-            @RequestBody DecisionRequest request) {
-        DecisionResult result = hybridDecisionService.evaluate(request);
+            @RequestBody DecisionRequest request,
+            @Parameter(description = "Include the detailed rule reasoning in the result", example = "false")
+            @RequestParam(name = "includeReasoning", defaultValue = "false") boolean includeReasoning) {
+        DecisionResult result = hybridDecisionService.evaluate(request, includeReasoning);
+        return ResponseEntity.ok(result);
+    }
+    
+    @Operation(
+            summary = "Record pre-bureau rejection",
+            description = "Records an application the orchestrator rejected on rules that do not depend on bureau " +
+                          "data, such as loan amount or age limits, so its decision and reasoning can be retrieved. " +
+                          "The request carries no bureau responses. Recording the same request ID again returns " +
+                          "the stored decision."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rejection recorded")
+    })
+    @PostMapping(value = "/pre-bureau-rejections",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<DecisionResult> recordPreBureauRejection(
+            @RequestBody DecisionRequest request,
+            @Parameter(description = "Rule set version the orchestrator rejected with", example = "3f9a1c0b7d2e4a51")
+            @RequestParam(name = "ruleSetVersion", required = false) String ruleSetVersion) {
+        return ResponseEntity.ok(decisionService.recordPreBureauRejection(request, ruleSetVersion));
+    }
+    
+    @Operation(
+            summary = "Record in-process decision",
+            description = "Records a decision the orchestrator made on the rules alone, in its in-process " +
+                          "decision mode, so its decision and reasoning can be retrieved. Recording the same " +
+                          "request ID again returns the stored decision."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Decision recorded")
+    })
+    @PostMapping(value = "/in-process-decisions",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<DecisionResult> recordInProcessDecision(
+            @RequestBody DecisionRequest request,
+            @Parameter(description = "Rule set version the orchestrator decided with", example = "3f9a1c0b7d2e4a51")
+            @RequestParam(name = "ruleSetVersion", required = false) String ruleSetVersion) {
+        return ResponseEntity.ok(decisionService.recordInProcessDecision(request, ruleSetVersion));
+    }
+    
+    @Operation(
+            summary = "Get decision",
+            description = "Returns the current decision for a request. In tiered mode a PROVISIONAL decision " +
+                          "changes to APPROVED or REJECTED once the LLM review completes."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Decision found"),
+            @ApiResponse(responseCode = "404", description = "Decision not found for the given request ID")
+    })
+    @GetMapping("/{requestId}")
+    public ResponseEntity<DecisionResult> getDecision(
+            @Parameter(description = "Request ID of the decision", required = true)
+            @PathVariable String requestId) {
+        DecisionResult result = decisionService.getDecision(requestId);
+        if (result == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Decision not found for request: " + requestId);
+        }
         return ResponseEntity.ok(result);
     }
     
     @Operation(
             summary = "Get decision reasoning",
-            description = "Retrieves detailed reasoning explaining how a decision was made for a given request ID. " +
+            description = "Retrieves detailed reasoning explaining how a decision was made for a given request ID, " +
+                          "rendered from the rule outcomes stored with the decision. " +
                           "Includes rule evaluations, input values, calculated metrics, and decision path. " +
                           "Works for both rule-based and LLM-based decisions."
     )
@@ -1,8 +1,10 @@
 package com.loanorigination.decisionengine.controller;
 
 import com.loanorigination.common.dto.RuleConfigurationDTO;
+import com.loanorigination.common.dto.RuleSnapshotDTO;
 import com.loanorigination.decisionengine.service.RuleConfigurationService;
 import com.loanorigination.decisionengine.service.RuleInferenceService;
+import com.loanorigination.decisionengine.service.RuleSnapshotService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,8 +12,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -22,11 +27,14 @@ public class RuleConfigurationController {
     
     private final RuleConfigurationService ruleConfigurationService;
     private final RuleInferenceService ruleInferenceService;
+    private final RuleSnapshotService ruleSnapshotService;
     
     public RuleConfigurationController(RuleConfigurationService ruleConfigurationService,
-                                       RuleInferenceService ruleInferenceService) {
+                                       RuleInferenceService ruleInferenceService,
+                                       RuleSnapshotService ruleSnapshotService) {
         this.ruleConfigurationService = ruleConfigurationService;
         this.ruleInferenceService = ruleInferenceService;
+        this.ruleSnapshotService = ruleSnapshotService;
     }
     
     @Operation(
@@ -39,6 +47,35 @@ public class RuleConfigurationController {
         return ResponseEntity.ok(ruleConfigurationService.getAllRules());
     }
     
+    @Operation(
+            summary = "Get active rule snapshot",
+            description = "Retrieves the active rules with a content-derived version. The version is returned as the ETag, "
+                    + "so clients can poll with If-None-Match and only download the rules when they change."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Snapshot retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Rules unchanged since the version in If-None-Match")
+    })
+    @GetMapping("/snapshot")
+    public ResponseEntity<RuleSnapshotDTO> getSnapshot(WebRequest webRequest) {
+        RuleSnapshotDTO snapshot = ruleSnapshotService.getSnapshot();
+        if (webRequest.checkNotModified(snapshot.getVersion())) {
+            return null;
+        }
+        return ResponseEntity.ok(snapshot);
+    }
+    
+    @Operation(
+            summary = "Subscribe to rule changes",
+            description = "Server-sent event stream that emits a 'rules-changed' event carrying the new snapshot version "
+                    + "whenever a rule is created, updated, toggled or deleted"
+    )
+    @ApiResponse(responseCode = "200", description = "Change stream opened")
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToChanges() {
+        return ruleSnapshotService.subscribe();
+    }
+    
     @Operation(
             summary = "Get rule by ID",
             description = "Retrieves a specific rule by its ID"
@@ -134,4 +171,3 @@ public class RuleConfigurationController {
         return ResponseEntity.ok(result);
     }
 }
-
@@ -35,6 +35,26 @@ public class Decision {
     @Column(nullable = false)
     private LocalDateTime timestamp;
     
+    // Set when a provisional decision is finalized after the LLM review
+    private LocalDateTime finalizedAt;
+    
+    // When an instance last took on the LLM review of a provisional decision
+    private LocalDateTime reviewClaimedAt;
+    
+    // Version of the rule set the decision was evaluated with (see RuleSetVersion), which of
+    // its rules failed, and the request's rule inputs as CBOR
+    @Column(length = 16)
+    private String ruleSetVersion;
+    
+    @Column(length = 1024)
+    private String ruleOutcomes;
+    
+    @Column(length = 4096)
+    private byte[] inputs;
+    
+    // Set when the orchestrator rejected the application before any bureau call
+    private Boolean preBureau;
+    
     // Explicit getters for Lombok compatibility
     public String getRequestId() {
         return requestId;
@@ -60,6 +80,30 @@ public class Decision {
         return timestamp;
     }
     
+    public LocalDateTime getFinalizedAt() {
+        return finalizedAt;
+    }
+    
+    public LocalDateTime getReviewClaimedAt() {
+        return reviewClaimedAt;
+    }
+    
+    public String getRuleSetVersion() {
+        return ruleSetVersion;
+    }
+    
+    public String getRuleOutcomes() {
+        return ruleOutcomes;
+    }
+    
+    public byte[] getInputs() {
+        return inputs;
+    }
+    
+    public boolean isPreBureau() {
+        return Boolean.TRUE.equals(preBureau);
+    }
+    
     // Explicit setters for Lombok compatibility
     public void setRequestId(String requestId) {
         this.requestId = requestId;
@@ -84,5 +128,29 @@ public class Decision {
     public void setTimestamp(LocalDateTime timestamp) {
         this.timestamp = timestamp;
     }
+    
+    public void setFinalizedAt(LocalDateTime finalizedAt) {
+        this.finalizedAt = finalizedAt;
+    }
+    
+    public void setReviewClaimedAt(LocalDateTime reviewClaimedAt) {
+        this.reviewClaimedAt = reviewClaimedAt;
+    }
+    
+    public void setRuleSetVersion(String ruleSetVersion) {
+        this.ruleSetVersion = ruleSetVersion;
+    }
+    
+    public void setRuleOutcomes(String ruleOutcomes) {
+        this.ruleOutcomes = ruleOutcomes;
+    }
+    
+    public void setInputs(byte[] inputs) {
+        this.inputs = inputs;
+    }
+    
+    public void setPreBureau(Boolean preBureau) {
+        this.preBureau = preBureau;
+    }
 }
 
@@ -0,0 +1,57 @@
+package com.loanorigination.decisionengine.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An immutable set of active rules, keyed by its content-derived version. Decisions refer to
+ * the version they were evaluated with, so each distinct rule set is stored once.
+ */
+@Entity
+@Table(name = "rule_set_versions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RuleSetVersion {
+    @Id
+    @Column(length = 16)
+    private String version;
+    
+    // The active rule configurations in priority order, as JSON
+    @Lob
+    @Column(nullable = false)
+    private String rules;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Explicit getters for Lombok compatibility
+    public String getVersion() {
+        return version;
+    }
+    
+    public String getRules() {
+        return rules;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    // Explicit setters for Lombok compatibility
+    public void setVersion(String version) {
+        this.version = version;
+    }
+    
+    public void setRules(String rules) {
+        this.rules = rules;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -3,8 +3,12 @@ package com.loanorigination.decisionengine.repository;
 import com.loanorigination.decisionengine.entity.Decision;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,5 +16,28 @@ import java.util.Optional;
 public interface DecisionRepository extends JpaRepository<Decision, Long> {
     Optional<Decision> findByRequestId(String requestId);
     List<Decision> findAllByOrderByTimestampDesc(Pageable pageable);
+    
+    @Query("select d from Decision d where d.decision = 'PROVISIONAL' "
+            + "and (d.reviewClaimedAt is null or d.reviewClaimedAt < :claimedBefore) order by d.timestamp asc")
+    List<Decision> findProvisionalClaimedBefore(@Param("claimedBefore") LocalDateTime claimedBefore, Pageable pageable);
+    
+    /**
+     * Claims the review of a provisional decision whose last claim is older than claimedBefore;
+     * 1 if this caller got it, 0 if another did first or the decision is already final
+     */
+    @Modifying
+    @Query("update Decision d set d.reviewClaimedAt = :claimedAt where d.requestId = :requestId "
+            + "and d.decision = 'PROVISIONAL' and (d.reviewClaimedAt is null or d.reviewClaimedAt < :claimedBefore)")
+    int claimReview(@Param("requestId") String requestId, @Param("claimedAt") LocalDateTime claimedAt,
+                    @Param("claimedBefore") LocalDateTime claimedBefore);
+    
+    /**
+     * Finalizes a decision only while it is still provisional; 1 if it was, 0 otherwise
+     */
+    @Modifying
+    @Query("update Decision d set d.decision = :decision, d.reason = :reason, d.finalizedAt = :finalizedAt "
+            + "where d.requestId = :requestId and d.decision = 'PROVISIONAL'")
+    int finalizeProvisional(@Param("requestId") String requestId, @Param("decision") String decision,
+                            @Param("reason") String reason, @Param("finalizedAt") LocalDateTime finalizedAt);
 }
 
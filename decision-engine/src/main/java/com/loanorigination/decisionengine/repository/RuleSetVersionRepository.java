@@ -0,0 +1,9 @@
+package com.loanorigination.decisionengine.repository;
+
+import com.loanorigination.decisionengine.entity.RuleSetVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RuleSetVersionRepository extends JpaRepository<RuleSetVersion, String> {
+}
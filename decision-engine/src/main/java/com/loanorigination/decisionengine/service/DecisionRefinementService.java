@@ -0,0 +1,304 @@
+package com.loanorigination.decisionengine.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loanorigination.common.callback.CallbackSignature;
+import com.loanorigination.common.dto.DecisionRequest;
+import com.loanorigination.common.dto.DecisionResult;
+import com.loanorigination.decisionengine.entity.Decision;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.util.retry.Retry;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tiered decisions: an application that passes the rules gets a PROVISIONAL answer straight
+ * away, while the LLM review runs in the background. The review's verdict finalizes the
+ * stored decision and is posted, signed, to the configured callback URL, if there is one.
+ * Reviews are only queued in memory, so a periodic sweep re-queues PROVISIONAL decisions whose
+ * review is overdue, such as those dropped by a restart. Every instance sweeps, so a review is
+ * claimed in the database before it is queued, and only the first review to finalize a
+ * decision sends the callback.
+ */
+@Service
+public class DecisionRefinementService {
+    
+    private static final Logger log = LoggerFactory.getLogger(DecisionRefinementService.class);
+    private static final int RECOVERY_BATCH_SIZE = 100;
+    
+    private final DecisionService decisionService;
+    private final LLMDecisionService llmService;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper;
+    private final WebClient callbackClient;
+    private final String callbackSecret;
+    private final Duration callbackTimeout;
+    private final Duration staleAfter;
+    private final Duration shutdownTimeout;
+    private final Timer refinementTimer;
+    // Request ids queued or under review on this instance
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    
+    public DecisionRefinementService(DecisionService decisionService,
+                                     LLMDecisionService llmService,
+                                     MeterRegistry meterRegistry,
+                                     ObjectMapper objectMapper,
+                                     WebClient.Builder webClientBuilder,
+                                     @Value("${decision.tiered.workers:4}") int workers,
+                                     @Value("${decision.tiered.queue-capacity:500}") int queueCapacity,
+                                     @Value("${decision.tiered.callback-url:}") String callbackUrl,
+                                     @Value("${decision.tiered.callback-secret:}") String callbackSecret,
+                                     @Value("${decision.tiered.callback-timeout:5s}") Duration callbackTimeout,
+                                     @Value("${decision.tiered.recovery.stale-after:15m}") Duration staleAfter,
+                                     @Value("${decision.tiered.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        this.decisionService = decisionService;
+        this.llmService = llmService;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.callbackTimeout = callbackTimeout;
+        this.staleAfter = staleAfter;
+        this.shutdownTimeout = shutdownTimeout;
+        if (callbackUrl == null || callbackUrl.isBlank()) {
+            this.callbackClient = null;
+            this.callbackSecret = null;
+        } else {
+            if (callbackSecret == null || callbackSecret.isBlank()) {
+                throw new IllegalArgumentException(
+                        "decision.tiered.callback-secret must be set when decision.tiered.callback-url is");
+            }
+            this.callbackClient = webClientBuilder.clone().baseUrl(callbackUrl).build();
+            this.callbackSecret = callbackSecret;
+        }
+        this.refinementTimer = meterRegistry.timer("decision.tiered.refinement.duration");
+        
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "llm-refinement-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "decision.tiered.refinement");
+    }
+    
+    /**
+     * Queues the LLM review of a decision the rules stored as PROVISIONAL. If the review queue
+     * is full the rules' approval is final.
+     */
+    public DecisionResult review(DecisionRequest request, DecisionResult provisionalResult, BigDecimal averageScore) {
+        if (!enqueue(request, provisionalResult, averageScore)) {
+            log.warn("LLM review queue full; rule decision for request {} is final", request.getRequestId());
+            decisionService.finalizeDecision(request.getRequestId(), "APPROVED", DecisionService.RULES_PASSED);
+            meterRegistry.counter("decision.tiered.finalized", "outcome", "skipped").increment();
+            provisionalResult.setDecision("APPROVED");
+            provisionalResult.setReason(DecisionService.RULES_PASSED);
+            return provisionalResult;
+        }
+        meterRegistry.counter("decision.tiered.provisional").increment();
+        return provisionalResult;
+    }
+    
+    /**
+     * Re-queues the review of PROVISIONAL decisions whose review was last claimed longer ago
+     * than the stale-after period, claiming each first so no other instance queues it too.
+     * A decision stored without its inputs cannot be reviewed, so the rules' approval is made
+     * final. Stops when the review queue is full; the rest are picked up by the next sweep, and
+     * a decision claimed but turned away by the full queue once its claim is stale.
+     */
+    @Scheduled(initialDelayString = "${decision.tiered.recovery.interval-ms:60000}",
+            fixedDelayString = "${decision.tiered.recovery.interval-ms:60000}")
+    public void recoverStaleReviews() {
+        LocalDateTime claimedBefore = LocalDateTime.now().minus(staleAfter);
+        List<Decision> stale;
+        try {
+            stale = decisionService.getProvisionalDecisions(claimedBefore, RECOVERY_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            log.warn("Could not look up stale provisional decisions: {}", e.getMessage());
+            return;
+        }
+        
+        for (Decision decision : stale) {
+            String requestId = decision.getRequestId();
+            if (pending.contains(requestId) || !claim(requestId, claimedBefore)) {
+                continue;
+            }
+            if (decision.getInputs() == null) {
+                log.warn("Provisional decision for request {} has no stored inputs; rule decision is final", requestId);
+                decisionService.finalizeDecision(requestId, "APPROVED", DecisionService.RULES_PASSED);
+                meterRegistry.counter("decision.tiered.finalized", "outcome", "unrecoverable").increment();
+                continue;
+            }
+            
+            DecisionRequest request = StoredInputs.decode(decision.getInputs()).toRequest(requestId);
+            DecisionResult provisionalResult = new DecisionResult();
+            provisionalResult.setRequestId(requestId);
+            provisionalResult.setDecision(decision.getDecision());
+            provisionalResult.setCreditScore(decision.getCreditScore());
+            provisionalResult.setReason(decision.getReason());
+            provisionalResult.setTimestamp(decision.getTimestamp());
+            if (!enqueue(request, provisionalResult, decision.getCreditScore())) {
+                log.info("LLM review queue full; leaving remaining stale provisional decisions to the next sweep");
+                return;
+            }
+            log.info("Re-queued overdue LLM review for request {}", requestId);
+            meterRegistry.counter("decision.tiered.recovered").increment();
+        }
+    }
+    
+    private boolean claim(String requestId, LocalDateTime claimedBefore) {
+        try {
+            return decisionService.claimReview(requestId, claimedBefore);
+        } catch (RuntimeException e) {
+            log.warn("Could not claim the review of request {}: {}", requestId, e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Queues a review unless one is already pending for the request; false if the queue is full
+     */
+    private boolean enqueue(DecisionRequest request, DecisionResult provisionalResult, BigDecimal averageScore) {
+        String requestId = request.getRequestId();
+        if (!pending.add(requestId)) {
+            return true;
+        }
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                try {
+                    refine(request, provisionalResult, averageScore, queuedAt);
+                } finally {
+                    pending.remove(requestId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            pending.remove(requestId);
+            return false;
+        }
+    }
+    
+    private void refine(DecisionRequest request, DecisionResult ruleResult, BigDecimal averageScore, long queuedAt) {
+        String decision;
+        String reason;
+        String outcome;
+        try {
+            DecisionResult llmResult = llmService.evaluateWithLLM(request, averageScore);
+            if ("APPROVED".equals(llmResult.getDecision())) {
+                decision = "APPROVED";
+                reason = "Both rule-based and LLM evaluations approved the loan";
+                outcome = "confirmed";
+            } else {
+                decision = "REJECTED";
+                reason = "Loan rejected: LLM evaluation failed. Rule reason: " + DecisionService.RULES_PASSED
+                        + " LLM reason: " + llmResult.getReason();
+                outcome = "flipped";
+            }
+        } catch (Exception e) {
+            log.error("LLM review failed for request {}. Keeping the rule-based decision: {}",
+                    request.getRequestId(), e.getMessage());
+            decision = "APPROVED";
+            reason = DecisionService.RULES_PASSED;
+            outcome = "llm_failed";
+        }
+        
+        try {
+            if (!decisionService.finalizeDecision(request.getRequestId(), decision, reason)) {
+                log.info("Decision for request {} was already finalized by another review; no callback sent",
+                        request.getRequestId());
+                meterRegistry.counter("decision.tiered.duplicates").increment();
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not finalize decision for request {}: {}", request.getRequestId(), e.getMessage());
+            return;
+        }
+        refinementTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("decision.tiered.finalized", "outcome", outcome).increment();
+        log.info("Provisional decision for request {} finalized as {} ({})", request.getRequestId(), decision, outcome);
+        
+        DecisionResult finalResult = new DecisionResult();
+        finalResult.setRequestId(request.getRequestId());
+        finalResult.setDecision(decision);
+        finalResult.setCreditScore(averageScore);
+        finalResult.setReason(reason);
+        finalResult.setTimestamp(LocalDateTime.now());
+        finalResult.setReasoning(ruleResult.getReasoning());
+        notifyCallback(finalResult);
+    }
+    
+    /**
+     * Posts the final decision to the callback URL without holding the review worker; delivery
+     * failures are retried a few times, then logged.
+     */
+    private void notifyCallback(DecisionResult finalResult) {
+        if (callbackClient == null) {
+            return;
+        }
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(finalResult);
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize final decision for request {}: {}", finalResult.getRequestId(), e.getMessage());
+            return;
+        }
+        callbackClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(CallbackSignature.HEADER, CallbackSignature.sign(callbackSecret, body))
+                .bodyValue(body)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(callbackTimeout)
+                .retryWhen(Retry.backoff(3, Duration.ofSeconds(1)))
+                .subscribe(
+                        response -> meterRegistry.counter("decision.tiered.callbacks", "result", "delivered").increment(),
+                        e -> {
+                            log.warn("Could not deliver final decision for request {}: {}",
+                                    finalResult.getRequestId(), e.getMessage());
+                            meterRegistry.counter("decision.tiered.callbacks", "result", "failed").increment();
+                        });
+    }
+    
+    /**
+     * Lets queued reviews finish within the shutdown timeout. Reviews still queued after that
+     * are dropped; their decisions stay PROVISIONAL until a recovery sweep re-queues them.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                int dropped = executor.shutdownNow().size();
+                log.warn("LLM reviews did not finish within {}; {} queued reviews left for the recovery sweep",
+                        shutdownTimeout, dropped);
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
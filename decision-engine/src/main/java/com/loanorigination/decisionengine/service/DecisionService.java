@@ -1,43 +1,77 @@
 package com.loanorigination.decisionengine.service;
 
-import com.loanorigination.common.dto.BureauResponse;
 import com.loanorigination.common.dto.DecisionRequest;
 import com.loanorigination.common.dto.DecisionReasoning;
 import com.loanorigination.common.dto.DecisionResult;
+import com.loanorigination.common.rules.RuleFacts;
+import com.loanorigination.common.rules.RuleOutcomes;
+import com.loanorigination.common.rules.Rulebook;
 import com.loanorigination.decisionengine.entity.Decision;
-import com.loanorigination.decisionengine.entity.RuleConfiguration;
 import com.loanorigination.decisionengine.repository.DecisionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class DecisionService {
     
     private static final Logger log = LoggerFactory.getLogger(DecisionService.class);
+    public static final String PROVISIONAL = "PROVISIONAL";
+    static final String RULES_PASSED = "All rules passed";
+    static final String PENDING_REVIEW = "All rules passed; final decision pending LLM review";
     
     private final DecisionRepository decisionRepository;
     private final ReasoningService reasoningService;
-    private final RuleConfigurationService ruleConfigurationService;
+    private final RuleSnapshotService ruleSnapshotService;
+    private final MeterRegistry meterRegistry;
     
     public DecisionService(DecisionRepository decisionRepository, 
                           ReasoningService reasoningService,
-                          RuleConfigurationService ruleConfigurationService) {
+                          RuleSnapshotService ruleSnapshotService,
+                          MeterRegistry meterRegistry) {
         this.decisionRepository = decisionRepository;
         this.reasoningService = reasoningService;
-        this.ruleConfigurationService = ruleConfigurationService;
+        this.ruleSnapshotService = ruleSnapshotService;
+        this.meterRegistry = meterRegistry;
     }
     
+    /**
+     * Rule-based decision, timed as the rules stage and tagged with the decision made. The
+     * rule outcomes are stored with the decision; the readable reasoning is only rendered when
+     * {@code includeReasoning} is set, and can be rendered later with {@link #getReasoning}.
+     */
+    @Transactional
+    public DecisionResult evaluate(DecisionRequest request, boolean includeReasoning) {
+        return evaluate(request, includeReasoning, false);
+    }
+    
+    /**
+     * Rule-based decision as above; with {@code provisional} set, an approval is stored and
+     * returned as PROVISIONAL until {@link #finalizeDecision} is called.
+     */
     @Transactional
-    public DecisionResult evaluate(DecisionRequest request) {
+    public DecisionResult evaluate(DecisionRequest request, boolean includeReasoning, boolean provisional) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            DecisionResult result = decide(request, includeReasoning, provisional);
+            outcome = result.getDecision();
+            return result;
+        } finally {
+            sample.stop(meterRegistry.timer("decision.stage.rules", "outcome", String.valueOf(outcome)));
+        }
+    }
+    
+    private DecisionResult decide(DecisionRequest request, boolean includeReasoning, boolean provisional) {
         log.info("Evaluating decision for request: {}", request.getRequestId());
         
         // Check cache first
@@ -45,28 +79,35 @@ public class DecisionService {
         if (cachedDecision != null) {
             log.info("Returning cached decision for request: {}", request.getRequestId());
             DecisionResult result = mapToDecisionResult(cachedDecision);
-            // Regenerate reasoning for cached decisions to ensure consistency
-            BigDecimal averageScore = cachedDecision.getCreditScore();
-            DecisionReasoning reasoning = reasoningService.generateReasoning(request, averageScore, cachedDecision.getDecision());
-            result.setReasoning(reasoning);
+            if (includeReasoning) {
+                // Explain the stored outcomes, or the current rules for decisions stored without them
+                RuleFacts facts = RuleFacts.from(request);
+                RuleOutcomes outcomes = storedOutcomes(cachedDecision);
+                if (outcomes == null) {
+                    outcomes = ruleSnapshotService.getRulebook().evaluate(facts);
+                }
+                result.setReasoning(reasoningService.generateReasoning(request, facts, outcomes, cachedDecision.getDecision()));
+            }
             return result;
         }
         
-        // Calculate average credit score from bureau responses
-        BigDecimal averageScore = calculateAverageScore(request.getBureauResponses());
+        // One pass over the compiled active rules decides; its outcomes feed the reasoning
+        RuleFacts facts = RuleFacts.from(request);
+        BigDecimal averageScore = facts.averageScore();
+        RuleOutcomes outcomes = ruleSnapshotService.getRulebook().evaluate(facts);
         
-        // Decision logic using dynamic rules
         String decision = "REJECTED";
-        String reason = evaluateRules(request, averageScore);
-        
-        if (reason == null || reason.isEmpty()) {
+        String reason;
+        if (outcomes.allPassed() && provisional) {
+            decision = PROVISIONAL;
+            reason = PENDING_REVIEW;
+        } else if (outcomes.allPassed()) {
             decision = "APPROVED";
-            reason = "All rules passed";
+            reason = RULES_PASSED;
+        } else {
+            reason = outcomes.getRulebook().rule(outcomes.firstFailure()).getFailureReason();
         }
         
-        // Generate detailed reasoning
-        DecisionReasoning reasoning = reasoningService.generateReasoning(request, averageScore, decision);
-        
         // Persist decision
         Decision decisionEntity = new Decision();
         decisionEntity.setRequestId(request.getRequestId());
@@ -75,36 +116,166 @@ public class DecisionService {
         decisionEntity.setLoanAmount(request.getLoanAmount());
         decisionEntity.setReason(reason);
         decisionEntity.setTimestamp(LocalDateTime.now());
+        decisionEntity.setRuleSetVersion(outcomes.getRulebook().getVersion());
+        decisionEntity.setRuleOutcomes(outcomes.encode());
+        decisionEntity.setInputs(StoredInputs.from(request).encode());
+        if (PROVISIONAL.equals(decision)) {
+            // Its review is queued on this instance right away
+            decisionEntity.setReviewClaimedAt(decisionEntity.getTimestamp());
+        }
         
         decisionRepository.save(decisionEntity);
         
         log.info("Decision made for request {}: {}", request.getRequestId(), decision);
-        log.debug("Decision reasoning: {}", reasoning.getSummary());
         
         DecisionResult result = mapToDecisionResult(decisionEntity);
-        result.setReasoning(reasoning);
+        if (includeReasoning) {
+            result.setReasoning(reasoningService.generateReasoning(request, facts, outcomes, decision));
+        }
         
         return result;
     }
     
+    /**
+     * Records an application the orchestrator rejected on bureau-independent rules, so its
+     * decision and reasoning can be looked up like any other. The rules are evaluated with the
+     * rule set version the orchestrator used, or the current rules if that version is unknown.
+     */
+    @Transactional
+    public DecisionResult recordPreBureauRejection(DecisionRequest request, String ruleSetVersion) {
+        Decision existing = decisionRepository.findByRequestId(request.getRequestId()).orElse(null);
+        if (existing != null) {
+            return mapToDecisionResult(existing);
+        }
+        
+        Rulebook rulebook = rulebookOrCurrent(ruleSetVersion);
+        RuleFacts facts = RuleFacts.from(request);
+        RuleOutcomes outcomes = rulebook.evaluateBureauIndependent(facts);
+        
+        String reason;
+        if (outcomes.allPassed()) {
+            log.warn("Request {} was rejected before bureau checks, but passes the application rules of version {}",
+                    request.getRequestId(), rulebook.getVersion());
+            reason = "Rejected before credit bureau checks";
+        } else {
+            reason = rulebook.rule(outcomes.firstFailure()).getFailureReason();
+        }
+        
+        Decision decisionEntity = new Decision();
+        decisionEntity.setRequestId(request.getRequestId());
+        decisionEntity.setDecision("REJECTED");
+        decisionEntity.setCreditScore(facts.averageScore());
+        decisionEntity.setLoanAmount(request.getLoanAmount());
+        decisionEntity.setReason(reason);
+        decisionEntity.setTimestamp(LocalDateTime.now());
+        decisionEntity.setRuleSetVersion(rulebook.getVersion());
+        decisionEntity.setRuleOutcomes(outcomes.encode());
+        decisionEntity.setInputs(StoredInputs.from(request).encode());
+        decisionEntity.setPreBureau(true);
+        
+        decisionRepository.save(decisionEntity);
+        log.info("Recorded pre-bureau rejection for request {}", request.getRequestId());
+        return mapToDecisionResult(decisionEntity);
+    }
+    
+    /**
+     * Records a decision the orchestrator made in-process on the rules alone, so its decision
+     * and reasoning can be looked up like any other. The rules are evaluated again with the rule
+     * set version the orchestrator used, which gives the same outcome, or the current rules if
+     * that version is unknown.
+     */
+    @Transactional
+    public DecisionResult recordInProcessDecision(DecisionRequest request, String ruleSetVersion) {
+        Decision existing = decisionRepository.findByRequestId(request.getRequestId()).orElse(null);
+        if (existing != null) {
+            return mapToDecisionResult(existing);
+        }
+        
+        Rulebook rulebook = rulebookOrCurrent(ruleSetVersion);
+        RuleFacts facts = RuleFacts.from(request);
+        RuleOutcomes outcomes = rulebook.evaluate(facts);
+        String decision = outcomes.allPassed() ? "APPROVED" : "REJECTED";
+        
+        Decision decisionEntity = new Decision();
+        decisionEntity.setRequestId(request.getRequestId());
+        decisionEntity.setDecision(decision);
+        decisionEntity.setCreditScore(facts.averageScore());
+        decisionEntity.setLoanAmount(request.getLoanAmount());
+        decisionEntity.setReason(outcomes.allPassed()
+                ? RULES_PASSED
+                : rulebook.rule(outcomes.firstFailure()).getFailureReason());
+        decisionEntity.setTimestamp(LocalDateTime.now());
+        decisionEntity.setRuleSetVersion(rulebook.getVersion());
+        decisionEntity.setRuleOutcomes(outcomes.encode());
+        decisionEntity.setInputs(StoredInputs.from(request).encode());
+        
+        decisionRepository.save(decisionEntity);
+        log.info("Recorded in-process decision for request {}: {}", request.getRequestId(), decision);
+        return mapToDecisionResult(decisionEntity);
+    }
+    
+    private Rulebook rulebookOrCurrent(String ruleSetVersion) {
+        Rulebook rulebook = ruleSetVersion != null ? ruleSnapshotService.getRulebook(ruleSetVersion) : null;
+        return rulebook != null ? rulebook : ruleSnapshotService.getRulebook();
+    }
+    
+    /**
+     * Finalizes a PROVISIONAL decision. Only the first finalization takes effect, so a duplicate
+     * review cannot change a decision already reported as final; false if the decision was
+     * already final or does not exist.
+     */
+    @Transactional
+    public boolean finalizeDecision(String requestId, String finalDecision, String reason) {
+        return decisionRepository.finalizeProvisional(requestId, finalDecision, reason, LocalDateTime.now()) == 1;
+    }
+    
+    /**
+     * Claims the review of a PROVISIONAL decision last claimed before the given time. The claim
+     * is a conditional update, so when several instances sweep the same decision only one gets it.
+     */
+    @Transactional
+    public boolean claimReview(String requestId, LocalDateTime claimedBefore) {
+        return decisionRepository.claimReview(requestId, LocalDateTime.now(), claimedBefore) == 1;
+    }
+    
+    /**
+     * Current decision for a request, which may still be provisional, or null if there is none
+     */
+    public DecisionResult getDecision(String requestId) {
+        return decisionRepository.findByRequestId(requestId)
+                .map(this::mapToDecisionResult)
+                .orElse(null);
+    }
+    
+    /**
+     * PROVISIONAL decisions whose review was last claimed before the given time, oldest first
+     */
+    public List<Decision> getProvisionalDecisions(LocalDateTime claimedBefore, int limit) {
+        return decisionRepository.findProvisionalClaimedBefore(claimedBefore, PageRequest.of(0, limit));
+    }
+    
     @Cacheable(value = "creditDecisions", key = "#requestId")
     public Decision getCachedDecision(String requestId) {
         return decisionRepository.findByRequestId(requestId).orElse(null);
     }
     
     /**
-     * Retrieves detailed reasoning for a decision by request ID
+     * Retrieves detailed reasoning for a decision by request ID. It is rebuilt from the inputs,
+     * rule set version and rule outcomes stored with the decision, so it is the same reasoning
+     * the decision was made with, whatever the rules are now.
      */
     public DecisionReasoning getReasoning(String requestId) {
         Decision decision = decisionRepository.findByRequestId(requestId)
             .orElseThrow(() -> new IllegalArgumentException("Decision not found for request: " + requestId));
         
-        // Reconstruct the request from stored decision
-        // Note: In a real system, you might want to store the original request
-        // For now, we'll need to fetch bureau responses from elsewhere or store them
-        log.warn("Reasoning retrieval requires original request data. Returning basic reasoning.");
+        RuleOutcomes outcomes = storedOutcomes(decision);
+        if (outcomes != null && decision.getInputs() != null) {
+            DecisionRequest request = StoredInputs.decode(decision.getInputs()).toRequest(requestId);
+            return reasoningService.generateReasoning(request, RuleFacts.from(request), outcomes, decision.getDecision());
+        }
         
-        // For now, return a basic reasoning structure
+        // The decision was stored without its inputs and rule outcomes
+        log.warn("Rule outcomes for request {} are not available. Returning basic reasoning.", requestId);
         DecisionReasoning reasoning = new DecisionReasoning();
         reasoning.setSummary(decision.getReason());
         reasoning.setDecisionPath("Decision stored at: " + decision.getTimestamp());
@@ -112,20 +283,18 @@ public class DecisionService {
         return reasoning;
     }
     
-    private BigDecimal calculateAverageScore(List<BureauResponse> responses) {
-        List<BigDecimal> validScores = responses.stream()
-                .filter(r -> "SUCCESS".equals(r.getStatus()) && r.getCreditScore() != null)
-                .map(BureauResponse::getCreditScore)
-                .collect(Collectors.toList());
-        
-        if (validScores.isEmpty()) {
-            return BigDecimal.ZERO;
+    /**
+     * The decision's stored rule outcomes against the rule set version it was evaluated with,
+     * or null if they were not stored
+     */
+    private RuleOutcomes storedOutcomes(Decision decision) {
+        if (decision.getRuleOutcomes() == null || decision.getRuleSetVersion() == null) {
+            return null;
         }
-        
-        BigDecimal sum = validScores.stream()
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        return sum.divide(new BigDecimal(validScores.size()), 2, RoundingMode.HALF_UP);
+        Rulebook rulebook = ruleSnapshotService.getRulebook(decision.getRuleSetVersion());
+        return rulebook != null
+                ? RuleOutcomes.decode(rulebook, decision.getRuleOutcomes(), decision.isPreBureau())
+                : null;
     }
     
     private DecisionResult mapToDecisionResult(Decision decision) {
@@ -137,81 +306,4 @@ public class DecisionService {
         result.setTimestamp(decision.getTimestamp());
         return result;
     }
-    
-    /**
-     * Evaluates all active rules and returns failure reason if any rule fails
-     * Returns null if all rules pass
-     */
-    private String evaluateRules(DecisionRequest request, BigDecimal averageScore) {
-        List<RuleConfiguration> activeRules = ruleConfigurationService.getAllActiveRules();
-        
-        for (RuleConfiguration rule : activeRules) {
-            boolean passed = evaluateRule(rule, request, averageScore);
-            if (!passed) {
-                String failureMessage = rule.getFailureMessage();
-                if (failureMessage == null || failureMessage.isEmpty()) {
-                    return String.format("Rule '%s' failed: %s", rule.getRuleName(), rule.getDescription());
-                }
-                return failureMessage;
-            }
-        }
-        
-        return null; // All rules passed
-    }
-    
-    /**
-     * Evaluates a single rule
-     */
-    private boolean evaluateRule(RuleConfiguration rule, DecisionRequest request, BigDecimal averageScore) {
-        BigDecimal threshold = rule.getThresholdValue();
-        String operator = rule.getOperator();
-        BigDecimal valueToCompare = null;
-        
-        // Determine which value to compare based on rule type
-        switch (rule.getRuleType()) {
-            case "CREDIT_SCORE":
-                valueToCompare = averageScore;
-                break;
-            case "LOAN_AMOUNT":
-                valueToCompare = request.getLoanAmount();
-                break;
-            case "BUREAU_RESPONSE":
-                // For bureau response, check if at least one response is successful
-                long successCount = request.getBureauResponses().stream()
-                    .filter(r -> "SUCCESS".equals(r.getStatus()))
-                    .count();
-                valueToCompare = BigDecimal.valueOf(successCount);
-                break;
-            case "AGE_LIMIT":
-                valueToCompare = request.getApplicantAge();
-                break;    
-            default:
-                log.warn("Unknown rule type: {}", rule.getRuleType());
-                return true; // Skip unknown rule types
-        }
-        
-        if (valueToCompare == null) {
-            log.warn("Rule {} expects value for type {} but it was not provided", rule.getRuleName(), rule.getRuleType());
-            return false;
-        }
-        
-        // Compare based on operator
-        int comparison = valueToCompare.compareTo(threshold);
-        switch (operator) {
-            case ">=":
-                return comparison >= 0;
-            case "<=":
-                return comparison <= 0;
-            case ">":
-                return comparison > 0;
-            case "<":
-                return comparison < 0;
-            case "==":
-                return comparison == 0;
-            default:
-                log.warn("Unknown operator: {}", operator);
-                return true; // Skip unknown operators
-        }
-    }
 }
-
@@ -1,13 +1,19 @@
 package com.loanorigination.decisionengine.service;
 
+import com.loanorigination.common.deadline.Deadline;
+import com.loanorigination.common.deadline.DeadlineContext;
 import com.loanorigination.common.dto.DecisionRequest;
 import com.loanorigination.common.dto.DecisionResult;
+import com.loanorigination.common.rules.RuleFacts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.Locale;
 
 /**
  * Hybrid decision service that combines rule-based and LLM-based decision making
@@ -19,16 +25,22 @@ public class HybridDecisionService {
     
     private final DecisionService ruleBasedService;
     private final LLMDecisionService llmService;
+    private final DecisionRefinementService refinementService;
+    private final MeterRegistry meterRegistry;
     private final boolean useLLM;
-    private final String decisionMode; // "rules", "llm", "hybrid"
+    private final String decisionMode; // "rules", "llm", "hybrid", "tiered"
     
     public HybridDecisionService(
             DecisionService ruleBasedService,
             LLMDecisionService llmService,
+            DecisionRefinementService refinementService,
+            MeterRegistry meterRegistry,
             @Value("${decision.mode:rules}") String decisionMode,
             @Value("${llm.enabled:false}") boolean llmEnabled) {
         this.ruleBasedService = ruleBasedService;
         this.llmService = llmService;
+        this.refinementService = refinementService;
+        this.meterRegistry = meterRegistry;
         this.decisionMode = decisionMode;
         this.useLLM = llmEnabled && llmService.isEnabled();
         
@@ -37,40 +49,68 @@ public class HybridDecisionService {
     }
     
     /**
-     * Evaluates a loan decision using the configured decision mode
+     * Evaluates a loan decision using the configured decision mode, timed per mode and decision.
+     * Rule reasoning is only rendered when {@code includeReasoning} is set.
      */
-    public DecisionResult evaluate(DecisionRequest request) {
-        BigDecimal averageScore = calculateAverageScore(request);
+    public DecisionResult evaluate(DecisionRequest request, boolean includeReasoning) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            DecisionResult result = evaluateInMode(request, includeReasoning);
+            outcome = result.getDecision();
+            return result;
+        } finally {
+            sample.stop(meterRegistry.timer("decision.stage.evaluate",
+                    "mode", decisionMode.toLowerCase(Locale.ROOT),
+                    "outcome", String.valueOf(outcome).toLowerCase(Locale.ROOT)));
+        }
+    }
+    
+    private DecisionResult evaluateInMode(DecisionRequest request, boolean includeReasoning) {
+        DeadlineContext.check("decision.evaluate");
+        BigDecimal averageScore = RuleFacts.from(request).averageScore();
         
         switch (decisionMode.toLowerCase()) {
             case "llm":
                 if (!useLLM) {
                     log.warn("LLM mode requested but LLM is not enabled. Falling back to rules.");
-                    return ruleBasedService.evaluate(request);
+                    return ruleBasedService.evaluate(request, includeReasoning);
                 }
+                DeadlineContext.check("decision.llm");
                 return llmService.evaluateWithLLM(request, averageScore);
                 
             case "hybrid":
-                return evaluateHybrid(request, averageScore);
+                return evaluateHybrid(request, averageScore, includeReasoning);
+                
+            case "tiered":
+                return evaluateTiered(request, averageScore, includeReasoning);
                 
             case "rules":
             default:
-                return ruleBasedService.evaluate(request);
+                return ruleBasedService.evaluate(request, includeReasoning);
         }
     }
     
     /**
-     * Hybrid evaluation: Uses both rule-based and LLM, then combines results
+     * Hybrid evaluation: Uses both rule-based and LLM, then combines results. The rule result,
+     * with its reasoning if requested, is returned as is when the LLM is unavailable or fails.
      */
-    private DecisionResult evaluateHybrid(DecisionRequest request, BigDecimal averageScore) {
-        // Get rule-based decision
-        DecisionResult ruleResult = ruleBasedService.evaluate(request);
+    private DecisionResult evaluateHybrid(DecisionRequest request, BigDecimal averageScore, boolean includeReasoning) {
+        // Get rule-based decision; the combined result carries no rule reasoning
+        DecisionResult ruleResult = ruleBasedService.evaluate(request, includeReasoning);
         
         if (!useLLM) {
             log.debug("LLM not available for hybrid mode. Using rule-based decision only.");
             return ruleResult;
         }
         
+        Deadline deadline = DeadlineContext.current();
+        if (deadline != null && deadline.isExpired()) {
+            log.debug("Deadline passed before LLM evaluation for request {}. Using rule-based decision only.",
+                    request.getRequestId());
+            return ruleResult;
+        }
+        
         try {
             // Get LLM decision
             DecisionResult llmResult = llmService.evaluateWithLLM(request, averageScore);
@@ -114,15 +154,18 @@ public class HybridDecisionService {
         }
     }
     
-    private BigDecimal calculateAverageScore(DecisionRequest request) {
-        return request.getBureauResponses().stream()
-                .filter(r -> "SUCCESS".equals(r.getStatus()) && r.getCreditScore() != null)
-                .map(r -> r.getCreditScore())
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .divide(BigDecimal.valueOf(
-                        request.getBureauResponses().stream()
-                                .filter(r -> "SUCCESS".equals(r.getStatus()) && r.getCreditScore() != null)
-                                .count()), 2, java.math.RoundingMode.HALF_UP);
+    /**
+     * Tiered evaluation: the rule decision is returned immediately. A rejection is final, since
+     * the LLM could not overturn it; an approval is stored as provisional until the LLM review
+     * completes.
+     */
+    private DecisionResult evaluateTiered(DecisionRequest request, BigDecimal averageScore, boolean includeReasoning) {
+        DecisionResult ruleResult = ruleBasedService.evaluate(request, includeReasoning, useLLM);
+        
+        if (!DecisionService.PROVISIONAL.equals(ruleResult.getDecision())) {
+            return ruleResult;
+        }
+        return refinementService.review(request, ruleResult, averageScore);
     }
 }
 
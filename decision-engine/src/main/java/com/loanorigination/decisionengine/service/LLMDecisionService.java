@@ -4,6 +4,8 @@ import com.loanorigination.common.dto.BureauResponse;
 import com.loanorigination.common.dto.DecisionRequest;
 import com.loanorigination.common.dto.DecisionResult;
 import com.loanorigination.decisionengine.entity.RuleConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -18,6 +20,7 @@ public class LLMDecisionService {
     private final com.theokanning.openai.service.OpenAiService openAiService;
     private final OllamaClient ollamaClient;
     private final RuleConfigurationService ruleConfigurationService;
+    private final MeterRegistry meterRegistry;
     private final boolean llmEnabled;
     private final String model;
     private final String provider; // "openai" or "ollama"
@@ -28,7 +31,9 @@ public class LLMDecisionService {
             @Value("${llm.api-key:}") String apiKey,
             @Value("${llm.model:gpt-4}") String model,
             RuleConfigurationService ruleConfigurationService,
-            OllamaClient ollamaClient) {
+            OllamaClient ollamaClient,
+            MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
         this.llmEnabled = llmEnabled;
         this.provider = provider.toLowerCase();
         this.model = model;
@@ -99,11 +104,7 @@ public class LLMDecisionService {
                         .maxTokens(500)
                         .build();
                 
-                response = openAiService.createChatCompletion(chatRequest)
-                        .getChoices()
-                        .get(0)
-                        .getMessage()
-                        .getContent();
+                response = chatWithOpenAi(chatRequest);
             }
             
             log.debug("LLM response: {}", response);
@@ -120,6 +121,22 @@ public class LLMDecisionService {
         }
     }
     
+    private String chatWithOpenAi(com.theokanning.openai.completion.chat.ChatCompletionRequest chatRequest) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            String content = openAiService.createChatCompletion(chatRequest)
+                    .getChoices()
+                    .get(0)
+                    .getMessage()
+                    .getContent();
+            outcome = "success";
+            return content;
+        } finally {
+            sample.stop(meterRegistry.timer("decision.stage.llm", "provider", "openai", "outcome", outcome));
+        }
+    }
+    
     private String buildSystemPrompt() {
         return "You are a loan decisioning expert. Analyze loan applications based on credit score, " +
                "income, debt, cashflow, and loan amount. Provide decisions in JSON format with " +
@@ -2,15 +2,22 @@ package com.loanorigination.decisionengine.service;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.loanorigination.common.deadline.Deadline;
+import com.loanorigination.common.deadline.DeadlineContext;
+import com.loanorigination.common.deadline.DeadlineExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.Data;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
 @Component
 public class OllamaClient {
@@ -18,18 +25,25 @@ public class OllamaClient {
     private static final Logger log = LoggerFactory.getLogger(OllamaClient.class);
     
     private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
     
-    public OllamaClient(@org.springframework.beans.factory.annotation.Value("${llm.ollama.base-url:http://localhost:11434}") String baseUrl) {
+    public OllamaClient(@org.springframework.beans.factory.annotation.Value("${llm.ollama.base-url:http://localhost:11434}") String baseUrl,
+                        MeterRegistry meterRegistry) {
         this.webClient = WebClient.builder()
                 .baseUrl(baseUrl)
                 .build();
+        this.meterRegistry = meterRegistry;
         log.info("Ollama client initialized with base URL: {}", baseUrl);
     }
     
     /**
-     * Calls Ollama API for chat completion
+     * Calls Ollama API for chat completion. The call is abandoned when the current request's
+     * deadline passes.
      */
     public String chat(String model, String systemPrompt, String userPrompt) {
+        Deadline deadline = DeadlineContext.current();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
         try {
             ChatRequest request = new ChatRequest();
             request.setModel(model);
@@ -40,23 +54,35 @@ public class OllamaClient {
             request.setStream(false);
             request.setOptions(java.util.Map.of("temperature", 0.1)); // Low temperature for consistent decisions
             
-            ChatResponse response = webClient.post()
+            Mono<ChatResponse> call = webClient.post()
                     .uri("/api/chat")
                     .contentType(MediaType.APPLICATION_JSON)
                     .bodyValue(request)
                     .retrieve()
-                    .bodyToMono(ChatResponse.class)
-                    .block();
+                    .bodyToMono(ChatResponse.class);
+            if (deadline != null) {
+                deadline.check("ollama.chat");
+                call = call.timeout(deadline.remaining())
+                        .onErrorMap(TimeoutException.class, e -> new DeadlineExceededException("ollama.chat"));
+            }
+            ChatResponse response = call.block();
             
             if (response != null && response.getMessage() != null) {
+                outcome = "success";
                 return response.getMessage().getContent();
             }
             
             throw new RuntimeException("Empty response from Ollama");
             
+        } catch (DeadlineExceededException e) {
+            outcome = "deadline_exceeded";
+            log.warn("Abandoned Ollama call: {}", e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Error calling Ollama API: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to call Ollama: " + e.getMessage(), e);
+        } finally {
+            sample.stop(meterRegistry.timer("decision.stage.llm", "provider", "ollama", "outcome", outcome));
         }
     }
     
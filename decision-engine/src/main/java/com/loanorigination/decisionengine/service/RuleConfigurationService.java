@@ -7,6 +7,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,12 +20,15 @@ import java.util.stream.Collectors;
 public class RuleConfigurationService {
     
     private static final Logger log = LoggerFactory.getLogger(RuleConfigurationService.class);
-    private static final String CACHE_NAME = "ruleConfigurations";
+    public static final String CACHE_NAME = "ruleConfigurations";
     
     private final RuleConfigurationRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
     
-    public RuleConfigurationService(RuleConfigurationRepository repository) {
+    public RuleConfigurationService(RuleConfigurationRepository repository,
+                                    ApplicationEventPublisher eventPublisher) {
         this.repository = repository;
+        this.eventPublisher = eventPublisher;
     }
     
     @Cacheable(value = CACHE_NAME, key = "'all-active'")
@@ -39,6 +43,16 @@ public class RuleConfigurationService {
             .orElseThrow(() -> new IllegalArgumentException("Rule not found: " + ruleName));
     }
     
+    /**
+     * Active rules read straight from the database, bypassing the rule cache. Used to build
+     * rule snapshots right after a change, when the cache may not have been evicted yet.
+     */
+    public List<RuleConfigurationDTO> getActiveRulesFromStore() {
+        return repository.findAllActiveRules().stream()
+            .map(this::toDTO)
+            .collect(Collectors.toList());
+    }
+    
     public List<RuleConfigurationDTO> getAllRules() {
         return repository.findAll().stream()
             .map(this::toDTO)
@@ -64,6 +78,7 @@ public class RuleConfigurationService {
         RuleConfiguration rule = toEntity(dto);
         RuleConfiguration saved = repository.save(rule);
         log.info("Rule created successfully: {}", saved.getRuleName());
+        eventPublisher.publishEvent(new RulesChangedEvent(saved.getId(), "CREATED"));
         
         return toDTO(saved);
     }
@@ -101,6 +116,7 @@ public class RuleConfigurationService {
         
         RuleConfiguration saved = repository.save(existing);
         log.info("Rule updated successfully: {}", saved.getRuleName());
+        eventPublisher.publishEvent(new RulesChangedEvent(saved.getId(), "UPDATED"));
         
         return toDTO(saved);
     }
@@ -129,6 +145,7 @@ public class RuleConfigurationService {
         
         RuleConfiguration saved = repository.save(rule);
         log.info("Model-generated rule persisted: {}", saved.getRuleName());
+        eventPublisher.publishEvent(new RulesChangedEvent(saved.getId(), "UPDATED"));
         return toDTO(saved);
     }
     
@@ -141,6 +158,7 @@ public class RuleConfigurationService {
         }
         repository.deleteById(id);
         log.info("Rule deleted successfully");
+        eventPublisher.publishEvent(new RulesChangedEvent(id, "DELETED"));
     }
     
     @Transactional
@@ -151,6 +169,7 @@ public class RuleConfigurationService {
             .orElseThrow(() -> new IllegalArgumentException("Rule not found with id: " + id));
         rule.setEnabled(enabled);
         RuleConfiguration saved = repository.save(rule);
+        eventPublisher.publishEvent(new RulesChangedEvent(saved.getId(), "TOGGLED"));
         return toDTO(saved);
     }
     
@@ -0,0 +1,279 @@
+package com.loanorigination.decisionengine.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loanorigination.common.dto.RuleConfigurationDTO;
+import com.loanorigination.common.dto.RuleSnapshotDTO;
+import com.loanorigination.common.rules.Rulebook;
+import com.loanorigination.decisionengine.config.RemoteCacheInvalidationEvent;
+import com.loanorigination.decisionengine.entity.RuleSetVersion;
+import com.loanorigination.decisionengine.repository.RuleSetVersionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Serves versioned snapshots of the active rules and notifies subscribers when they change.
+ * The version is derived from the rule content, so every instance reports the same version
+ * for the same rules and it survives restarts. Each snapshot is compiled into the
+ * {@link Rulebook} that decisions are evaluated with; both are published together. Every
+ * version is also stored once as a {@link RuleSetVersion}, in a transaction of its own, so the
+ * rulebook a past decision was evaluated with can be rebuilt after the rules have changed. Snapshots carry the
+ * decision mode, so consumers know whether a rule rejection is final. A periodic version
+ * check catches changes whose notification was missed.
+ */
+@Service
+public class RuleSnapshotService {
+    
+    private static final Logger log = LoggerFactory.getLogger(RuleSnapshotService.class);
+    private static final String CHANGE_EVENT = "rules-changed";
+    private static final TypeReference<List<RuleConfigurationDTO>> RULE_LIST = new TypeReference<>() {};
+    
+    private final RuleConfigurationService ruleConfigurationService;
+    private final RuleSetVersionRepository ruleSetVersionRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate storeTransaction;
+    private final long changeStreamTimeoutMs;
+    private final String decisionMode;
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+    private final Map<String, Rulebook> pastRulebooks;
+    private volatile RuleSet ruleSet;
+    
+    public RuleSnapshotService(RuleConfigurationService ruleConfigurationService,
+                               RuleSetVersionRepository ruleSetVersionRepository,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${rules.change-stream.timeout-ms:1800000}") long changeStreamTimeoutMs,
+                               @Value("${rules.versions.cached:32}") int cachedVersions,
+                               @Value("${decision.mode:rules}") String decisionMode) {
+        this.ruleConfigurationService = ruleConfigurationService;
+        this.ruleSetVersionRepository = ruleSetVersionRepository;
+        this.objectMapper = objectMapper;
+        // Rule changes are handled after their transaction committed, while it is still bound to
+        // the thread; joining it would never write the version
+        this.storeTransaction = new TransactionTemplate(transactionManager);
+        this.storeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.changeStreamTimeoutMs = changeStreamTimeoutMs;
+        this.decisionMode = decisionMode.toLowerCase(Locale.ROOT);
+        this.pastRulebooks = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Rulebook> eldest) {
+                return size() > cachedVersions;
+            }
+        };
+    }
+    
+    public RuleSnapshotDTO getSnapshot() {
+        return current().snapshot();
+    }
+    
+    /**
+     * The compiled active rules, matching the current snapshot
+     */
+    public Rulebook getRulebook() {
+        return current().rulebook();
+    }
+    
+    /**
+     * The compiled rules of the given rule set version, or null if the version is unknown
+     */
+    public Rulebook getRulebook(String version) {
+        Rulebook current = getRulebook();
+        if (current.getVersion().equals(version)) {
+            return current;
+        }
+        synchronized (pastRulebooks) {
+            Rulebook cached = pastRulebooks.get(version);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        
+        Rulebook loaded = ruleSetVersionRepository.findById(version)
+                .map(stored -> Rulebook.compile(stored.getVersion(), readRules(stored)))
+                .orElse(null);
+        if (loaded != null) {
+            synchronized (pastRulebooks) {
+                pastRulebooks.put(version, loaded);
+            }
+        }
+        return loaded;
+    }
+    
+    private RuleSet current() {
+        RuleSet current = ruleSet;
+        if (current == null) {
+            current = buildRuleSet();
+            ruleSet = current;
+        }
+        return current;
+    }
+    
+    /**
+     * Rebuilds once startup is complete, since rules seeded at startup publish no change event
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        RuleSet loaded = buildRuleSet();
+        ruleSet = loaded;
+        log.info("Rule set version {} compiled with {} rules", loaded.snapshot().getVersion(), loaded.rulebook().size());
+    }
+    
+    /**
+     * Opens a change stream. The current version is sent straight away so a reconnecting
+     * subscriber can tell whether it missed a change.
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(changeStreamTimeoutMs);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(error -> subscribers.remove(emitter));
+        subscribers.add(emitter);
+        
+        send(emitter, getSnapshot().getVersion());
+        return emitter;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRulesChanged(RulesChangedEvent event) {
+        refresh("Rule " + event.ruleId() + " " + event.action());
+    }
+    
+    /**
+     * Rules changed on another instance, which cleared the rule cache on every instance
+     */
+    @EventListener
+    public void onRemoteCacheInvalidation(RemoteCacheInvalidationEvent event) {
+        if (RuleConfigurationService.CACHE_NAME.equals(event.cacheName())) {
+            refresh("Rules changed on another instance");
+        }
+    }
+    
+    /**
+     * Rebuilds the snapshot if the rules in the store no longer hash to the published version,
+     * for instance after a lost cache invalidation message or a change made directly in the
+     * store
+     */
+    @Scheduled(initialDelayString = "${rules.version-check.interval-ms:60000}",
+            fixedDelayString = "${rules.version-check.interval-ms:60000}")
+    public void checkVersion() {
+        RuleSet current = ruleSet;
+        if (current == null) {
+            return;
+        }
+        try {
+            String stored = version(ruleConfigurationService.getActiveRulesFromStore());
+            if (!stored.equals(current.snapshot().getVersion())) {
+                refresh("Rule store is at version " + stored + " but version "
+                        + current.snapshot().getVersion() + " was published");
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not check the rule set version: {}", e.getMessage());
+        }
+    }
+    
+    private void refresh(String cause) {
+        RuleSet rebuiltSet = buildRuleSet();
+        ruleSet = rebuiltSet;
+        RuleSnapshotDTO rebuilt = rebuiltSet.snapshot();
+        log.info("{}; rule set is now at version {}, notifying {} subscribers",
+                cause, rebuilt.getVersion(), subscribers.size());
+        
+        for (SseEmitter emitter : subscribers) {
+            send(emitter, rebuilt.getVersion());
+        }
+    }
+    
+    private void send(SseEmitter emitter, String version) {
+        try {
+            emitter.send(SseEmitter.event().name(CHANGE_EVENT).data(version));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping rule change subscriber: {}", e.getMessage());
+            subscribers.remove(emitter);
+        }
+    }
+    
+    private RuleSet buildRuleSet() {
+        List<RuleConfigurationDTO> rules = ruleConfigurationService.getActiveRulesFromStore();
+        String version = version(rules);
+        store(version, rules);
+        return new RuleSet(new RuleSnapshotDTO(version, LocalDateTime.now(), List.copyOf(rules), decisionMode),
+                Rulebook.compile(version, rules));
+    }
+    
+    private void store(String version, List<RuleConfigurationDTO> rules) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(rules);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize rule set version " + version, e);
+        }
+        try {
+            storeTransaction.executeWithoutResult(status -> {
+                if (!ruleSetVersionRepository.existsById(version)) {
+                    ruleSetVersionRepository.save(new RuleSetVersion(version, json, LocalDateTime.now()));
+                    log.info("Stored rule set version {}", version);
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Rule set version {} was stored concurrently", version);
+        }
+    }
+    
+    private List<RuleConfigurationDTO> readRules(RuleSetVersion stored) {
+        try {
+            return objectMapper.readValue(stored.getRules(), RULE_LIST);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read rule set version " + stored.getVersion(), e);
+        }
+    }
+    
+    private String version(List<RuleConfigurationDTO> rules) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (RuleConfigurationDTO rule : rules) {
+                String fields = String.join("|",
+                        String.valueOf(rule.getId()),
+                        String.valueOf(rule.getRuleName()),
+                        String.valueOf(rule.getRuleType()),
+                        rule.getThresholdValue() != null ? rule.getThresholdValue().toPlainString() : "null",
+                        String.valueOf(rule.getOperator()),
+                        String.valueOf(rule.getPriority()),
+                        String.valueOf(rule.getImportance()),
+                        String.valueOf(rule.getDescription()),
+                        String.valueOf(rule.getFailureMessage()));
+                digest.update(fields.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    private record RuleSet(RuleSnapshotDTO snapshot, Rulebook rulebook) {
+    }
+}
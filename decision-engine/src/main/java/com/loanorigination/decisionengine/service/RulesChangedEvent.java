@@ -0,0 +1,7 @@
+package com.loanorigination.decisionengine.service;
+
+/**
+ * Published whenever a rule is created, updated, toggled or deleted
+ */
+public record RulesChangedEvent(Long ruleId, String action) {
+}
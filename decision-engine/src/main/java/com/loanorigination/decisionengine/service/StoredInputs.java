@@ -0,0 +1,68 @@
+package com.loanorigination.decisionengine.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.loanorigination.common.dto.BureauResponse;
+import com.loanorigination.common.dto.DecisionRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The parts of a decision request that rules and reasoning read, stored with the decision as
+ * CBOR so its reasoning can be rebuilt exactly without the original request.
+ */
+public record StoredInputs(BigDecimal loanAmount, BigDecimal annualIncome, BigDecimal totalDebt,
+                           BigDecimal monthlyCashflow, BigDecimal applicantAge, List<Bureau> bureaus) {
+    
+    private static final ObjectMapper CBOR = new CBORMapper();
+    
+    public static StoredInputs from(DecisionRequest request) {
+        List<Bureau> bureaus = new ArrayList<>();
+        if (request.getBureauResponses() != null) {
+            for (BureauResponse response : request.getBureauResponses()) {
+                bureaus.add(new Bureau(response.getBureauName(), response.getCreditScore(), response.getStatus()));
+            }
+        }
+        return new StoredInputs(request.getLoanAmount(), request.getAnnualIncome(), request.getTotalDebt(),
+                request.getMonthlyCashflow(), request.getApplicantAge(), bureaus);
+    }
+    
+    /**
+     * Rebuilds a request equivalent to the original for rule evaluation and reasoning
+     */
+    public DecisionRequest toRequest(String requestId) {
+        List<BureauResponse> responses = new ArrayList<>(bureaus.size());
+        for (Bureau bureau : bureaus) {
+            responses.add(new BureauResponse(bureau.name(), bureau.creditScore(), bureau.status(), null, null));
+        }
+        DecisionRequest request = new DecisionRequest(requestId, loanAmount, responses);
+        request.setAnnualIncome(annualIncome);
+        request.setTotalDebt(totalDebt);
+        request.setMonthlyCashflow(monthlyCashflow);
+        request.setApplicantAge(applicantAge);
+        return request;
+    }
+    
+    public byte[] encode() {
+        try {
+            return CBOR.writeValueAsBytes(this);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    public static StoredInputs decode(byte[] encoded) {
+        try {
+            return CBOR.readValue(encoded, StoredInputs.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    public record Bureau(String name, BigDecimal creditScore, String status) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.loanorigination.decisionengine.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class TwoTierCacheTest {
+    
+    private static final String CHANNEL = "cache-invalidation";
+    private static final String CACHE = "decisions";
+    
+    private final ConcurrentMapCacheManager redis = new ConcurrentMapCacheManager(CACHE);
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    
+    @Test
+    void servesRepeatedReadsFromL1() {
+        Cache cache = manager().getCache(CACHE);
+        redis.getCache(CACHE).put("req-1", "APPROVED");
+        assertThat(cache.get("req-1", String.class)).isEqualTo("APPROVED");
+        
+        redis.getCache(CACHE).put("req-1", "REJECTED");
+        
+        assertThat(cache.get("req-1", String.class)).isEqualTo("APPROVED");
+    }
+    
+    @Test
+    void evictRemovesBothTiersAndBroadcasts() {
+        Cache cache = manager().getCache(CACHE);
+        cache.put("req-1", "APPROVED");
+        
+        cache.evict("req-1");
+        
+        assertThat(cache.get("req-1")).isNull();
+        assertThat(redis.getCache(CACHE).get("req-1")).isNull();
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), anyString());
+    }
+    
+    @Test
+    void evictionOnAnotherInstanceDropsTheLocalEntry() {
+        TwoTierCacheManager writer = manager();
+        TwoTierCacheManager reader = manager();
+        writer.getCache(CACHE).put("req-1", "APPROVED");
+        assertThat(reader.getCache(CACHE).get("req-1", String.class)).isEqualTo("APPROVED");
+        
+        writer.getCache(CACHE).evict("req-1");
+        redis.getCache(CACHE).put("req-1", "REJECTED");
+        assertThat(reader.getCache(CACHE).get("req-1", String.class)).isEqualTo("APPROVED");
+        
+        reader.onMessage(message(sentMessage()), null);
+        
+        assertThat(reader.getCache(CACHE).get("req-1", String.class)).isEqualTo("REJECTED");
+        verify(eventPublisher).publishEvent(any(RemoteCacheInvalidationEvent.class));
+    }
+    
+    @Test
+    void evictionInsideATransactionIsRepeatedAfterCommit() {
+        Cache cache = manager().getCache(CACHE);
+        cache.put("req-1", "APPROVED");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evict("req-1");
+            // A read before the commit reloads the old value into both tiers
+            redis.getCache(CACHE).put("req-1", "APPROVED");
+            assertThat(cache.get("req-1", String.class)).isEqualTo("APPROVED");
+            verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+            
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        
+        assertThat(cache.get("req-1")).isNull();
+        assertThat(redis.getCache(CACHE).get("req-1")).isNull();
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), anyString());
+    }
+    
+    private TwoTierCacheManager manager() {
+        return new TwoTierCacheManager(redis, redisTemplate, eventPublisher, new SimpleMeterRegistry(), CHANNEL,
+                100, Duration.ofMinutes(5));
+    }
+    
+    private String sentMessage() {
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), message.capture());
+        return message.getValue();
+    }
+    
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
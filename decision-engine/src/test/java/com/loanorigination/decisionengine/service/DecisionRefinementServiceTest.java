@@ -0,0 +1,276 @@
+package com.loanorigination.decisionengine.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.loanorigination.common.dto.DecisionRequest;
+import com.loanorigination.common.dto.DecisionResult;
+import com.loanorigination.decisionengine.entity.Decision;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DecisionRefinementServiceTest {
+    
+    private static final BigDecimal SCORE = new BigDecimal("720");
+    
+    private final DecisionService decisionService = mock(DecisionService.class);
+    private final LLMDecisionService llmService = mock(LLMDecisionService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch llmRelease = new CountDownLatch(1);
+    private DecisionRefinementService service;
+    
+    @BeforeEach
+    void setUp() {
+        when(decisionService.finalizeDecision(any(), any(), any())).thenReturn(true);
+        when(decisionService.claimReview(any(), any())).thenReturn(true);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        llmRelease.countDown();
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+    
+    @Test
+    void reviewsProvisionalDecisionsAndCountsHowTheyWereFinalized() throws InterruptedException {
+        service = service(2, 10);
+        when(llmService.evaluateWithLLM(eq(request("req-approve")), any())).thenReturn(llmResult("APPROVED"));
+        when(llmService.evaluateWithLLM(eq(request("req-reject")), any())).thenReturn(llmResult("REJECTED"));
+        
+        assertThat(service.review(request("req-approve"), provisional("req-approve"), SCORE).getDecision())
+                .isEqualTo("PROVISIONAL");
+        assertThat(service.review(request("req-reject"), provisional("req-reject"), SCORE).getDecision())
+                .isEqualTo("PROVISIONAL");
+        
+        awaitFinalized("confirmed", 1);
+        awaitFinalized("flipped", 1);
+        verify(decisionService).finalizeDecision(eq("req-approve"), eq("APPROVED"), any());
+        verify(decisionService).finalizeDecision(eq("req-reject"), eq("REJECTED"), any());
+        assertThat(meterRegistry.counter("decision.tiered.provisional").count()).isEqualTo(2);
+    }
+    
+    @Test
+    void failedLlmReviewKeepsTheRuleApproval() throws InterruptedException {
+        service = service(1, 10);
+        when(llmService.evaluateWithLLM(any(), any())).thenThrow(new IllegalStateException("LLM unavailable"));
+        
+        service.review(request("req-1"), provisional("req-1"), SCORE);
+        
+        awaitFinalized("llm_failed", 1);
+        verify(decisionService).finalizeDecision("req-1", "APPROVED", DecisionService.RULES_PASSED);
+    }
+    
+    @Test
+    void fullReviewQueueMakesTheRuleApprovalFinal() throws InterruptedException {
+        service = service(1, 1);
+        when(llmService.evaluateWithLLM(any(), any())).thenAnswer(invocation -> {
+            llmRelease.await(5, TimeUnit.SECONDS);
+            return llmResult("APPROVED");
+        });
+        
+        // One review runs on the single worker, one waits in the queue, the third is turned away
+        service.review(request("req-running"), provisional("req-running"), SCORE);
+        service.review(request("req-queued"), provisional("req-queued"), SCORE);
+        DecisionResult overflow = service.review(request("req-overflow"), provisional("req-overflow"), SCORE);
+        
+        assertThat(overflow.getDecision()).isEqualTo("APPROVED");
+        assertThat(overflow.getReason()).isEqualTo(DecisionService.RULES_PASSED);
+        verify(decisionService).finalizeDecision("req-overflow", "APPROVED", DecisionService.RULES_PASSED);
+        assertThat(finalized("skipped")).isEqualTo(1);
+        assertThat(meterRegistry.counter("decision.tiered.provisional").count()).isEqualTo(2);
+        
+        llmRelease.countDown();
+        awaitFinalized("confirmed", 2);
+        verify(decisionService).finalizeDecision(eq("req-queued"), eq("APPROVED"), any());
+    }
+    
+    @Test
+    void sweepRequeuesOverdueReviewsFromTheirStoredInputs() throws InterruptedException {
+        service = service(1, 10);
+        when(decisionService.getProvisionalDecisions(any(), anyInt()))
+                .thenReturn(List.of(stored("req-stale", true), stored("req-no-inputs", false)));
+        when(llmService.evaluateWithLLM(any(), any())).thenReturn(llmResult("REJECTED"));
+        
+        service.recoverStaleReviews();
+        
+        awaitFinalized("flipped", 1);
+        ArgumentCaptor<DecisionRequest> reviewed = ArgumentCaptor.forClass(DecisionRequest.class);
+        verify(llmService).evaluateWithLLM(reviewed.capture(), eq(SCORE));
+        assertThat(reviewed.getValue().getRequestId()).isEqualTo("req-stale");
+        assertThat(reviewed.getValue().getLoanAmount()).isEqualByComparingTo("20000");
+        verify(decisionService).finalizeDecision(eq("req-stale"), eq("REJECTED"), any());
+        verify(decisionService).finalizeDecision("req-no-inputs", "APPROVED", DecisionService.RULES_PASSED);
+        assertThat(finalized("unrecoverable")).isEqualTo(1);
+        assertThat(meterRegistry.counter("decision.tiered.recovered").count()).isEqualTo(1);
+    }
+    
+    @Test
+    void sweepSkipsReviewsAlreadyQueuedHere() throws InterruptedException {
+        service = service(1, 10);
+        when(llmService.evaluateWithLLM(any(), any())).thenAnswer(invocation -> {
+            llmRelease.await(5, TimeUnit.SECONDS);
+            return llmResult("APPROVED");
+        });
+        when(decisionService.getProvisionalDecisions(any(), anyInt())).thenReturn(List.of(stored("req-1", true)));
+        service.review(request("req-1"), provisional("req-1"), SCORE);
+        
+        service.recoverStaleReviews();
+        llmRelease.countDown();
+        
+        awaitFinalized("confirmed", 1);
+        verify(llmService, times(1)).evaluateWithLLM(any(), any());
+        assertThat(meterRegistry.counter("decision.tiered.recovered").count()).isZero();
+    }
+    
+    @Test
+    void sweepSkipsReviewsClaimedByAnotherInstance() {
+        service = service(1, 10);
+        when(decisionService.getProvisionalDecisions(any(), anyInt())).thenReturn(List.of(stored("req-1", true)));
+        when(decisionService.claimReview(eq("req-1"), any())).thenReturn(false);
+        
+        service.recoverStaleReviews();
+        service.shutdown();
+        
+        verify(llmService, never()).evaluateWithLLM(any(), any());
+        verify(decisionService, never()).finalizeDecision(any(), any(), any());
+        assertThat(meterRegistry.counter("decision.tiered.recovered").count()).isZero();
+    }
+    
+    @Test
+    void reviewOfAnAlreadyFinalDecisionSendsNoCallback() throws InterruptedException {
+        AtomicInteger callbacks = new AtomicInteger();
+        CountDownLatch delivered = new CountDownLatch(1);
+        service = new DecisionRefinementService(decisionService, llmService, meterRegistry,
+                new ObjectMapper().registerModule(new JavaTimeModule()), WebClient.builder().exchangeFunction(request -> {
+                    callbacks.incrementAndGet();
+                    delivered.countDown();
+                    return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+                }), 1, 10, "http://orchestrator/internal/decisions/final", "secret", Duration.ofSeconds(1),
+                Duration.ofMinutes(15), Duration.ofSeconds(5));
+        when(llmService.evaluateWithLLM(any(), any())).thenReturn(llmResult("REJECTED"));
+        when(decisionService.finalizeDecision(eq("req-final"), any(), any())).thenReturn(false);
+        
+        service.review(request("req-final"), provisional("req-final"), SCORE);
+        service.review(request("req-open"), provisional("req-open"), SCORE);
+        service.shutdown();
+        
+        assertThat(meterRegistry.counter("decision.tiered.duplicates").count()).isEqualTo(1);
+        assertThat(finalized("flipped")).isEqualTo(1);
+        // Both reviews are done, so the callback for req-open is the only one sent
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(callbacks.get()).isEqualTo(1);
+    }
+    
+    @Test
+    void shutdownWaitsForQueuedReviews() {
+        service = service(1, 10);
+        when(llmService.evaluateWithLLM(any(), any())).thenAnswer(invocation -> {
+            llmRelease.await(5, TimeUnit.SECONDS);
+            return llmResult("APPROVED");
+        });
+        service.review(request("req-running"), provisional("req-running"), SCORE);
+        service.review(request("req-queued"), provisional("req-queued"), SCORE);
+        
+        new Thread(() -> {
+            sleep(200);
+            llmRelease.countDown();
+        }).start();
+        service.shutdown();
+        
+        assertThat(finalized("confirmed")).isEqualTo(2);
+    }
+    
+    @Test
+    void callbackUrlRequiresASecret() {
+        assertThatThrownBy(() -> new DecisionRefinementService(decisionService, llmService, meterRegistry,
+                new ObjectMapper(), WebClient.builder(), 1, 1, "http://orchestrator/internal/decisions/final", "",
+                Duration.ofSeconds(1), Duration.ofMinutes(15), Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private DecisionRefinementService service(int workers, int queueCapacity) {
+        return new DecisionRefinementService(decisionService, llmService, meterRegistry, new ObjectMapper(),
+                WebClient.builder(), workers, queueCapacity, "", "", Duration.ofSeconds(1), Duration.ofMinutes(15),
+                Duration.ofSeconds(5));
+    }
+    
+    private double finalized(String outcome) {
+        return meterRegistry.counter("decision.tiered.finalized", "outcome", outcome).count();
+    }
+    
+    private void awaitFinalized(String outcome, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (finalized(outcome) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(finalized(outcome)).as(outcome).isEqualTo(expected);
+    }
+    
+    private static DecisionRequest request(String requestId) {
+        return new DecisionRequest(requestId, new BigDecimal("20000"), List.of());
+    }
+    
+    private static Decision stored(String requestId, boolean withInputs) {
+        Decision decision = new Decision();
+        decision.setRequestId(requestId);
+        decision.setDecision(DecisionService.PROVISIONAL);
+        decision.setCreditScore(SCORE);
+        decision.setLoanAmount(new BigDecimal("20000"));
+        decision.setReason(DecisionService.PENDING_REVIEW);
+        decision.setTimestamp(LocalDateTime.now().minusHours(1));
+        if (withInputs) {
+            decision.setInputs(StoredInputs.from(request(requestId)).encode());
+        }
+        return decision;
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static DecisionResult provisional(String requestId) {
+        DecisionResult result = new DecisionResult();
+        result.setRequestId(requestId);
+        result.setDecision("PROVISIONAL");
+        result.setReason(DecisionService.RULES_PASSED);
+        return result;
+    }
+    
+    private static DecisionResult llmResult(String decision) {
+        DecisionResult result = new DecisionResult();
+        result.setDecision(decision);
+        result.setReason("LLM review");
+        return result;
+    }
+}
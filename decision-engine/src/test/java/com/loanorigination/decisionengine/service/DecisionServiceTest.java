@@ -0,0 +1,110 @@
+package com.loanorigination.decisionengine.service;
+
+import com.loanorigination.common.dto.BureauResponse;
+import com.loanorigination.common.dto.DecisionReasoning;
+import com.loanorigination.common.dto.DecisionRequest;
+import com.loanorigination.common.dto.DecisionResult;
+import com.loanorigination.common.rules.RuleOutcomes;
+import com.loanorigination.common.rules.Rulebook;
+import com.loanorigination.decisionengine.entity.Decision;
+import com.loanorigination.decisionengine.repository.DecisionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.loanorigination.common.rules.RuleFixtures.rule;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DecisionServiceTest {
+    
+    private final DecisionRepository decisionRepository = mock(DecisionRepository.class);
+    private final RuleSnapshotService ruleSnapshotService = mock(RuleSnapshotService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReasoningService reasoningService = spy(new ReasoningService(meterRegistry));
+    private final DecisionService service = new DecisionService(decisionRepository, reasoningService,
+            ruleSnapshotService, meterRegistry);
+    private final Rulebook rulebook = spy(Rulebook.compile("v1", List.of(
+            rule("MIN_SCORE", "CREDIT_SCORE", ">=", "650"),
+            rule("MAX_AMOUNT", "LOAN_AMOUNT", "<=", "50000"),
+            rule("MIN_BUREAUS", "BUREAU_RESPONSE", ">=", "1"))));
+    private final List<RuleOutcomes> evaluations = new CopyOnWriteArrayList<>();
+    private final AtomicReference<Decision> saved = new AtomicReference<>();
+    
+    @BeforeEach
+    void setUp() {
+        when(decisionRepository.findByRequestId(anyString())).thenReturn(Optional.empty());
+        when(decisionRepository.save(any())).thenAnswer(invocation -> {
+            saved.set(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        doAnswer(invocation -> {
+            RuleOutcomes outcomes = (RuleOutcomes) invocation.callRealMethod();
+            evaluations.add(outcomes);
+            return outcomes;
+        }).when(rulebook).evaluate(any());
+        when(ruleSnapshotService.getRulebook()).thenReturn(rulebook);
+        when(ruleSnapshotService.getRulebook("v1")).thenReturn(rulebook);
+    }
+    
+    @Test
+    void decisionAndReasoningComeFromOneEvaluationPass() {
+        DecisionResult result = service.evaluate(request("req-1", "600", "80000"), true);
+        
+        assertThat(evaluations).hasSize(1);
+        verify(rulebook, never()).firstFailure(any());
+        verify(reasoningService).generateReasoning(any(), any(), same(evaluations.get(0)), eq("REJECTED"));
+        assertThat(result.getDecision()).isEqualTo("REJECTED");
+        assertThat(result.getReason()).isEqualTo(rulebook.rule(0).getFailureReason());
+        assertThat(result.getReasoning().getRuleEvaluations())
+                .extracting(DecisionReasoning.RuleEvaluation::isPassed)
+                .containsExactly(false, false, true);
+    }
+    
+    @Test
+    void storedReasoningIsRebuiltFromTheRecordedPassWithoutEvaluatingAgain() {
+        service.evaluate(request("req-1", "600", "80000"), false);
+        when(decisionRepository.findByRequestId("req-1")).thenReturn(Optional.of(saved.get()));
+        
+        DecisionReasoning reasoning = service.getReasoning("req-1");
+        
+        assertThat(evaluations).hasSize(1);
+        assertThat(reasoning.getRuleEvaluations())
+                .extracting(DecisionReasoning.RuleEvaluation::isPassed)
+                .containsExactly(false, false, true);
+        assertThat(reasoning.getSummary()).contains("2 out of 3 rules failed");
+    }
+    
+    @Test
+    void rulesAndReasoningStagesAreTimedWithTheDecisionMade() {
+        service.evaluate(request("req-1", "720", "25000"), true);
+        service.evaluate(request("req-2", "600", "25000"), false);
+        
+        assertThat(meterRegistry.get("decision.stage.rules").tags("outcome", "APPROVED").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("decision.stage.rules").tags("outcome", "REJECTED").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("decision.stage.reasoning").tags("decision", "APPROVED").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.find("decision.stage.reasoning").tags("decision", "REJECTED").timer()).isNull();
+    }
+    
+    private static DecisionRequest request(String requestId, String creditScore, String loanAmount) {
+        return new DecisionRequest(requestId, new BigDecimal(loanAmount), List.of(
+                new BureauResponse("EXPERIAN", new BigDecimal(creditScore), "SUCCESS", null, LocalDateTime.now())));
+    }
+}
@@ -0,0 +1,77 @@
+package com.loanorigination.decisionengine.service;
+
+import com.loanorigination.common.dto.DecisionReasoning;
+import com.loanorigination.common.dto.DecisionRequest;
+import com.loanorigination.common.dto.DecisionResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HybridDecisionServiceTest {
+    
+    private final DecisionService ruleBasedService = mock(DecisionService.class);
+    private final LLMDecisionService llmService = mock(LLMDecisionService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DecisionRequest request = new DecisionRequest("req-1", new BigDecimal("20000"), List.of());
+    
+    @Test
+    void rulesFallbackKeepsRequestedReasoningInEveryMode() {
+        when(ruleBasedService.evaluate(any(), anyBoolean())).thenAnswer(invocation -> ruleResult(invocation.getArgument(1)));
+        when(ruleBasedService.evaluate(any(), anyBoolean(), anyBoolean()))
+                .thenAnswer(invocation -> ruleResult(invocation.getArgument(1)));
+        
+        for (String mode : new String[] {"rules", "llm", "hybrid", "tiered"}) {
+            HybridDecisionService service = service(mode);
+            
+            assertThat(service.evaluate(request, true).getReasoning()).as(mode).isNotNull();
+            assertThat(service.evaluate(request, false).getReasoning()).as(mode).isNull();
+        }
+    }
+    
+    @Test
+    void hybridFallsBackToTheRuleResultWhenTheLlmFails() {
+        when(llmService.isEnabled()).thenReturn(true);
+        when(llmService.evaluateWithLLM(eq(request), any())).thenThrow(new IllegalStateException("LLM down"));
+        when(ruleBasedService.evaluate(any(), anyBoolean())).thenAnswer(invocation -> ruleResult(invocation.getArgument(1)));
+        
+        DecisionResult result = new HybridDecisionService(ruleBasedService, llmService, null,
+                new SimpleMeterRegistry(), "hybrid", true).evaluate(request, true);
+        
+        assertThat(result.getDecision()).isEqualTo("REJECTED");
+        assertThat(result.getReasoning()).isNotNull();
+    }
+    
+    @Test
+    void evaluateStageIsTimedWithTheModeAndDecision() {
+        when(ruleBasedService.evaluate(any(), anyBoolean())).thenAnswer(invocation -> ruleResult(invocation.getArgument(1)));
+        
+        service("RULES").evaluate(request, false);
+        
+        assertThat(meterRegistry.get("decision.stage.evaluate").tags("mode", "rules", "outcome", "rejected")
+                .timer().count()).isEqualTo(1);
+    }
+    
+    private HybridDecisionService service(String mode) {
+        return new HybridDecisionService(ruleBasedService, llmService, null, meterRegistry, mode, false);
+    }
+    
+    private static DecisionResult ruleResult(boolean includeReasoning) {
+        DecisionResult result = new DecisionResult();
+        result.setRequestId("req-1");
+        result.setDecision("REJECTED");
+        result.setReason("Credit score below minimum threshold");
+        if (includeReasoning) {
+            result.setReasoning(new DecisionReasoning());
+        }
+        return result;
+    }
+}
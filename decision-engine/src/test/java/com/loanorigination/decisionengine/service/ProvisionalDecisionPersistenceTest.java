@@ -0,0 +1,104 @@
+package com.loanorigination.decisionengine.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.loanorigination.common.dto.BureauResponse;
+import com.loanorigination.common.dto.DecisionRequest;
+import com.loanorigination.decisionengine.entity.Decision;
+import com.loanorigination.decisionengine.repository.DecisionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.loanorigination.common.rules.RuleFixtures.rule;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Finalizes and claims tiered decisions against the database, with each call committed as in
+ * production, as two instances racing over the same PROVISIONAL decision would.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({RuleConfigurationService.class, RuleSnapshotService.class, DecisionService.class, ReasoningService.class,
+        ProvisionalDecisionPersistenceTest.Config.class})
+class ProvisionalDecisionPersistenceTest {
+    
+    @Autowired
+    private RuleConfigurationService ruleConfigurationService;
+    
+    @Autowired
+    private DecisionService decisionService;
+    
+    @Autowired
+    private DecisionRepository decisionRepository;
+    
+    @Test
+    void onlyTheFirstReviewFinalizesAProvisionalDecision() {
+        ruleConfigurationService.createRule(rule("MIN_SCORE_FINAL", "CREDIT_SCORE", ">=", "650"));
+        decisionService.evaluate(request("req-final"), false, true);
+        
+        assertThat(decisionService.finalizeDecision("req-final", "REJECTED", "LLM review")).isTrue();
+        assertThat(decisionService.finalizeDecision("req-final", "APPROVED", DecisionService.RULES_PASSED)).isFalse();
+        assertThat(decisionService.finalizeDecision("req-unknown", "APPROVED", DecisionService.RULES_PASSED)).isFalse();
+        
+        assertThat(decisionRepository.findByRequestId("req-final")).get().satisfies(decision -> {
+            assertThat(decision.getDecision()).isEqualTo("REJECTED");
+            assertThat(decision.getReason()).isEqualTo("LLM review");
+            assertThat(decision.getFinalizedAt()).isNotNull();
+        });
+    }
+    
+    @Test
+    void onlyOneSweepClaimsAStaleReview() {
+        ruleConfigurationService.createRule(rule("MIN_SCORE_CLAIM", "CREDIT_SCORE", ">=", "650"));
+        decisionService.evaluate(request("req-fresh"), false, true);
+        decisionService.evaluate(request("req-stale"), false, true);
+        Decision stale = decisionRepository.findByRequestId("req-stale").orElseThrow();
+        stale.setReviewClaimedAt(LocalDateTime.now().minusHours(1));
+        decisionRepository.save(stale);
+        LocalDateTime claimedBefore = LocalDateTime.now().minusMinutes(15);
+        
+        // The instance that stored a decision has its review claimed already
+        assertThat(decisionService.getProvisionalDecisions(claimedBefore, 10))
+                .extracting(Decision::getRequestId)
+                .contains("req-stale")
+                .doesNotContain("req-fresh");
+        assertThat(decisionService.claimReview("req-fresh", claimedBefore)).isFalse();
+        
+        assertThat(decisionService.claimReview("req-stale", claimedBefore)).isTrue();
+        assertThat(decisionService.claimReview("req-stale", claimedBefore)).isFalse();
+        assertThat(decisionService.getProvisionalDecisions(claimedBefore, 10))
+                .extracting(Decision::getRequestId)
+                .doesNotContain("req-stale");
+    }
+    
+    private static DecisionRequest request(String requestId) {
+        return new DecisionRequest(requestId, new BigDecimal("25000"), List.of(
+                new BureauResponse("EXPERIAN", new BigDecimal("720"), "SUCCESS", null, LocalDateTime.now())));
+    }
+    
+    @TestConfiguration
+    static class Config {
+        
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+        
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().registerModule(new JavaTimeModule());
+        }
+    }
+}
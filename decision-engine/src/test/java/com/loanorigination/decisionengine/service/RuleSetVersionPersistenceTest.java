@@ -0,0 +1,91 @@
+package com.loanorigination.decisionengine.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.loanorigination.common.dto.BureauResponse;
+import com.loanorigination.common.dto.DecisionReasoning;
+import com.loanorigination.common.dto.DecisionRequest;
+import com.loanorigination.common.dto.RuleConfigurationDTO;
+import com.loanorigination.decisionengine.repository.RuleSetVersionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.loanorigination.common.rules.RuleFixtures.rule;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Edits rules through {@link RuleConfigurationService} against the database, with each edit
+ * committed as in production, and checks every rule set version it produces is stored.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({RuleConfigurationService.class, RuleSnapshotService.class, DecisionService.class, ReasoningService.class,
+        RuleSetVersionPersistenceTest.Config.class})
+class RuleSetVersionPersistenceTest {
+    
+    @Autowired
+    private RuleConfigurationService ruleConfigurationService;
+    
+    @Autowired
+    private RuleSnapshotService ruleSnapshotService;
+    
+    @Autowired
+    private DecisionService decisionService;
+    
+    @Autowired
+    private RuleSetVersionRepository ruleSetVersionRepository;
+    
+    @Test
+    void reasoningUsesTheRulesADecisionWasMadeWithAfterTwoEdits() {
+        RuleConfigurationDTO created = ruleConfigurationService.createRule(rule("MIN_SCORE", "CREDIT_SCORE", ">=", "650"));
+        String firstVersion = ruleSnapshotService.getSnapshot().getVersion();
+        decisionService.evaluate(request("req-1", "680"), false);
+        
+        ruleConfigurationService.updateRule(created.getId(), rule("MIN_SCORE", "CREDIT_SCORE", ">=", "700"));
+        String secondVersion = ruleSnapshotService.getSnapshot().getVersion();
+        ruleConfigurationService.updateRule(created.getId(), rule("MIN_SCORE", "CREDIT_SCORE", ">=", "750"));
+        
+        assertThat(ruleSnapshotService.getSnapshot().getVersion()).isNotIn(firstVersion, secondVersion);
+        assertThat(ruleSetVersionRepository.existsById(firstVersion)).isTrue();
+        assertThat(ruleSetVersionRepository.existsById(secondVersion)).isTrue();
+        assertThat(ruleSetVersionRepository.existsById(ruleSnapshotService.getSnapshot().getVersion())).isTrue();
+        
+        DecisionReasoning reasoning = decisionService.getReasoning("req-1");
+        
+        assertThat(reasoning.getRuleEvaluations()).singleElement().satisfies(evaluation -> {
+            assertThat(evaluation.isPassed()).isTrue();
+            assertThat(new BigDecimal(evaluation.getThreshold())).isEqualByComparingTo("650");
+        });
+    }
+    
+    private static DecisionRequest request(String requestId, String creditScore) {
+        return new DecisionRequest(requestId, new BigDecimal("25000"), List.of(
+                new BureauResponse("EXPERIAN", new BigDecimal(creditScore), "SUCCESS", null, LocalDateTime.now())));
+    }
+    
+    @TestConfiguration
+    static class Config {
+        
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+        
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().registerModule(new JavaTimeModule());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.loanorigination.decisionengine.service;
+
+import com.loanorigination.common.dto.BureauResponse;
+import com.loanorigination.common.dto.DecisionRequest;
+import com.loanorigination.common.rules.RuleFacts;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StoredInputsTest {
+    
+    @Test
+    void decodedInputsRebuildAnEquivalentRequest() {
+        DecisionRequest original = new DecisionRequest("req-1", new BigDecimal("25000.00"), List.of(
+                new BureauResponse("EXPERIAN", new BigDecimal("720"), "SUCCESS", null, LocalDateTime.now()),
+                new BureauResponse("EQUIFAX", null, "FAILED", "Service unavailable", LocalDateTime.now())));
+        original.setAnnualIncome(new BigDecimal("85000"));
+        original.setTotalDebt(new BigDecimal("12000"));
+        original.setMonthlyCashflow(new BigDecimal("1500.50"));
+        original.setApplicantAge(new BigDecimal("35"));
+        
+        DecisionRequest rebuilt = StoredInputs.decode(StoredInputs.from(original).encode()).toRequest("req-1");
+        
+        assertThat(rebuilt.getRequestId()).isEqualTo("req-1");
+        assertThat(rebuilt.getLoanAmount()).isEqualByComparingTo(new BigDecimal("25000.00"));
+        assertThat(rebuilt.getAnnualIncome()).isEqualByComparingTo(new BigDecimal("85000"));
+        assertThat(rebuilt.getTotalDebt()).isEqualByComparingTo(new BigDecimal("12000"));
+        assertThat(rebuilt.getMonthlyCashflow()).isEqualByComparingTo(new BigDecimal("1500.50"));
+        assertThat(rebuilt.getBureauResponses()).extracting(BureauResponse::getBureauName)
+                .containsExactly("EXPERIAN", "EQUIFAX");
+        assertSameFacts(rebuilt, original);
+    }
+    
+    @Test
+    void requestWithoutBureauResponsesRoundTrips() {
+        DecisionRequest original = new DecisionRequest("req-2", new BigDecimal("5000"), null);
+        
+        DecisionRequest rebuilt = StoredInputs.decode(StoredInputs.from(original).encode()).toRequest("req-2");
+        
+        assertThat(rebuilt.getBureauResponses()).isEmpty();
+        assertThat(rebuilt.getApplicantAge()).isNull();
+        assertSameFacts(rebuilt, original);
+    }
+    
+    private static void assertSameFacts(DecisionRequest rebuilt, DecisionRequest original) {
+        assertThat(RuleFacts.from(rebuilt)).usingRecursiveComparison()
+                .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .isEqualTo(RuleFacts.from(original));
+    }
+}
@@ -1,9 +1,12 @@
 package com.loanorigination.equifax;
 
+import com.loanorigination.common.deadline.DeadlineFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
+@Import(DeadlineFilter.class)
 public class EquifaxConnectorApplication {
     public static void main(String[] args) {
         SpringApplication.run(EquifaxConnectorApplication.class, args);
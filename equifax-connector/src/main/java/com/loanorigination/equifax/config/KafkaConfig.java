@@ -25,9 +25,14 @@ public class KafkaConfig {
         return new DefaultKafkaProducerFactory<>(configProps);
     }
     
+    /**
+     * Observed sends are timed as spring.kafka.template and carry the current trace in the record headers
+     */
     @Bean
     public KafkaTemplate<String, CreditBureauEvent> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+        KafkaTemplate<String, CreditBureauEvent> template = new KafkaTemplate<>(producerFactory());
+        template.setObservationEnabled(true);
+        return template;
     }
 }
 
@@ -1,9 +1,12 @@
 package com.loanorigination.experian;
 
+import com.loanorigination.common.deadline.DeadlineFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
+@Import(DeadlineFilter.class)
 public class ExperianConnectorApplication {
     public static void main(String[] args) {
         SpringApplication.run(ExperianConnectorApplication.class, args);
@@ -1,5 +1,6 @@
 package com.loanorigination.experian.service;
 
+import com.loanorigination.common.deadline.DeadlineContext;
 import com.loanorigination.common.dto.BureauResponse;
 import com.loanorigination.common.dto.CreditRequest;
 import com.loanorigination.common.event.CreditBureauEvent;
@@ -46,6 +47,8 @@ public class ExperianService {
     private static final String KAFKA_TOPIC = "credit-bureau-events";
     
     public BureauResponse checkCredit(CreditRequest request) {
+        // Don't pay for a bureau pull the caller has already given up on
+        DeadlineContext.check("experian.check");
         log.info("Calling Experian API for SSN: {}", maskSsn(request.getSsn()));
         
         BureauResponse response = new BureauResponse(
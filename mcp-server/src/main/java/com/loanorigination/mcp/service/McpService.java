@@ -38,6 +38,7 @@ public class McpService {
         log.info("MCP: Performing credit check for SSN: {}", request.getSsn());
         return webClient.post()
                 .uri(orchestratorUrl + "/credit/check")
+                .header("X-Channel", "mcp")
                 .bodyValue(request)
                 .retrieve()
                 .bodyToMono(CreditResponse.class)
@@ -0,0 +1,161 @@
+package com.loanorigination.orchestrator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Credit bureaus the orchestrator fans out to. Adding a bureau, or a second
+ * instance of one, is a configuration change only.
+ */
+@ConfigurationProperties(prefix = "bureau-registry")
+public class BureauRegistryProperties {
+    
+    private List<Bureau> bureaus = new ArrayList<>();
+    
+    public List<Bureau> getBureaus() {
+        return bureaus;
+    }
+    
+    public void setBureaus(List<Bureau> bureaus) {
+        this.bureaus = bureaus;
+    }
+    
+    public static class Bureau {
+        private String name; // Reported as BureauResponse.bureauName, e.g. EXPERIAN
+        private String url;
+        private int weight = 1; // Higher weight bureaus are ordered first and pulled first in a waterfall
+        private Duration timeout = Duration.ofSeconds(5);
+        private boolean required = true; // Optional bureaus are dropped from the result when they fail
+        private boolean enabled = true;
+        private Duration cacheTtl = Duration.ZERO; // How long a successful response is reused; zero disables caching
+        private DownstreamProperties.Pool pool = new DownstreamProperties.Pool();
+        private Hedge hedge = new Hedge();
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public String getUrl() {
+            return url;
+        }
+        
+        public void setUrl(String url) {
+            this.url = url;
+        }
+        
+        public int getWeight() {
+            return weight;
+        }
+        
+        public void setWeight(int weight) {
+            this.weight = weight;
+        }
+        
+        public Duration getTimeout() {
+            return timeout;
+        }
+        
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+        
+        public boolean isRequired() {
+            return required;
+        }
+        
+        public void setRequired(boolean required) {
+            this.required = required;
+        }
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public Duration getCacheTtl() {
+            return cacheTtl;
+        }
+        
+        public void setCacheTtl(Duration cacheTtl) {
+            this.cacheTtl = cacheTtl;
+        }
+        
+        public DownstreamProperties.Pool getPool() {
+            return pool;
+        }
+        
+        public void setPool(DownstreamProperties.Pool pool) {
+            this.pool = pool;
+        }
+        
+        public Hedge getHedge() {
+            return hedge;
+        }
+        
+        public void setHedge(Hedge hedge) {
+            this.hedge = hedge;
+        }
+    }
+    
+    /**
+     * Opt-in hedging: a call that has not answered by the given percentile of the bureau's
+     * recent latency is duplicated to the hedge instance, and the first answer wins.
+     */
+    public static class Hedge {
+        private boolean enabled = false;
+        private String url; // Another instance of the connector; required when hedging is enabled
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(50); // Never hedge sooner than this
+        private long minSamples = 50; // Calls observed before hedging starts
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public String getUrl() {
+            return url;
+        }
+        
+        public void setUrl(String url) {
+            this.url = url;
+        }
+        
+        public double getPercentile() {
+            return percentile;
+        }
+        
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+        
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+        
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+        
+        public long getMinSamples() {
+            return minSamples;
+        }
+        
+        public void setMinSamples(long minSamples) {
+            this.minSamples = minSamples;
+        }
+    }
+}
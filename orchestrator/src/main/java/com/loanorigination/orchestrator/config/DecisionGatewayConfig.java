@@ -0,0 +1,40 @@
+package com.loanorigination.orchestrator.config;
+
+import com.loanorigination.orchestrator.service.DecisionEngineClient;
+import com.loanorigination.orchestrator.service.DecisionGateway;
+import com.loanorigination.orchestrator.service.InProcessDecisionGateway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.Locale;
+
+/**
+ * Selects where decisions are made: "remote" calls the decision engine over HTTP, "in-process"
+ * evaluates its rule path inside the orchestrator
+ */
+@Configuration
+public class DecisionGatewayConfig {
+    
+    private static final Logger log = LoggerFactory.getLogger(DecisionGatewayConfig.class);
+    
+    @Bean
+    @Primary
+    public DecisionGateway decisionGateway(@Value("${orchestrator.decision.mode:remote}") String mode,
+                                           DecisionEngineClient decisionEngineClient,
+                                           InProcessDecisionGateway inProcessDecisionGateway) {
+        log.info("Decision mode: {}", mode);
+        switch (mode.toLowerCase(Locale.ROOT)) {
+            case "remote":
+                return decisionEngineClient;
+            case "in-process":
+                return inProcessDecisionGateway;
+            default:
+                throw new IllegalArgumentException(
+                        "Unknown decision mode: " + mode + " (expected remote or in-process)");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.loanorigination.orchestrator.config;
+
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Long-lived WebClients for the orchestrator's downstream services, built once at startup.
+ * Every client owns a dedicated Reactor Netty connection pool with metrics enabled, so pool
+ * occupancy ({@code reactor.netty.connection.provider.*.connections}), pending-queue depth and
+ * acquire latency ({@code reactor.netty.connection.provider.pending.connections.time}) are
+ * published per downstream, tagged with the pool name.
+ */
+@Component
+public class DownstreamClientRegistry {
+    
+    private static final Logger log = LoggerFactory.getLogger(DownstreamClientRegistry.class);
+    
+    private final WebClient.Builder webClientBuilder;
+    private final DownstreamProperties properties;
+    private final Map<String, WebClient> clients = new ConcurrentHashMap<>();
+    private final List<ConnectionProvider> connectionProviders = new CopyOnWriteArrayList<>();
+    
+    public DownstreamClientRegistry(WebClient.Builder webClientBuilder, DownstreamProperties properties) {
+        this.webClientBuilder = webClientBuilder;
+        this.properties = properties;
+        
+        properties.getServices().forEach((name, service) ->
+                clients.put(name, createClient(name, service.getBaseUrl(), service.getPool())));
+    }
+    
+    /**
+     * Returns the pooled client registered for the given downstream service
+     */
+    public WebClient client(String name) {
+        WebClient client = clients.get(name);
+        if (client == null) {
+            throw new IllegalArgumentException("No downstream service configured with name: " + name);
+        }
+        return client;
+    }
+    
+    /**
+     * Builds and registers a pooled client for a downstream that is not listed under
+     * {@code downstream.services}, such as a bureau from the bureau registry
+     */
+    public WebClient register(String name, String baseUrl, DownstreamProperties.Pool pool) {
+        if (clients.containsKey(name)) {
+            throw new IllegalArgumentException("Downstream service already registered: " + name);
+        }
+        WebClient client = createClient(name, baseUrl, pool);
+        clients.put(name, client);
+        return client;
+    }
+    
+    private WebClient createClient(String name, String baseUrl, DownstreamProperties.Pool pool) {
+        if (baseUrl == null || baseUrl.isBlank()) {
+            throw new IllegalArgumentException("Downstream service " + name + " has no base-url configured");
+        }
+        DownstreamProperties.Pool settings = (pool != null ? pool : new DownstreamProperties.Pool())
+                .withDefaults(properties.getPoolDefaults());
+        
+        ConnectionProvider.Builder providerBuilder = ConnectionProvider.builder(name)
+                .metrics(true);
+        if (settings.getMaxConnections() != null) {
+            providerBuilder.maxConnections(settings.getMaxConnections());
+        }
+        if (settings.getPendingAcquireMaxCount() != null) {
+            providerBuilder.pendingAcquireMaxCount(settings.getPendingAcquireMaxCount());
+        }
+        if (settings.getPendingAcquireTimeout() != null) {
+            providerBuilder.pendingAcquireTimeout(settings.getPendingAcquireTimeout());
+        }
+        if (settings.getMaxIdleTime() != null) {
+            providerBuilder.maxIdleTime(settings.getMaxIdleTime());
+        }
+        if (settings.getMaxLifeTime() != null) {
+            providerBuilder.maxLifeTime(settings.getMaxLifeTime());
+        }
+        if (settings.getEvictInBackground() != null) {
+            providerBuilder.evictInBackground(settings.getEvictInBackground());
+        }
+        ConnectionProvider provider = providerBuilder.build();
+        connectionProviders.add(provider);
+        
+        boolean keepAlive = settings.getKeepAlive() == null || settings.getKeepAlive();
+        HttpClient httpClient = HttpClient.create(provider)
+                .keepAlive(keepAlive)
+                .option(ChannelOption.SO_KEEPALIVE, keepAlive);
+        
+        log.info("Created pooled client for {} at {} (maxConnections: {}, pendingAcquireMaxCount: {})",
+                name, baseUrl, settings.getMaxConnections(), settings.getPendingAcquireMaxCount());
+        
+        return webClientBuilder.clone()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        connectionProviders.forEach(ConnectionProvider::dispose);
+    }
+}
@@ -0,0 +1,139 @@
+package com.loanorigination.orchestrator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Connection settings for every downstream service the orchestrator calls.
+ * Each service gets its own connection pool; unset pool values fall back to
+ * {@code downstream.pool-defaults}.
+ */
+@ConfigurationProperties(prefix = "downstream")
+public class DownstreamProperties {
+    
+    private Pool poolDefaults = new Pool();
+    private Map<String, Service> services = new LinkedHashMap<>();
+    
+    public Pool getPoolDefaults() {
+        return poolDefaults;
+    }
+    
+    public void setPoolDefaults(Pool poolDefaults) {
+        this.poolDefaults = poolDefaults;
+    }
+    
+    public Map<String, Service> getServices() {
+        return services;
+    }
+    
+    public void setServices(Map<String, Service> services) {
+        this.services = services;
+    }
+    
+    public static class Service {
+        private String baseUrl;
+        private Pool pool = new Pool();
+        
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+        
+        public void setBaseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+        
+        public Pool getPool() {
+            return pool;
+        }
+        
+        public void setPool(Pool pool) {
+            this.pool = pool;
+        }
+    }
+    
+    public static class Pool {
+        private Integer maxConnections;
+        private Integer pendingAcquireMaxCount;
+        private Duration pendingAcquireTimeout;
+        private Duration maxIdleTime;
+        private Duration maxLifeTime;
+        private Duration evictInBackground;
+        private Boolean keepAlive;
+        
+        /**
+         * Returns a copy of this pool where every unset value is taken from the defaults
+         */
+        public Pool withDefaults(Pool defaults) {
+            Pool resolved = new Pool();
+            resolved.maxConnections = maxConnections != null ? maxConnections : defaults.maxConnections;
+            resolved.pendingAcquireMaxCount = pendingAcquireMaxCount != null
+                    ? pendingAcquireMaxCount : defaults.pendingAcquireMaxCount;
+            resolved.pendingAcquireTimeout = pendingAcquireTimeout != null
+                    ? pendingAcquireTimeout : defaults.pendingAcquireTimeout;
+            resolved.maxIdleTime = maxIdleTime != null ? maxIdleTime : defaults.maxIdleTime;
+            resolved.maxLifeTime = maxLifeTime != null ? maxLifeTime : defaults.maxLifeTime;
+            resolved.evictInBackground = evictInBackground != null ? evictInBackground : defaults.evictInBackground;
+            resolved.keepAlive = keepAlive != null ? keepAlive : defaults.keepAlive;
+            return resolved;
+        }
+        
+        public Integer getMaxConnections() {
+            return maxConnections;
+        }
+        
+        public void setMaxConnections(Integer maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+        
+        public Integer getPendingAcquireMaxCount() {
+            return pendingAcquireMaxCount;
+        }
+        
+        public void setPendingAcquireMaxCount(Integer pendingAcquireMaxCount) {
+            this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+        }
+        
+        public Duration getPendingAcquireTimeout() {
+            return pendingAcquireTimeout;
+        }
+        
+        public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) {
+            this.pendingAcquireTimeout = pendingAcquireTimeout;
+        }
+        
+        public Duration getMaxIdleTime() {
+            return maxIdleTime;
+        }
+        
+        public void setMaxIdleTime(Duration maxIdleTime) {
+            this.maxIdleTime = maxIdleTime;
+        }
+        
+        public Duration getMaxLifeTime() {
+            return maxLifeTime;
+        }
+        
+        public void setMaxLifeTime(Duration maxLifeTime) {
+            this.maxLifeTime = maxLifeTime;
+        }
+        
+        public Duration getEvictInBackground() {
+            return evictInBackground;
+        }
+        
+        public void setEvictInBackground(Duration evictInBackground) {
+            this.evictInBackground = evictInBackground;
+        }
+        
+        public Boolean getKeepAlive() {
+            return keepAlive;
+        }
+        
+        public void setKeepAlive(Boolean keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+    }
+}
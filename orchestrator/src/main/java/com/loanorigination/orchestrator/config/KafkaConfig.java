@@ -0,0 +1,126 @@
+package com.loanorigination.orchestrator.config;
+
+import com.loanorigination.common.dto.CreditResponse;
+import com.loanorigination.orchestrator.service.CreditApplicationEventConsumer;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka wiring for event mode: loan applications are consumed in batches per poll with
+ * manual acknowledgement, and credit responses are published as JSON.
+ */
+@Configuration
+@ConditionalOnProperty(name = "orchestrator.event-mode.enabled", havingValue = "true")
+public class KafkaConfig {
+    
+    private static final Duration POLL_INTERVAL_MARGIN = Duration.ofSeconds(30);
+    
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+    
+    @Bean
+    public ConsumerFactory<String, String> applicationConsumerFactory(
+            @Value("${orchestrator.event-mode.group-id:orchestrator}") String groupId,
+            @Value("${orchestrator.event-mode.max-poll-records:64}") int maxPollRecords,
+            @Value("${orchestrator.event-mode.concurrency:32}") int concurrency,
+            @Value("${orchestrator.deadline.batch:60s}") Duration batchDeadline) {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // Values are parsed by the consumer, so a malformed application becomes a FAILED response
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        // The listener gives up on a poll after its budget, so the broker must wait at least that long
+        Duration pollBudget = CreditApplicationEventConsumer.pollBudget(batchDeadline, maxPollRecords, concurrency);
+        configProps.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG,
+                (int) Math.min(Integer.MAX_VALUE, pollBudget.plus(POLL_INTERVAL_MARGIN).toMillis()));
+        return new DefaultKafkaConsumerFactory<>(configProps);
+    }
+    
+    /**
+     * One consumer thread per partition up to the configured concurrency. Offsets are
+     * committed only when the listener acknowledges a poll's records. A failed poll is retried
+     * with exponential backoff until it succeeds, never skipped: skipping would commit offsets
+     * of applications whose responses were not published.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> applicationListenerContainerFactory(
+            ConsumerFactory<String, String> applicationConsumerFactory,
+            @Value("${orchestrator.event-mode.consumers:6}") int consumers,
+            @Value("${orchestrator.event-mode.retry.initial-interval:1s}") Duration retryInitialInterval,
+            @Value("${orchestrator.event-mode.retry.max-interval:60s}") Duration retryMaxInterval) {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(applicationConsumerFactory);
+        factory.setConcurrency(consumers);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        
+        ExponentialBackOff backOff = new ExponentialBackOff(retryInitialInterval.toMillis(), 2.0);
+        backOff.setMaxInterval(retryMaxInterval.toMillis());
+        backOff.setMaxElapsedTime(Long.MAX_VALUE);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(backOff));
+        return factory;
+    }
+    
+    @Bean
+    public ProducerFactory<String, CreditResponse> creditResponseProducerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+    
+    /**
+     * Observed sends are timed as spring.kafka.template and carry the current trace in the record headers
+     */
+    @Bean
+    public KafkaTemplate<String, CreditResponse> creditResponseKafkaTemplate(
+            ProducerFactory<String, CreditResponse> creditResponseProducerFactory) {
+        KafkaTemplate<String, CreditResponse> template = new KafkaTemplate<>(creditResponseProducerFactory);
+        template.setObservationEnabled(true);
+        return template;
+    }
+    
+    @Bean
+    public NewTopic applicationTopic(@Value("${orchestrator.event-mode.input-topic}") String topic,
+                                     @Value("${orchestrator.event-mode.partitions:12}") int partitions,
+                                     @Value("${orchestrator.event-mode.replicas:1}") int replicas) {
+        return TopicBuilder.name(topic).partitions(partitions).replicas(replicas).build();
+    }
+    
+    @Bean
+    public NewTopic creditResponseTopic(@Value("${orchestrator.event-mode.output-topic}") String topic,
+                                        @Value("${orchestrator.event-mode.partitions:12}") int partitions,
+                                        @Value("${orchestrator.event-mode.replicas:1}") int replicas) {
+        return TopicBuilder.name(topic).partitions(partitions).replicas(replicas).build();
+    }
+}
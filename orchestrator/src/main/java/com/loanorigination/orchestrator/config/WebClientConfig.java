@@ -1,15 +1,59 @@
 package com.loanorigination.orchestrator.config;
 
+import com.loanorigination.common.deadline.Deadline;
+import com.loanorigination.common.deadline.DeadlineExceededException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 @Configuration
+@EnableConfigurationProperties({DownstreamProperties.class, BureauRegistryProperties.class})
 public class WebClientConfig {
     
+    /**
+     * Clients speak JSON by default and CBOR where a client asks for it, e.g. towards the
+     * decision engine (orchestrator.decision.wire-format). Calls are observed, which propagates
+     * the current trace to the downstream service.
+     */
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    public WebClient.Builder webClientBuilder(MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+        return WebClient.builder()
+                .observationRegistry(observationRegistry)
+                .codecs(codecs -> {
+                    codecs.customCodecs().register(new Jackson2CborEncoder(cborMapper));
+                    codecs.customCodecs().register(new Jackson2CborDecoder(cborMapper));
+                })
+                .filter(deadlinePropagation(meterRegistry));
+    }
+    
+    /**
+     * Sends the remaining time of the request's deadline (from the Reactor context) to every
+     * downstream call, and skips the call altogether once the deadline has passed
+     */
+    private static ExchangeFilterFunction deadlinePropagation(MeterRegistry meterRegistry) {
+        return (request, next) -> Mono.deferContextual(context -> {
+            Deadline deadline = context.getOrDefault(Deadline.class, null);
+            if (deadline == null) {
+                return next.exchange(request);
+            }
+            if (deadline.isExpired()) {
+                meterRegistry.counter("deadline.expired", "stage", "downstream-call").increment();
+                return Mono.error(new DeadlineExceededException(request.method() + " " + request.url().getPath()));
+            }
+            return next.exchange(ClientRequest.from(request)
+                    .header(Deadline.HEADER, deadline.toHeaderValue())
+                    .build());
+        });
     }
 }
-
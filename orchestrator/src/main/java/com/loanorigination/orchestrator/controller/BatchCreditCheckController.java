@@ -0,0 +1,120 @@
+package com.loanorigination.orchestrator.controller;
+
+import com.loanorigination.common.dto.CreditResponse;
+import com.loanorigination.orchestrator.service.BatchCreditCheckService;
+import com.loanorigination.orchestrator.service.BureauStrategy;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/credit")
+@Tag(name = "Batch Credit Check", description = "Bulk credit checks streamed as NDJSON")
+public class BatchCreditCheckController {
+    
+    private static final Logger log = LoggerFactory.getLogger(BatchCreditCheckController.class);
+    
+    private final BatchCreditCheckService batchCreditCheckService;
+    private final Duration batchTimeout;
+    
+    public BatchCreditCheckController(BatchCreditCheckService batchCreditCheckService,
+                                      @Value("${orchestrator.batch.timeout:4h}") Duration batchTimeout) {
+        this.batchCreditCheckService = batchCreditCheckService;
+        this.batchTimeout = batchTimeout;
+    }
+    
+    @Operation(
+            summary = "Check credit for a batch of applicants",
+            description = "Accepts one credit check request per line (NDJSON) and streams one credit response per " +
+                    "line back as NDJSON as soon as each check completes, so responses are not in input order. " +
+                    "Each response's requestId is '<batchId>:<line number>'. Lines that are invalid or whose " +
+                    "check fails produce a response with status FAILED and the reason."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch accepted; responses are streamed as they complete"),
+            @ApiResponse(responseCode = "400", description = "Unknown bureau strategy")
+    })
+    @PostMapping(value = "/check/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> checkCreditBatch(
+            InputStream body,
+            @Parameter(description = "Overrides the bureau pull strategy for every line", example = "waterfall")
+            @RequestHeader(value = "X-Bureau-Strategy", required = false) String bureauStrategy) {
+        BureauStrategy strategy = parseBureauStrategy(bureauStrategy);
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(batchTimeout.toMillis());
+        
+        // Lines are read on demand, so the request body is never held in memory
+        Flux<String> lines = Flux.using(
+                        () -> new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)),
+                        reader -> Flux.fromStream(reader.lines()),
+                        this::closeQuietly)
+                .subscribeOn(Schedulers.boundedElastic());
+        
+        // Responses are written off the HTTP client threads; a slow reader slows down the batch
+        Disposable subscription = batchCreditCheckService.process(lines, strategy)
+                .publishOn(Schedulers.boundedElastic())
+                .subscribe(
+                        response -> send(emitter, response),
+                        error -> {
+                            log.error("Batch credit check aborted: {}", error.getMessage());
+                            emitter.completeWithError(error);
+                        },
+                        emitter::complete);
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(error -> subscription.dispose());
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(emitter);
+    }
+    
+    private void send(ResponseBodyEmitter emitter, CreditResponse response) {
+        try {
+            emitter.send(response, MediaType.APPLICATION_JSON);
+            emitter.send("\n", MediaType.TEXT_PLAIN);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private void closeQuietly(BufferedReader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            log.debug("Could not close batch request body: {}", e.getMessage());
+        }
+    }
+    
+    private BureauStrategy parseBureauStrategy(String bureauStrategy) {
+        if (bureauStrategy == null || bureauStrategy.isBlank()) {
+            return null;
+        }
+        try {
+            return BureauStrategy.fromName(bureauStrategy);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
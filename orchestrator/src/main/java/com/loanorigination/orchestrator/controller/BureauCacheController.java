@@ -0,0 +1,38 @@
+package com.loanorigination.orchestrator.controller;
+
+import com.loanorigination.orchestrator.service.BureauResponseCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/bureau-cache")
+@Tag(name = "Bureau Cache", description = "Operations on the cached credit bureau responses")
+public class BureauCacheController {
+    
+    private final BureauResponseCache bureauResponseCache;
+    
+    public BureauCacheController(BureauResponseCache bureauResponseCache) {
+        this.bureauResponseCache = bureauResponseCache;
+    }
+    
+    @Operation(
+            summary = "Clear cached bureau responses",
+            description = "Drops cached responses of one bureau, or of every bureau when no bureau is given"
+    )
+    @ApiResponse(responseCode = "200", description = "Cache cleared")
+    @DeleteMapping
+    public ResponseEntity<Map<String, Long>> clear(
+            @Parameter(description = "Bureau name", example = "EXPERIAN")
+            @RequestParam(name = "bureau", required = false) String bureau) {
+        return ResponseEntity.ok(Map.of("cleared", bureauResponseCache.clear(bureau)));
+    }
+}
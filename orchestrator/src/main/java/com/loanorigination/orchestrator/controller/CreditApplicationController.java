@@ -0,0 +1,114 @@
+package com.loanorigination.orchestrator.controller;
+
+import com.loanorigination.common.dto.ApplicationStageEvent;
+import com.loanorigination.common.dto.ApplicationStatus;
+import com.loanorigination.common.dto.CreditRequest;
+import com.loanorigination.orchestrator.service.ApplicationService;
+import com.loanorigination.orchestrator.service.BureauStrategy;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/credit/applications")
+@Tag(name = "Credit Applications", description = "Asynchronous credit applications with polling and streamed progress")
+public class CreditApplicationController {
+    
+    private final ApplicationService applicationService;
+    private final String retryAfterSeconds;
+    
+    public CreditApplicationController(ApplicationService applicationService,
+                                       @Value("${orchestrator.concurrency.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.applicationService = applicationService;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+    }
+    
+    @Operation(
+            summary = "Submit a credit application",
+            description = "Accepts the application for asynchronous processing and returns its ID immediately. " +
+                    "Poll GET /credit/applications/{id} or stream GET /credit/applications/{id}/events for the result."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Application accepted"),
+            @ApiResponse(responseCode = "400", description = "Invalid request or unknown bureau strategy"),
+            @ApiResponse(responseCode = "503", description = "Too many applications in progress; retry after the Retry-After delay")
+    })
+    @PostMapping(produces = "application/json", consumes = "application/json")
+    public ResponseEntity<ApplicationStatus> submit(
+            @Valid @RequestBody CreditRequest request,
+            @Parameter(description = "Overrides the bureau pull strategy for this application", example = "waterfall")
+            @RequestHeader(value = "X-Bureau-Strategy", required = false) String bureauStrategy) {
+        BureauStrategy strategy;
+        try {
+            strategy = bureauStrategy == null || bureauStrategy.isBlank() ? null : BureauStrategy.fromName(bureauStrategy);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        
+        try {
+            ApplicationStatus status = applicationService.submit(request, strategy);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/credit/applications/" + status.getApplicationId()))
+                    .body(status);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                    .build();
+        }
+    }
+    
+    @Operation(
+            summary = "Get application status",
+            description = "Returns the application's status, the stages reached so far and, once completed, the credit check result"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Application found"),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired application")
+    })
+    @GetMapping(value = "/{id}", produces = "application/json")
+    public ResponseEntity<ApplicationStatus> getStatus(
+            @Parameter(description = "Application ID") @PathVariable String id) {
+        ApplicationStatus status = applicationService.getStatus(id);
+        if (status == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown or expired application: " + id);
+        }
+        return ResponseEntity.ok(status);
+    }
+    
+    @Operation(
+            summary = "Stream application stage events",
+            description = "Server-sent events for each stage (SUBMITTED, PROCESSING, PRE_BUREAU_RULES_PASSED, BUREAUS_COMPLETED, " +
+                    "DECISION_COMPLETED, COMPLETED or FAILED). Stages already reached are replayed first; " +
+                    "the stream ends after the final stage."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired application")
+    })
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ApplicationStageEvent>> events(
+            @Parameter(description = "Application ID") @PathVariable String id) {
+        Flux<ApplicationStageEvent> events = applicationService.events(id);
+        if (events == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown or expired application: " + id);
+        }
+        return events.map(event -> ServerSentEvent.builder(event)
+                .event(event.getStage())
+                .build());
+    }
+}
@@ -1,17 +1,34 @@
 package com.loanorigination.orchestrator.controller;
 
+import com.loanorigination.common.deadline.Deadline;
+import com.loanorigination.common.deadline.DeadlineExceededException;
 import com.loanorigination.common.dto.CreditRequest;
 import com.loanorigination.common.dto.CreditResponse;
+import com.loanorigination.orchestrator.service.AdaptiveConcurrencyLimiter;
+import com.loanorigination.orchestrator.service.BureauStrategy;
+import com.loanorigination.orchestrator.service.DeadlinePolicy;
 import com.loanorigination.orchestrator.service.OrchestrationService;
+import com.loanorigination.orchestrator.service.RequestChannel;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/credit")
@@ -19,9 +36,24 @@ import org.springframework.web.bind.annotation.*;
 public class CreditOrchestratorController {
     
     private final OrchestrationService orchestrationService;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final DeadlinePolicy deadlinePolicy;
+    private final MeterRegistry meterRegistry;
+    private final Mono<ResponseEntity<CreditResponse>> serviceUnavailable;
     
-    public CreditOrchestratorController(OrchestrationService orchestrationService) {
+    public CreditOrchestratorController(OrchestrationService orchestrationService,
+                                        AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                        DeadlinePolicy deadlinePolicy,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${orchestrator.concurrency.retry-after-seconds:1}") int retryAfterSeconds) {
         this.orchestrationService = orchestrationService;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.deadlinePolicy = deadlinePolicy;
+        this.meterRegistry = meterRegistry;
+        // Built once: shedding load and failing fast on an open circuit allocate no response
+        this.serviceUnavailable = Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .build());
     }
 
     @Operation(
@@ -38,7 +70,17 @@ public class CreditOrchestratorController {
             ),
             @ApiResponse(
                     responseCode = "400",
-                    description = "Invalid request - validation failed",
+                    description = "Invalid request - validation failed or unknown bureau strategy",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Over capacity or decision engine unavailable; retry after the Retry-After delay",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "504",
+                    description = "The request's deadline passed before a decision was made",
                     content = @Content
             ),
             @ApiResponse(
@@ -48,9 +90,56 @@ public class CreditOrchestratorController {
             )
     })
     @PostMapping(value = "/check", produces = "application/json", consumes = "application/json")
-    public ResponseEntity<CreditResponse> checkCredit(@Valid @RequestBody CreditRequest request) {
-        CreditResponse response = orchestrationService.processCreditCheck(request);
-        return ResponseEntity.ok().contentType(org.springframework.http.MediaType.APPLICATION_JSON).body(response);
+    public Mono<ResponseEntity<CreditResponse>> checkCredit(
+            @Valid @RequestBody CreditRequest request,
+            @Parameter(description = "Overrides the bureau pull strategy for this request", example = "waterfall")
+            @RequestHeader(value = "X-Bureau-Strategy", required = false) String bureauStrategy,
+            @Parameter(description = "Calling channel, used to shed lower priority traffic first", example = "web")
+            @RequestHeader(value = "X-Channel", required = false) String channel,
+            @Parameter(description = "Milliseconds the caller is willing to wait; capped by the channel's budget", example = "5000")
+            @RequestHeader(value = Deadline.HEADER, required = false) String callerDeadline) {
+        BureauStrategy strategy = parseBureauStrategy(bureauStrategy);
+        RequestChannel requestChannel = parseChannel(channel);
+        Deadline deadline = deadlinePolicy.deadlineFor(requestChannel, callerDeadline);
+        
+        // Shed load over the adaptive limit immediately rather than queueing it
+        AdaptiveConcurrencyLimiter.Permit permit = concurrencyLimiter.tryAcquire(requestChannel);
+        if (permit == null) {
+            return serviceUnavailable;
+        }
+        
+        // Abandon the check, including downstream calls still in flight, once the deadline passes
+        return orchestrationService.processCreditCheck(request, strategy)
+                .timeout(deadline.remaining())
+                .contextWrite(context -> context.put(Deadline.class, deadline))
+                .doFinally(signal -> permit.release(signal == SignalType.ON_COMPLETE))
+                .map(response -> ResponseEntity.ok()
+                        .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                        .body(response))
+                .onErrorResume(CallNotPermittedException.class, error -> serviceUnavailable)
+                .onErrorMap(error -> error instanceof TimeoutException || error instanceof DeadlineExceededException,
+                        error -> {
+                            meterRegistry.counter("deadline.expired", "stage", "credit-check").increment();
+                            return new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Request deadline exceeded");
+                        });
+    }
+    
+    private RequestChannel parseChannel(String channel) {
+        try {
+            return RequestChannel.fromHeader(channel);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+    
+    private BureauStrategy parseBureauStrategy(String bureauStrategy) {
+        if (bureauStrategy == null || bureauStrategy.isBlank()) {
+            return null;
+        }
+        try {
+            return BureauStrategy.fromName(bureauStrategy);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 }
-
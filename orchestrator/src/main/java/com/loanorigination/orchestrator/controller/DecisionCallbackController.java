@@ -0,0 +1,82 @@
+package com.loanorigination.orchestrator.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loanorigination.common.callback.CallbackSignature;
+import com.loanorigination.common.dto.DecisionResult;
+import com.loanorigination.orchestrator.service.ApplicationService;
+import com.loanorigination.orchestrator.service.AuditLoggingClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+
+/**
+ * Receives final decisions from the decision engine for requests that were answered with a
+ * provisional decision (decision mode "tiered"). Callbacks must carry the body's
+ * {@link CallbackSignature} made with the shared callback secret.
+ */
+@RestController
+@RequestMapping("/internal/decisions")
+@Tag(name = "Decision Callbacks", description = "Final decisions posted back by the decision engine")
+public class DecisionCallbackController {
+    
+    private static final Logger log = LoggerFactory.getLogger(DecisionCallbackController.class);
+    
+    private final ApplicationService applicationService;
+    private final AuditLoggingClient auditLoggingClient;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final String callbackSecret;
+    
+    public DecisionCallbackController(ApplicationService applicationService,
+                                      AuditLoggingClient auditLoggingClient,
+                                      MeterRegistry meterRegistry,
+                                      ObjectMapper objectMapper,
+                                      @Value("${orchestrator.decision-callback.secret:}") String callbackSecret) {
+        this.applicationService = applicationService;
+        this.auditLoggingClient = auditLoggingClient;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.callbackSecret = callbackSecret;
+        if (callbackSecret == null || callbackSecret.isBlank()) {
+            log.warn("orchestrator.decision-callback.secret is not set; final decision callbacks will be rejected");
+        }
+    }
+    
+    @Operation(
+            summary = "Receive a final decision",
+            description = "Finalizes an asynchronous application that was answered with a PROVISIONAL decision " +
+                    "and audits the final decision. Requires the " + CallbackSignature.HEADER + " header."
+    )
+    @PostMapping(value = "/final", consumes = "application/json")
+    public ResponseEntity<Void> finalDecision(@RequestHeader(value = CallbackSignature.HEADER, required = false) String signature,
+                                              @RequestBody byte[] body) {
+        if (!CallbackSignature.verify(callbackSecret, body, signature)) {
+            meterRegistry.counter("orchestrator.decisions.callbacks.rejected").increment();
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid callback signature");
+        }
+        DecisionResult decision;
+        try {
+            decision = objectMapper.readValue(body, DecisionResult.class);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed decision", e);
+        }
+        log.info("Final decision for request {}: {}", decision.getRequestId(), decision.getDecision());
+        meterRegistry.counter("orchestrator.decisions.finalized", "decision", String.valueOf(decision.getDecision()))
+                .increment();
+        
+        if (!applicationService.finalizeDecision(decision)) {
+            log.debug("No open application for request {}", decision.getRequestId());
+        }
+        auditLoggingClient.logEvent(decision.getRequestId(), "CREDIT_DECISION_FINALIZED", decision).subscribe();
+        return ResponseEntity.noContent().build();
+    }
+}
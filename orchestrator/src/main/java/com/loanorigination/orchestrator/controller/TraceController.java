@@ -0,0 +1,55 @@
+package com.loanorigination.orchestrator.controller;
+
+import com.loanorigination.orchestrator.service.TraceService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/admin/traces")
+@Tag(name = "Traces", description = "Cross-service traces and their critical path")
+public class TraceController {
+    
+    private final TraceService traceService;
+    
+    public TraceController(TraceService traceService) {
+        this.traceService = traceService;
+    }
+    
+    @Operation(
+            summary = "Get a trace",
+            description = "Joins the spans of the trace held by the orchestrator, the bureau connectors, the decision " +
+                    "engine and the audit service, and returns them with the trace's critical path. Times are in " +
+                    "microseconds; selfMicros is the time a span spent on the critical path outside its children."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Trace found"),
+            @ApiResponse(responseCode = "404", description = "No service holds a span of this trace")
+    })
+    @GetMapping("/{traceId}")
+    public Mono<ResponseEntity<TraceService.TraceView>> getTrace(@PathVariable String traceId) {
+        return traceService.trace(traceId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+    
+    @Operation(
+            summary = "Get the trace of a credit check",
+            description = "Looks up the trace by the credit check's request ID (also the application ID of " +
+                    "asynchronous applications) and returns it as GET /admin/traces/{traceId} does."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Trace found"),
+            @ApiResponse(responseCode = "404", description = "No trace held for this request")
+    })
+    @GetMapping("/requests/{requestId}")
+    public Mono<ResponseEntity<TraceService.TraceView>> getTraceForRequest(@PathVariable String requestId) {
+        return traceService.traceForRequest(requestId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
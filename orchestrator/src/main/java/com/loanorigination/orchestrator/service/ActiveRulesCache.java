@@ -0,0 +1,128 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.dto.RuleConfigurationDTO;
+import com.loanorigination.common.dto.RuleSnapshotDTO;
+import com.loanorigination.common.rules.Rulebook;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+/**
+ * Local copy of the decision engine's active rules. It is refreshed as soon as the decision
+ * engine announces a change, with a conditional poll as a fallback in case a change
+ * notification is missed. The rules are compiled into the same {@link Rulebook} the decision
+ * engine evaluates. The orchestrator uses it to decide early where the outcome cannot depend
+ * on bureau data; the decision engine remains the authority for everything else.
+ */
+@Component
+public class ActiveRulesCache {
+    
+    private static final Logger log = LoggerFactory.getLogger(ActiveRulesCache.class);
+    
+    private final DecisionEngineClient decisionEngineClient;
+    private volatile RuleSet ruleSet;
+    private Disposable changeSubscription;
+    
+    public ActiveRulesCache(DecisionEngineClient decisionEngineClient) {
+        this.decisionEngineClient = decisionEngineClient;
+    }
+    
+    @PostConstruct
+    public void subscribeToChanges() {
+        changeSubscription = decisionEngineClient.ruleChanges()
+                .filter(version -> ruleSet == null || !version.equals(ruleSet.version()))
+                .doOnNext(version -> log.info("Decision engine rules changed to version {}", version))
+                .repeat()
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe(version -> refresh());
+    }
+    
+    @PreDestroy
+    public void unsubscribe() {
+        if (changeSubscription != null) {
+            changeSubscription.dispose();
+        }
+    }
+    
+    @Scheduled(initialDelay = 0, fixedDelayString = "${orchestrator.rules.refresh-interval-ms:30000}")
+    public void refresh() {
+        RuleSet current = ruleSet;
+        decisionEngineClient.getRuleSnapshot(current != null ? current.version() : null)
+                .subscribe(
+                    snapshot -> {
+                        RuleSet loaded = compile(snapshot);
+                        ruleSet = loaded;
+                        Rulebook rulebook = loaded.rulebook();
+                        log.info("Loaded rule set version {} with {} active rules ({} checked before bureau calls)",
+                                loaded.version(), rulebook.size(), IntStream.range(0, rulebook.size())
+                                        .filter(i -> rulebook.rule(i).getType().isBureauIndependent())
+                                        .count());
+                    },
+                    error -> log.warn("Could not refresh rules from decision engine: {}", error.getMessage())
+                );
+    }
+    
+    /**
+     * The active rules compiled as the decision engine evaluates them, or null if none have
+     * been loaded. Callers should read it once per evaluation, so one evaluation sees one
+     * rule set version.
+     */
+    public Rulebook getRulebook() {
+        RuleSet current = ruleSet;
+        return current != null ? current.rulebook() : null;
+    }
+    
+    /**
+     * Version of the loaded rule set, or null if none has been loaded
+     */
+    public String getVersion() {
+        RuleSet current = ruleSet;
+        return current != null ? current.version() : null;
+    }
+    
+    /**
+     * Decision mode the decision engine reported with the loaded rules, or null if unknown
+     */
+    public String getDecisionMode() {
+        RuleSet current = ruleSet;
+        return current != null ? current.decisionMode() : null;
+    }
+    
+    /**
+     * Whether rules have been loaded at least once. Until then nothing can be decided early.
+     */
+    public boolean isLoaded() {
+        return ruleSet != null;
+    }
+    
+    private RuleSet compile(RuleSnapshotDTO snapshot) {
+        return new RuleSet(snapshot.getVersion(), rulebookOf(snapshot),
+                snapshot.getDecisionMode() != null ? snapshot.getDecisionMode().toLowerCase(Locale.ROOT) : null);
+    }
+    
+    /**
+     * Compiles a snapshot's enabled rules in priority order
+     */
+    static Rulebook rulebookOf(RuleSnapshotDTO snapshot) {
+        List<RuleConfigurationDTO> activeRules = snapshot.getRules() == null ? List.of() : snapshot.getRules().stream()
+                .filter(rule -> Boolean.TRUE.equals(rule.getEnabled()))
+                .sorted(Comparator.comparing(RuleConfigurationDTO::getPriority,
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        return Rulebook.compile(snapshot.getVersion(), activeRules);
+    }
+    
+    private record RuleSet(String version, Rulebook rulebook, String decisionMode) {
+    }
+}
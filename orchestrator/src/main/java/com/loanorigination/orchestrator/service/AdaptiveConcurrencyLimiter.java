@@ -0,0 +1,155 @@
+package com.loanorigination.orchestrator.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AIMD concurrency limit for credit checks. The limit grows by one while calls complete
+ * within the latency target and the limit is actually being used, and is cut by the backoff
+ * ratio when a call fails or exceeds the target. Requests over their channel's share of the
+ * limit are rejected immediately instead of queueing; batch work waits for a slot instead.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+    
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+    private static final long MAX_WAIT_MILLIS = 500;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final MeterRegistry meterRegistry;
+    // Bits of the double limit, updated lock-free by completing requests
+    private final AtomicLong limitBits = new AtomicLong();
+    
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry,
+                                      @Value("${orchestrator.concurrency.initial-limit:50}") int initialLimit,
+                                      @Value("${orchestrator.concurrency.min-limit:5}") int minLimit,
+                                      @Value("${orchestrator.concurrency.max-limit:500}") int maxLimit,
+                                      @Value("${orchestrator.concurrency.latency-target:2s}") Duration latencyTarget,
+                                      @Value("${orchestrator.concurrency.backoff-ratio:0.9}") double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min-limit <= initial-limit <= max-limit");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Concurrency backoff-ratio must be between 0 and 1");
+        }
+        this.meterRegistry = meterRegistry;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTarget.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limitBits.set(Double.doubleToLongBits(initialLimit));
+        
+        Gauge.builder("orchestrator.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit for credit checks")
+                .register(meterRegistry);
+        Gauge.builder("orchestrator.concurrency.inflight", inFlight, AtomicInteger::get)
+                .description("Credit checks currently in flight")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Takes a slot for a request on the given channel, or returns null if the request should be shed
+     */
+    public Permit tryAcquire(RequestChannel channel) {
+        Permit permit = take(channel);
+        if (permit == null) {
+            meterRegistry.counter("orchestrator.concurrency.shed", "channel", channel.name()).increment();
+        }
+        return permit;
+    }
+    
+    /**
+     * Runs {@code work} once a slot for the channel is free, polling with backoff until then,
+     * and releases the slot when the work completes. For work that should wait rather than be
+     * shed, such as batch lines and event-mode applications.
+     */
+    public <T> Mono<T> withPermit(RequestChannel channel, Mono<T> work) {
+        return Mono.fromSupplier(() -> take(channel))
+                .repeatWhenEmpty(Integer.MAX_VALUE, attempts -> attempts.concatMap(attempt ->
+                        Mono.delay(Duration.ofMillis(Math.min(MAX_WAIT_MILLIS, 10L << Math.min(attempt, 6))))))
+                .flatMap(permit -> work.doFinally(signal -> permit.release(signal == SignalType.ON_COMPLETE)));
+    }
+    
+    private Permit take(RequestChannel channel) {
+        int allowed = Math.max(1, (int) (limit() * channel.getLimitShare()));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(System.nanoTime(), current + 1);
+            }
+        }
+    }
+    
+    public int getLimit() {
+        return (int) limit();
+    }
+    
+    private double limit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+    
+    /**
+     * Applies one completion to the limit with a compare-and-set loop, so completing requests
+     * never queue on a lock. A completion that leaves the limit unchanged writes nothing.
+     */
+    private void onComplete(long latencyNanos, int inFlightAtStart, boolean success) {
+        boolean congested = !success || latencyNanos > latencyTargetNanos;
+        while (true) {
+            long bits = limitBits.get();
+            double previous = Double.longBitsToDouble(bits);
+            double next = previous;
+            if (congested) {
+                next = Math.max(minLimit, previous * backoffRatio);
+            } else if (inFlightAtStart * 2 >= previous) {
+                next = Math.min(maxLimit, previous + 1);
+            }
+            if (next == previous) {
+                return;
+            }
+            if (limitBits.compareAndSet(bits, Double.doubleToLongBits(next))) {
+                if ((int) previous != (int) next) {
+                    log.debug("Concurrency limit {} -> {}", (int) previous, (int) next);
+                }
+                return;
+            }
+        }
+    }
+    
+    /**
+     * A slot held by one request. Release it exactly once when the request completes.
+     */
+    public final class Permit {
+        private final long startNanos;
+        private final int inFlightAtStart;
+        
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+        
+        /**
+         * Releases the slot. Unsuccessful or cancelled requests count as congestion.
+         */
+        public void release(boolean success) {
+            inFlight.decrementAndGet();
+            onComplete(System.nanoTime() - startNanos, inFlightAtStart, success);
+        }
+    }
+}
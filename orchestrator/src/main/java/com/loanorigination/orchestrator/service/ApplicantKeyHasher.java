@@ -0,0 +1,73 @@
+package com.loanorigination.orchestrator.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+
+/**
+ * Derives keys from applicant data with a keyed hash (HMAC-SHA256), so in-memory maps and
+ * caches never hold a raw SSN. Without a configured secret a random one is generated at
+ * startup, which keeps keys stable for the lifetime of this instance only.
+ */
+@Component
+public class ApplicantKeyHasher {
+    
+    private static final Logger log = LoggerFactory.getLogger(ApplicantKeyHasher.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    
+    private final ThreadLocal<Mac> macs;
+    
+    public ApplicantKeyHasher(@Value("${orchestrator.applicant-key.secret:}") String secret) {
+        byte[] key;
+        if (secret == null || secret.isBlank()) {
+            log.info("No applicant key secret configured; using a random per-instance secret");
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+        } else {
+            key = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        SecretKeySpec keySpec = new SecretKeySpec(key, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(keySpec);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Could not initialise " + ALGORITHM, e);
+            }
+        });
+    }
+    
+    /**
+     * Keyed hash of the given parts. Null parts are hashed as empty strings.
+     */
+    public String hash(String... parts) {
+        Mac mac = macs.get();
+        for (String part : parts) {
+            if (part != null) {
+                mac.update(part.getBytes(StandardCharsets.UTF_8));
+            }
+            mac.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(mac.doFinal());
+    }
+    
+    /**
+     * Keyed hash of the SSN with formatting stripped, so "123-45-6789" and "123456789" match
+     */
+    public String hashSsn(String ssn) {
+        return hash(normalizeSsn(ssn));
+    }
+    
+    public static String normalizeSsn(String ssn) {
+        return ssn == null ? "" : ssn.replaceAll("[^0-9]", "");
+    }
+}
@@ -0,0 +1,256 @@
+package com.loanorigination.orchestrator.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.loanorigination.common.deadline.Deadline;
+import com.loanorigination.common.dto.ApplicationStageEvent;
+import com.loanorigination.common.dto.ApplicationStatus;
+import com.loanorigination.common.dto.CreditRequest;
+import com.loanorigination.common.dto.CreditResponse;
+import com.loanorigination.common.dto.DecisionResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Accepts credit applications for asynchronous processing. Each application's credit check
+ * is subscribed to without blocking a thread; a bounded number of permits caps the
+ * applications in progress. Their status and stage events are kept in a bounded store until
+ * they expire. An application answered with a provisional decision stays open until the
+ * decision engine posts the final decision, or completes as provisional after a timeout.
+ */
+@Service
+public class ApplicationService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ApplicationService.class);
+    private static final String PROVISIONAL = "PROVISIONAL";
+    
+    private final OrchestrationService orchestrationService;
+    private final Duration processingTimeout;
+    private final Duration finalDecisionTimeout;
+    private final Semaphore permits;
+    private final Cache<String, Application> applications;
+    
+    public ApplicationService(OrchestrationService orchestrationService,
+                              MeterRegistry meterRegistry,
+                              @Value("${orchestrator.applications.max-in-flight:1000}") int maxInFlight,
+                              @Value("${orchestrator.applications.processing-timeout:120s}") Duration processingTimeout,
+                              @Value("${orchestrator.applications.final-decision-timeout:10m}") Duration finalDecisionTimeout,
+                              @Value("${orchestrator.applications.max-stored:50000}") long maxStored,
+                              @Value("${orchestrator.applications.retention:1h}") Duration retention) {
+        this.orchestrationService = orchestrationService;
+        this.processingTimeout = processingTimeout;
+        this.finalDecisionTimeout = finalDecisionTimeout;
+        this.permits = new Semaphore(maxInFlight);
+        meterRegistry.gauge("orchestrator.applications.in_flight", permits,
+                semaphore -> maxInFlight - semaphore.availablePermits());
+        
+        this.applications = Caffeine.newBuilder()
+                .maximumSize(maxStored)
+                .expireAfterWrite(retention)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, applications, "orchestrator.applications.store");
+    }
+    
+    /**
+     * Starts an application and returns its initial status. Throws
+     * {@link RejectedExecutionException} when the maximum number of applications is in progress.
+     * If the credit check cannot even be started, its permit is given back and the exception
+     * propagates.
+     */
+    public ApplicationStatus submit(CreditRequest request, BureauStrategy strategy) {
+        if (!permits.tryAcquire()) {
+            throw new RejectedExecutionException("Too many applications in progress");
+        }
+        Application application = new Application(UUID.randomUUID().toString());
+        try {
+            applications.put(application.id, application);
+            application.stage("SUBMITTED", null);
+            
+            ApplicationStatus submitted = application.snapshot();
+            process(application, request, strategy);
+            return submitted;
+        } catch (RuntimeException e) {
+            // The check was never subscribed to, so nothing else will release the permit
+            applications.invalidate(application.id);
+            permits.release();
+            throw e;
+        }
+    }
+    
+    /**
+     * Current status of an application, or null if it is unknown or has expired
+     */
+    public ApplicationStatus getStatus(String applicationId) {
+        Application application = applications.getIfPresent(applicationId);
+        return application != null ? application.snapshot() : null;
+    }
+    
+    /**
+     * Stage events of an application: those already reached, then new ones as they happen,
+     * completing after the final stage. Returns null if the application is unknown or has expired.
+     */
+    public Flux<ApplicationStageEvent> events(String applicationId) {
+        Application application = applications.getIfPresent(applicationId);
+        return application != null ? application.events.asFlux() : null;
+    }
+    
+    /**
+     * Applies the final decision for an application answered with a provisional decision.
+     * Returns false if the application is unknown or has expired.
+     */
+    public boolean finalizeDecision(DecisionResult decision) {
+        Application application = applications.getIfPresent(decision.getRequestId());
+        if (application == null) {
+            return false;
+        }
+        application.finalDecision(decision);
+        return true;
+    }
+    
+    /**
+     * Subscribes to the application's credit check, releasing its permit once the check has
+     * finished. A provisional answer is completed as it is once the final decision timeout passes.
+     */
+    private void process(Application application, CreditRequest request, BureauStrategy strategy) {
+        application.status = "PROCESSING";
+        application.stage("PROCESSING", null);
+        Deadline deadline = Deadline.after(processingTimeout);
+        orchestrationService
+                .processCreditCheck(request, strategy, application.id, application::stage)
+                .timeout(processingTimeout)
+                .contextWrite(context -> context.put(Deadline.class, deadline))
+                .doFinally(signal -> permits.release())
+                .subscribe(
+                    response -> {
+                        application.settle(response);
+                        if (application.isProvisional()) {
+                            Mono.delay(finalDecisionTimeout).subscribe(tick -> application.finalDecisionTimedOut());
+                        }
+                    },
+                    error -> {
+                        log.error("Application {} failed: {}", application.id, error.getMessage());
+                        application.fail(error.getMessage());
+                    },
+                    () -> {
+                        if (application.result == null && application.error == null) {
+                            application.settle(null);
+                        }
+                    }
+                );
+    }
+    
+    private static final class Application {
+        private final String id;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final List<ApplicationStageEvent> history = new CopyOnWriteArrayList<>();
+        private final Sinks.Many<ApplicationStageEvent> events = Sinks.many().replay().all();
+        private volatile String status = "PENDING";
+        private volatile LocalDateTime completedAt;
+        private volatile CreditResponse result;
+        private volatile String error;
+        private DecisionResult pendingFinalDecision;
+        
+        private Application(String id) {
+            this.id = id;
+        }
+        
+        private synchronized void stage(String stage, String detail) {
+            ApplicationStageEvent event = new ApplicationStageEvent(id, stage, detail, LocalDateTime.now());
+            history.add(event);
+            events.tryEmitNext(event);
+        }
+        
+        /**
+         * Records the credit check's response. A provisional response keeps the application
+         * open until its final decision arrives, unless that decision arrived first.
+         */
+        private synchronized void settle(CreditResponse response) {
+            result = response;
+            if (response != null && PROVISIONAL.equals(response.getStatus())) {
+                status = PROVISIONAL;
+                stage("PROVISIONAL_DECISION", response.getDecisionReason());
+                if (pendingFinalDecision != null) {
+                    applyFinalDecision(pendingFinalDecision);
+                }
+                return;
+            }
+            complete(response != null ? response.getStatus() : null);
+        }
+        
+        private boolean isProvisional() {
+            return PROVISIONAL.equals(status);
+        }
+        
+        /**
+         * Completes a provisional application whose final decision never arrived, keeping its
+         * provisional result
+         */
+        private synchronized void finalDecisionTimedOut() {
+            if (PROVISIONAL.equals(status)) {
+                stage("FINAL_DECISION_TIMED_OUT", null);
+                complete(PROVISIONAL);
+            }
+        }
+        
+        private synchronized void finalDecision(DecisionResult decision) {
+            if (result == null) {
+                pendingFinalDecision = decision;
+            } else if (PROVISIONAL.equals(status)) {
+                applyFinalDecision(decision);
+            }
+        }
+        
+        private void applyFinalDecision(DecisionResult decision) {
+            CreditResponse provisional = result;
+            CreditResponse finalResponse = new CreditResponse(
+                    provisional.getRequestId(),
+                    decision.getDecision(),
+                    provisional.getCreditScore(),
+                    provisional.getLoanAmount(),
+                    decision.getReason(),
+                    decision.getTimestamp(),
+                    provisional.getExperianResponse(),
+                    provisional.getEquifaxResponse());
+            finalResponse.setBureauResponses(provisional.getBureauResponses());
+            finalResponse.setReasoning(provisional.getReasoning());
+            result = finalResponse;
+            stage("DECISION_FINALIZED", decision.getDecision());
+            complete(decision.getDecision());
+        }
+        
+        private synchronized void fail(String message) {
+            error = message;
+            status = "FAILED";
+            completedAt = LocalDateTime.now();
+            stage("FAILED", message);
+            events.tryEmitComplete();
+        }
+        
+        private void complete(String decision) {
+            status = "COMPLETED";
+            completedAt = LocalDateTime.now();
+            stage("COMPLETED", decision);
+            events.tryEmitComplete();
+        }
+        
+        private ApplicationStatus snapshot() {
+            return new ApplicationStatus(id, status, submittedAt, completedAt, result, error, List.copyOf(history));
+        }
+    }
+}
@@ -1,36 +1,70 @@
 package com.loanorigination.orchestrator.service;
 
+import com.loanorigination.common.deadline.Deadline;
+import com.loanorigination.orchestrator.config.DownstreamClientRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 @Service
 public class AuditLoggingClient {
     
     private static final Logger log = LoggerFactory.getLogger(AuditLoggingClient.class);
     
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient webClient;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
     
-    public AuditLoggingClient(WebClient.Builder webClientBuilder) {
-        this.webClientBuilder = webClientBuilder;
+    public AuditLoggingClient(DownstreamClientRegistry clientRegistry, CircuitBreakerRegistry circuitBreakerRegistry,
+                              MeterRegistry meterRegistry) {
+        this.webClient = clientRegistry.client("audit-logging");
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("audit-logging");
+        this.meterRegistry = meterRegistry;
     }
-    private static final String AUDIT_SERVICE_URL = "http://localhost:8085/api/audit";
     
-    public void logEvent(String requestId, String action, Object details) {
-        WebClient webClient = webClientBuilder.baseUrl(AUDIT_SERVICE_URL).build();
-        
-        webClient.post()
-                .uri("/log")
-                .bodyValue(new AuditLogRequest(requestId, "ORCHESTRATOR", action, details))
-                .retrieve()
-                .bodyToMono(Void.class)
-                .subscribe(
-                    result -> log.debug("Audit log created for request: {}", requestId),
-                    error -> log.error("Error creating audit log: {}", error.getMessage())
-                );
+    /**
+     * Sends an audit event. Failures are logged and swallowed so that auditing
+     * never fails the credit check it is attached to. While the circuit is open,
+     * events are dropped without a call. Audit events are not bound by the request's
+     * deadline.
+     */
+    public Mono<Void> logEvent(String requestId, String action, Object details) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return webClient.post()
+                    .uri("/log")
+                    .bodyValue(new AuditLogRequest(requestId, "ORCHESTRATOR", action, details))
+                    .retrieve()
+                    .bodyToMono(Void.class)
+                    .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                    .doOnSuccess(result -> {
+                        sample.stop(auditTimer("success"));
+                        log.debug("Audit log created for request: {}", requestId);
+                    })
+                    .onErrorResume(CallNotPermittedException.class, error -> {
+                        sample.stop(auditTimer("dropped"));
+                        log.debug("Audit logging circuit open, dropping event {} for request {}", action, requestId);
+                        return Mono.empty();
+                    })
+                    .onErrorResume(error -> {
+                        sample.stop(auditTimer("error"));
+                        log.error("Error creating audit log: {}", error.getMessage());
+                        return Mono.empty();
+                    });
+        }).contextWrite(context -> context.delete(Deadline.class));
+    }
+    
+    private Timer auditTimer(String outcome) {
+        return meterRegistry.timer("orchestrator.stage.audit", "outcome", outcome);
     }
     
     private record AuditLogRequest(String requestId, String serviceName, String action, Object details) {}
 }
-
@@ -0,0 +1,179 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.deadline.Deadline;
+import com.loanorigination.common.dto.CreditRequest;
+import com.loanorigination.common.dto.CreditResponse;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs credit checks for a stream of NDJSON lines, such as a portfolio review. A bounded
+ * number of checks is in flight at a time and lines are only read as checks complete, so a
+ * batch of any size runs in constant memory. Bureau calls for an applicant that appears more
+ * than once in the batch are made once.
+ */
+@Service
+public class BatchCreditCheckService {
+    
+    private static final Logger log = LoggerFactory.getLogger(BatchCreditCheckService.class);
+    
+    private final OrchestrationService orchestrationService;
+    private final DeadlinePolicy deadlinePolicy;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final CreditRequestParser parser;
+    private final int concurrency;
+    private final long sharedApplicants;
+    private final long progressInterval;
+    private final AtomicInteger activeBatches = new AtomicInteger();
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+    private final Counter invalidCounter;
+    private final Counter bureauCallsExecuted;
+    private final Counter bureauCallsShared;
+    private final Timer batchTimer;
+    
+    public BatchCreditCheckService(OrchestrationService orchestrationService,
+                                   DeadlinePolicy deadlinePolicy,
+                                   AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                   CreditRequestParser parser,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${orchestrator.batch.concurrency:16}") int concurrency,
+                                   @Value("${orchestrator.batch.shared-applicants:10000}") long sharedApplicants,
+                                   @Value("${orchestrator.batch.progress-interval:1000}") long progressInterval) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("orchestrator.batch.concurrency must be at least 1");
+        }
+        this.orchestrationService = orchestrationService;
+        this.deadlinePolicy = deadlinePolicy;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.parser = parser;
+        this.concurrency = concurrency;
+        this.sharedApplicants = sharedApplicants;
+        this.progressInterval = progressInterval;
+        
+        CreditRequestParser.Outcomes outcomes = CreditRequestParser.outcomes(meterRegistry, "orchestrator.batch.lines");
+        this.completedCounter = outcomes.completed();
+        this.failedCounter = outcomes.failed();
+        this.invalidCounter = outcomes.invalid();
+        this.bureauCallsExecuted = meterRegistry.counter("orchestrator.batch.bureau.calls", "result", "executed");
+        this.bureauCallsShared = meterRegistry.counter("orchestrator.batch.bureau.calls", "result", "shared");
+        this.batchTimer = meterRegistry.timer("orchestrator.batch.duration");
+        meterRegistry.gauge("orchestrator.batch.active", activeBatches);
+    }
+    
+    /**
+     * Checks each non-blank line and emits a response per line as it completes, so responses
+     * are not in input order. The response's request ID is the batch ID and the line number;
+     * lines that cannot be parsed or checked produce a FAILED response with the reason.
+     */
+    public Flux<CreditResponse> process(Flux<String> lines, BureauStrategy strategy) {
+        return Flux.defer(() -> {
+            Progress progress = new Progress(UUID.randomUUID().toString());
+            BureauCallScope scope = new BureauCallScope(progress.batchId, sharedApplicants,
+                    bureauCallsExecuted, bureauCallsShared);
+            activeBatches.incrementAndGet();
+            log.info("Batch {} started with {} concurrent credit checks", progress.batchId, concurrency);
+            
+            return lines
+                    .index()
+                    .filter(line -> !line.getT2().isBlank())
+                    .flatMap(line -> check(progress, line.getT1() + 1, line.getT2(), strategy), concurrency)
+                    .contextWrite(context -> context.put(BureauCallScope.class, scope))
+                    .doFinally(signal -> {
+                        activeBatches.decrementAndGet();
+                        progress.finish(signal);
+                    });
+        });
+    }
+    
+    private Mono<CreditResponse> check(Progress progress, long lineNumber, String line, BureauStrategy strategy) {
+        String requestId = progress.batchId + ":" + lineNumber;
+        CreditRequest request;
+        try {
+            request = parser.parse(line);
+        } catch (IllegalArgumentException e) {
+            log.debug("Batch {} line {} is invalid: {}", progress.batchId, lineNumber, e.getMessage());
+            progress.record(invalidCounter);
+            return Mono.just(parser.failure(requestId, null, "Invalid request: " + e.getMessage()));
+        }
+        
+        // Lines wait for a batch slot under the adaptive limit, so they yield to interactive traffic.
+        // The deadline starts when the check does, not while the line waits for a free slot.
+        return concurrencyLimiter.withPermit(RequestChannel.BATCH, Mono.defer(() -> {
+                    Deadline deadline = deadlinePolicy.deadlineFor(RequestChannel.BATCH, null);
+                    return orchestrationService.processCreditCheck(request, strategy, requestId, CreditCheckListener.NONE)
+                            .timeout(deadline.remaining())
+                            .contextWrite(context -> context.put(Deadline.class, deadline));
+                }))
+                .doOnNext(response -> progress.record(completedCounter))
+                .onErrorResume(error -> {
+                    log.warn("Batch {} line {} failed: {}", progress.batchId, lineNumber, error.getMessage());
+                    progress.record(failedCounter);
+                    return Mono.just(parser.failure(requestId, request.getLoanAmount(), reasonFor(error)));
+                });
+    }
+    
+    private String reasonFor(Throwable error) {
+        if (error instanceof CallNotPermittedException) {
+            return "Decision engine temporarily unavailable";
+        }
+        if (error instanceof TimeoutException) {
+            return "Request deadline exceeded";
+        }
+        return "Credit check failed: " + error.getMessage();
+    }
+    
+    /**
+     * Line counts of one batch, logged every progress interval and when the batch ends
+     */
+    private final class Progress {
+        private final String batchId;
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        
+        private Progress(String batchId) {
+            this.batchId = batchId;
+        }
+        
+        private void record(Counter outcome) {
+            outcome.increment();
+            if (outcome != completedCounter) {
+                failed.incrementAndGet();
+            }
+            long count = processed.incrementAndGet();
+            if (progressInterval > 0 && count % progressInterval == 0) {
+                log.info("Batch {}: {} lines processed ({} failed), {} lines/s",
+                        batchId, count, failed.get(), linesPerSecond(count));
+            }
+        }
+        
+        private void finish(SignalType signal) {
+            long elapsed = System.nanoTime() - startNanos;
+            batchTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("Batch {} ended ({}): {} lines processed ({} failed) in {} ms, {} lines/s",
+                    batchId, signal, processed.get(), failed.get(), TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    linesPerSecond(processed.get()));
+        }
+        
+        private long linesPerSecond(long count) {
+            long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            return count * 1000 / elapsedMillis;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.loanorigination.orchestrator.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.loanorigination.common.deadline.Deadline;
+import com.loanorigination.common.dto.BureauResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Shares bureau calls for the same applicant between the credit checks of one batch. A scope
+ * is bound to a batch through the Reactor context and remembers a bounded number of
+ * applicants, so its memory does not grow with the size of the batch.
+ * <p>
+ * Only calls in flight and SUCCESS responses are shared; a failed, timed out or empty call is
+ * forgotten, so the next line for that applicant tries again. A shared call belongs to no line:
+ * it runs detached, without the deadline or trace of the line that started it, bounded by the
+ * bureau's own timeout, and a line that cancels leaves it running for the others.
+ */
+public final class BureauCallScope {
+    
+    private static final Logger log = LoggerFactory.getLogger(BureauCallScope.class);
+    
+    private final String id;
+    private final Cache<String, Mono<BureauResponse>> calls;
+    private final Counter executedCounter;
+    private final Counter sharedCounter;
+    
+    BureauCallScope(String id, long maxApplicants, Counter executedCounter, Counter sharedCounter) {
+        this.id = id;
+        this.calls = Caffeine.newBuilder()
+                .maximumSize(maxApplicants)
+                .build();
+        this.executedCounter = executedCounter;
+        this.sharedCounter = sharedCounter;
+    }
+    
+    /**
+     * Returns the call already made under this key within the scope, or starts it with {@code call}
+     */
+    Mono<BureauResponse> share(String key, Supplier<Mono<BureauResponse>> call) {
+        boolean[] created = new boolean[1];
+        Mono<BureauResponse> shared = calls.get(key, k -> {
+            created[0] = true;
+            return detached(k, call);
+        });
+        
+        if (created[0]) {
+            executedCounter.increment();
+            shared.subscribe(response -> { },
+                    error -> log.debug("Shared bureau call in scope {} failed: {}", id, error.getMessage()));
+        } else {
+            sharedCounter.increment();
+        }
+        return shared;
+    }
+    
+    /**
+     * ID of the batch the scope belongs to, used in place of a line's request ID for shared calls
+     */
+    String getId() {
+        return id;
+    }
+    
+    private Mono<BureauResponse> detached(String key, Supplier<Mono<BureauResponse>> call) {
+        AtomicReference<Mono<BureauResponse>> self = new AtomicReference<>();
+        Mono<BureauResponse> shared = Mono.defer(call)
+                .subscribeOn(Schedulers.parallel())
+                .contextWrite(context -> context.delete(ObservationThreadLocalAccessor.KEY).delete(Deadline.class))
+                .doOnSuccess(response -> {
+                    if (response == null || !"SUCCESS".equals(response.getStatus())) {
+                        calls.asMap().remove(key, self.get());
+                    }
+                })
+                .doOnError(error -> calls.asMap().remove(key, self.get()))
+                .cache();
+        self.set(shared);
+        return shared;
+    }
+}
@@ -0,0 +1,174 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.dto.BureauResponse;
+import com.loanorigination.common.dto.CreditRequest;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Calls a single registered bureau, answering from the bureau response cache when the
+ * applicant was pulled recently, and sharing calls for the same applicant within a
+ * {@link BureauCallScope}. Each bureau sits behind its own circuit breaker. Failures and
+ * timeouts of required bureaus are turned into FAILED/TIMEOUT responses so the decision engine
+ * sees them; optional bureaus that fail simply complete empty and drop out of the result.
+ * Cached responses and open-circuit fallbacks are shared between requests, so callers treat
+ * every response as read-only.
+ */
+@Service
+public class BureauGateway {
+    
+    private static final Logger log = LoggerFactory.getLogger(BureauGateway.class);
+    
+    private final BureauResponseCache bureauResponseCache;
+    private final ApplicantKeyHasher applicantKeyHasher;
+    private final BureauLatencyTracker bureauLatencyTracker;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CircuitBreaker> circuitBreakers = new HashMap<>();
+    
+    public BureauGateway(BureauRegistry bureauRegistry,
+                         BureauResponseCache bureauResponseCache,
+                         ApplicantKeyHasher applicantKeyHasher,
+                         BureauLatencyTracker bureauLatencyTracker,
+                         CircuitBreakerRegistry circuitBreakerRegistry,
+                         MeterRegistry meterRegistry) {
+        this.bureauResponseCache = bureauResponseCache;
+        this.applicantKeyHasher = applicantKeyHasher;
+        this.bureauLatencyTracker = bureauLatencyTracker;
+        this.meterRegistry = meterRegistry;
+        
+        for (BureauRegistry.Bureau bureau : bureauRegistry.getEnabledBureaus()) {
+            circuitBreakers.put(bureau.name(),
+                    circuitBreakerRegistry.circuitBreaker("bureau-" + bureau.name().toLowerCase(Locale.ROOT)));
+        }
+    }
+    
+    public Mono<BureauResponse> fetch(BureauRegistry.Bureau bureau, CreditRequest request, String requestId) {
+        return Mono.deferContextual(context -> {
+            BureauCallScope scope = context.getOrDefault(BureauCallScope.class, null);
+            if (scope == null || request.getSsn() == null) {
+                return fetchOnce(bureau, request, requestId);
+            }
+            String key = applicantKeyHasher.hash(bureau.name(), ApplicantKeyHasher.normalizeSsn(request.getSsn()));
+            return scope.share(key, () -> fetchOnce(bureau, request, scope.getId()));
+        });
+    }
+    
+    /**
+     * Fetches a response and records the whole fetch, cache lookup, circuit breaker and fallback
+     * included, as the bureau stage of the credit check, tagged with the response status
+     */
+    private Mono<BureauResponse> fetchOnce(BureauRegistry.Bureau bureau, CreditRequest request, String requestId) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            String cacheKey = bureauResponseCache.keyFor(bureau, request);
+            if (cacheKey != null) {
+                BureauResponse cached = bureauResponseCache.get(bureau, cacheKey);
+                if (cached != null) {
+                    log.debug("Reusing cached {} response for request {}", bureau.name(), requestId);
+                    recordStage(bureau, "cached", start);
+                    return Mono.just(cached);
+                }
+            }
+            return call(bureau, request)
+                    .transformDeferred(CircuitBreakerOperator.of(circuitBreakers.get(bureau.name())))
+                    .doOnNext(response -> {
+                        if (cacheKey != null) {
+                            bureauResponseCache.put(bureau, cacheKey, response);
+                        }
+                    })
+                    .onErrorResume(CallNotPermittedException.class, error -> bureau.openCircuitFallback())
+                    .onErrorResume(TimeoutException.class, error -> {
+                        log.warn("{} did not respond within {} for request {}", bureau.name(), bureau.timeout(), requestId);
+                        return fallback(bureau, "TIMEOUT", "No response within " + bureau.timeout().toMillis() + "ms");
+                    })
+                    .onErrorResume(error -> {
+                        log.error("Error calling {} service: {}", bureau.name(), error.getMessage());
+                        return fallback(bureau, "FAILED", "Service unavailable");
+                    })
+                    .doOnSuccess(response -> recordStage(bureau, response != null ? response.getStatus() : "dropped", start))
+                    .doOnCancel(() -> recordStage(bureau, "cancelled", start));
+        });
+    }
+    
+    private void recordStage(BureauRegistry.Bureau bureau, String outcome, long start) {
+        meterRegistry.timer("orchestrator.stage.bureau",
+                        "bureau", bureau.name(),
+                        "outcome", outcome != null ? outcome.toLowerCase(Locale.ROOT) : "unknown")
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Calls the bureau, hedging to its hedge instance when the call is slower than the
+     * bureau's recent latency percentile. The first answer wins and the other call is cancelled.
+     */
+    private Mono<BureauResponse> call(BureauRegistry.Bureau bureau, CreditRequest request) {
+        Mono<BureauResponse> primary = timed(bureau, send(bureau.client(), request));
+        Duration hedgeDelay = bureauLatencyTracker.hedgeDelay(bureau);
+        if (hedgeDelay == null || hedgeDelay.compareTo(bureau.timeout()) >= 0) {
+            return primary.timeout(bureau.timeout());
+        }
+        
+        Mono<BureauResponse> hedged = Mono.delay(hedgeDelay)
+                .then(Mono.defer(() -> {
+                    bureauLatencyTracker.hedgeSent(bureau);
+                    return timed(bureau, send(bureau.hedgeClient(), request));
+                }))
+                .doOnNext(response -> bureauLatencyTracker.hedgeWon(bureau));
+        return Mono.firstWithValue(primary, hedged)
+                .timeout(bureau.timeout());
+    }
+    
+    private Mono<BureauResponse> send(WebClient client, CreditRequest request) {
+        return client.post()
+                .uri("/check")
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(BureauResponse.class);
+    }
+    
+    /**
+     * Records the call's latency. Calls cancelled by a hedge or the timeout are recorded with the
+     * time they were outstanding, so slow calls are not missing from the histogram.
+     */
+    private Mono<BureauResponse> timed(BureauRegistry.Bureau bureau, Mono<BureauResponse> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call
+                    .doOnNext(response -> bureauLatencyTracker.record(bureau, System.nanoTime() - start))
+                    .doOnCancel(() -> bureauLatencyTracker.record(bureau, System.nanoTime() - start));
+        });
+    }
+    
+    private Mono<BureauResponse> fallback(BureauRegistry.Bureau bureau, String status, String message) {
+        if (!bureau.required()) {
+            return Mono.empty();
+        }
+        return Mono.just(createErrorResponse(bureau.name(), status, message));
+    }
+    
+    private BureauResponse createErrorResponse(String bureauName, String status, String message) {
+        return new BureauResponse(
+                bureauName,
+                null, // creditScore
+                status,
+                message,
+                LocalDateTime.now()
+        );
+    }
+}
@@ -0,0 +1,96 @@
+package com.loanorigination.orchestrator.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rolling latency histogram per bureau, and the hedge delay derived from it. The histogram
+ * decays over a one minute window so the hedge delay follows the bureau's current latency.
+ */
+@Component
+public class BureauLatencyTracker {
+    
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+    private static final long DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+    
+    private final Map<String, Tracked> tracked = new HashMap<>();
+    
+    public BureauLatencyTracker(BureauRegistry bureauRegistry, MeterRegistry meterRegistry) {
+        for (BureauRegistry.Bureau bureau : bureauRegistry.getEnabledBureaus()) {
+            Timer.Builder timer = Timer.builder("orchestrator.bureau.latency")
+                    .description("Latency of individual bureau calls, including hedged duplicates")
+                    .tag("bureau", bureau.name())
+                    .distributionStatisticExpiry(WINDOW)
+                    .distributionStatisticBufferLength(3);
+            if (bureau.hedge() != null) {
+                timer.publishPercentiles(bureau.hedge().getPercentile());
+            }
+            tracked.put(bureau.name(), new Tracked(
+                    timer.register(meterRegistry),
+                    meterRegistry.counter("orchestrator.bureau.hedge.sent", "bureau", bureau.name()),
+                    meterRegistry.counter("orchestrator.bureau.hedge.won", "bureau", bureau.name())));
+        }
+    }
+    
+    public void record(BureauRegistry.Bureau bureau, long elapsedNanos) {
+        Tracked entry = tracked.get(bureau.name());
+        if (entry != null) {
+            entry.timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    /**
+     * How long to wait before hedging a call to this bureau, or null while the bureau is not
+     * hedged or has too few samples to derive a percentile from
+     */
+    public Duration hedgeDelay(BureauRegistry.Bureau bureau) {
+        Tracked entry = tracked.get(bureau.name());
+        if (bureau.hedge() == null || entry == null || entry.timer.count() < bureau.hedge().getMinSamples()) {
+            return null;
+        }
+        
+        long now = System.nanoTime();
+        Duration delay = entry.delay;
+        if (delay == null || now - entry.delayComputedAt > DELAY_REFRESH_NANOS) {
+            double percentileMillis = 0;
+            for (ValueAtPercentile value : entry.timer.takeSnapshot().percentileValues()) {
+                percentileMillis = value.value(TimeUnit.MILLISECONDS);
+            }
+            Duration fromHistogram = Duration.ofNanos((long) (percentileMillis * 1_000_000));
+            delay = fromHistogram.compareTo(bureau.hedge().getMinDelay()) > 0 ? fromHistogram : bureau.hedge().getMinDelay();
+            entry.delay = delay;
+            entry.delayComputedAt = now;
+        }
+        return delay;
+    }
+    
+    public void hedgeSent(BureauRegistry.Bureau bureau) {
+        tracked.get(bureau.name()).hedgesSent.increment();
+    }
+    
+    public void hedgeWon(BureauRegistry.Bureau bureau) {
+        tracked.get(bureau.name()).hedgesWon.increment();
+    }
+    
+    private static final class Tracked {
+        private final Timer timer;
+        private final Counter hedgesSent;
+        private final Counter hedgesWon;
+        private volatile Duration delay;
+        private volatile long delayComputedAt;
+        
+        private Tracked(Timer timer, Counter hedgesSent, Counter hedgesWon) {
+            this.timer = timer;
+            this.hedgesSent = hedgesSent;
+            this.hedgesWon = hedgesWon;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.dto.BureauResponse;
+import com.loanorigination.orchestrator.config.BureauRegistryProperties;
+import com.loanorigination.orchestrator.config.DownstreamClientRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Enabled credit bureaus loaded from {@code bureau-registry.bureaus}, ordered by weight
+ * (highest first). Each bureau gets its own pooled client from the {@link DownstreamClientRegistry}.
+ */
+@Component
+public class BureauRegistry {
+    
+    private static final Logger log = LoggerFactory.getLogger(BureauRegistry.class);
+    
+    private final List<Bureau> bureaus;
+    
+    public BureauRegistry(BureauRegistryProperties properties, DownstreamClientRegistry clientRegistry) {
+        Set<String> names = new HashSet<>();
+        this.bureaus = properties.getBureaus().stream()
+                .filter(BureauRegistryProperties.Bureau::isEnabled)
+                .peek(definition -> {
+                    if (definition.getName() == null || definition.getName().isBlank()) {
+                        throw new IllegalArgumentException("Every bureau in bureau-registry must have a name");
+                    }
+                    if (!names.add(definition.getName())) {
+                        throw new IllegalArgumentException("Duplicate bureau name in bureau-registry: " + definition.getName());
+                    }
+                    if (definition.getTimeout() == null || definition.getTimeout().isNegative()
+                            || definition.getTimeout().isZero()) {
+                        throw new IllegalArgumentException("Bureau " + definition.getName() + " must have a positive timeout");
+                    }
+                    if (isHedged(definition) && (definition.getHedge().getPercentile() <= 0
+                            || definition.getHedge().getPercentile() >= 1)) {
+                        throw new IllegalArgumentException("Bureau " + definition.getName()
+                                + " hedge percentile must be between 0 and 1");
+                    }
+                    if (isHedged(definition) && (definition.getHedge().getUrl() == null
+                            || definition.getHedge().getUrl().isBlank())) {
+                        throw new IllegalArgumentException("Bureau " + definition.getName()
+                                + " must have a hedge url when hedging is enabled");
+                    }
+                })
+                .sorted(Comparator.comparingInt(BureauRegistryProperties.Bureau::getWeight).reversed())
+                .map(definition -> new Bureau(
+                        definition.getName(),
+                        definition.getUrl(),
+                        clientRegistry.register("bureau-" + definition.getName().toLowerCase(Locale.ROOT),
+                                definition.getUrl(), definition.getPool()),
+                        definition.getWeight(),
+                        definition.getTimeout(),
+                        definition.isRequired(),
+                        definition.getCacheTtl() != null ? definition.getCacheTtl() : Duration.ZERO,
+                        isHedged(definition) ? definition.getHedge() : null,
+                        isHedged(definition) ? registerHedgeClient(definition, clientRegistry) : null))
+                .toList();
+        
+        if (bureaus.isEmpty()) {
+            log.warn("No credit bureaus are enabled in bureau-registry");
+        }
+        bureaus.forEach(bureau -> log.info("Registered bureau {} (weight: {}, timeout: {}, required: {}, cache TTL: {}, hedged: {})",
+                bureau.name(), bureau.weight(), bureau.timeout(), bureau.required(), bureau.cacheTtl(),
+                bureau.hedge() != null));
+    }
+    
+    private static boolean isHedged(BureauRegistryProperties.Bureau definition) {
+        return definition.getHedge() != null && definition.getHedge().isEnabled();
+    }
+    
+    /**
+     * Hedged calls go to another connector instance on their own pool, so a duplicate never
+     * queues behind the stuck connection or instance it is hedging
+     */
+    private static WebClient registerHedgeClient(BureauRegistryProperties.Bureau definition,
+                                                 DownstreamClientRegistry clientRegistry) {
+        return clientRegistry.register("bureau-" + definition.getName().toLowerCase(Locale.ROOT) + "-hedge",
+                definition.getHedge().getUrl(), definition.getPool());
+    }
+    
+    public List<Bureau> getEnabledBureaus() {
+        return bureaus;
+    }
+    
+    /**
+     * Position of the bureau in registry order, used to keep fan-out results stable
+     */
+    public int indexOf(String bureauName) {
+        for (int i = 0; i < bureaus.size(); i++) {
+            if (bureaus.get(i).name().equals(bureauName)) {
+                return i;
+            }
+        }
+        return bureaus.size();
+    }
+    
+    /**
+     * A registered bureau. {@code hedge} and {@code hedgeClient} are null unless hedging is enabled.
+     * {@code openCircuitFallback} answers every call while the bureau's circuit is open.
+     */
+    public record Bureau(String name, String url, WebClient client, int weight, Duration timeout, boolean required,
+                         Duration cacheTtl, BureauRegistryProperties.Hedge hedge, WebClient hedgeClient,
+                         Mono<BureauResponse> openCircuitFallback) {
+        
+        public Bureau(String name, String url, WebClient client, int weight, Duration timeout, boolean required,
+                      Duration cacheTtl, BureauRegistryProperties.Hedge hedge, WebClient hedgeClient) {
+            this(name, url, client, weight, timeout, required, cacheTtl, hedge, hedgeClient,
+                    openCircuitFallback(name, required));
+        }
+        
+        /**
+         * Built once with the bureau, so failing fast allocates nothing per call. A required bureau
+         * answers FAILED with no timestamp, as nothing was received; an optional one drops out.
+         * The response is shared by every rejected call and, like a cached response, is read-only.
+         */
+        private static Mono<BureauResponse> openCircuitFallback(String name, boolean required) {
+            return required
+                    ? Mono.just(new BureauResponse(name, null, "FAILED", "Service unavailable (circuit open)", null))
+                    : Mono.empty();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.loanorigination.orchestrator.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.loanorigination.common.dto.BureauResponse;
+import com.loanorigination.common.dto.CreditRequest;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reuses successful bureau responses for applicants who re-apply within the bureau's
+ * cache TTL, so a changed loan amount does not trigger another pull. Entries are keyed
+ * by a keyed hash of the normalized SSN and bounded by age and estimated memory.
+ * <p>
+ * Responses are stored and handed out as is, without copying, so one instance is shared by
+ * every request that hits the entry. Like the bureau's open-circuit fallback, a cached
+ * response is read-only: neither the caller of {@link #put} nor of {@link #get} may change it.
+ */
+@Component
+public class BureauResponseCache {
+    
+    private static final Logger log = LoggerFactory.getLogger(BureauResponseCache.class);
+    private static final String SUCCESS = "SUCCESS";
+    
+    private final ApplicantKeyHasher applicantKeyHasher;
+    private final Map<String, Cache<String, BureauResponse>> caches = new HashMap<>();
+    
+    public BureauResponseCache(BureauRegistry bureauRegistry,
+                               ApplicantKeyHasher applicantKeyHasher,
+                               MeterRegistry meterRegistry,
+                               @Value("${orchestrator.bureau-cache.max-memory:16MB}") DataSize maxMemory) {
+        this.applicantKeyHasher = applicantKeyHasher;
+        
+        for (BureauRegistry.Bureau bureau : bureauRegistry.getEnabledBureaus()) {
+            if (bureau.cacheTtl().isZero() || bureau.cacheTtl().isNegative()) {
+                continue;
+            }
+            Cache<String, BureauResponse> cache = Caffeine.newBuilder()
+                    .expireAfterWrite(bureau.cacheTtl())
+                    .maximumWeight(maxMemory.toBytes())
+                    .weigher(BureauResponseCache::estimateBytes)
+                    .recordStats()
+                    .build();
+            caches.put(bureau.name(), cache);
+            
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "orchestrator.bureau.cache", "bureau", bureau.name());
+            Gauge.builder("orchestrator.bureau.cache.memory", cache,
+                            c -> c.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+                    .description("Estimated memory held by cached bureau responses")
+                    .baseUnit("bytes")
+                    .tag("bureau", bureau.name())
+                    .register(meterRegistry);
+            log.info("Caching {} responses for {} (max memory: {})", bureau.name(), bureau.cacheTtl(), maxMemory);
+        }
+    }
+    
+    /**
+     * Cache key for this applicant, or null if the bureau's responses are not cached
+     */
+    public String keyFor(BureauRegistry.Bureau bureau, CreditRequest request) {
+        if (!caches.containsKey(bureau.name()) || request.getSsn() == null) {
+            return null;
+        }
+        return applicantKeyHasher.hashSsn(request.getSsn());
+    }
+    
+    /**
+     * The cached response, shared with every other hit on this applicant; callers must not
+     * change it
+     */
+    public BureauResponse get(BureauRegistry.Bureau bureau, String key) {
+        Cache<String, BureauResponse> cache = caches.get(bureau.name());
+        return cache != null ? cache.getIfPresent(key) : null;
+    }
+    
+    /**
+     * Stores the response if it was successful. Failed and timed out responses are never cached.
+     * The response itself is cached, so the caller must not change it afterwards.
+     */
+    public void put(BureauRegistry.Bureau bureau, String key, BureauResponse response) {
+        Cache<String, BureauResponse> cache = caches.get(bureau.name());
+        if (cache != null && SUCCESS.equals(response.getStatus())) {
+            cache.put(key, response);
+        }
+    }
+    
+    /**
+     * Drops the cached responses of one bureau, or of every bureau when none is given.
+     * Returns the number of entries removed.
+     */
+    public long clear(String bureauName) {
+        long cleared = 0;
+        for (Map.Entry<String, Cache<String, BureauResponse>> entry : caches.entrySet()) {
+            if (bureauName == null || entry.getKey().equalsIgnoreCase(bureauName)) {
+                cleared += entry.getValue().estimatedSize();
+                entry.getValue().invalidateAll();
+            }
+        }
+        log.info("Cleared {} cached bureau responses ({})", cleared, bureauName != null ? bureauName : "all bureaus");
+        return cleared;
+    }
+    
+    /**
+     * Rough retained size of an entry: object headers and fields plus string contents
+     */
+    private static int estimateBytes(String key, BureauResponse response) {
+        return 160
+                + 2 * key.length()
+                + 2 * length(response.getBureauName())
+                + 2 * length(response.getStatus())
+                + 2 * length(response.getErrorMessage());
+    }
+    
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
@@ -0,0 +1,22 @@
+package com.loanorigination.orchestrator.service;
+
+/**
+ * How the orchestrator pulls credit bureaus for an application
+ */
+public enum BureauStrategy {
+    /** Call every enabled bureau in parallel and wait for all of them */
+    PARALLEL,
+    /** Call every enabled bureau in parallel, but stop waiting as soon as the outcome is fixed */
+    QUORUM,
+    /** Call bureaus one at a time in registry order until the score is clear of every cutoff */
+    WATERFALL;
+    
+    public static BureauStrategy fromName(String name) {
+        for (BureauStrategy strategy : values()) {
+            if (strategy.name().equalsIgnoreCase(name)) {
+                return strategy;
+            }
+        }
+        throw new IllegalArgumentException("Unknown bureau strategy: " + name);
+    }
+}
@@ -0,0 +1,159 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.deadline.Deadline;
+import com.loanorigination.common.dto.CreditRequest;
+import com.loanorigination.common.dto.CreditResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Event mode: consumes loan applications from Kafka, runs the same credit check as the REST
+ * entry point and publishes the credit response to the output topic, keyed like the
+ * application. Each poll's applications are checked concurrently and the poll's offsets are
+ * committed only once every response has been published, so a crash redelivers applications
+ * rather than losing them. A poll is given at most {@link #pollBudget} to finish; the consumer's
+ * {@code max.poll.interval.ms} is sized from the same budget, so a slow poll is abandoned and
+ * redelivered before the broker evicts the consumer.
+ */
+@Component
+@ConditionalOnProperty(name = "orchestrator.event-mode.enabled", havingValue = "true")
+public class CreditApplicationEventConsumer {
+    
+    private static final Logger log = LoggerFactory.getLogger(CreditApplicationEventConsumer.class);
+    /** Time to publish a poll's responses once its checks are done */
+    static final Duration PUBLISH_MARGIN = Duration.ofSeconds(30);
+    
+    private final OrchestrationService orchestrationService;
+    private final DeadlinePolicy deadlinePolicy;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final KafkaTemplate<String, CreditResponse> kafkaTemplate;
+    private final CreditRequestParser parser;
+    private final String outputTopic;
+    private final int concurrency;
+    private final Duration pollTimeout;
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+    private final Counter invalidCounter;
+    
+    public CreditApplicationEventConsumer(OrchestrationService orchestrationService,
+                                          DeadlinePolicy deadlinePolicy,
+                                          AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                          KafkaTemplate<String, CreditResponse> kafkaTemplate,
+                                          CreditRequestParser parser,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${orchestrator.event-mode.output-topic}") String outputTopic,
+                                          @Value("${orchestrator.event-mode.concurrency:32}") int concurrency,
+                                          @Value("${orchestrator.event-mode.max-poll-records:64}") int maxPollRecords,
+                                          @Value("${orchestrator.deadline.batch:60s}") Duration batchDeadline) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("orchestrator.event-mode.concurrency must be at least 1");
+        }
+        this.orchestrationService = orchestrationService;
+        this.deadlinePolicy = deadlinePolicy;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.kafkaTemplate = kafkaTemplate;
+        this.parser = parser;
+        this.outputTopic = outputTopic;
+        this.concurrency = concurrency;
+        this.pollTimeout = pollBudget(batchDeadline, maxPollRecords, concurrency);
+        CreditRequestParser.Outcomes outcomes = CreditRequestParser.outcomes(meterRegistry, "orchestrator.events.applications");
+        this.completedCounter = outcomes.completed();
+        this.failedCounter = outcomes.failed();
+        this.invalidCounter = outcomes.invalid();
+        log.info("Event mode enabled: publishing credit responses to {} (poll timeout {})", outputTopic, pollTimeout);
+    }
+    
+    /**
+     * Worst-case time to handle a poll: its records go through in waves of {@code concurrency}
+     * checks, each bounded by the batch deadline, and are then published
+     */
+    public static Duration pollBudget(Duration batchDeadline, int maxPollRecords, int concurrency) {
+        long waves = (maxPollRecords + concurrency - 1) / concurrency;
+        return batchDeadline.multipliedBy(waves).plus(PUBLISH_MARGIN);
+    }
+    
+    /**
+     * Handles one poll. Invalid applications are answered with a FAILED response. If a check
+     * fails for any other reason, publishing fails or the poll takes longer than its budget, the
+     * exception propagates, nothing is acknowledged and the container retries the poll's records
+     * with backoff until they are published (see {@code KafkaConfig}).
+     */
+    @KafkaListener(topics = "${orchestrator.event-mode.input-topic}",
+            containerFactory = "applicationListenerContainerFactory")
+    public void onApplications(List<ConsumerRecord<String, String>> records, Acknowledgment acknowledgment) {
+        log.debug("Processing {} loan applications from Kafka", records.size());
+        
+        Flux.fromIterable(records)
+                .flatMap(record -> check(record)
+                        .flatMap(response -> Mono.fromFuture(() ->
+                                kafkaTemplate.send(outputTopic, record.key(), response))), concurrency)
+                .then()
+                .block(pollTimeout);
+        acknowledgment.acknowledge();
+    }
+    
+    private Mono<CreditResponse> check(ConsumerRecord<String, String> record) {
+        String requestId = record.key() != null
+                ? record.key()
+                : record.topic() + "-" + record.partition() + "-" + record.offset();
+        CreditRequest request;
+        try {
+            request = parser.parse(record.value());
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid loan application {} at offset {}: {}", requestId, record.offset(), e.getMessage());
+            invalidCounter.increment();
+            return Mono.just(parser.failure(requestId, null, "Invalid request: " + e.getMessage()));
+        }
+        
+        return concurrencyLimiter.withPermit(RequestChannel.BATCH, Mono.defer(() -> {
+                    Deadline deadline = deadlinePolicy.deadlineFor(RequestChannel.BATCH, headerValue(record, Deadline.HEADER));
+                    return orchestrationService.processCreditCheck(request, null, requestId, CreditCheckListener.NONE)
+                            .timeout(deadline.remaining())
+                            .contextWrite(context -> context.put(Deadline.class, deadline));
+                }))
+                .doOnNext(response -> completedCounter.increment())
+                .onErrorResume(CreditApplicationEventConsumer::rejected, error -> {
+                    log.warn("Credit check for loan application {} was rejected: {}", requestId, error.getMessage());
+                    failedCounter.increment();
+                    return Mono.just(parser.failure(requestId, request.getLoanAmount(),
+                            "Credit check failed: " + error.getMessage()));
+                })
+                .doOnError(error -> log.warn("Credit check for loan application {} failed, the poll will be retried: {}",
+                        requestId, error.getMessage()));
+    }
+    
+    /**
+     * Whether a failed check was turned down for its input, so retrying it cannot succeed.
+     * Anything else, such as an open circuit, a timeout or an unavailable service, is transient.
+     */
+    static boolean rejected(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().isSameCodeAs(HttpStatus.BAD_REQUEST)
+                    || response.getStatusCode().isSameCodeAs(HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+        return error instanceof IllegalArgumentException;
+    }
+    
+    private String headerValue(ConsumerRecord<String, String> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+}
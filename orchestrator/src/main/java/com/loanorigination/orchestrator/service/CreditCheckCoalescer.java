@@ -0,0 +1,208 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.deadline.Deadline;
+import com.loanorigination.common.dto.CreditRequest;
+import com.loanorigination.common.dto.CreditResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of identical credit checks. Concurrent requests for the same
+ * applicant and the same application data share one in-flight check, and a completed
+ * result is reused for a short window to absorb double submits and retries.
+ * <p>
+ * The shared check runs detached from the caller that started it, without that caller's trace
+ * or request ID, under the latest deadline of the callers attached to it. Each caller waits
+ * only until its own deadline; the check is cancelled, downstream calls included, once every
+ * caller has cancelled or timed out.
+ */
+@Component
+public class CreditCheckCoalescer {
+    
+    private static final Logger log = LoggerFactory.getLogger(CreditCheckCoalescer.class);
+    
+    private final ApplicantKeyHasher applicantKeyHasher;
+    private final DeadlinePolicy deadlinePolicy;
+    private final Duration reuseWindow;
+    private final Map<String, SharedCheck> inFlight = new ConcurrentHashMap<>();
+    private final Counter executedCounter;
+    private final Counter coalescedCounter;
+    
+    public CreditCheckCoalescer(ApplicantKeyHasher applicantKeyHasher,
+                                DeadlinePolicy deadlinePolicy,
+                                MeterRegistry meterRegistry,
+                                @Value("${orchestrator.coalescing.reuse-window:2s}") Duration reuseWindow) {
+        this.applicantKeyHasher = applicantKeyHasher;
+        this.deadlinePolicy = deadlinePolicy;
+        this.reuseWindow = reuseWindow;
+        this.executedCounter = meterRegistry.counter("orchestrator.coalescing.requests", "result", "executed");
+        this.coalescedCounter = meterRegistry.counter("orchestrator.coalescing.requests", "result", "coalesced");
+        meterRegistry.gaugeMapSize("orchestrator.coalescing.entries", List.of(), inFlight);
+    }
+    
+    /**
+     * Returns the shared check for this request, starting it with {@code check} if no
+     * identical check is in flight or within its reuse window
+     */
+    public Mono<CreditResponse> coalesce(CreditRequest request, BureauStrategy strategy,
+                                         Supplier<Mono<CreditResponse>> check) {
+        return Mono.deferContextual(context -> {
+            Deadline deadline = context.getOrDefault(Deadline.class, null);
+            Deadline callerDeadline = deadline != null ? deadline : deadlinePolicy.longest();
+            String key = fingerprint(request, strategy);
+            boolean[] created = new boolean[1];
+            SharedCheck shared = inFlight.compute(key, (k, existing) -> {
+                if (existing != null && existing.attach(callerDeadline)) {
+                    return existing;
+                }
+                created[0] = true;
+                return new SharedCheck(k, callerDeadline);
+            });
+            
+            if (created[0]) {
+                executedCounter.increment();
+                shared.start(check);
+            } else {
+                coalescedCounter.increment();
+                log.debug("Coalesced duplicate credit check onto in-flight request");
+            }
+            
+            Mono<CreditResponse> result = shared.result().doFinally(signal -> shared.detach());
+            return deadline != null ? result.timeout(deadline.remaining()) : result;
+        });
+    }
+    
+    private String fingerprint(CreditRequest request, BureauStrategy strategy) {
+        return applicantKeyHasher.hash(
+                ApplicantKeyHasher.normalizeSsn(request.getSsn()),
+                normalize(request.getFirstName()),
+                normalize(request.getLastName()),
+                normalize(request.getLoanAmount()),
+                normalize(request.getLoanPurpose()),
+                normalize(request.getAnnualIncome()),
+                normalize(request.getTotalDebt()),
+                normalize(request.getMonthlyCashflow()),
+                request.getApplicantAge() != null ? request.getApplicantAge().toString() : null,
+                strategy.name());
+    }
+    
+    private static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private static String normalize(BigDecimal value) {
+        return value == null ? null : value.stripTrailingZeros().toPlainString();
+    }
+    
+    /**
+     * One check shared by the callers attached to it. Its deadline is extended to the latest of
+     * theirs as they attach, and it is cancelled when the last one detaches before it completes.
+     */
+    private final class SharedCheck {
+        
+        private final String key;
+        private final Deadline deadline;
+        private final Sinks.One<CreditResponse> result = Sinks.one();
+        private int callers = 1;
+        private boolean cancelled;
+        private boolean terminated;
+        private Disposable run;
+        
+        private SharedCheck(String key, Deadline callerDeadline) {
+            this.key = key;
+            this.deadline = Deadline.after(callerDeadline.remaining());
+        }
+        
+        /**
+         * Attaches another caller; false if the check was cancelled and a new one must start
+         */
+        synchronized boolean attach(Deadline callerDeadline) {
+            if (cancelled) {
+                return false;
+            }
+            callers++;
+            deadline.extendTo(callerDeadline);
+            return true;
+        }
+        
+        /**
+         * Runs the check on a fresh thread with a context of its own, so it joins no caller's trace
+         */
+        void start(Supplier<Mono<CreditResponse>> check) {
+            Disposable subscription = Mono.defer(check)
+                    .subscribeOn(Schedulers.parallel())
+                    .contextWrite(context -> context.delete(ObservationThreadLocalAccessor.KEY)
+                            .put(Deadline.class, deadline))
+                    .subscribe(this::succeed, this::fail, () -> succeed(null));
+            boolean abandoned;
+            synchronized (this) {
+                run = subscription;
+                abandoned = cancelled;
+            }
+            if (abandoned) {
+                subscription.dispose();
+            }
+        }
+        
+        Mono<CreditResponse> result() {
+            return result.asMono();
+        }
+        
+        void detach() {
+            Disposable toCancel;
+            synchronized (this) {
+                if (--callers > 0 || terminated || cancelled) {
+                    return;
+                }
+                cancelled = true;
+                toCancel = run;
+            }
+            log.debug("Cancelling shared credit check; every caller has left");
+            inFlight.remove(key, this);
+            if (toCancel != null) {
+                toCancel.dispose();
+            }
+        }
+        
+        private void succeed(CreditResponse response) {
+            synchronized (this) {
+                if (terminated) {
+                    return;
+                }
+                terminated = true;
+            }
+            if (response != null) {
+                result.tryEmitValue(response);
+            } else {
+                result.tryEmitEmpty();
+            }
+            Mono.delay(reuseWindow).subscribe(tick -> inFlight.remove(key, this));
+        }
+        
+        private void fail(Throwable error) {
+            synchronized (this) {
+                terminated = true;
+            }
+            log.debug("Shared credit check failed: {}", error.getMessage());
+            inFlight.remove(key, this);
+            result.tryEmitError(error);
+        }
+    }
+}
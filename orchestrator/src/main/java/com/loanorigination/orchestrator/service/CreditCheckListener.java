@@ -0,0 +1,12 @@
+package com.loanorigination.orchestrator.service;
+
+/**
+ * Receives the stages a credit check passes through, e.g. to report progress to a client
+ */
+@FunctionalInterface
+public interface CreditCheckListener {
+    
+    CreditCheckListener NONE = (stage, detail) -> { };
+    
+    void onStage(String stage, String detail);
+}
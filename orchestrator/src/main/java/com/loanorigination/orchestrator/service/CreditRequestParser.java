@@ -0,0 +1,78 @@
+package com.loanorigination.orchestrator.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loanorigination.common.dto.CreditRequest;
+import com.loanorigination.common.dto.CreditResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Parses and validates credit requests that arrive as JSON text rather than through a
+ * controller, such as batch lines and event-mode applications, and builds the FAILED response
+ * for requests that cannot be checked.
+ */
+@Component
+public class CreditRequestParser {
+    
+    public static final String FAILED = "FAILED";
+    
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    
+    public CreditRequestParser(ObjectMapper objectMapper, Validator validator) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+    
+    /**
+     * Parses and validates a request. Throws {@link IllegalArgumentException} with the reason
+     * if the text is empty, is not a credit request or violates its constraints.
+     */
+    public CreditRequest parse(String json) {
+        if (json == null || json.isBlank()) {
+            throw new IllegalArgumentException("Empty message");
+        }
+        CreditRequest request;
+        try {
+            request = objectMapper.readValue(json, CreditRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e.getOriginalMessage());
+        }
+        
+        Set<ConstraintViolation<CreditRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        return request;
+    }
+    
+    public CreditResponse failure(String requestId, BigDecimal loanAmount, String reason) {
+        return new CreditResponse(requestId, FAILED, null, loanAmount, reason, LocalDateTime.now(), null, null);
+    }
+    
+    /**
+     * Completed, failed and invalid counters for requests parsed from the given source,
+     * registered under {@code name} with a {@code result} tag
+     */
+    public static Outcomes outcomes(MeterRegistry meterRegistry, String name) {
+        return new Outcomes(
+                meterRegistry.counter(name, "result", "completed"),
+                meterRegistry.counter(name, "result", "failed"),
+                meterRegistry.counter(name, "result", "invalid"));
+    }
+    
+    public record Outcomes(Counter completed, Counter failed, Counter invalid) {
+    }
+}
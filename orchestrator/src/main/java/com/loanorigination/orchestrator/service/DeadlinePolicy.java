@@ -0,0 +1,40 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.deadline.Deadline;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Time budget for a credit check per channel. The budget becomes the request's deadline,
+ * unless the caller sent an earlier one of its own.
+ */
+@Component
+public class DeadlinePolicy {
+    
+    private final Map<RequestChannel, Duration> budgets = new EnumMap<>(RequestChannel.class);
+    
+    public DeadlinePolicy(@Value("${orchestrator.deadline.web:10s}") Duration web,
+                          @Value("${orchestrator.deadline.sms:20s}") Duration sms,
+                          @Value("${orchestrator.deadline.mcp:15s}") Duration mcp,
+                          @Value("${orchestrator.deadline.batch:60s}") Duration batch) {
+        budgets.put(RequestChannel.WEB, web);
+        budgets.put(RequestChannel.SMS, sms);
+        budgets.put(RequestChannel.MCP, mcp);
+        budgets.put(RequestChannel.BATCH, batch);
+    }
+    
+    public Deadline deadlineFor(RequestChannel channel, String callerDeadlineHeader) {
+        return Deadline.after(budgets.get(channel)).earliest(Deadline.fromHeader(callerDeadlineHeader));
+    }
+    
+    /**
+     * Deadline of the largest channel budget, for callers that bring no deadline of their own
+     */
+    public Deadline longest() {
+        return Deadline.after(budgets.values().stream().max(Duration::compareTo).orElseThrow());
+    }
+}
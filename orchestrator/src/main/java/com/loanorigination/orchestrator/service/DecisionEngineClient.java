@@ -1,29 +1,152 @@
 package com.loanorigination.orchestrator.service;
 
+import com.loanorigination.common.deadline.Deadline;
 import com.loanorigination.common.dto.DecisionRequest;
 import com.loanorigination.common.dto.DecisionResult;
+import com.loanorigination.common.dto.RuleSnapshotDTO;
+import com.loanorigination.orchestrator.config.DownstreamClientRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * HTTP client for the decision engine: remote decisions, rule snapshots and rule change notifications
+ */
 @Service
-public class DecisionEngineClient {
+public class DecisionEngineClient implements DecisionGateway {
+    
+    private static final Logger log = LoggerFactory.getLogger(DecisionEngineClient.class);
+    
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+            new ParameterizedTypeReference<>() {};
     
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient webClient;
+    private final CircuitBreaker circuitBreaker;
+    private final MediaType wireFormat;
+    private final boolean includeReasoning;
     
-    public DecisionEngineClient(WebClient.Builder webClientBuilder) {
-        this.webClientBuilder = webClientBuilder;
+    public DecisionEngineClient(DownstreamClientRegistry clientRegistry,
+                                CircuitBreakerRegistry circuitBreakerRegistry,
+                                @Value("${orchestrator.decision.wire-format:cbor}") String wireFormat,
+                                @Value("${orchestrator.decision.include-reasoning:true}") boolean includeReasoning) {
+        this.webClient = clientRegistry.client("decision-engine");
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("decision-engine");
+        this.wireFormat = mediaTypeFor(wireFormat);
+        this.includeReasoning = includeReasoning;
     }
-    private static final String DECISION_ENGINE_URL = "http://localhost:8082/api/decision";
     
-    public DecisionResult getDecision(DecisionRequest request) {
-        WebClient webClient = webClientBuilder.baseUrl(DECISION_ENGINE_URL).build();
-        
+    static MediaType mediaTypeFor(String wireFormat) {
+        switch (wireFormat.toLowerCase(Locale.ROOT)) {
+            case "json":
+                return MediaType.APPLICATION_JSON;
+            case "cbor":
+                return MediaType.APPLICATION_CBOR;
+            default:
+                throw new IllegalArgumentException("Unknown wire format: " + wireFormat + " (expected json or cbor)");
+        }
+    }
+    
+    /**
+     * Requests a decision. Fails fast with {@link io.github.resilience4j.circuitbreaker.CallNotPermittedException}
+     * while the decision engine's circuit is open.
+     */
+    @Override
+    public Mono<DecisionResult> getDecision(DecisionRequest request) {
         return webClient.post()
-                .uri("/evaluate")
+                .uri(uri -> uri.path("/api/decision/evaluate")
+                        .queryParam("includeReasoning", includeReasoning)
+                        .build())
+                .contentType(wireFormat)
+                .accept(wireFormat)
                 .bodyValue(request)
                 .retrieve()
                 .bodyToMono(DecisionResult.class)
-                .block();
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+    
+    /**
+     * Records an application rejected before any bureau call, so the decision engine can serve
+     * its decision and reasoning. Failures are logged and swallowed, and the call is not bound
+     * by the request's deadline, as the applicant already has the rejection.
+     */
+    public Mono<Void> recordPreBureauRejection(DecisionRequest request, String ruleSetVersion) {
+        return record("/api/decision/pre-bureau-rejections", "pre-bureau rejection", request, ruleSetVersion);
+    }
+    
+    /**
+     * Records a decision made in-process on the rules alone, so the decision engine can serve
+     * its decision and reasoning. Failures are logged and swallowed, as for pre-bureau rejections.
+     */
+    public Mono<Void> recordInProcessDecision(DecisionRequest request, String ruleSetVersion) {
+        return record("/api/decision/in-process-decisions", "in-process decision", request, ruleSetVersion);
+    }
+    
+    private Mono<Void> record(String path, String description, DecisionRequest request, String ruleSetVersion) {
+        return webClient.post()
+                .uri(uri -> uri.path(path)
+                        .queryParamIfPresent("ruleSetVersion", Optional.ofNullable(ruleSetVersion))
+                        .build())
+                .contentType(wireFormat)
+                .accept(wireFormat)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(DecisionResult.class)
+                .then()
+                .onErrorResume(error -> {
+                    log.warn("Could not record {} for request {}: {}",
+                            description, request.getRequestId(), error.getMessage());
+                    return Mono.empty();
+                })
+                .contextWrite(context -> context.delete(Deadline.class));
+    }
+    
+    /**
+     * Fetches the active rule snapshot. Completes empty when the decision engine
+     * reports the snapshot is still at {@code knownVersion}.
+     */
+    public Mono<RuleSnapshotDTO> getRuleSnapshot(String knownVersion) {
+        return webClient.get()
+                .uri("/api/rules/snapshot")
+                .headers(headers -> {
+                    if (knownVersion != null) {
+                        headers.setIfNoneMatch("\"" + knownVersion + "\"");
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                        return response.releaseBody().then(Mono.empty());
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.createError();
+                    }
+                    return response.bodyToMono(RuleSnapshotDTO.class);
+                })
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+    
+    /**
+     * Streams the rule set version each time the decision engine's rules change
+     */
+    public Flux<String> ruleChanges() {
+        return webClient.get()
+                .uri("/api/rules/changes")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .retrieve()
+                .bodyToFlux(SSE_TYPE)
+                .mapNotNull(ServerSentEvent::data);
     }
 }
-
@@ -0,0 +1,14 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.dto.DecisionRequest;
+import com.loanorigination.common.dto.DecisionResult;
+import reactor.core.publisher.Mono;
+
+/**
+ * Source of loan decisions: the remote decision engine, or its rule path evaluated in-process.
+ * Selected with {@code orchestrator.decision.mode}.
+ */
+public interface DecisionGateway {
+    
+    Mono<DecisionResult> getDecision(DecisionRequest request);
+}
@@ -0,0 +1,160 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.dto.BureauResponse;
+import com.loanorigination.common.dto.CreditRequest;
+import com.loanorigination.common.rules.CompiledRule;
+import com.loanorigination.common.rules.RuleFacts;
+import com.loanorigination.common.rules.RuleOperator;
+import com.loanorigination.common.rules.Rulebook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Decides whether the outcome of a credit check is already fixed while bureau responses are
+ * still outstanding. Every outstanding bureau may still fail or return any score within the
+ * configured bounds, so an outcome is only reported when it holds for all of those cases
+ * under the active {@link Rulebook}. Rules that do not depend on bureau data are evaluated
+ * against the application's facts exactly as the decision engine evaluates them. Only the
+ * decision engine's mode can make an outcome final: a rule rejection is final in the modes
+ * {@link PreBureauRuleGate} gates on, while an approval is only final in rules mode, where no
+ * LLM reviews the bureau responses afterwards.
+ */
+@Component
+public class EarlyDecisionEvaluator {
+    
+    private static final Set<String> RULE_FINAL_MODES = Set.of("rules", "hybrid", "tiered");
+    private static final String RULES_MODE = "rules";
+    private static final BigDecimal ZERO_SCORE = BigDecimal.ZERO.setScale(2);
+    
+    private final ActiveRulesCache activeRulesCache;
+    private final BigDecimal minScore;
+    private final BigDecimal maxScore;
+    private final boolean earlyApproval;
+    
+    public EarlyDecisionEvaluator(
+            ActiveRulesCache activeRulesCache,
+            @Value("${orchestrator.quorum.min-score:300}") BigDecimal minScore,
+            @Value("${orchestrator.quorum.max-score:900}") BigDecimal maxScore,
+            @Value("${orchestrator.quorum.early-approval:true}") boolean earlyApproval) {
+        this.activeRulesCache = activeRulesCache;
+        this.minScore = minScore;
+        this.maxScore = maxScore;
+        this.earlyApproval = earlyApproval;
+    }
+    
+    /**
+     * Returns APPROVED or REJECTED when the outcome can no longer change, or null when it
+     * still depends on the outstanding bureaus
+     */
+    public String settledOutcome(CreditRequest request, List<BureauResponse> received, int outstanding) {
+        String decisionMode = activeRulesCache.getDecisionMode();
+        if (decisionMode == null || !RULE_FINAL_MODES.contains(decisionMode)) {
+            return null;
+        }
+        Rulebook rulebook = activeRulesCache.getRulebook();
+        if (rulebook == null) {
+            return null;
+        }
+        
+        RuleFacts applicationFacts = RuleFacts.fromApplication(request);
+        ValueRange scoreRange = averageScoreRange(received, outstanding);
+        long successCount = received.stream()
+                .filter(r -> "SUCCESS".equals(r.getStatus()))
+                .count();
+        ValueRange successRange = new ValueRange(
+                BigDecimal.valueOf(successCount), BigDecimal.valueOf(successCount + outstanding));
+        
+        boolean allPassed = true;
+        for (int i = 0; i < rulebook.size(); i++) {
+            Outcome outcome = evaluate(rulebook, i, applicationFacts, scoreRange, successRange);
+            if (outcome == Outcome.FAIL) {
+                return "REJECTED";
+            }
+            if (outcome == Outcome.UNDECIDED) {
+                allPassed = false;
+            }
+        }
+        
+        return allPassed && earlyApproval && RULES_MODE.equals(decisionMode) ? "APPROVED" : null;
+    }
+    
+    private Outcome evaluate(Rulebook rulebook, int index, RuleFacts applicationFacts,
+                             ValueRange scoreRange, ValueRange successRange) {
+        CompiledRule rule = rulebook.rule(index);
+        if (rule.getType().isBureauIndependent()) {
+            return rule.test(rulebook.valueFor(index, applicationFacts)) ? Outcome.PASS : Outcome.FAIL;
+        }
+        switch (rule.getType()) {
+            case CREDIT_SCORE:
+                return evaluate(rule, scoreRange);
+            case BUREAU_RESPONSE:
+                return evaluate(rule, successRange);
+            default:
+                return Outcome.UNDECIDED;
+        }
+    }
+    
+    /**
+     * Outcome of a rule for every value in the range; a range of one value is decided by the
+     * rule itself
+     */
+    private Outcome evaluate(CompiledRule rule, ValueRange range) {
+        BigDecimal threshold = rule.getThreshold();
+        if (rule.getOperator() == RuleOperator.EQUAL && range.low().compareTo(range.high()) != 0) {
+            boolean withinRange = range.low().compareTo(threshold) <= 0 && range.high().compareTo(threshold) >= 0;
+            return withinRange ? Outcome.UNDECIDED : Outcome.FAIL;
+        }
+        boolean lowPasses = rule.test(range.low());
+        boolean highPasses = rule.test(range.high());
+        if (lowPasses && highPasses) {
+            return Outcome.PASS;
+        }
+        if (!lowPasses && !highPasses) {
+            return Outcome.FAIL;
+        }
+        return Outcome.UNDECIDED;
+    }
+    
+    /**
+     * Range of the average credit score the decision engine could compute once every
+     * outstanding bureau has either failed or returned a score within the bounds
+     */
+    private ValueRange averageScoreRange(List<BureauResponse> received, int outstanding) {
+        List<BigDecimal> scores = received.stream()
+                .filter(r -> "SUCCESS".equals(r.getStatus()) && r.getCreditScore() != null)
+                .map(BureauResponse::getCreditScore)
+                .toList();
+        BigDecimal sum = scores.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        int count = scores.size();
+        
+        BigDecimal low = null;
+        BigDecimal high = null;
+        // The average is monotone in the number of outstanding successes, so the
+        // extremes are reached when none or all of them succeed
+        for (BigDecimal candidate : List.of(
+                average(sum, count),
+                average(sum.add(minScore.multiply(BigDecimal.valueOf(outstanding))), count + outstanding),
+                average(sum.add(maxScore.multiply(BigDecimal.valueOf(outstanding))), count + outstanding))) {
+            low = low == null || candidate.compareTo(low) < 0 ? candidate : low;
+            high = high == null || candidate.compareTo(high) > 0 ? candidate : high;
+        }
+        return new ValueRange(low, high);
+    }
+    
+    private BigDecimal average(BigDecimal sum, int count) {
+        if (count == 0) {
+            return ZERO_SCORE;
+        }
+        return sum.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    }
+    
+    private enum Outcome { PASS, FAIL, UNDECIDED }
+    
+    private record ValueRange(BigDecimal low, BigDecimal high) {
+    }
+}
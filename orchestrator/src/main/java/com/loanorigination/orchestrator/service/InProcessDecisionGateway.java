@@ -0,0 +1,85 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.dto.DecisionRequest;
+import com.loanorigination.common.dto.DecisionResult;
+import com.loanorigination.common.rules.ReasoningRenderer;
+import com.loanorigination.common.rules.RuleFacts;
+import com.loanorigination.common.rules.RuleOutcomes;
+import com.loanorigination.common.rules.Rulebook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evaluates the decision engine's rule path inside the orchestrator, against the rule set kept
+ * in sync by {@link ActiveRulesCache}, with no HTTP hop. Uses the decision engine's own
+ * {@link Rulebook} evaluation, so it only decides locally while the decision engine runs in
+ * its "rules" mode; in any other mode, or until rules have been loaded, decisions are requested
+ * from the decision engine. Local decisions are recorded with the decision engine in the
+ * background, so their reasoning can be fetched like any other.
+ */
+@Service
+public class InProcessDecisionGateway implements DecisionGateway {
+    
+    private static final Logger log = LoggerFactory.getLogger(InProcessDecisionGateway.class);
+    private static final String RULES_MODE = "rules";
+    
+    private final ActiveRulesCache activeRulesCache;
+    private final DecisionEngineClient decisionEngineClient;
+    private final boolean includeReasoning;
+    
+    public InProcessDecisionGateway(ActiveRulesCache activeRulesCache, DecisionEngineClient decisionEngineClient,
+                                    @Value("${orchestrator.decision.include-reasoning:true}") boolean includeReasoning) {
+        this.activeRulesCache = activeRulesCache;
+        this.decisionEngineClient = decisionEngineClient;
+        this.includeReasoning = includeReasoning;
+    }
+    
+    @Override
+    public Mono<DecisionResult> getDecision(DecisionRequest request) {
+        Rulebook rulebook = activeRulesCache.getRulebook();
+        if (rulebook == null) {
+            log.debug("Rules not loaded yet; requesting decision for {} from the decision engine", request.getRequestId());
+            return decisionEngineClient.getDecision(request);
+        }
+        if (!RULES_MODE.equals(activeRulesCache.getDecisionMode())) {
+            log.debug("Decision engine is in {} mode; requesting decision for {} from it",
+                    activeRulesCache.getDecisionMode(), request.getRequestId());
+            return decisionEngineClient.getDecision(request);
+        }
+        return Mono.deferContextual(context -> {
+            DecisionResult result = evaluate(rulebook, request, includeReasoning);
+            decisionEngineClient.recordInProcessDecision(request, rulebook.getVersion())
+                    .contextWrite(context)
+                    .subscribe();
+            return Mono.just(result);
+        });
+    }
+    
+    /**
+     * One pass of the decision engine's rule evaluation over the rulebook; the first failed
+     * rule in priority order gives the rejection reason. The reasoning is only rendered when
+     * {@code includeReasoning} is set and reads as the decision engine's would.
+     */
+    static DecisionResult evaluate(Rulebook rulebook, DecisionRequest request, boolean includeReasoning) {
+        RuleFacts facts = RuleFacts.from(request);
+        RuleOutcomes outcomes = rulebook.evaluate(facts);
+        String decision = outcomes.allPassed() ? "APPROVED" : "REJECTED";
+        String reason = outcomes.allPassed() ? "All rules passed" : rulebook.rule(outcomes.firstFailure()).getFailureReason();
+        
+        DecisionResult result = new DecisionResult();
+        result.setRequestId(request.getRequestId());
+        result.setDecision(decision);
+        result.setCreditScore(facts.averageScore());
+        result.setReason(reason);
+        result.setTimestamp(LocalDateTime.now());
+        if (includeReasoning) {
+            result.setReasoning(ReasoningRenderer.render(request, facts, outcomes, decision));
+        }
+        return result;
+    }
+}
@@ -1,73 +1,324 @@
 package com.loanorigination.orchestrator.service;
 
 import com.loanorigination.common.dto.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.util.function.Tuple2;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class OrchestrationService {
     
     private static final Logger log = LoggerFactory.getLogger(OrchestrationService.class);
     
-    private final WebClient.Builder webClientBuilder;
-    private final DecisionEngineClient decisionEngineClient;
+    private final BureauRegistry bureauRegistry;
+    private final BureauGateway bureauGateway;
+    private final PreBureauRuleGate preBureauRuleGate;
+    private final CreditCheckCoalescer creditCheckCoalescer;
+    private final EarlyDecisionEvaluator earlyDecisionEvaluator;
+    private final WaterfallPolicy waterfallPolicy;
+    private final DecisionGateway decisionGateway;
     private final AuditLoggingClient auditLoggingClient;
+    private final DecisionEngineClient decisionEngineClient;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final BureauStrategy defaultBureauStrategy;
+    private final String decisionMode;
+    private final Map<String, BureauStrategy> bureauStrategyByProduct = new HashMap<>();
     
-    public OrchestrationService(WebClient.Builder webClientBuilder, 
+    public OrchestrationService(BureauRegistry bureauRegistry,
+                               BureauGateway bureauGateway,
+                               PreBureauRuleGate preBureauRuleGate,
+                               CreditCheckCoalescer creditCheckCoalescer,
+                               EarlyDecisionEvaluator earlyDecisionEvaluator,
+                               WaterfallPolicy waterfallPolicy,
+                               DecisionGateway decisionGateway,
+                               AuditLoggingClient auditLoggingClient,
                                DecisionEngineClient decisionEngineClient,
-                               AuditLoggingClient auditLoggingClient) {
-        this.webClientBuilder = webClientBuilder;
-        this.decisionEngineClient = decisionEngineClient;
+                               MeterRegistry meterRegistry,
+                               ObservationRegistry observationRegistry,
+                               @Value("${orchestrator.bureau-strategy:parallel}") String bureauStrategy,
+                               @Value("#{${orchestrator.bureau-strategy-by-product:{:}}}") Map<String, String> bureauStrategyByProduct,
+                               @Value("${orchestrator.decision.mode:remote}") String decisionMode) {
+        this.bureauRegistry = bureauRegistry;
+        this.bureauGateway = bureauGateway;
+        this.preBureauRuleGate = preBureauRuleGate;
+        this.creditCheckCoalescer = creditCheckCoalescer;
+        this.earlyDecisionEvaluator = earlyDecisionEvaluator;
+        this.waterfallPolicy = waterfallPolicy;
+        this.decisionGateway = decisionGateway;
         this.auditLoggingClient = auditLoggingClient;
+        this.decisionEngineClient = decisionEngineClient;
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+        this.defaultBureauStrategy = BureauStrategy.fromName(bureauStrategy);
+        this.decisionMode = decisionMode.toLowerCase(Locale.ROOT);
+        if (bureauStrategyByProduct != null) {
+            bureauStrategyByProduct.forEach((product, strategy) ->
+                    this.bureauStrategyByProduct.put(product.toLowerCase(Locale.ROOT), BureauStrategy.fromName(strategy)));
+        }
+        
+        log.info("Orchestration service initialized with bureau strategy: {} (per product: {})",
+                this.defaultBureauStrategy, this.bureauStrategyByProduct);
     }
     
-    private static final String EXPERIAN_SERVICE_URL = "http://localhost:8083/api/experian";
-    private static final String EQUIFAX_SERVICE_URL = "http://localhost:8084/api/equifax";
+    public Mono<CreditResponse> processCreditCheck(CreditRequest request) {
+        return processCreditCheck(request, null);
+    }
     
-    public CreditResponse processCreditCheck(CreditRequest request) {
-        String requestId = UUID.randomUUID().toString();
-        log.info("Processing credit check request: {}", requestId);
-        
-        // Parallel scatter-gather pattern for credit bureau calls
-        Mono<BureauResponse> experianMono = callExperian(request, requestId);
-        Mono<BureauResponse> equifaxMono = callEquifax(request, requestId);
-        
-        // Wait for both responses in parallel
-        Tuple2<BureauResponse, BureauResponse> results = Mono.zip(experianMono, equifaxMono)
-                .block();
-        
-        BureauResponse experianResponse = results.getT1();
-        BureauResponse equifaxResponse = results.getT2();
+    /**
+     * Processes a credit check. An explicitly requested strategy wins over the strategy
+     * configured for the loan product, which wins over the default strategy. Identical
+     * concurrent requests share a single check.
+     */
+    public Mono<CreditResponse> processCreditCheck(CreditRequest request, BureauStrategy requestedStrategy) {
+        BureauStrategy strategy = resolveStrategy(request, requestedStrategy);
+        return creditCheckCoalescer.coalesce(request, strategy,
+                () -> runCreditCheck(request, strategy, UUID.randomUUID().toString(), CreditCheckListener.NONE));
+    }
+    
+    /**
+     * Processes a credit check under a caller-assigned request ID, reporting each stage to the
+     * listener. Not coalesced, since the result belongs to that request ID.
+     */
+    public Mono<CreditResponse> processCreditCheck(CreditRequest request, BureauStrategy requestedStrategy,
+                                                   String requestId, CreditCheckListener listener) {
+        return Mono.defer(() -> runCreditCheck(request, resolveStrategy(request, requestedStrategy), requestId, listener));
+    }
+    
+    private BureauStrategy resolveStrategy(CreditRequest request, BureauStrategy requestedStrategy) {
+        return requestedStrategy != null ? requestedStrategy : strategyForProduct(request);
+    }
+    
+    /**
+     * Runs the check as a "credit.check" span tagged with the request ID, so the trace of an
+     * application can be found by its request ID. Bureau, decision and audit calls are its children.
+     */
+    private Mono<CreditResponse> runCreditCheck(CreditRequest request, BureauStrategy strategy, String requestId,
+                                                CreditCheckListener listener) {
+        return Mono.deferContextual(context -> {
+            Observation parent = context.getOrDefault(ObservationThreadLocalAccessor.KEY,
+                    observationRegistry.getCurrentObservation());
+            Observation observation = Observation.createNotStarted("credit.check", observationRegistry)
+                    .parentObservation(parent)
+                    .lowCardinalityKeyValue("strategy", strategy.name())
+                    .highCardinalityKeyValue("request.id", requestId)
+                    .start();
+            return checkCredit(request, strategy, requestId, listener)
+                    .doOnError(observation::error)
+                    .doFinally(signal -> observation.stop())
+                    .contextWrite(inner -> inner.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+    
+    private Mono<CreditResponse> checkCredit(CreditRequest request, BureauStrategy strategy, String requestId,
+                                             CreditCheckListener listener) {
+        log.info("Processing credit check request: {} (bureau strategy: {})", requestId, strategy);
         
-               // Call Decision Engine
-               DecisionRequest decisionRequest = new DecisionRequest(
-                       requestId,
-                       request.getLoanAmount(),
-                       List.of(experianResponse, equifaxResponse)
-               );
-               // Add financial data for LLM evaluation
-               decisionRequest.setAnnualIncome(request.getAnnualIncome());
-               decisionRequest.setTotalDebt(request.getTotalDebt());
-               decisionRequest.setMonthlyCashflow(request.getMonthlyCashflow());
-               if (request.getApplicantAge() != null && request.getApplicantAge() > 0) {
-                   decisionRequest.setApplicantAge(BigDecimal.valueOf(request.getApplicantAge()));
-               }
+        // Reject on bureau-independent rules without pulling credit or waiting for the decision
+        // engine; the rejection is recorded there in the background so its reasoning can be fetched
+        PreBureauRuleGate.Rejection preBureauRejection = preBureauRuleGate.check(request, requestId);
+        if (preBureauRejection != null) {
+            DecisionRequest decisionRequest = buildDecisionRequest(request, requestId, List.of());
+            return detach(decisionEngineClient.recordPreBureauRejection(decisionRequest,
+                            preBureauRejection.ruleSetVersion()))
+                    .then(auditAsync(requestId, "CREDIT_CHECK_PRE_BUREAU_REJECTED", request))
+                    .thenReturn(preBureauRejection.response());
+        }
+        listener.onStage("PRE_BUREAU_RULES_PASSED", null);
         
-        DecisionResult decision = decisionEngineClient.getDecision(decisionRequest);
+        // Gather bureau responses, then chain the decision without blocking; audit is async
+        return gatherBureauResponses(request, requestId, strategy)
+                .flatMap(bureauResponses -> {
+                    listener.onStage("BUREAUS_COMPLETED", bureauResponses.size() + " bureau responses received");
+                    DecisionRequest decisionRequest = buildDecisionRequest(request, requestId, bureauResponses);
+                    
+                    return timedDecision(decisionGateway.getDecision(decisionRequest))
+                            .doOnNext(decision -> listener.onStage("DECISION_COMPLETED", decision.getDecision()))
+                            .map(decision -> buildResponse(request, requestId, decision, bureauResponses));
+                })
+                .flatMap(response -> auditAsync(requestId, "CREDIT_CHECK", request).thenReturn(response));
+    }
+    
+    /**
+     * Sends an audit event without waiting for it, so a slow audit service never delays a
+     * response. The event keeps the caller's trace context.
+     */
+    private Mono<Void> auditAsync(String requestId, String action, CreditRequest request) {
+        return detach(auditLoggingClient.logEvent(requestId, action, request));
+    }
+    
+    /**
+     * Starts a call that must not hold up the response, under the caller's trace context
+     */
+    private Mono<Void> detach(Mono<Void> call) {
+        return Mono.deferContextual(context -> {
+            call.contextWrite(context).subscribe();
+            return Mono.empty();
+        });
+    }
+    
+    /**
+     * Records the decision stage, tagged with the decision mode and the decision made
+     */
+    private Mono<DecisionResult> timedDecision(Mono<DecisionResult> decision) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return decision
+                    .doOnNext(result -> sample.stop(decisionTimer(String.valueOf(result.getDecision()))))
+                    .doOnError(error -> sample.stop(decisionTimer("error")))
+                    .doOnCancel(() -> sample.stop(decisionTimer("cancelled")));
+        });
+    }
+    
+    private Timer decisionTimer(String outcome) {
+        return meterRegistry.timer("orchestrator.stage.decision",
+                "mode", decisionMode, "outcome", outcome.toLowerCase(Locale.ROOT));
+    }
+    
+    private BureauStrategy strategyForProduct(CreditRequest request) {
+        if (request.getLoanPurpose() != null) {
+            BureauStrategy strategy = bureauStrategyByProduct.get(request.getLoanPurpose().toLowerCase(Locale.ROOT));
+            if (strategy != null) {
+                return strategy;
+            }
+        }
+        return defaultBureauStrategy;
+    }
+    
+    private Mono<List<BureauResponse>> gatherBureauResponses(CreditRequest request, String requestId,
+                                                             BureauStrategy strategy) {
+        switch (strategy) {
+            case QUORUM:
+                return gatherWithQuorum(request, requestId);
+            case WATERFALL:
+                return gatherWaterfall(request, requestId);
+            case PARALLEL:
+            default:
+                return gatherAll(request, requestId);
+        }
+    }
+    
+    /**
+     * Parallel scatter-gather across every enabled bureau. Each call carries its own
+     * timeout, so one slow bureau cannot hold the others back.
+     */
+    private Mono<List<BureauResponse>> gatherAll(CreditRequest request, String requestId) {
+        return Flux.merge(bureauCalls(request, requestId))
+                .collectSortedList(bureauOrder());
+    }
+    
+    /**
+     * Parallel scatter-gather that stops as soon as the outcome is fixed under the active rules.
+     * Cancelling the merged Flux cancels the bureau calls that are still in flight.
+     */
+    private Mono<List<BureauResponse>> gatherWithQuorum(CreditRequest request, String requestId) {
+        List<Mono<BureauResponse>> calls = bureauCalls(request, requestId);
         
-        // Audit logging (async)
-        auditLoggingClient.logEvent(requestId, "CREDIT_CHECK", request);
+        return Mono.defer(() -> {
+            List<BureauResponse> received = new ArrayList<>();
+            AtomicReference<String> settledOutcome = new AtomicReference<>();
+            
+            return Flux.merge(calls)
+                    .doOnNext(received::add)
+                    .takeUntil(response -> {
+                        String outcome = earlyDecisionEvaluator.settledOutcome(
+                                request, received, calls.size() - received.size());
+                        settledOutcome.set(outcome);
+                        return outcome != null;
+                    })
+                    .collectSortedList(bureauOrder())
+                    .doOnNext(responses -> {
+                        int skipped = calls.size() - responses.size();
+                        if (settledOutcome.get() != null && skipped > 0) {
+                            log.info("Request {} short-circuited as {} after {} of {} bureau responses",
+                                    requestId, settledOutcome.get(), responses.size(), calls.size());
+                            meterRegistry.counter("orchestrator.bureau.short_circuit",
+                                    "outcome", settledOutcome.get()).increment();
+                            meterRegistry.counter("orchestrator.bureau.calls.skipped",
+                                    "strategy", BureauStrategy.QUORUM.name()).increment(skipped);
+                        }
+                    });
+        });
+    }
+    
+    /**
+     * Sequential pull in registry order. The next bureau is only called while the score so far
+     * is within the configured band around a credit score cutoff, or no score has arrived yet.
+     */
+    private Mono<List<BureauResponse>> gatherWaterfall(CreditRequest request, String requestId) {
+        List<BureauRegistry.Bureau> bureaus = bureauRegistry.getEnabledBureaus();
         
-        // Build response
+        return Mono.defer(() -> {
+            List<BureauResponse> received = new ArrayList<>();
+            
+            return Flux.fromIterable(bureaus)
+                    .concatMap(bureau -> bureauGateway.fetch(bureau, request, requestId))
+                    .doOnNext(received::add)
+                    .takeUntil(response -> waterfallPolicy.isClearCut(received))
+                    .collectList()
+                    .doOnNext(responses -> {
+                        int skipped = bureaus.size() - responses.size();
+                        if (bureaus.size() > 1) {
+                            meterRegistry.counter("orchestrator.bureau.waterfall.applications",
+                                    "followup", skipped > 0 ? "skipped" : "pulled").increment();
+                        }
+                        if (skipped > 0) {
+                            log.debug("Request {} skipped {} bureau pulls with a clear-cut score", requestId, skipped);
+                            meterRegistry.counter("orchestrator.bureau.calls.skipped",
+                                    "strategy", BureauStrategy.WATERFALL.name()).increment(skipped);
+                        }
+                    });
+        });
+    }
+    
+    private List<Mono<BureauResponse>> bureauCalls(CreditRequest request, String requestId) {
+        return bureauRegistry.getEnabledBureaus().stream()
+                .map(bureau -> bureauGateway.fetch(bureau, request, requestId))
+                .toList();
+    }
+    
+    private Comparator<BureauResponse> bureauOrder() {
+        return Comparator.comparingInt(response -> bureauRegistry.indexOf(response.getBureauName()));
+    }
+    
+    private DecisionRequest buildDecisionRequest(CreditRequest request, String requestId,
+                                                 List<BureauResponse> bureauResponses) {
+        DecisionRequest decisionRequest = new DecisionRequest(
+                requestId,
+                request.getLoanAmount(),
+                bureauResponses
+        );
+        // Add financial data for LLM evaluation
+        decisionRequest.setAnnualIncome(request.getAnnualIncome());
+        decisionRequest.setTotalDebt(request.getTotalDebt());
+        decisionRequest.setMonthlyCashflow(request.getMonthlyCashflow());
+        if (request.getApplicantAge() != null && request.getApplicantAge() > 0) {
+            decisionRequest.setApplicantAge(BigDecimal.valueOf(request.getApplicantAge()));
+        }
+        return decisionRequest;
+    }
+    
+    private CreditResponse buildResponse(CreditRequest request, String requestId, DecisionResult decision,
+                                         List<BureauResponse> bureauResponses) {
         CreditResponse response = new CreditResponse(
                 requestId,
                 decision.getDecision(),
@@ -75,9 +326,10 @@ public class OrchestrationService {
                 request.getLoanAmount(),
                 decision.getReason(),
                 LocalDateTime.now(),
-                experianResponse,
-                equifaxResponse
+                findBureauResponse(bureauResponses, "EXPERIAN"),
+                findBureauResponse(bureauResponses, "EQUIFAX")
         );
+        response.setBureauResponses(bureauResponses);
         
         // Add reasoning if available
         if (decision.getReasoning() != null) {
@@ -87,42 +339,10 @@ public class OrchestrationService {
         return response;
     }
     
-    private Mono<BureauResponse> callExperian(CreditRequest request, String requestId) {
-        WebClient webClient = webClientBuilder.baseUrl(EXPERIAN_SERVICE_URL).build();
-        
-        return webClient.post()
-                .uri("/check")
-                .bodyValue(request)
-                .retrieve()
-                .bodyToMono(BureauResponse.class)
-                .doOnError(error -> {
-                    log.error("Error calling Experian service: {}", error.getMessage());
-                })
-                .onErrorReturn(createErrorResponse("EXPERIAN", requestId));
-    }
-    
-    private Mono<BureauResponse> callEquifax(CreditRequest request, String requestId) {
-        WebClient webClient = webClientBuilder.baseUrl(EQUIFAX_SERVICE_URL).build();
-        
-        return webClient.post()
-                .uri("/check")
-                .bodyValue(request)
-                .retrieve()
-                .bodyToMono(BureauResponse.class)
-                .doOnError(error -> {
-                    log.error("Error calling Equifax service: {}", error.getMessage());
-                })
-                .onErrorReturn(createErrorResponse("EQUIFAX", requestId));
-    }
-    
-    private BureauResponse createErrorResponse(String bureauName, String requestId) {
-        return new BureauResponse(
-                bureauName,
-                null, // creditScore
-                "FAILED",
-                "Service unavailable",
-                LocalDateTime.now()
-        );
+    private BureauResponse findBureauResponse(List<BureauResponse> bureauResponses, String bureauName) {
+        return bureauResponses.stream()
+                .filter(response -> bureauName.equalsIgnoreCase(response.getBureauName()))
+                .findFirst()
+                .orElse(null);
     }
 }
-
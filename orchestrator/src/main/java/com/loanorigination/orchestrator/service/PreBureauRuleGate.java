@@ -0,0 +1,103 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.dto.CreditRequest;
+import com.loanorigination.common.dto.CreditResponse;
+import com.loanorigination.common.dto.DecisionRequest;
+import com.loanorigination.common.rules.CompiledRule;
+import com.loanorigination.common.rules.ReasoningRenderer;
+import com.loanorigination.common.rules.RuleFacts;
+import com.loanorigination.common.rules.RuleOutcomes;
+import com.loanorigination.common.rules.Rulebook;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rejects applications that fail a rule which does not depend on bureau data, such as the
+ * loan amount or age limits, before any credit is pulled. The rules come from the locally
+ * cached snapshot and are evaluated with {@link Rulebook#evaluateBureauIndependent}, as the
+ * decision engine evaluates them when it records the rejection, so a rejection costs no
+ * network round trip. Its reasoning is rendered by {@link ReasoningRenderer}, so it reads as
+ * the reasoning the decision engine records. The gate only runs while the decision engine's mode makes a rule
+ * rejection final; in llm mode the rules do not decide.
+ */
+@Component
+public class PreBureauRuleGate {
+    
+    private static final Logger log = LoggerFactory.getLogger(PreBureauRuleGate.class);
+    private static final Set<String> RULE_FINAL_MODES = Set.of("rules", "hybrid", "tiered");
+    
+    private final ActiveRulesCache activeRulesCache;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    
+    public PreBureauRuleGate(ActiveRulesCache activeRulesCache,
+                             MeterRegistry meterRegistry,
+                             @Value("${orchestrator.pre-bureau-gate.enabled:true}") boolean enabled) {
+        this.activeRulesCache = activeRulesCache;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+    }
+    
+    /**
+     * Returns a rejection if the application fails a bureau-independent rule, or null if the
+     * application has to go through the full credit check
+     */
+    public Rejection check(CreditRequest request, String requestId) {
+        String decisionMode = activeRulesCache.getDecisionMode();
+        if (!enabled || decisionMode == null || !RULE_FINAL_MODES.contains(decisionMode)) {
+            return null;
+        }
+        
+        Rulebook rulebook = activeRulesCache.getRulebook();
+        if (rulebook == null) {
+            return null;
+        }
+        RuleFacts facts = RuleFacts.fromApplication(request);
+        RuleOutcomes outcomes = rulebook.evaluateBureauIndependent(facts);
+        if (outcomes.allPassed()) {
+            return null;
+        }
+        CompiledRule rule = rulebook.rule(outcomes.firstFailure());
+        CreditResponse response = rejection(request, requestId, facts, outcomes, rule);
+        log.info("Request {} rejected before bureau calls: {}", requestId, response.getReasoning().getSummary());
+        meterRegistry.counter("orchestrator.prebureau.rejections", "rule", rule.getRuleName()).increment();
+        return new Rejection(response, rulebook.getVersion());
+    }
+    
+    /**
+     * The rejection with the decision engine's reasoning for it, which lists every failed
+     * bureau-independent rule; the first one in priority order gives the reason
+     */
+    private CreditResponse rejection(CreditRequest request, String requestId, RuleFacts facts, RuleOutcomes outcomes,
+                                     CompiledRule rule) {
+        CreditResponse response = new CreditResponse(
+                requestId,
+                "REJECTED",
+                null,
+                request.getLoanAmount(),
+                rule.getFailureReason(),
+                LocalDateTime.now(),
+                null,
+                null
+        );
+        response.setBureauResponses(List.of());
+        
+        DecisionRequest decisionRequest = new DecisionRequest(requestId, request.getLoanAmount(), List.of());
+        decisionRequest.setApplicantAge(RuleFacts.applicantAge(request));
+        response.setReasoning(ReasoningRenderer.render(decisionRequest, facts, outcomes, "REJECTED"));
+        return response;
+    }
+    
+    /**
+     * A pre-bureau rejection and the version of the rules it was made with
+     */
+    public record Rejection(CreditResponse response, String ruleSetVersion) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.loanorigination.orchestrator.service;
+
+import java.util.Locale;
+
+/**
+ * Channel a credit check arrives through, taken from the {@code X-Channel} header. The share is
+ * the fraction of the concurrency limit the channel may fill, so lower priority channels are
+ * shed first as load approaches the limit.
+ */
+public enum RequestChannel {
+    WEB(1.0),
+    SMS(0.9),
+    MCP(0.75),
+    BATCH(0.5);
+    
+    private final double limitShare;
+    
+    RequestChannel(double limitShare) {
+        this.limitShare = limitShare;
+    }
+    
+    public double getLimitShare() {
+        return limitShare;
+    }
+    
+    /**
+     * Resolves the channel from a header value. Requests without a channel are treated as web traffic.
+     */
+    public static RequestChannel fromHeader(String value) {
+        if (value == null || value.isBlank()) {
+            return WEB;
+        }
+        try {
+            return RequestChannel.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown channel: " + value + " (expected web, sms, mcp or batch)");
+        }
+    }
+}
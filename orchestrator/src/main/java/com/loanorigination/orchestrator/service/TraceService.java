@@ -0,0 +1,159 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.tracing.InMemorySpanCollector;
+import com.loanorigination.common.tracing.TraceSpan;
+import com.loanorigination.orchestrator.config.DownstreamClientRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Assembles a trace from the spans held in memory by the orchestrator and by every downstream
+ * service, and derives its critical path: the chain of spans that determined the end-to-end
+ * latency, with the time each spent on the path outside its critical children.
+ */
+@Service
+public class TraceService {
+    
+    private static final Logger log = LoggerFactory.getLogger(TraceService.class);
+    private static final Duration FETCH_TIMEOUT = Duration.ofSeconds(2);
+    
+    private final InMemorySpanCollector spanCollector;
+    private final List<SpanSource> sources = new ArrayList<>();
+    
+    public TraceService(InMemorySpanCollector spanCollector,
+                        DownstreamClientRegistry clientRegistry,
+                        BureauRegistry bureauRegistry) {
+        this.spanCollector = spanCollector;
+        sources.add(new SpanSource("decision-engine", clientRegistry.client("decision-engine"),
+                "/api/decision/traces/{traceId}"));
+        sources.add(new SpanSource("audit-logging", clientRegistry.client("audit-logging"), "/traces/{traceId}"));
+        for (BureauRegistry.Bureau bureau : bureauRegistry.getEnabledBureaus()) {
+            sources.add(new SpanSource(bureau.name(), bureau.client(), "/traces/{traceId}"));
+            // A hedge on the bureau's own url is the same instance, whose spans are already fetched
+            if (bureau.hedgeClient() != null && hasSeparateHedgeUrl(bureau)) {
+                sources.add(new SpanSource(bureau.name() + "-hedge", bureau.hedgeClient(), "/traces/{traceId}"));
+            }
+        }
+    }
+    
+    private static boolean hasSeparateHedgeUrl(BureauRegistry.Bureau bureau) {
+        String hedgeUrl = bureau.hedge().getUrl();
+        return hedgeUrl != null && !hedgeUrl.isBlank()
+                && !stripTrailingSlash(hedgeUrl).equals(stripTrailingSlash(bureau.url()));
+    }
+    
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+    
+    /**
+     * The trace of a credit check, found by the request ID tagged on its "credit.check" span.
+     * Empty if no such trace is held.
+     */
+    public Mono<TraceView> traceForRequest(String requestId) {
+        return Mono.justOrEmpty(spanCollector.findTraceId("request.id", requestId))
+                .flatMap(this::trace);
+    }
+    
+    /**
+     * The trace with the given ID. Services that cannot be reached are left out. Empty if no
+     * service holds a span of the trace.
+     */
+    public Mono<TraceView> trace(String traceId) {
+        return Flux.fromIterable(sources)
+                .flatMap(source -> fetch(source, traceId))
+                .concatWithValues(spanCollector.spans(traceId).toArray(TraceSpan[]::new))
+                .collectList()
+                .filter(spans -> !spans.isEmpty())
+                .map(spans -> build(traceId, spans));
+    }
+    
+    private Flux<TraceSpan> fetch(SpanSource source, String traceId) {
+        return source.client().get()
+                .uri(source.path(), traceId)
+                .retrieve()
+                .bodyToFlux(TraceSpan.class)
+                .timeout(FETCH_TIMEOUT)
+                .onErrorResume(error -> {
+                    log.debug("Could not fetch spans of trace {} from {}: {}", traceId, source.name(), error.getMessage());
+                    return Flux.empty();
+                });
+    }
+    
+    private TraceView build(String traceId, List<TraceSpan> spans) {
+        List<TraceSpan> ordered = new ArrayList<>(spans);
+        ordered.sort(Comparator.comparingLong(TraceSpan::startMicros));
+        
+        Set<String> spanIds = new HashSet<>();
+        ordered.forEach(span -> spanIds.add(span.spanId()));
+        Map<String, List<TraceSpan>> children = new HashMap<>();
+        TraceSpan root = null;
+        for (TraceSpan span : ordered) {
+            if (span.parentId() != null && spanIds.contains(span.parentId())) {
+                children.computeIfAbsent(span.parentId(), id -> new ArrayList<>()).add(span);
+            } else if (root == null || span.durationMicros() > root.durationMicros()) {
+                root = span;
+            }
+        }
+        
+        List<CriticalPathStep> criticalPath = new ArrayList<>();
+        walkCriticalPath(root, children, criticalPath);
+        Set<String> services = new HashSet<>();
+        ordered.forEach(span -> services.add(span.service()));
+        return new TraceView(traceId, root.durationMicros(), List.copyOf(services), criticalPath, ordered);
+    }
+    
+    /**
+     * Walks back from the end of a span: the latest child that finished before the current
+     * point is on the path, then the latest one that finished before it started, and so on.
+     * Children running in parallel with a critical child, or outliving the span (fire-and-forget
+     * calls), are not on the path. The gaps between critical children are the span's own time.
+     */
+    private void walkCriticalPath(TraceSpan span, Map<String, List<TraceSpan>> children, List<CriticalPathStep> path) {
+        List<TraceSpan> byEnd = new ArrayList<>(children.getOrDefault(span.spanId(), List.of()));
+        byEnd.sort(Comparator.comparingLong(TraceSpan::endMicros).reversed());
+        
+        long cursor = span.endMicros();
+        long selfMicros = 0;
+        List<TraceSpan> critical = new ArrayList<>();
+        for (TraceSpan child : byEnd) {
+            if (child.endMicros() > cursor || child.endMicros() <= span.startMicros()) {
+                continue;
+            }
+            selfMicros += cursor - child.endMicros();
+            critical.add(0, child);
+            cursor = Math.max(child.startMicros(), span.startMicros());
+        }
+        selfMicros += cursor - span.startMicros();
+        
+        path.add(new CriticalPathStep(span.service(), span.name(), span.spanId(), span.startMicros(),
+                span.durationMicros(), selfMicros));
+        for (TraceSpan child : critical) {
+            walkCriticalPath(child, children, path);
+        }
+    }
+    
+    private record SpanSource(String name, WebClient client, String path) {
+    }
+    
+    public record CriticalPathStep(String service, String name, String spanId, long startMicros,
+                                   long durationMicros, long selfMicros) {
+    }
+    
+    public record TraceView(String traceId, long durationMicros, List<String> services,
+                            List<CriticalPathStep> criticalPath, List<TraceSpan> spans) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.dto.BureauResponse;
+import com.loanorigination.common.rules.CompiledRule;
+import com.loanorigination.common.rules.RuleFacts;
+import com.loanorigination.common.rules.RuleType;
+import com.loanorigination.common.rules.Rulebook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Decides when a waterfall pull can stop: once the average score so far lies outside a
+ * configurable band around every active CREDIT_SCORE threshold, another bureau cannot
+ * plausibly move the applicant across a cutoff. A pull never stops while an active
+ * BUREAU_RESPONSE rule fails on the successful responses so far, since stopping would fail it.
+ */
+@Component
+public class WaterfallPolicy {
+    
+    private final ActiveRulesCache activeRulesCache;
+    private final BigDecimal band;
+    
+    public WaterfallPolicy(ActiveRulesCache activeRulesCache,
+                           @Value("${orchestrator.waterfall.band:50}") BigDecimal band) {
+        this.activeRulesCache = activeRulesCache;
+        this.band = band;
+    }
+    
+    public boolean isClearCut(List<BureauResponse> received) {
+        Rulebook rulebook = activeRulesCache.getRulebook();
+        if (rulebook == null) {
+            return false;
+        }
+        
+        boolean scored = received.stream()
+                .anyMatch(r -> "SUCCESS".equals(r.getStatus()) && r.getCreditScore() != null);
+        if (!scored) {
+            return false;
+        }
+        BigDecimal averageScore = RuleFacts.averageScoreOf(received);
+        BigDecimal successful = BigDecimal.valueOf(received.stream()
+                .filter(r -> "SUCCESS".equals(r.getStatus()))
+                .count());
+        
+        for (int i = 0; i < rulebook.size(); i++) {
+            CompiledRule rule = rulebook.rule(i);
+            if (rule.getType() == RuleType.CREDIT_SCORE
+                    && averageScore.subtract(rule.getThreshold()).abs().compareTo(band) <= 0) {
+                return false;
+            }
+            if (rule.getType() == RuleType.BUREAU_RESPONSE && !rule.test(successful)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
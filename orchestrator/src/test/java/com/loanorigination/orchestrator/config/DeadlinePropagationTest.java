@@ -0,0 +1,178 @@
+package com.loanorigination.orchestrator.config;
+
+import com.loanorigination.common.deadline.Deadline;
+import com.loanorigination.common.deadline.DeadlineExceededException;
+import com.loanorigination.common.dto.CreditRequest;
+import com.loanorigination.orchestrator.controller.CreditOrchestratorController;
+import com.loanorigination.orchestrator.service.AdaptiveConcurrencyLimiter;
+import com.loanorigination.orchestrator.service.ApplicantKeyHasher;
+import com.loanorigination.orchestrator.service.AuditLoggingClient;
+import com.loanorigination.orchestrator.service.BureauGateway;
+import com.loanorigination.orchestrator.service.BureauLatencyTracker;
+import com.loanorigination.orchestrator.service.BureauRegistry;
+import com.loanorigination.orchestrator.service.BureauResponseCache;
+import com.loanorigination.orchestrator.service.CreditCheckCoalescer;
+import com.loanorigination.orchestrator.service.DeadlinePolicy;
+import com.loanorigination.orchestrator.service.DecisionEngineClient;
+import com.loanorigination.orchestrator.service.EarlyDecisionEvaluator;
+import com.loanorigination.orchestrator.service.OrchestrationService;
+import com.loanorigination.orchestrator.service.PreBureauRuleGate;
+import com.loanorigination.orchestrator.service.WaterfallPolicy;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives a credit check from the controller through real bureau and decision engine clients
+ * built by {@link WebClientConfig}, with exchange functions standing in for the network, and
+ * checks the deadline each downstream request carries in {@link Deadline#HEADER}.
+ */
+class DeadlinePropagationTest {
+    
+    // Only guards against a hang; no assertion depends on how long a check takes
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final WebClient.Builder webClientBuilder =
+            new WebClientConfig().webClientBuilder(meterRegistry, ObservationRegistry.NOOP);
+    private final AtomicReference<String> bureauBudget = new AtomicReference<>();
+    private final AtomicReference<String> decisionBudget = new AtomicReference<>();
+    private final AtomicInteger decisionCalls = new AtomicInteger();
+    private volatile Duration bureauLatency = Duration.ofMillis(100);
+    
+    private CreditOrchestratorController controller;
+    
+    @BeforeEach
+    void setUp() {
+        BureauRegistry.Bureau bureau = new BureauRegistry.Bureau("EXPERIAN", "http://experian",
+                client(request -> {
+                    bureauBudget.set(request.headers().getFirst(Deadline.HEADER));
+                    return Mono.delay(bureauLatency).map(tick ->
+                            json("{\"bureauName\":\"EXPERIAN\",\"creditScore\":720,\"status\":\"SUCCESS\"}"));
+                }),
+                1, Duration.ofSeconds(30), true, Duration.ZERO, null, null);
+        BureauRegistry bureauRegistry = mock(BureauRegistry.class);
+        when(bureauRegistry.getEnabledBureaus()).thenReturn(List.of(bureau));
+        BureauResponseCache bureauResponseCache = mock(BureauResponseCache.class);
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        BureauGateway bureauGateway = new BureauGateway(bureauRegistry, bureauResponseCache,
+                new ApplicantKeyHasher("test-secret"), new BureauLatencyTracker(bureauRegistry, meterRegistry),
+                circuitBreakerRegistry, meterRegistry);
+        
+        DownstreamClientRegistry clientRegistry = mock(DownstreamClientRegistry.class);
+        when(clientRegistry.client("decision-engine")).thenReturn(client(request -> {
+            decisionCalls.incrementAndGet();
+            decisionBudget.set(request.headers().getFirst(Deadline.HEADER));
+            return Mono.just(json("{\"requestId\":\"req-1\",\"decision\":\"APPROVED\",\"creditScore\":720,"
+                    + "\"reason\":\"All rules passed\"}"));
+        }));
+        DecisionEngineClient decisionEngineClient = new DecisionEngineClient(clientRegistry, circuitBreakerRegistry,
+                "json", false);
+        
+        AuditLoggingClient auditLoggingClient = mock(AuditLoggingClient.class);
+        when(auditLoggingClient.logEvent(anyString(), anyString(), any())).thenReturn(Mono.empty());
+        DeadlinePolicy deadlinePolicy = new DeadlinePolicy(Duration.ofSeconds(10), Duration.ofSeconds(20),
+                Duration.ofSeconds(15), Duration.ofSeconds(60));
+        OrchestrationService orchestrationService = new OrchestrationService(bureauRegistry, bureauGateway,
+                mock(PreBureauRuleGate.class),
+                new CreditCheckCoalescer(new ApplicantKeyHasher("test-secret"), deadlinePolicy, meterRegistry,
+                        Duration.ZERO),
+                mock(EarlyDecisionEvaluator.class), mock(WaterfallPolicy.class), decisionEngineClient,
+                auditLoggingClient, decisionEngineClient, meterRegistry, ObservationRegistry.NOOP,
+                "parallel", Map.of(), "remote");
+        controller = new CreditOrchestratorController(orchestrationService,
+                new AdaptiveConcurrencyLimiter(meterRegistry, 10, 1, 10, Duration.ofSeconds(2), 0.9),
+                deadlinePolicy, meterRegistry, 1);
+    }
+    
+    @Test
+    void downstreamCallsCarryTheShrinkingRemainder() {
+        StepVerifier.create(controller.checkCredit(request(), null, null, "10000"))
+                .assertNext(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK))
+                .expectComplete()
+                .verify(TIMEOUT);
+        
+        long atBureau = Long.parseLong(bureauBudget.get());
+        long atDecisionEngine = Long.parseLong(decisionBudget.get());
+        assertThat(atBureau).isPositive().isLessThanOrEqualTo(10000);
+        // The decision engine is called after the bureau answered, at least 100ms later
+        assertThat(atDecisionEngine).isPositive().isLessThanOrEqualTo(atBureau - 95);
+    }
+    
+    @Test
+    void checkAnswers504OnceTheDeadlinePasses() {
+        bureauLatency = Duration.ofSeconds(20);
+        
+        // In virtual time, so the deadline passes while the bureau is still answering however
+        // long the test takes in real time
+        StepVerifier.withVirtualTime(() -> controller.checkCredit(request(), null, null, "10000"))
+                .thenAwait(Duration.ofSeconds(10))
+                .expectErrorSatisfies(error -> assertThat(error)
+                        .isInstanceOfSatisfying(ResponseStatusException.class,
+                                e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT)))
+                .verify(TIMEOUT);
+        assertThat(Long.parseLong(bureauBudget.get())).isPositive().isLessThanOrEqualTo(10000);
+        assertThat(decisionCalls.get()).isZero();
+        assertThat(meterRegistry.counter("deadline.expired", "stage", "credit-check").count()).isEqualTo(1);
+    }
+    
+    @Test
+    void expiredDeadlineSkipsTheDownstreamCall() {
+        AtomicInteger calls = new AtomicInteger();
+        WebClient client = client(request -> {
+            calls.incrementAndGet();
+            return Mono.just(json("{}"));
+        });
+        
+        StepVerifier.create(client.get().uri("/anything").retrieve().toBodilessEntity()
+                        .contextWrite(context -> context.put(Deadline.class, Deadline.after(Duration.ZERO))))
+                .expectError(DeadlineExceededException.class)
+                .verify(TIMEOUT);
+        assertThat(calls.get()).isZero();
+        assertThat(meterRegistry.counter("deadline.expired", "stage", "downstream-call").count()).isEqualTo(1);
+    }
+    
+    private WebClient client(ExchangeFunction exchange) {
+        return webClientBuilder.clone().baseUrl("http://downstream").exchangeFunction(exchange).build();
+    }
+    
+    private static ClientResponse json(String body) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
+    
+    private static CreditRequest request() {
+        CreditRequest request = new CreditRequest();
+        request.setSsn("123-45-6789");
+        request.setFirstName("Jane");
+        request.setLastName("Doe");
+        request.setLoanAmount(new BigDecimal("25000"));
+        return request;
+    }
+}
@@ -0,0 +1,166 @@
+package com.loanorigination.orchestrator.config;
+
+import brave.Tracing;
+import brave.propagation.ThreadLocalCurrentTraceContext;
+import com.loanorigination.common.dto.BureauResponse;
+import com.loanorigination.common.dto.CreditRequest;
+import com.loanorigination.common.tracing.InMemorySpanCollector;
+import com.loanorigination.common.tracing.TraceSpan;
+import com.loanorigination.orchestrator.service.ApplicantKeyHasher;
+import com.loanorigination.orchestrator.service.AuditLoggingClient;
+import com.loanorigination.orchestrator.service.BureauGateway;
+import com.loanorigination.orchestrator.service.BureauRegistry;
+import com.loanorigination.orchestrator.service.BureauStrategy;
+import com.loanorigination.orchestrator.service.CreditCheckCoalescer;
+import com.loanorigination.orchestrator.service.CreditCheckListener;
+import com.loanorigination.orchestrator.service.DeadlinePolicy;
+import com.loanorigination.orchestrator.service.DecisionEngineClient;
+import com.loanorigination.orchestrator.service.EarlyDecisionEvaluator;
+import com.loanorigination.orchestrator.service.OrchestrationService;
+import com.loanorigination.orchestrator.service.PreBureauRuleGate;
+import com.loanorigination.orchestrator.service.WaterfallPolicy;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.brave.bridge.BraveBaggageManager;
+import io.micrometer.tracing.brave.bridge.BraveCurrentTraceContext;
+import io.micrometer.tracing.brave.bridge.BravePropagator;
+import io.micrometer.tracing.brave.bridge.BraveTracer;
+import io.micrometer.tracing.brave.bridge.W3CPropagation;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.handler.PropagatingReceiverTracingObservationHandler;
+import io.micrometer.tracing.handler.PropagatingSenderTracingObservationHandler;
+import io.micrometer.tracing.propagation.Propagator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs a credit check under Brave tracing with W3C propagation, as the services are configured,
+ * and checks that the decision engine receives the trace of the check: the trace context it
+ * extracts from the request headers continues the orchestrator's credit.check span.
+ */
+class TracePropagationTest {
+    
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InMemorySpanCollector spanCollector = new InMemorySpanCollector(10, 100, Set.of("request.id"));
+    private final AtomicReference<HttpHeaders> decisionHeaders = new AtomicReference<>();
+    
+    private Tracing tracing;
+    private Propagator propagator;
+    private OrchestrationService orchestrationService;
+    
+    @BeforeEach
+    void setUp() {
+        tracing = Tracing.newBuilder()
+                .localServiceName("orchestrator")
+                .currentTraceContext(ThreadLocalCurrentTraceContext.newBuilder().build())
+                .propagationFactory(new W3CPropagation(new BraveBaggageManager(), List.of()))
+                .addSpanHandler(spanCollector)
+                .build();
+        Tracer tracer = new BraveTracer(tracing.tracer(), new BraveCurrentTraceContext(tracing.currentTraceContext()),
+                new BraveBaggageManager());
+        propagator = new BravePropagator(tracing);
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(
+                new ObservationHandler.FirstMatchingCompositeObservationHandler(
+                        new PropagatingSenderTracingObservationHandler<>(tracer, propagator),
+                        new PropagatingReceiverTracingObservationHandler<>(tracer, propagator),
+                        new DefaultTracingObservationHandler(tracer)));
+        
+        DownstreamClientRegistry clientRegistry = mock(DownstreamClientRegistry.class);
+        when(clientRegistry.client("decision-engine")).thenReturn(new WebClientConfig()
+                .webClientBuilder(meterRegistry, observationRegistry)
+                .baseUrl("http://decision-engine")
+                .exchangeFunction(request -> {
+                    decisionHeaders.set(request.headers());
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body("{\"requestId\":\"req-1\",\"decision\":\"APPROVED\",\"creditScore\":720,"
+                                    + "\"reason\":\"All rules passed\"}")
+                            .build());
+                })
+                .build());
+        DecisionEngineClient decisionEngineClient = new DecisionEngineClient(clientRegistry,
+                CircuitBreakerRegistry.ofDefaults(), "json", false);
+        
+        BureauRegistry.Bureau bureau = new BureauRegistry.Bureau("EXPERIAN", "http://experian", null, 1,
+                Duration.ofSeconds(3), true, Duration.ZERO, null, null);
+        BureauRegistry bureauRegistry = mock(BureauRegistry.class);
+        when(bureauRegistry.getEnabledBureaus()).thenReturn(List.of(bureau));
+        BureauGateway bureauGateway = mock(BureauGateway.class);
+        when(bureauGateway.fetch(any(), any(), anyString())).thenReturn(Mono.just(
+                new BureauResponse("EXPERIAN", new BigDecimal("720"), "SUCCESS", null, LocalDateTime.now())));
+        AuditLoggingClient auditLoggingClient = mock(AuditLoggingClient.class);
+        when(auditLoggingClient.logEvent(anyString(), anyString(), any())).thenReturn(Mono.empty());
+        DeadlinePolicy deadlinePolicy = new DeadlinePolicy(Duration.ofSeconds(10), Duration.ofSeconds(20),
+                Duration.ofSeconds(15), Duration.ofSeconds(60));
+        orchestrationService = new OrchestrationService(bureauRegistry, bureauGateway, mock(PreBureauRuleGate.class),
+                new CreditCheckCoalescer(new ApplicantKeyHasher("test-secret"), deadlinePolicy, meterRegistry,
+                        Duration.ZERO),
+                mock(EarlyDecisionEvaluator.class), mock(WaterfallPolicy.class), decisionEngineClient,
+                auditLoggingClient, decisionEngineClient, meterRegistry, observationRegistry,
+                "parallel", Map.of(), "remote");
+    }
+    
+    @AfterEach
+    void tearDown() {
+        tracing.close();
+    }
+    
+    @Test
+    void decisionEngineContinuesTheTraceOfTheCreditCheck() {
+        orchestrationService.processCreditCheck(request(), BureauStrategy.PARALLEL, "req-1", CreditCheckListener.NONE)
+                .block(TIMEOUT);
+        
+        String traceId = spanCollector.findTraceId("request.id", "req-1");
+        assertThat(traceId).isNotNull();
+        HttpHeaders headers = decisionHeaders.get();
+        assertThat(headers.getFirst("traceparent")).contains(traceId);
+        
+        // What the decision engine's server observation does with the incoming request
+        Span received = propagator.extract(headers, HttpHeaders::getFirst).start();
+        assertThat(received.context().traceId()).isEqualTo(traceId);
+        received.end();
+        
+        List<TraceSpan> spans = spanCollector.spans(traceId);
+        TraceSpan creditCheck = spans.stream().filter(span -> "credit.check".equals(span.name()))
+                .findFirst().orElseThrow();
+        TraceSpan decisionCall = spans.stream().filter(span -> "CLIENT".equals(span.kind()))
+                .findFirst().orElseThrow();
+        assertThat(decisionCall.parentId()).isEqualTo(creditCheck.spanId());
+    }
+    
+    private static CreditRequest request() {
+        CreditRequest request = new CreditRequest();
+        request.setSsn("123-45-6789");
+        request.setFirstName("Jane");
+        request.setLastName("Doe");
+        request.setLoanAmount(new BigDecimal("25000"));
+        return request;
+    }
+}
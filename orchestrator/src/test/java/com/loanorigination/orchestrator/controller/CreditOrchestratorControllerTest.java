@@ -0,0 +1,76 @@
+package com.loanorigination.orchestrator.controller;
+
+import com.loanorigination.common.dto.CreditRequest;
+import com.loanorigination.orchestrator.service.AdaptiveConcurrencyLimiter;
+import com.loanorigination.orchestrator.service.DeadlinePolicy;
+import com.loanorigination.orchestrator.service.OrchestrationService;
+import com.loanorigination.orchestrator.service.RequestChannel;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CreditOrchestratorControllerTest {
+    
+    private final OrchestrationService orchestrationService = mock(OrchestrationService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter =
+            new AdaptiveConcurrencyLimiter(meterRegistry, 1, 1, 1, Duration.ofSeconds(2), 0.9);
+    private final CreditOrchestratorController controller = new CreditOrchestratorController(orchestrationService,
+            concurrencyLimiter, new DeadlinePolicy(Duration.ofSeconds(10), Duration.ofSeconds(20),
+                    Duration.ofSeconds(15), Duration.ofSeconds(60)),
+            meterRegistry, 3);
+    
+    @Test
+    void openDecisionEngineCircuitAnswers503WithRetryAfter() {
+        when(orchestrationService.processCreditCheck(any(), any())).thenReturn(Mono.error(
+                CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("decision-engine"))));
+        
+        StepVerifier.create(controller.checkCredit(request(), null, null, null))
+                .assertNext(response -> {
+                    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+                    assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+                })
+                .verifyComplete();
+        
+        // The permit was released as a failure, so the next request is admitted
+        assertThat(concurrencyLimiter.tryAcquire(RequestChannel.WEB)).isNotNull();
+    }
+    
+    @Test
+    void overCapacityIsShedWith503AndRetryAfter() {
+        AdaptiveConcurrencyLimiter.Permit held = concurrencyLimiter.tryAcquire(RequestChannel.WEB);
+        
+        StepVerifier.create(controller.checkCredit(request(), null, null, null))
+                .assertNext(response -> {
+                    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+                    assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+                })
+                .verifyComplete();
+        verify(orchestrationService, never()).processCreditCheck(any(), any());
+        held.release(true);
+    }
+    
+    private static CreditRequest request() {
+        CreditRequest request = new CreditRequest();
+        request.setSsn("123-45-6789");
+        request.setFirstName("Jane");
+        request.setLastName("Doe");
+        request.setLoanAmount(new BigDecimal("25000"));
+        return request;
+    }
+}
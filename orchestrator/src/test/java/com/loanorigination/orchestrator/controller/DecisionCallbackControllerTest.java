@@ -0,0 +1,87 @@
+package com.loanorigination.orchestrator.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.loanorigination.common.callback.CallbackSignature;
+import com.loanorigination.common.dto.DecisionResult;
+import com.loanorigination.orchestrator.service.ApplicationService;
+import com.loanorigination.orchestrator.service.AuditLoggingClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class DecisionCallbackControllerTest {
+    
+    private static final String SECRET = "callback-secret";
+    private static final byte[] BODY = "{\"requestId\":\"req-1\",\"decision\":\"REJECTED\",\"reason\":\"LLM review\"}"
+            .getBytes(StandardCharsets.UTF_8);
+    
+    private final ApplicationService applicationService = mock(ApplicationService.class);
+    private final AuditLoggingClient auditLoggingClient = mock(AuditLoggingClient.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    
+    @BeforeEach
+    void setUp() {
+        when(auditLoggingClient.logEvent(anyString(), anyString(), any())).thenReturn(Mono.empty());
+        when(applicationService.finalizeDecision(any())).thenReturn(true);
+    }
+    
+    @Test
+    void acceptsACorrectlySignedDecision() {
+        DecisionCallbackController controller = controller(SECRET);
+        
+        assertThat(controller.finalDecision(CallbackSignature.sign(SECRET, BODY), BODY).getStatusCode())
+                .isEqualTo(HttpStatus.NO_CONTENT);
+        verify(applicationService).finalizeDecision(any(DecisionResult.class));
+        assertThat(meterRegistry.counter("orchestrator.decisions.finalized", "decision", "REJECTED").count())
+                .isEqualTo(1);
+    }
+    
+    @Test
+    void rejectsAMissingOrWrongSignature() {
+        DecisionCallbackController controller = controller(SECRET);
+        
+        assertUnauthorized(() -> controller.finalDecision(null, BODY));
+        assertUnauthorized(() -> controller.finalDecision("not-a-signature", BODY));
+        assertUnauthorized(() -> controller.finalDecision(CallbackSignature.sign("other-secret", BODY), BODY));
+        byte[] tampered = new String(BODY, StandardCharsets.UTF_8).replace("REJECTED", "APPROVED")
+                .getBytes(StandardCharsets.UTF_8);
+        assertUnauthorized(() -> controller.finalDecision(CallbackSignature.sign(SECRET, BODY), tampered));
+        
+        verifyNoInteractions(applicationService);
+        assertThat(meterRegistry.counter("orchestrator.decisions.callbacks.rejected").count()).isEqualTo(4);
+    }
+    
+    @Test
+    void rejectsEveryCallbackWithoutAConfiguredSecret() {
+        DecisionCallbackController controller = controller("");
+        
+        assertUnauthorized(() -> controller.finalDecision(CallbackSignature.sign(SECRET, BODY), BODY));
+        verifyNoInteractions(applicationService);
+    }
+    
+    private DecisionCallbackController controller(String secret) {
+        return new DecisionCallbackController(applicationService, auditLoggingClient, meterRegistry, objectMapper, secret);
+    }
+    
+    private static void assertUnauthorized(Runnable callback) {
+        assertThatThrownBy(callback::run)
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED));
+    }
+}
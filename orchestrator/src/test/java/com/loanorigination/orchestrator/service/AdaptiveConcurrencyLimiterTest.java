@@ -0,0 +1,132 @@
+package com.loanorigination.orchestrator.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @Test
+    void shedsRequestsOverTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 0.9);
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.tryAcquire(RequestChannel.WEB)).isNotNull();
+        }
+        
+        assertThat(limiter.tryAcquire(RequestChannel.WEB)).isNull();
+        assertThat(meterRegistry.counter("orchestrator.concurrency.shed", "channel", "WEB").count()).isEqualTo(1);
+    }
+    
+    @Test
+    void shedsLowerPriorityChannelsFirst() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 0.9);
+        limiter.tryAcquire(RequestChannel.WEB);
+        limiter.tryAcquire(RequestChannel.WEB);
+        
+        assertThat(limiter.tryAcquire(RequestChannel.BATCH)).isNull();
+        assertThat(limiter.tryAcquire(RequestChannel.WEB)).isNotNull();
+    }
+    
+    @Test
+    void growsWhenTheLimitIsUsedAndCallsAreFast() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 0.9);
+        limiter.tryAcquire(RequestChannel.WEB);
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire(RequestChannel.WEB);
+        
+        permit.release(true);
+        
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+    
+    @Test
+    void doesNotGrowWhileMostlyIdle() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 0.9);
+        
+        limiter.tryAcquire(RequestChannel.WEB).release(true);
+        
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+    
+    @Test
+    void backsOffOnFailureDownToTheMinimum() {
+        AdaptiveConcurrencyLimiter limiter = limiter(8, 0.5);
+        
+        limiter.tryAcquire(RequestChannel.WEB).release(false);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        
+        limiter.tryAcquire(RequestChannel.WEB).release(false);
+        limiter.tryAcquire(RequestChannel.WEB).release(false);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+    
+    @Test
+    void withPermitWaitsForAFreeSlot() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 0.9);
+        AdaptiveConcurrencyLimiter.Permit held = limiter.tryAcquire(RequestChannel.WEB);
+        
+        StepVerifier.create(limiter.withPermit(RequestChannel.BATCH, Mono.just("done")))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(50))
+                .then(() -> held.release(true))
+                .expectNext("done")
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+        assertThat(limiter.tryAcquire(RequestChannel.WEB)).isNotNull();
+        assertThat(limiter.tryAcquire(RequestChannel.WEB)).isNotNull();
+    }
+    
+    @Test
+    void concurrentReleasesLoseNoUpdates() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter =
+                new AdaptiveConcurrencyLimiter(meterRegistry, 1000, 1, 1000, Duration.ofSeconds(2), 0.99);
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            permits.add(limiter.tryAcquire(RequestChannel.WEB));
+        }
+        
+        ExecutorService releasers = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (AdaptiveConcurrencyLimiter.Permit permit : permits) {
+            releasers.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                permit.release(false);
+            });
+        }
+        start.countDown();
+        releasers.shutdown();
+        assertThat(releasers.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        
+        // Every failure backs off once, in whatever order they land: 1000 * 0.99^200
+        assertThat(limiter.getLimit()).isEqualTo((int) (1000 * Math.pow(0.99, 200)));
+    }
+    
+    @Test
+    void rejectsInconsistentConfiguration() {
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(meterRegistry, 1, 2, 10, Duration.ofSeconds(2), 0.9))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(meterRegistry, 5, 2, 10, Duration.ofSeconds(2), 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit, double backoffRatio) {
+        return new AdaptiveConcurrencyLimiter(meterRegistry, initialLimit, 2, 10, Duration.ofSeconds(2), backoffRatio);
+    }
+}
@@ -0,0 +1,145 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.dto.ApplicationStageEvent;
+import com.loanorigination.common.dto.ApplicationStatus;
+import com.loanorigination.common.dto.CreditRequest;
+import com.loanorigination.common.dto.CreditResponse;
+import com.loanorigination.common.dto.DecisionResult;
+import com.loanorigination.orchestrator.controller.CreditApplicationController;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The handshake between an application's provisional answer and the final decision the
+ * decision engine posts later, in either order, and the cap on applications in progress
+ */
+class ApplicationServiceTest {
+    
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    
+    private final OrchestrationService orchestrationService = mock(OrchestrationService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @Test
+    void finalDecisionAfterTheProvisionalAnswerCompletesTheApplication() {
+        ApplicationService service = service(10, Duration.ofMinutes(10));
+        Sinks.One<CreditResponse> check = Sinks.one();
+        when(orchestrationService.processCreditCheck(any(), any(), anyString(), any())).thenReturn(check.asMono());
+        String id = service.submit(new CreditRequest(), null).getApplicationId();
+        
+        check.tryEmitValue(provisional(id));
+        assertThat(service.getStatus(id).getStatus()).isEqualTo("PROVISIONAL");
+        assertThat(service.finalizeDecision(finalDecision(id))).isTrue();
+        
+        assertFinalized(service, id);
+    }
+    
+    @Test
+    void finalDecisionBeforeTheProvisionalAnswerIsAppliedOnceItArrives() {
+        ApplicationService service = service(10, Duration.ofMinutes(10));
+        Sinks.One<CreditResponse> check = Sinks.one();
+        when(orchestrationService.processCreditCheck(any(), any(), anyString(), any())).thenReturn(check.asMono());
+        String id = service.submit(new CreditRequest(), null).getApplicationId();
+        
+        assertThat(service.finalizeDecision(finalDecision(id))).isTrue();
+        assertThat(service.getStatus(id).getStatus()).isEqualTo("PROCESSING");
+        check.tryEmitValue(provisional(id));
+        
+        assertFinalized(service, id);
+    }
+    
+    @Test
+    void provisionalAnswerCompletesAsItIsWhenNoFinalDecisionArrives() {
+        ApplicationService service = service(10, Duration.ofMillis(50));
+        when(orchestrationService.processCreditCheck(any(), any(), anyString(), any()))
+                .thenAnswer(invocation -> Mono.just(provisional(invocation.getArgument(2))));
+        String id = service.submit(new CreditRequest(), null).getApplicationId();
+        
+        StepVerifier.create(service.events(id).map(ApplicationStageEvent::getStage))
+                .expectNext("SUBMITTED", "PROCESSING", "PROVISIONAL_DECISION", "FINAL_DECISION_TIMED_OUT", "COMPLETED")
+                .expectComplete()
+                .verify(TIMEOUT);
+        ApplicationStatus status = service.getStatus(id);
+        assertThat(status.getStatus()).isEqualTo("COMPLETED");
+        assertThat(status.getResult().getStatus()).isEqualTo("PROVISIONAL");
+        // A final decision that arrives too late changes nothing
+        service.finalizeDecision(finalDecision(id));
+        assertThat(service.getStatus(id).getResult().getStatus()).isEqualTo("PROVISIONAL");
+    }
+    
+    @Test
+    void answers503WhenMaxInFlightApplicationsAreInProgress() {
+        ApplicationService service = service(1, Duration.ofMinutes(10));
+        when(orchestrationService.processCreditCheck(any(), any(), anyString(), any())).thenReturn(Mono.never());
+        CreditApplicationController controller = new CreditApplicationController(service, 3);
+        
+        assertThat(controller.submit(new CreditRequest(), null).getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        ResponseEntity<ApplicationStatus> rejected = controller.submit(new CreditRequest(), null);
+        
+        assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+    }
+    
+    @Test
+    void checkThatFailsToStartGivesItsPermitBack() {
+        ApplicationService service = service(1, Duration.ofMinutes(10));
+        when(orchestrationService.processCreditCheck(any(), any(), anyString(), any()))
+                .thenThrow(new IllegalStateException("No bureaus enabled"))
+                .thenReturn(Mono.never());
+        
+        assertThatThrownBy(() -> service.submit(new CreditRequest(), null)).isInstanceOf(IllegalStateException.class);
+        
+        assertThat(service.submit(new CreditRequest(), null).getStatus()).isEqualTo("PENDING");
+        assertThatThrownBy(() -> service.submit(new CreditRequest(), null))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+    
+    private void assertFinalized(ApplicationService service, String id) {
+        StepVerifier.create(service.events(id).map(ApplicationStageEvent::getStage))
+                .expectNext("SUBMITTED", "PROCESSING", "PROVISIONAL_DECISION", "DECISION_FINALIZED", "COMPLETED")
+                .expectComplete()
+                .verify(TIMEOUT);
+        ApplicationStatus status = service.getStatus(id);
+        assertThat(status.getStatus()).isEqualTo("COMPLETED");
+        assertThat(status.getResult().getStatus()).isEqualTo("REJECTED");
+        assertThat(status.getResult().getDecisionReason()).isEqualTo("LLM review");
+        assertThat(status.getResult().getCreditScore()).isEqualByComparingTo("720");
+    }
+    
+    private ApplicationService service(int maxInFlight, Duration finalDecisionTimeout) {
+        return new ApplicationService(orchestrationService, meterRegistry, maxInFlight, Duration.ofSeconds(120),
+                finalDecisionTimeout, 1000, Duration.ofHours(1));
+    }
+    
+    private static CreditResponse provisional(String id) {
+        return new CreditResponse(id, "PROVISIONAL", BigDecimal.valueOf(720), BigDecimal.valueOf(25000),
+                "All rules passed", LocalDateTime.now(), null, null);
+    }
+    
+    private static DecisionResult finalDecision(String id) {
+        DecisionResult decision = new DecisionResult();
+        decision.setRequestId(id);
+        decision.setDecision("REJECTED");
+        decision.setReason("LLM review");
+        decision.setTimestamp(LocalDateTime.now());
+        return decision;
+    }
+}
@@ -0,0 +1,55 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.orchestrator.config.DownstreamClientRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuditLoggingClientTest {
+    
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    
+    private final DownstreamClientRegistry clientRegistry = mock(DownstreamClientRegistry.class);
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @Test
+    void auditStageIsTimedByOutcomeAndFailuresAreSwallowed() {
+        client(request -> Mono.just(ClientResponse.create(HttpStatus.OK).build()))
+                .logEvent("req-1", "CREDIT_CHECK_COMPLETED", Map.of()).block(TIMEOUT);
+        client(request -> Mono.just(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build()))
+                .logEvent("req-2", "CREDIT_CHECK_COMPLETED", Map.of()).block(TIMEOUT);
+        
+        assertThat(meterRegistry.get("orchestrator.stage.audit").tags("outcome", "success").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("orchestrator.stage.audit").tags("outcome", "error").timer().count())
+                .isEqualTo(1);
+    }
+    
+    @Test
+    void eventsDroppedWhileTheCircuitIsOpenAreTimedAsDropped() {
+        AuditLoggingClient client = client(request -> Mono.error(new AssertionError("circuit is open")));
+        circuitBreakerRegistry.circuitBreaker("audit-logging").transitionToOpenState();
+        
+        client.logEvent("req-1", "CREDIT_CHECK_COMPLETED", Map.of()).block(TIMEOUT);
+        
+        assertThat(meterRegistry.get("orchestrator.stage.audit").tags("outcome", "dropped").timer().count())
+                .isEqualTo(1);
+    }
+    
+    private AuditLoggingClient client(ExchangeFunction exchange) {
+        when(clientRegistry.client("audit-logging")).thenReturn(BureauGatewayTest.client(exchange));
+        return new AuditLoggingClient(clientRegistry, circuitBreakerRegistry, meterRegistry);
+    }
+}
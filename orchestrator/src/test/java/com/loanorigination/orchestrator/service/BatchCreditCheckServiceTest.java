@@ -0,0 +1,151 @@
+package com.loanorigination.orchestrator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loanorigination.common.dto.CreditRequest;
+import com.loanorigination.common.dto.CreditResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BatchCreditCheckServiceTest {
+    
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OrchestrationService orchestrationService = mock(OrchestrationService.class);
+    
+    @Test
+    void invalidLinesGetAFailedRowAndBlankLinesAreSkipped() {
+        when(orchestrationService.processCreditCheck(any(), any(), any(), any()))
+                .thenAnswer(invocation -> Mono.just(approved(invocation.getArgument(2),
+                        invocation.<CreditRequest>getArgument(0).getLoanAmount())));
+        
+        Map<Long, CreditResponse> responses = byLine(service(4).process(Flux.just(
+                line(25000),
+                "not json",
+                "",
+                "{\"firstName\":\"Jane\",\"lastName\":\"Doe\",\"loanAmount\":25000}"), null));
+        
+        assertThat(responses).containsOnlyKeys(1L, 2L, 4L);
+        assertThat(responses.get(1L).getStatus()).isEqualTo("APPROVED");
+        assertThat(responses.get(2L).getStatus()).isEqualTo(CreditRequestParser.FAILED);
+        assertThat(responses.get(2L).getDecisionReason()).startsWith("Invalid request:");
+        assertThat(responses.get(4L).getStatus()).isEqualTo(CreditRequestParser.FAILED);
+        assertThat(responses.get(4L).getDecisionReason()).contains("SSN is required");
+        assertThat(meterRegistry.counter("orchestrator.batch.lines", "result", "invalid").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("orchestrator.batch.lines", "result", "completed").count()).isEqualTo(1);
+    }
+    
+    @Test
+    void everyResponseCarriesTheLineItAnswersWhateverOrderChecksFinishIn() {
+        when(orchestrationService.processCreditCheck(any(), any(), any(), any())).thenAnswer(invocation -> {
+            BigDecimal loanAmount = invocation.<CreditRequest>getArgument(0).getLoanAmount();
+            // Earlier lines take longer, so responses come back out of input order
+            return Mono.delay(Duration.ofMillis(200 - loanAmount.intValue() / 100))
+                    .map(tick -> approved(invocation.getArgument(2), loanAmount));
+        });
+        List<String> lines = Flux.range(1, 20).map(n -> line(n * 1000)).collectList().block();
+        
+        List<CreditResponse> responses = service(20).process(Flux.fromIterable(lines), null)
+                .collectList().block(TIMEOUT);
+        
+        assertThat(responses).hasSize(20);
+        assertThat(lineNumber(responses.get(0))).isNotEqualTo(1);
+        for (CreditResponse response : responses) {
+            assertThat(response.getLoanAmount()).isEqualByComparingTo(BigDecimal.valueOf(lineNumber(response) * 1000));
+        }
+    }
+    
+    @Test
+    void keepsAtMostConcurrencyChecksInFlightAndReadsLinesOnlyAsTheyComplete() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(orchestrationService.processCreditCheck(any(), any(), any(), any())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return Mono.delay(Duration.ofMillis(2))
+                    .doOnNext(tick -> inFlight.decrementAndGet())
+                    .map(tick -> approved(invocation.getArgument(2), BigDecimal.ONE));
+        });
+        List<Long> upstreamRequests = new CopyOnWriteArrayList<>();
+        Flux<String> lines = Flux.range(1, 200)
+                .map(n -> line(25000))
+                .doOnRequest(upstreamRequests::add);
+        
+        Long responses = service(4).process(lines, null).count().block(TIMEOUT);
+        
+        assertThat(responses).isEqualTo(200);
+        assertThat(maxInFlight).hasValue(4);
+        assertThat(upstreamRequests).isNotEmpty().allSatisfy(n -> assertThat(n).isLessThanOrEqualTo(4));
+    }
+    
+    @Test
+    void linesOfOneBatchShareABureauCallScopeAndBatchesDoNot() {
+        Set<BureauCallScope> scopes = ConcurrentHashMap.newKeySet();
+        when(orchestrationService.processCreditCheck(any(), any(), any(), any()))
+                .thenAnswer(invocation -> Mono.deferContextual(context -> {
+                    scopes.add(context.get(BureauCallScope.class));
+                    return Mono.just(approved(invocation.getArgument(2), BigDecimal.ONE));
+                }));
+        BatchCreditCheckService service = service(4);
+        
+        service.process(Flux.just(line(25000), line(30000), line(35000)), null).blockLast(TIMEOUT);
+        assertThat(scopes).hasSize(1);
+        
+        service.process(Flux.just(line(25000)), null).blockLast(TIMEOUT);
+        assertThat(scopes).hasSize(2);
+    }
+    
+    private BatchCreditCheckService service(int concurrency) {
+        CreditRequestParser parser = new CreditRequestParser(new ObjectMapper().findAndRegisterModules(),
+                Validation.byDefaultProvider()
+                        .configure()
+                        .messageInterpolator(new ParameterMessageInterpolator())
+                        .buildValidatorFactory()
+                        .getValidator());
+        DeadlinePolicy deadlinePolicy = new DeadlinePolicy(Duration.ofSeconds(10), Duration.ofSeconds(20),
+                Duration.ofSeconds(15), Duration.ofSeconds(60));
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(meterRegistry, 100, 5, 500,
+                Duration.ofSeconds(2), 0.9);
+        return new BatchCreditCheckService(orchestrationService, deadlinePolicy, limiter, parser, meterRegistry,
+                concurrency, 1000, 0);
+    }
+    
+    private Map<Long, CreditResponse> byLine(Flux<CreditResponse> responses) {
+        return responses.collectList().block(TIMEOUT).stream()
+                .collect(Collectors.toMap(BatchCreditCheckServiceTest::lineNumber, Function.identity()));
+    }
+    
+    private static long lineNumber(CreditResponse response) {
+        String requestId = response.getRequestId();
+        return Long.parseLong(requestId.substring(requestId.lastIndexOf(':') + 1));
+    }
+    
+    private static String line(int loanAmount) {
+        return "{\"ssn\":\"123-45-6789\",\"firstName\":\"Jane\",\"lastName\":\"Doe\",\"loanAmount\":" + loanAmount + "}";
+    }
+    
+    private static CreditResponse approved(String requestId, BigDecimal loanAmount) {
+        return new CreditResponse(requestId, "APPROVED", BigDecimal.valueOf(720), loanAmount,
+                "All rules passed", LocalDateTime.now(), null, null);
+    }
+}
@@ -0,0 +1,100 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.dto.BureauResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BureauCallScopeTest {
+    
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Counter executed = meterRegistry.counter("executed");
+    private final Counter shared = meterRegistry.counter("shared");
+    private final BureauCallScope scope = new BureauCallScope("batch-1", 100, executed, shared);
+    private final AtomicInteger calls = new AtomicInteger();
+    
+    @Test
+    void sharesACallStillInFlight() {
+        Sinks.One<BureauResponse> response = Sinks.one();
+        
+        Mono<BureauResponse> first = scope.share("EXPERIAN:applicant", counted(response::asMono));
+        Mono<BureauResponse> second = scope.share("EXPERIAN:applicant", counted(response::asMono));
+        response.tryEmitValue(response("SUCCESS"));
+        
+        assertThat(first.block(TIMEOUT).getCreditScore()).isEqualByComparingTo("720");
+        assertThat(second.block(TIMEOUT).getCreditScore()).isEqualByComparingTo("720");
+        assertThat(calls).hasValue(1);
+        assertThat(executed.count()).isEqualTo(1);
+        assertThat(shared.count()).isEqualTo(1);
+    }
+    
+    @Test
+    void sharesASuccessfulResponseAfterItCompletes() {
+        scope.share("EXPERIAN:applicant", counted(() -> Mono.just(response("SUCCESS")))).block(TIMEOUT);
+        
+        BureauResponse again = scope.share("EXPERIAN:applicant", counted(() -> Mono.just(response("SUCCESS"))))
+                .block(TIMEOUT);
+        
+        assertThat(again.getStatus()).isEqualTo("SUCCESS");
+        assertThat(calls).hasValue(1);
+        assertThat(shared.count()).isEqualTo(1);
+    }
+    
+    @Test
+    void forgetsAFailedResponseSoTheNextLineTriesAgain() {
+        scope.share("EXPERIAN:applicant", counted(() -> Mono.just(response("FAILED")))).block(TIMEOUT);
+        
+        BureauResponse retried = scope.share("EXPERIAN:applicant", counted(() -> Mono.just(response("SUCCESS"))))
+                .block(TIMEOUT);
+        
+        assertThat(retried.getStatus()).isEqualTo("SUCCESS");
+        assertThat(calls).hasValue(2);
+        assertThat(executed.count()).isEqualTo(2);
+        assertThat(shared.count()).isZero();
+    }
+    
+    @Test
+    void forgetsAnErrorOrAnEmptyCall() {
+        Mono<BureauResponse> failing = scope.share("EXPERIAN:applicant",
+                counted(() -> Mono.error(new IllegalStateException("bureau down"))));
+        assertThatThrownBy(() -> failing.block(TIMEOUT)).hasMessageContaining("bureau down");
+        
+        assertThat(scope.share("EXPERIAN:applicant", counted(Mono::empty)).block(TIMEOUT)).isNull();
+        scope.share("EXPERIAN:applicant", counted(() -> Mono.just(response("SUCCESS")))).block(TIMEOUT);
+        
+        assertThat(calls).hasValue(3);
+        assertThat(shared.count()).isZero();
+    }
+    
+    @Test
+    void doesNotShareBetweenKeys() {
+        scope.share("EXPERIAN:applicant", counted(() -> Mono.just(response("SUCCESS")))).block(TIMEOUT);
+        scope.share("EQUIFAX:applicant", counted(() -> Mono.just(response("SUCCESS")))).block(TIMEOUT);
+        
+        assertThat(calls).hasValue(2);
+        assertThat(shared.count()).isZero();
+    }
+    
+    private Supplier<Mono<BureauResponse>> counted(Supplier<Mono<BureauResponse>> call) {
+        return () -> {
+            calls.incrementAndGet();
+            return call.get();
+        };
+    }
+    
+    private static BureauResponse response(String status) {
+        return new BureauResponse("EXPERIAN", new BigDecimal("720"), status, null, null);
+    }
+}
@@ -0,0 +1,216 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.dto.BureauResponse;
+import com.loanorigination.common.dto.CreditRequest;
+import com.loanorigination.orchestrator.config.BureauRegistryProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BureauGatewayTest {
+    
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration TRACKED_LATENCY = Duration.ofMillis(80);
+    
+    private final BureauRegistry bureauRegistry = mock(BureauRegistry.class);
+    private final BureauResponseCache bureauResponseCache = mock(BureauResponseCache.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private final CountDownLatch primaryCancelled = new CountDownLatch(1);
+    private final AtomicLong hedgeSentAfterNanos = new AtomicLong(-1);
+    private volatile long fetchStartedAt;
+    
+    @BeforeEach
+    void setUp() {
+        when(bureauResponseCache.keyFor(any(), any())).thenReturn(null);
+    }
+    
+    @Test
+    void slowCallIsHedgedAfterTheTrackedPercentileAndTheLoserCancelled() throws InterruptedException {
+        BureauRegistry.Bureau bureau = hedgedBureau(
+                client(request -> Mono.delay(Duration.ofSeconds(2))
+                        .map(tick -> ok("{\"bureauName\":\"EXPERIAN\",\"creditScore\":720,\"status\":\"SUCCESS\"}"))
+                        .doOnCancel(primaryCancelled::countDown)),
+                client(request -> Mono.fromSupplier(() -> {
+                    hedgeSentAfterNanos.set(System.nanoTime() - fetchStartedAt);
+                    return ok("{\"bureauName\":\"EXPERIAN\",\"creditScore\":710,\"status\":\"SUCCESS\"}");
+                })));
+        BureauLatencyTracker tracker = tracker(bureau);
+        for (int i = 0; i < 100; i++) {
+            tracker.record(bureau, TRACKED_LATENCY.toNanos());
+        }
+        Duration hedgeDelay = tracker.hedgeDelay(bureau);
+        // Percentiles come from a histogram, so allow for its bucket resolution
+        assertThat(hedgeDelay).isBetween(Duration.ofMillis(70), Duration.ofMillis(95));
+        
+        BureauGateway gateway = gateway(bureau, tracker);
+        fetchStartedAt = System.nanoTime();
+        StepVerifier.create(gateway.fetch(bureau, request(), "req-1"))
+                .assertNext(response -> assertThat(response.getCreditScore()).isEqualByComparingTo("710"))
+                .expectComplete()
+                .verify(TIMEOUT);
+        
+        assertThat(Duration.ofNanos(hedgeSentAfterNanos.get())).isGreaterThanOrEqualTo(hedgeDelay);
+        assertThat(primaryCancelled.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.counter("orchestrator.bureau.hedge.sent", "bureau", "EXPERIAN").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("orchestrator.bureau.hedge.won", "bureau", "EXPERIAN").count()).isEqualTo(1);
+    }
+    
+    @Test
+    void callIsNotHedgedUntilEnoughLatencyIsTracked() {
+        BureauRegistry.Bureau bureau = hedgedBureau(
+                client(request -> Mono.delay(Duration.ofMillis(150))
+                        .map(tick -> ok("{\"bureauName\":\"EXPERIAN\",\"creditScore\":720,\"status\":\"SUCCESS\"}"))),
+                client(request -> Mono.error(new AssertionError("hedge must not be sent"))));
+        BureauLatencyTracker tracker = tracker(bureau);
+        
+        StepVerifier.create(gateway(bureau, tracker).fetch(bureau, request(), "req-1"))
+                .assertNext(response -> assertThat(response.getCreditScore()).isEqualByComparingTo("720"))
+                .expectComplete()
+                .verify(TIMEOUT);
+        assertThat(meterRegistry.counter("orchestrator.bureau.hedge.sent", "bureau", "EXPERIAN").count()).isZero();
+    }
+    
+    @Test
+    void failingRequiredBureauReportsItsFailureAndOptionalBureauDropsOut() {
+        ExchangeFunction failing = request -> Mono.just(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build());
+        BureauRegistry.Bureau required = bureau(true, client(failing));
+        BureauRegistry.Bureau optional = bureau(false, client(failing));
+        
+        StepVerifier.create(gateway(required, tracker(required)).fetch(required, request(), "req-1"))
+                .assertNext(response -> {
+                    assertThat(response.getBureauName()).isEqualTo("EXPERIAN");
+                    assertThat(response.getStatus()).isEqualTo("FAILED");
+                    assertThat(response.getCreditScore()).isNull();
+                })
+                .expectComplete()
+                .verify(TIMEOUT);
+        StepVerifier.create(gateway(optional, tracker(optional)).fetch(optional, request(), "req-1"))
+                .expectComplete()
+                .verify(TIMEOUT);
+    }
+    
+    @Test
+    void slowRequiredBureauTimesOutOnItsOwnTimeout() {
+        BureauRegistry.Bureau slow = new BureauRegistry.Bureau("EXPERIAN", "http://experian",
+                client(request -> Mono.never()), 1, Duration.ofMillis(100), true, Duration.ZERO, null, null);
+        
+        StepVerifier.create(gateway(slow, tracker(slow)).fetch(slow, request(), "req-1"))
+                .assertNext(response -> assertThat(response.getStatus()).isEqualTo("TIMEOUT"))
+                .expectComplete()
+                .verify(TIMEOUT);
+    }
+    
+    @Test
+    void openCircuitAnswersWithTheBureausPrebuiltFallbackWithoutCallingIt() {
+        AtomicLong calls = new AtomicLong();
+        BureauRegistry.Bureau bureau = bureau(true, client(request -> {
+            calls.incrementAndGet();
+            return Mono.just(ok("{\"bureauName\":\"EXPERIAN\",\"creditScore\":720,\"status\":\"SUCCESS\"}"));
+        }));
+        BureauGateway gateway = gateway(bureau, tracker(bureau));
+        circuitBreakerRegistry.circuitBreaker("bureau-experian").transitionToOpenState();
+        
+        BureauResponse first = gateway.fetch(bureau, request(), "req-1").block(TIMEOUT);
+        BureauResponse second = gateway.fetch(bureau, request(), "req-2").block(TIMEOUT);
+        
+        assertThat(first.getStatus()).isEqualTo("FAILED");
+        assertThat(first.getErrorMessage()).contains("circuit open");
+        assertThat(second).isSameAs(first).isSameAs(bureau.openCircuitFallback().block());
+        assertThat(calls.get()).isZero();
+    }
+    
+    @Test
+    void openCircuitDropsAnOptionalBureau() {
+        BureauRegistry.Bureau bureau = bureau(false, client(request -> Mono.error(new AssertionError("circuit is open"))));
+        BureauGateway gateway = gateway(bureau, tracker(bureau));
+        circuitBreakerRegistry.circuitBreaker("bureau-experian").transitionToForcedOpenState();
+        
+        StepVerifier.create(gateway.fetch(bureau, request(), "req-1"))
+                .expectComplete()
+                .verify(TIMEOUT);
+    }
+    
+    @Test
+    void bureauStageIsTimedPerBureauAndOutcome() {
+        BureauRegistry.Bureau healthy = bureau(true, client(request -> Mono.just(
+                ok("{\"bureauName\":\"EXPERIAN\",\"creditScore\":720,\"status\":\"SUCCESS\"}"))));
+        BureauRegistry.Bureau failing = bureau(true, client(request -> Mono.just(
+                ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build())));
+        
+        gateway(healthy, tracker(healthy)).fetch(healthy, request(), "req-1").block(TIMEOUT);
+        gateway(failing, tracker(failing)).fetch(failing, request(), "req-2").block(TIMEOUT);
+        
+        assertThat(meterRegistry.get("orchestrator.stage.bureau")
+                .tags("bureau", "EXPERIAN", "outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("orchestrator.stage.bureau")
+                .tags("bureau", "EXPERIAN", "outcome", "failed").timer().count()).isEqualTo(1);
+    }
+    
+    private BureauGateway gateway(BureauRegistry.Bureau bureau, BureauLatencyTracker tracker) {
+        return new BureauGateway(bureauRegistry, bureauResponseCache, new ApplicantKeyHasher("test-secret"), tracker,
+                circuitBreakerRegistry, meterRegistry);
+    }
+    
+    private BureauLatencyTracker tracker(BureauRegistry.Bureau bureau) {
+        when(bureauRegistry.getEnabledBureaus()).thenReturn(List.of(bureau));
+        return new BureauLatencyTracker(bureauRegistry, meterRegistry);
+    }
+    
+    private static BureauRegistry.Bureau hedgedBureau(WebClient client, WebClient hedgeClient) {
+        BureauRegistryProperties.Hedge hedge = new BureauRegistryProperties.Hedge();
+        hedge.setEnabled(true);
+        hedge.setUrl("http://experian-hedge");
+        hedge.setPercentile(0.95);
+        hedge.setMinDelay(Duration.ofMillis(20));
+        hedge.setMinSamples(50);
+        return new BureauRegistry.Bureau("EXPERIAN", "http://experian", client, 1, Duration.ofSeconds(3), true,
+                Duration.ZERO, hedge, hedgeClient);
+    }
+    
+    private static BureauRegistry.Bureau bureau(boolean required, WebClient client) {
+        return new BureauRegistry.Bureau("EXPERIAN", "http://experian", client, 1, Duration.ofSeconds(3), required,
+                Duration.ZERO, null, null);
+    }
+    
+    static WebClient client(ExchangeFunction exchange) {
+        return WebClient.builder().baseUrl("http://bureau").exchangeFunction(exchange).build();
+    }
+    
+    static ClientResponse ok(String json) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(json)
+                .build();
+    }
+    
+    static CreditRequest request() {
+        CreditRequest request = new CreditRequest();
+        request.setSsn("123-45-6789");
+        request.setFirstName("Jane");
+        request.setLastName("Doe");
+        request.setLoanAmount(new BigDecimal("25000"));
+        return request;
+    }
+}
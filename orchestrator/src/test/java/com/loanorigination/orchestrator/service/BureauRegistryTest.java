@@ -0,0 +1,114 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.orchestrator.config.BureauRegistryProperties;
+import com.loanorigination.orchestrator.config.DownstreamClientRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class BureauRegistryTest {
+    
+    private final DownstreamClientRegistry clientRegistry = mock(DownstreamClientRegistry.class);
+    
+    @Test
+    void registersOnlyEnabledBureausInWeightOrder() {
+        BureauRegistry registry = new BureauRegistry(properties(
+                bureau("EQUIFAX", 1, true, true),
+                bureau("TRANSUNION", 5, false, true),
+                bureau("EXPERIAN", 3, true, false)), clientRegistry);
+        
+        assertThat(registry.getEnabledBureaus()).extracting(BureauRegistry.Bureau::name)
+                .containsExactly("EXPERIAN", "EQUIFAX");
+        assertThat(registry.getEnabledBureaus()).extracting(BureauRegistry.Bureau::required)
+                .containsExactly(false, true);
+        assertThat(registry.indexOf("EQUIFAX")).isEqualTo(1);
+        assertThat(registry.indexOf("TRANSUNION")).isEqualTo(2);
+        verify(clientRegistry, never()).register(eq("bureau-transunion"), any(), any());
+    }
+    
+    @Test
+    void rejectsUnnamedDuplicateOrUntimedBureaus() {
+        BureauRegistryProperties.Bureau untimed = bureau("EXPERIAN", 1, true, true);
+        untimed.setTimeout(Duration.ZERO);
+        
+        assertThatThrownBy(() -> new BureauRegistry(properties(bureau(" ", 1, true, true)), clientRegistry))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BureauRegistry(properties(
+                bureau("EXPERIAN", 1, true, true), bureau("EXPERIAN", 2, true, true)), clientRegistry))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BureauRegistry(properties(untimed), clientRegistry))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void hedgingRequiresAHedgeUrl() {
+        BureauRegistryProperties.Bureau experian = bureau("EXPERIAN", 2, true, false);
+        experian.setHedge(hedge(null));
+        
+        assertThatThrownBy(() -> new BureauRegistry(properties(experian), clientRegistry))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("EXPERIAN")
+                .hasMessageContaining("hedge url");
+        
+        experian.setHedge(hedge(" "));
+        assertThatThrownBy(() -> new BureauRegistry(properties(experian), clientRegistry))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void hedgedBureauGetsItsOwnClientForTheHedgeInstance() {
+        BureauRegistryProperties.Bureau experian = bureau("EXPERIAN", 2, true, false);
+        experian.setHedge(hedge("http://experian-hedge:8083/api/experian"));
+        
+        BureauRegistry.Bureau registered = new BureauRegistry(properties(experian), clientRegistry)
+                .getEnabledBureaus().get(0);
+        
+        assertThat(registered.hedge()).isNotNull();
+        verify(clientRegistry).register(eq("bureau-experian"), eq(experian.getUrl()), any());
+        verify(clientRegistry).register(eq("bureau-experian-hedge"), eq("http://experian-hedge:8083/api/experian"), any());
+    }
+    
+    @Test
+    void disabledHedgeNeedsNoUrl() {
+        BureauRegistryProperties.Bureau experian = bureau("EXPERIAN", 2, true, false);
+        BureauRegistryProperties.Hedge hedge = hedge(null);
+        hedge.setEnabled(false);
+        experian.setHedge(hedge);
+        
+        assertThat(new BureauRegistry(properties(experian), clientRegistry).getEnabledBureaus().get(0).hedge())
+                .isNull();
+    }
+    
+    static BureauRegistryProperties properties(BureauRegistryProperties.Bureau... bureaus) {
+        BureauRegistryProperties properties = new BureauRegistryProperties();
+        properties.setBureaus(List.of(bureaus));
+        return properties;
+    }
+    
+    static BureauRegistryProperties.Bureau bureau(String name, int weight, boolean enabled, boolean required) {
+        BureauRegistryProperties.Bureau bureau = new BureauRegistryProperties.Bureau();
+        bureau.setName(name);
+        bureau.setUrl("http://" + name.toLowerCase() + ":8080/api");
+        bureau.setWeight(weight);
+        bureau.setTimeout(Duration.ofSeconds(2));
+        bureau.setEnabled(enabled);
+        bureau.setRequired(required);
+        return bureau;
+    }
+    
+    private static BureauRegistryProperties.Hedge hedge(String url) {
+        BureauRegistryProperties.Hedge hedge = new BureauRegistryProperties.Hedge();
+        hedge.setEnabled(true);
+        hedge.setUrl(url);
+        return hedge;
+    }
+}
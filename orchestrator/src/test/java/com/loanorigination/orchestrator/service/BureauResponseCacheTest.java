@@ -0,0 +1,144 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.dto.BureauResponse;
+import com.loanorigination.common.dto.CreditRequest;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.loanorigination.orchestrator.service.BureauGatewayTest.client;
+import static com.loanorigination.orchestrator.service.BureauGatewayTest.ok;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The bureau response cache behind a real {@link BureauGateway}: a hit skips the bureau call
+ */
+class BureauResponseCacheTest {
+    
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final String SSN = "123-45-6789";
+    
+    private final BureauRegistry bureauRegistry = mock(BureauRegistry.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ApplicantKeyHasher applicantKeyHasher = new ApplicantKeyHasher("test-secret");
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicBoolean failing = new AtomicBoolean();
+    private final WebClient client = client(request -> {
+        calls.incrementAndGet();
+        return Mono.just(failing.get()
+                ? ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build()
+                : ok("{\"bureauName\":\"EXPERIAN\",\"creditScore\":720,\"status\":\"SUCCESS\"}"));
+    });
+    
+    @Test
+    void sameApplicantIsServedFromTheCache() {
+        BureauRegistry.Bureau bureau = bureau(Duration.ofMinutes(15));
+        BureauGateway gateway = gateway(bureau);
+        
+        BureauResponse first = gateway.fetch(bureau, request(SSN, "25000"), "req-1").block(TIMEOUT);
+        BureauResponse second = gateway.fetch(bureau, request("123456789", "40000"), "req-2").block(TIMEOUT);
+        
+        assertThat(calls.get()).isEqualTo(1);
+        // Hits share the cached instance, which is read-only
+        assertThat(second).isSameAs(first);
+        assertThat(meterRegistry.get("orchestrator.stage.bureau").tag("outcome", "cached").timer().count())
+                .isEqualTo(1);
+    }
+    
+    @Test
+    void differentApplicantsAreNotShared() {
+        BureauRegistry.Bureau bureau = bureau(Duration.ofMinutes(15));
+        BureauGateway gateway = gateway(bureau);
+        
+        gateway.fetch(bureau, request(SSN, "25000"), "req-1").block(TIMEOUT);
+        gateway.fetch(bureau, request("987-65-4321", "25000"), "req-2").block(TIMEOUT);
+        
+        assertThat(calls.get()).isEqualTo(2);
+    }
+    
+    @Test
+    void failedResponsesAreNotCached() {
+        BureauRegistry.Bureau bureau = bureau(Duration.ofMinutes(15));
+        BureauGateway gateway = gateway(bureau);
+        failing.set(true);
+        
+        assertThat(gateway.fetch(bureau, request(SSN, "25000"), "req-1").block(TIMEOUT).getStatus())
+                .isEqualTo("FAILED");
+        failing.set(false);
+        assertThat(gateway.fetch(bureau, request(SSN, "25000"), "req-2").block(TIMEOUT).getStatus())
+                .isEqualTo("SUCCESS");
+        
+        assertThat(calls.get()).isEqualTo(2);
+    }
+    
+    @Test
+    void keysAreKeyedHashesNeverTheSsn() {
+        BureauRegistry.Bureau bureau = bureau(Duration.ofMinutes(15));
+        BureauResponseCache cache = cache(bureau);
+        
+        String key = cache.keyFor(bureau, request(SSN, "25000"));
+        
+        assertThat(key).doesNotContain("123456789").doesNotContain(SSN);
+        assertThat(key).isEqualTo(cache.keyFor(bureau, request("123 45 6789", "25000")));
+        assertThat(key).isNotEqualTo(new ApplicantKeyHasher("other-secret").hashSsn(SSN));
+    }
+    
+    @Test
+    void bureauWithoutTtlIsNeverCached() {
+        BureauRegistry.Bureau bureau = bureau(Duration.ZERO);
+        BureauGateway gateway = gateway(bureau);
+        
+        gateway.fetch(bureau, request(SSN, "25000"), "req-1").block(TIMEOUT);
+        gateway.fetch(bureau, request(SSN, "25000"), "req-2").block(TIMEOUT);
+        
+        assertThat(calls.get()).isEqualTo(2);
+    }
+    
+    @Test
+    void clearDropsTheBureausEntries() {
+        BureauRegistry.Bureau bureau = bureau(Duration.ofMinutes(15));
+        BureauResponseCache cache = cache(bureau);
+        String key = cache.keyFor(bureau, request(SSN, "25000"));
+        cache.put(bureau, key, new BureauResponse("EXPERIAN", new BigDecimal("720"), "SUCCESS", null, null));
+        
+        assertThat(cache.clear("experian")).isEqualTo(1);
+        assertThat(cache.get(bureau, key)).isNull();
+    }
+    
+    private BureauGateway gateway(BureauRegistry.Bureau bureau) {
+        BureauResponseCache cache = cache(bureau);
+        return new BureauGateway(bureauRegistry, cache, applicantKeyHasher,
+                new BureauLatencyTracker(bureauRegistry, meterRegistry), CircuitBreakerRegistry.ofDefaults(),
+                meterRegistry);
+    }
+    
+    private BureauResponseCache cache(BureauRegistry.Bureau bureau) {
+        when(bureauRegistry.getEnabledBureaus()).thenReturn(List.of(bureau));
+        return new BureauResponseCache(bureauRegistry, applicantKeyHasher, meterRegistry, DataSize.ofMegabytes(1));
+    }
+    
+    private BureauRegistry.Bureau bureau(Duration cacheTtl) {
+        return new BureauRegistry.Bureau("EXPERIAN", "http://experian", client, 1, Duration.ofSeconds(2), true,
+                cacheTtl, null, null);
+    }
+    
+    private static CreditRequest request(String ssn, String loanAmount) {
+        CreditRequest request = BureauGatewayTest.request();
+        request.setSsn(ssn);
+        request.setLoanAmount(new BigDecimal(loanAmount));
+        return request;
+    }
+}
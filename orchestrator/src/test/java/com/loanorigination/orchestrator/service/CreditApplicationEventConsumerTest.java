@@ -0,0 +1,247 @@
+package com.loanorigination.orchestrator.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loanorigination.common.dto.CreditResponse;
+import com.loanorigination.orchestrator.config.KafkaConfig;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(
+        classes = {
+                KafkaConfig.class,
+                CreditApplicationEventConsumer.class,
+                CreditRequestParser.class,
+                DeadlinePolicy.class,
+                AdaptiveConcurrencyLimiter.class,
+                CreditApplicationEventConsumerTest.TestConfig.class
+        },
+        properties = {
+                "orchestrator.event-mode.enabled=true",
+                "orchestrator.event-mode.input-topic=" + CreditApplicationEventConsumerTest.INPUT_TOPIC,
+                "orchestrator.event-mode.output-topic=" + CreditApplicationEventConsumerTest.OUTPUT_TOPIC,
+                "orchestrator.event-mode.group-id=orchestrator-test",
+                "orchestrator.event-mode.consumers=1",
+                "orchestrator.event-mode.retry.initial-interval=10ms",
+                "orchestrator.event-mode.retry.max-interval=50ms"
+        })
+@EmbeddedKafka(partitions = 1,
+        topics = {CreditApplicationEventConsumerTest.INPUT_TOPIC, CreditApplicationEventConsumerTest.OUTPUT_TOPIC},
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class CreditApplicationEventConsumerTest {
+    
+    static final String INPUT_TOPIC = "loan-applications-test";
+    static final String OUTPUT_TOPIC = "credit-responses-test";
+    
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @MockBean
+    private OrchestrationService orchestrationService;
+    
+    @SpyBean
+    private KafkaTemplate<String, CreditResponse> kafkaTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Test
+    void publishesResponseForEveryApplicationAndFailedForInvalidOnes() throws Exception {
+        when(orchestrationService.processCreditCheck(any(), isNull(), eq("app-1"), any()))
+                .thenReturn(Mono.just(new CreditResponse("app-1", "APPROVED", BigDecimal.valueOf(720),
+                        BigDecimal.valueOf(25000), "All rules passed", LocalDateTime.now(), null, null)));
+        
+        try (Producer<String, String> producer = new DefaultKafkaProducerFactory<>(
+                KafkaTestUtils.producerProps(embeddedKafka), new StringSerializer(), new StringSerializer())
+                .createProducer()) {
+            producer.send(new ProducerRecord<>(INPUT_TOPIC, "app-1",
+                    "{\"ssn\":\"123-45-6789\",\"firstName\":\"Jane\",\"lastName\":\"Doe\",\"loanAmount\":25000}"));
+            producer.send(new ProducerRecord<>(INPUT_TOPIC, "app-2", "{\"firstName\":\"Jane\"}"));
+            producer.flush();
+        }
+        
+        Map<String, JsonNode> responses = readResponses(2, "app-1", "app-2");
+        
+        assertThat(responses).containsOnlyKeys("app-1", "app-2");
+        assertThat(responses.get("app-1").get("status").asText()).isEqualTo("APPROVED");
+        assertThat(responses.get("app-2").get("status").asText()).isEqualTo(CreditRequestParser.FAILED);
+        assertThat(responses.get("app-2").get("decisionReason").asText()).contains("SSN is required");
+    }
+    
+    @Test
+    void pollIsRetriedUntilItsResponsesArePublishedBeforeItIsCommitted() throws Exception {
+        when(orchestrationService.processCreditCheck(any(), isNull(), eq("app-retry"), any()))
+                .thenReturn(Mono.just(new CreditResponse("app-retry", "APPROVED", BigDecimal.valueOf(720),
+                        BigDecimal.valueOf(25000), "All rules passed", LocalDateTime.now(), null, null)));
+        // More failed attempts than a default error handler would retry before skipping the poll
+        AtomicInteger failedSends = new AtomicInteger();
+        doAnswer(invocation -> failedSends.getAndIncrement() < 15
+                ? CompletableFuture.failedFuture(new KafkaException("Output topic unavailable"))
+                : invocation.callRealMethod())
+                .when(kafkaTemplate).send(eq(OUTPUT_TOPIC), eq("app-retry"), any());
+        
+        long offset;
+        try (Producer<String, String> producer = new DefaultKafkaProducerFactory<>(
+                KafkaTestUtils.producerProps(embeddedKafka), new StringSerializer(), new StringSerializer())
+                .createProducer()) {
+            offset = producer.send(new ProducerRecord<>(INPUT_TOPIC, "app-retry",
+                    "{\"ssn\":\"123-45-6789\",\"firstName\":\"Jane\",\"lastName\":\"Doe\",\"loanAmount\":25000}"))
+                    .get().offset();
+        }
+        
+        Map<String, JsonNode> responses = readResponses(1, "app-retry");
+        
+        assertThat(responses).containsOnlyKeys("app-retry");
+        assertThat(responses.get("app-retry").get("status").asText()).isEqualTo("APPROVED");
+        assertThat(failedSends.get()).isGreaterThan(15);
+        long giveUpAt = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        OffsetAndMetadata committed = null;
+        while ((committed == null || committed.offset() <= offset) && System.nanoTime() < giveUpAt) {
+            committed = KafkaTestUtils.getCurrentOffset(embeddedKafka.getBrokersAsString(), "orchestrator-test",
+                    INPUT_TOPIC, 0);
+            Thread.sleep(50);
+        }
+        assertThat(committed).isNotNull();
+        assertThat(committed.offset()).isEqualTo(offset + 1);
+    }
+    
+    @Test
+    void transientCheckFailureRedeliversThePollInsteadOfPublishingFailed() throws Exception {
+        CallNotPermittedException circuitOpen =
+                CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("decision-engine"));
+        AtomicInteger attempts = new AtomicInteger();
+        when(orchestrationService.processCreditCheck(any(), isNull(), eq("app-circuit-open"), any()))
+                .thenAnswer(invocation -> attempts.getAndIncrement() < 3
+                        ? Mono.error(circuitOpen)
+                        : Mono.just(new CreditResponse("app-circuit-open", "APPROVED", BigDecimal.valueOf(720),
+                                BigDecimal.valueOf(25000), "All rules passed", LocalDateTime.now(), null, null)));
+        
+        try (Producer<String, String> producer = new DefaultKafkaProducerFactory<>(
+                KafkaTestUtils.producerProps(embeddedKafka), new StringSerializer(), new StringSerializer())
+                .createProducer()) {
+            producer.send(new ProducerRecord<>(INPUT_TOPIC, "app-circuit-open",
+                    "{\"ssn\":\"123-45-6789\",\"firstName\":\"Jane\",\"lastName\":\"Doe\",\"loanAmount\":25000}"));
+            producer.flush();
+        }
+        
+        Map<String, JsonNode> responses = readResponses(1, "app-circuit-open");
+        
+        assertThat(responses.get("app-circuit-open").get("status").asText()).isEqualTo("APPROVED");
+        assertThat(attempts.get()).isEqualTo(4);
+        assertThat(meterRegistry.counter("orchestrator.events.applications", "result", "failed").count()).isZero();
+    }
+    
+    @Test
+    void onlyInvalidInputIsRejected() {
+        assertThat(CreditApplicationEventConsumer.rejected(new IllegalArgumentException("Loan amount is required")))
+                .isTrue();
+        assertThat(CreditApplicationEventConsumer.rejected(WebClientResponseException.create(
+                400, "Bad Request", null, null, null))).isTrue();
+        assertThat(CreditApplicationEventConsumer.rejected(WebClientResponseException.create(
+                503, "Service Unavailable", null, null, null))).isFalse();
+        assertThat(CreditApplicationEventConsumer.rejected(
+                CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("bureau")))).isFalse();
+        assertThat(CreditApplicationEventConsumer.rejected(new TimeoutException())).isFalse();
+    }
+    
+    @Test
+    void pollBudgetCoversEveryWaveOfChecks() {
+        assertThat(CreditApplicationEventConsumer.pollBudget(Duration.ofSeconds(60), 64, 32))
+                .isEqualTo(Duration.ofSeconds(150));
+        assertThat(CreditApplicationEventConsumer.pollBudget(Duration.ofSeconds(60), 65, 32))
+                .isEqualTo(Duration.ofSeconds(210));
+    }
+    
+    private Map<String, JsonNode> readResponses(int expected, String... keys) throws Exception {
+        Set<String> wanted = Set.of(keys);
+        Map<String, Object> props = KafkaTestUtils.consumerProps("verifier", "false", embeddedKafka);
+        props.put("auto.offset.reset", "earliest");
+        Map<String, JsonNode> responses = new HashMap<>();
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+            embeddedKafka.consumeFromAnEmbeddedTopic(consumer, OUTPUT_TOPIC);
+            long giveUpAt = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+            while (responses.size() < expected && System.nanoTime() < giveUpAt) {
+                for (ConsumerRecord<String, String> record : KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(5))) {
+                    if (wanted.contains(record.key())) {
+                        responses.put(record.key(), objectMapper.readTree(record.value()));
+                    }
+                }
+            }
+        }
+        return responses;
+    }
+    
+    @TestConfiguration
+    @EnableKafka
+    static class TestConfig {
+        
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().findAndRegisterModules();
+        }
+        
+        @Bean
+        Validator validator() {
+            return Validation.byDefaultProvider()
+                    .configure()
+                    .messageInterpolator(new ParameterMessageInterpolator())
+                    .buildValidatorFactory()
+                    .getValidator();
+        }
+        
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
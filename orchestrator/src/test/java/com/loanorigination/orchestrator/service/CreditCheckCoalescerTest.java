@@ -0,0 +1,181 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.deadline.Deadline;
+import com.loanorigination.common.dto.CreditRequest;
+import com.loanorigination.common.dto.CreditResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CreditCheckCoalescerTest {
+    
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CreditCheckCoalescer coalescer = new CreditCheckCoalescer(new ApplicantKeyHasher("test-secret"),
+            new DeadlinePolicy(Duration.ofSeconds(10), Duration.ofSeconds(20), Duration.ofSeconds(15),
+                    Duration.ofSeconds(60)),
+            meterRegistry, Duration.ofSeconds(2));
+    private final AtomicInteger checks = new AtomicInteger();
+    
+    @Test
+    void concurrentIdenticalRequestsShareOneCheck() {
+        Supplier<Mono<CreditResponse>> check = slowCheck(Duration.ofMillis(200));
+        
+        StepVerifier.create(Mono.zip(
+                        coalescer.coalesce(request("25000"), BureauStrategy.PARALLEL, check),
+                        coalescer.coalesce(request("25000.00"), BureauStrategy.PARALLEL, check)))
+                .assertNext(responses -> assertThat(responses.getT1()).isSameAs(responses.getT2()))
+                .expectComplete()
+                .verify(TIMEOUT);
+        assertThat(checks.get()).isEqualTo(1);
+        assertThat(meterRegistry.counter("orchestrator.coalescing.requests", "result", "coalesced").count())
+                .isEqualTo(1);
+    }
+    
+    @Test
+    void differentApplicationsOrStrategiesAreNotCoalesced() {
+        Supplier<Mono<CreditResponse>> check = slowCheck(Duration.ZERO);
+        
+        StepVerifier.create(Mono.zip(
+                        coalescer.coalesce(request("25000"), BureauStrategy.PARALLEL, check),
+                        coalescer.coalesce(request("30000"), BureauStrategy.PARALLEL, check),
+                        coalescer.coalesce(request("25000"), BureauStrategy.QUORUM, check)))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(TIMEOUT);
+        assertThat(checks.get()).isEqualTo(3);
+    }
+    
+    @Test
+    void callerTimingOutLeavesTheCheckRunningForOthers() {
+        Supplier<Mono<CreditResponse>> check = slowCheck(Duration.ofMillis(300));
+        
+        StepVerifier.create(Mono.zip(
+                        withDeadline(coalescer.coalesce(request("25000"), BureauStrategy.PARALLEL, check),
+                                Duration.ofMillis(50)).onErrorReturn(TimeoutException.class, timedOut()),
+                        withDeadline(coalescer.coalesce(request("25000"), BureauStrategy.PARALLEL, check),
+                                Duration.ofSeconds(2))))
+                .assertNext(responses -> {
+                    assertThat(responses.getT1().getStatus()).isEqualTo("TIMED_OUT");
+                    assertThat(responses.getT2().getStatus()).isEqualTo("APPROVED");
+                })
+                .expectComplete()
+                .verify(TIMEOUT);
+        assertThat(checks.get()).isEqualTo(1);
+    }
+    
+    @Test
+    void checkIsCancelledOnceEveryCallerHasLeft() throws InterruptedException {
+        CountDownLatch cancelled = new CountDownLatch(1);
+        Supplier<Mono<CreditResponse>> check = () -> {
+            checks.incrementAndGet();
+            return Mono.<CreditResponse>never().doOnCancel(cancelled::countDown);
+        };
+        
+        Disposable first = coalescer.coalesce(request("25000"), BureauStrategy.PARALLEL, check).subscribe();
+        Disposable second = coalescer.coalesce(request("25000"), BureauStrategy.PARALLEL, check).subscribe();
+        first.dispose();
+        assertThat(cancelled.await(100, TimeUnit.MILLISECONDS)).isFalse();
+        
+        second.dispose();
+        
+        assertThat(cancelled.await(5, TimeUnit.SECONDS)).isTrue();
+        StepVerifier.create(coalescer.coalesce(request("25000"), BureauStrategy.PARALLEL, slowCheck(Duration.ZERO)))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(TIMEOUT);
+        assertThat(checks.get()).isEqualTo(2);
+    }
+    
+    @Test
+    void checkRunsUnderTheLatestDeadlineOfItsCallers() throws InterruptedException {
+        AtomicReference<Deadline> checkDeadline = new AtomicReference<>();
+        CountDownLatch started = new CountDownLatch(1);
+        Supplier<Mono<CreditResponse>> check = () -> Mono.deferContextual(context -> {
+            checkDeadline.set(context.get(Deadline.class));
+            started.countDown();
+            return Mono.never();
+        });
+        
+        Disposable first = withDeadline(coalescer.coalesce(request("25000"), BureauStrategy.PARALLEL, check),
+                Duration.ofSeconds(1)).subscribe();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(checkDeadline.get().remaining()).isLessThanOrEqualTo(Duration.ofSeconds(1));
+        
+        Disposable second = withDeadline(coalescer.coalesce(request("25000"), BureauStrategy.PARALLEL, check),
+                Duration.ofSeconds(5)).subscribe();
+        
+        assertThat(checkDeadline.get().remaining()).isGreaterThan(Duration.ofSeconds(4));
+        first.dispose();
+        second.dispose();
+    }
+    
+    @Test
+    void completedResultIsReusedWithinTheWindow() {
+        Supplier<Mono<CreditResponse>> check = slowCheck(Duration.ZERO);
+        
+        CreditResponse first = coalescer.coalesce(request("25000"), BureauStrategy.PARALLEL, check).block(TIMEOUT);
+        CreditResponse second = coalescer.coalesce(request("25000"), BureauStrategy.PARALLEL, check).block(TIMEOUT);
+        
+        assertThat(second).isSameAs(first);
+        assertThat(checks.get()).isEqualTo(1);
+    }
+    
+    @Test
+    void failedCheckIsNotReused() {
+        Supplier<Mono<CreditResponse>> failing = () -> {
+            checks.incrementAndGet();
+            return Mono.error(new IllegalStateException("bureau down"));
+        };
+        
+        StepVerifier.create(coalescer.coalesce(request("25000"), BureauStrategy.PARALLEL, failing))
+                .expectError(IllegalStateException.class)
+                .verify(TIMEOUT);
+        StepVerifier.create(coalescer.coalesce(request("25000"), BureauStrategy.PARALLEL, slowCheck(Duration.ZERO)))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(TIMEOUT);
+        assertThat(checks.get()).isEqualTo(2);
+    }
+    
+    private Supplier<Mono<CreditResponse>> slowCheck(Duration delay) {
+        return () -> {
+            checks.incrementAndGet();
+            return Mono.delay(delay).map(tick -> new CreditResponse("req-" + checks.get(), "APPROVED",
+                    BigDecimal.valueOf(720), BigDecimal.valueOf(25000), "All rules passed", LocalDateTime.now(),
+                    null, null));
+        };
+    }
+    
+    private static <T> Mono<T> withDeadline(Mono<T> call, Duration budget) {
+        return call.contextWrite(context -> context.put(Deadline.class, Deadline.after(budget)));
+    }
+    
+    private static CreditResponse timedOut() {
+        return new CreditResponse("timed-out", "TIMED_OUT", null, null, null, LocalDateTime.now(), null, null);
+    }
+    
+    private static CreditRequest request(String loanAmount) {
+        CreditRequest request = new CreditRequest();
+        request.setSsn("123-45-6789");
+        request.setFirstName("Jane");
+        request.setLastName("Doe");
+        request.setLoanAmount(new BigDecimal(loanAmount));
+        return request;
+    }
+}
@@ -0,0 +1,172 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.dto.BureauResponse;
+import com.loanorigination.common.dto.CreditRequest;
+import com.loanorigination.common.dto.CreditResponse;
+import com.loanorigination.common.dto.DecisionRequest;
+import com.loanorigination.common.dto.DecisionResult;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Sustained throughput of concurrent credit checks, in applications per second, with two
+ * bureaus and the decision engine answering after a fixed latency. {@code nonBlocking} runs
+ * every application through the reactive pipeline at once; {@code blockingWorkers} is the
+ * former model, where each application holds one of a fixed pool of request threads and blocks
+ * on its check. Run with
+ * {@code mvn -pl orchestrator -Pbenchmark test-compile exec:exec -Dbenchmark=CreditCheckThroughputBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CreditCheckThroughputBenchmark {
+    
+    private static final int APPLICATIONS = 1000;
+    
+    // Latency of each bureau and of the decision engine
+    @Param({"20", "100"})
+    private long latencyMs;
+    
+    // Request threads of the blocking model, Tomcat's default
+    @Param("200")
+    private int workers;
+    
+    private OrchestrationService service;
+    private List<CreditRequest> requests;
+    private ExecutorService workerPool;
+    
+    @Setup
+    public void setUp() {
+        // Per-request logging would dominate the measurement
+        ((Logger) LoggerFactory.getLogger(OrchestrationService.class)).setLevel(Level.WARN);
+        ((Logger) LoggerFactory.getLogger(CreditCheckCoalescer.class)).setLevel(Level.WARN);
+        
+        Duration latency = Duration.ofMillis(latencyMs);
+        BureauRegistry bureauRegistry = mock(BureauRegistry.class);
+        when(bureauRegistry.getEnabledBureaus()).thenReturn(List.of(bureau("EXPERIAN"), bureau("EQUIFAX")));
+        when(bureauRegistry.indexOf("EXPERIAN")).thenReturn(0);
+        when(bureauRegistry.indexOf("EQUIFAX")).thenReturn(1);
+        BureauGateway bureauGateway = mock(BureauGateway.class);
+        when(bureauGateway.fetch(any(), any(), anyString())).thenAnswer(invocation -> {
+            BureauRegistry.Bureau bureau = invocation.getArgument(0);
+            return Mono.delay(latency).thenReturn(new BureauResponse(bureau.name(), new BigDecimal("720"),
+                    "SUCCESS", null, LocalDateTime.now()));
+        });
+        DecisionGateway decisionGateway = request -> Mono.delay(latency).thenReturn(approved(request));
+        AuditLoggingClient auditLoggingClient = mock(AuditLoggingClient.class);
+        when(auditLoggingClient.logEvent(anyString(), anyString(), any())).thenReturn(Mono.empty());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        
+        // No reuse window, so every application is checked rather than served from a previous result
+        service = new OrchestrationService(bureauRegistry, bureauGateway, mock(PreBureauRuleGate.class),
+                new CreditCheckCoalescer(new ApplicantKeyHasher("benchmark-secret"),
+                        new DeadlinePolicy(Duration.ofSeconds(10), Duration.ofSeconds(20), Duration.ofSeconds(15),
+                                Duration.ofSeconds(60)),
+                        meterRegistry, Duration.ZERO),
+                mock(EarlyDecisionEvaluator.class), mock(WaterfallPolicy.class), decisionGateway, auditLoggingClient,
+                mock(DecisionEngineClient.class), meterRegistry, ObservationRegistry.NOOP, "parallel", Map.of(),
+                "remote");
+        
+        requests = new ArrayList<>(APPLICATIONS);
+        for (int i = 0; i < APPLICATIONS; i++) {
+            requests.add(request(i));
+        }
+        workerPool = Executors.newFixedThreadPool(workers);
+    }
+    
+    @TearDown
+    public void stopWorkers() {
+        workerPool.shutdownNow();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(APPLICATIONS)
+    public List<CreditResponse> nonBlocking() {
+        return Flux.range(0, APPLICATIONS)
+                .flatMap(this::check, APPLICATIONS)
+                .collectList()
+                .block();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(APPLICATIONS)
+    public List<CreditResponse> blockingWorkers() throws InterruptedException, ExecutionException {
+        List<Future<CreditResponse>> checks = new ArrayList<>(APPLICATIONS);
+        for (int i = 0; i < APPLICATIONS; i++) {
+            int index = i;
+            checks.add(workerPool.submit(() -> check(index).block()));
+        }
+        List<CreditResponse> responses = new ArrayList<>(APPLICATIONS);
+        for (Future<CreditResponse> check : checks) {
+            responses.add(check.get());
+        }
+        return responses;
+    }
+    
+    private Mono<CreditResponse> check(int index) {
+        return service.processCreditCheck(requests.get(index), BureauStrategy.PARALLEL, "benchmark-" + index,
+                CreditCheckListener.NONE);
+    }
+    
+    private static DecisionResult approved(DecisionRequest request) {
+        DecisionResult result = new DecisionResult();
+        result.setRequestId(request.getRequestId());
+        result.setDecision("APPROVED");
+        result.setCreditScore(new BigDecimal("720"));
+        result.setReason("All rules passed");
+        return result;
+    }
+    
+    private static BureauRegistry.Bureau bureau(String name) {
+        return new BureauRegistry.Bureau(name, "http://" + name.toLowerCase(), null, 1, Duration.ofSeconds(2),
+                false, null, null, null);
+    }
+    
+    // A distinct applicant per application, so concurrent checks are not coalesced
+    private static CreditRequest request(int index) {
+        CreditRequest request = new CreditRequest();
+        request.setSsn(String.format("%03d-45-%04d", index / 100, index));
+        request.setFirstName("Jane");
+        request.setLastName("Doe");
+        request.setLoanAmount(new BigDecimal("25000"));
+        return request;
+    }
+}
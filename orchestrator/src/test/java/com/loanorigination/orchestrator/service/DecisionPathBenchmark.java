@@ -0,0 +1,67 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.dto.DecisionResult;
+import com.loanorigination.common.dto.RuleSnapshotDTO;
+import com.loanorigination.common.rules.Rulebook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the latency distribution of remote and in-process decisions for the same request.
+ * Needs a running decision engine, ideally in "rules" mode; remote calls are real decisions,
+ * stored under "benchmark-" request IDs. Run with
+ * {@code mvn -pl orchestrator -Pbenchmark test-compile exec:exec -Dbenchmark=DecisionPathBenchmark -Djmh.args="-p decisionEngineUrl=http://localhost:8082"}.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DecisionPathBenchmark {
+    
+    @Param("http://localhost:8082")
+    private String decisionEngineUrl;
+    
+    private WebClient webClient;
+    private Rulebook rulebook;
+    
+    @Setup
+    public void loadRules() {
+        webClient = WebClient.create(decisionEngineUrl);
+        rulebook = ActiveRulesCache.rulebookOf(webClient.get()
+                .uri("/api/rules/snapshot")
+                .retrieve()
+                .bodyToMono(RuleSnapshotDTO.class)
+                .block());
+    }
+    
+    @Benchmark
+    public DecisionResult remote() {
+        return webClient.post()
+                .uri("/api/decision/evaluate?includeReasoning=true")
+                .bodyValue(WireFormatBenchmark.sampleRequest("benchmark-" + UUID.randomUUID()))
+                .retrieve()
+                .bodyToMono(DecisionResult.class)
+                .block();
+    }
+    
+    @Benchmark
+    public DecisionResult inProcess() {
+        return InProcessDecisionGateway.evaluate(rulebook,
+                WireFormatBenchmark.sampleRequest("benchmark-" + UUID.randomUUID()), true);
+    }
+}
@@ -0,0 +1,106 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.dto.BureauResponse;
+import com.loanorigination.common.dto.CreditRequest;
+import com.loanorigination.common.rules.Rulebook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.loanorigination.common.rules.RuleFixtures.rule;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EarlyDecisionEvaluatorTest {
+    
+    private final ActiveRulesCache activeRulesCache = mock(ActiveRulesCache.class);
+    private final EarlyDecisionEvaluator evaluator = evaluator(true);
+    
+    @BeforeEach
+    void setUp() {
+        when(activeRulesCache.getDecisionMode()).thenReturn("rules");
+        when(activeRulesCache.getRulebook()).thenReturn(Rulebook.compile("v1", List.of(
+                rule("MIN_SCORE", "CREDIT_SCORE", ">=", "650"),
+                rule("MIN_BUREAUS", "BUREAU_RESPONSE", ">=", "1"),
+                rule("MAX_AMOUNT", "LOAN_AMOUNT", "<=", "50000"))));
+    }
+    
+    @Test
+    void undecidedWhileAnOutstandingBureauCanChangeTheAverage() {
+        assertThat(evaluator.settledOutcome(request("20000"), List.of(success("800")), 1)).isNull();
+    }
+    
+    @Test
+    void rejectsWhenNoOutstandingScoreCanLiftTheAverage() {
+        assertThat(evaluator.settledOutcome(request("20000"), List.of(success("380")), 1)).isEqualTo("REJECTED");
+    }
+    
+    @Test
+    void rejectsOnApplicationRulesBeforeAnyBureauResponds() {
+        assertThat(evaluator.settledOutcome(request("80000"), List.of(), 2)).isEqualTo("REJECTED");
+    }
+    
+    @Test
+    void approvesOnceEveryRulePassesForEveryOutcome() {
+        assertThat(evaluator.settledOutcome(request("20000"), List.of(success("700"), success("720")), 0))
+                .isEqualTo("APPROVED");
+    }
+    
+    @Test
+    void rejectsWhenEveryBureauFailed() {
+        assertThat(evaluator.settledOutcome(request("20000"), List.of(failed(), failed()), 0)).isEqualTo("REJECTED");
+    }
+    
+    @Test
+    void leavesApprovalToTheDecisionEngineWhenEarlyApprovalIsOff() {
+        EarlyDecisionEvaluator rejectOnly = evaluator(false);
+        
+        assertThat(rejectOnly.settledOutcome(request("20000"), List.of(success("700"), success("720")), 0)).isNull();
+        assertThat(rejectOnly.settledOutcome(request("80000"), List.of(), 2)).isEqualTo("REJECTED");
+    }
+    
+    @Test
+    void onlyRejectsEarlyWhenAnLlmReviewsApprovals() {
+        when(activeRulesCache.getDecisionMode()).thenReturn("hybrid");
+        
+        assertThat(evaluator.settledOutcome(request("20000"), List.of(success("700"), success("720")), 0)).isNull();
+        assertThat(evaluator.settledOutcome(request("20000"), List.of(success("380")), 1)).isEqualTo("REJECTED");
+    }
+    
+    @Test
+    void neverSettlesEarlyInLlmMode() {
+        when(activeRulesCache.getDecisionMode()).thenReturn("llm");
+        
+        assertThat(evaluator.settledOutcome(request("20000"), List.of(success("700"), success("720")), 0)).isNull();
+        assertThat(evaluator.settledOutcome(request("80000"), List.of(), 2)).isNull();
+    }
+    
+    @Test
+    void undecidedWithoutActiveRules() {
+        when(activeRulesCache.getRulebook()).thenReturn(null);
+        
+        assertThat(evaluator.settledOutcome(request("80000"), List.of(), 2)).isNull();
+    }
+    
+    private EarlyDecisionEvaluator evaluator(boolean earlyApproval) {
+        return new EarlyDecisionEvaluator(activeRulesCache, new BigDecimal("300"), new BigDecimal("900"), earlyApproval);
+    }
+    
+    private static CreditRequest request(String loanAmount) {
+        CreditRequest request = new CreditRequest();
+        request.setLoanAmount(new BigDecimal(loanAmount));
+        request.setApplicantAge(35);
+        return request;
+    }
+    
+    private static BureauResponse success(String score) {
+        return new BureauResponse("BUREAU", new BigDecimal(score), "SUCCESS", null, null);
+    }
+    
+    private static BureauResponse failed() {
+        return new BureauResponse("BUREAU", null, "FAILED", "Service unavailable", null);
+    }
+}
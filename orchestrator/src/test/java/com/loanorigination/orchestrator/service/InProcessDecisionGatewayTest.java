@@ -0,0 +1,109 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.dto.BureauResponse;
+import com.loanorigination.common.dto.DecisionRequest;
+import com.loanorigination.common.dto.DecisionResult;
+import com.loanorigination.common.dto.RuleConfigurationDTO;
+import com.loanorigination.common.rules.ReasoningRenderer;
+import com.loanorigination.common.rules.RuleFacts;
+import com.loanorigination.common.rules.Rulebook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InProcessDecisionGatewayTest {
+    
+    private final ActiveRulesCache activeRulesCache = mock(ActiveRulesCache.class);
+    private final DecisionEngineClient decisionEngineClient = mock(DecisionEngineClient.class);
+    private final InProcessDecisionGateway gateway =
+            new InProcessDecisionGateway(activeRulesCache, decisionEngineClient, true);
+    private final DecisionRequest request = new DecisionRequest("req-1", new BigDecimal("20000"),
+            List.of(new BureauResponse("EXPERIAN", new BigDecimal("720"), "SUCCESS", null, null)));
+    
+    @BeforeEach
+    void setUp() {
+        RuleConfigurationDTO rule = new RuleConfigurationDTO();
+        rule.setRuleName("MIN_SCORE");
+        rule.setDescription("Credit score must be at least 650");
+        rule.setRuleType("CREDIT_SCORE");
+        rule.setOperator(">=");
+        rule.setThresholdValue(new BigDecimal("650"));
+        when(activeRulesCache.getRulebook()).thenReturn(Rulebook.compile("v1", List.of(rule)));
+        when(decisionEngineClient.recordInProcessDecision(any(), anyString())).thenReturn(Mono.empty());
+        when(decisionEngineClient.getDecision(any())).thenReturn(Mono.just(remoteDecision()));
+    }
+    
+    @Test
+    void decidesLocallyAndRecordsTheDecisionInRulesMode() {
+        when(activeRulesCache.getDecisionMode()).thenReturn("rules");
+        
+        StepVerifier.create(gateway.getDecision(request))
+                .assertNext(result -> assertThat(result.getDecision()).isEqualTo("APPROVED"))
+                .verifyComplete();
+        verify(decisionEngineClient).recordInProcessDecision(request, "v1");
+        verify(decisionEngineClient, never()).getDecision(any());
+    }
+    
+    @Test
+    void asksTheDecisionEngineInAnyOtherMode() {
+        for (String mode : new String[] {"hybrid", "llm", "tiered", null}) {
+            when(activeRulesCache.getDecisionMode()).thenReturn(mode);
+            
+            StepVerifier.create(gateway.getDecision(request))
+                    .assertNext(result -> assertThat(result.getReason()).isEqualTo("LLM review"))
+                    .verifyComplete();
+        }
+        verify(decisionEngineClient, never()).recordInProcessDecision(any(), anyString());
+    }
+    
+    @Test
+    void asksTheDecisionEngineUntilRulesAreLoaded() {
+        when(activeRulesCache.getRulebook()).thenReturn(null);
+        when(activeRulesCache.getDecisionMode()).thenReturn("rules");
+        
+        StepVerifier.create(gateway.getDecision(request))
+                .assertNext(result -> assertThat(result.getReason()).isEqualTo("LLM review"))
+                .verifyComplete();
+        verify(decisionEngineClient).getDecision(eq(request));
+    }
+    
+    @Test
+    void rendersReasoningOnlyWhenRequested() {
+        Rulebook rulebook = activeRulesCache.getRulebook();
+        
+        assertThat(InProcessDecisionGateway.evaluate(rulebook, request, true).getReasoning().getRuleEvaluations())
+                .hasSize(1);
+        assertThat(InProcessDecisionGateway.evaluate(rulebook, request, false).getReasoning()).isNull();
+    }
+    
+    @Test
+    void reasoningReadsAsTheDecisionEnginesWould() {
+        Rulebook rulebook = activeRulesCache.getRulebook();
+        RuleFacts facts = RuleFacts.from(request);
+        
+        assertThat(InProcessDecisionGateway.evaluate(rulebook, request, true).getReasoning())
+                .usingRecursiveComparison()
+                .isEqualTo(ReasoningRenderer.render(request, facts, rulebook.evaluate(facts), "APPROVED"));
+    }
+    
+    private static DecisionResult remoteDecision() {
+        DecisionResult result = new DecisionResult();
+        result.setRequestId("req-1");
+        result.setDecision("REJECTED");
+        result.setReason("LLM review");
+        return result;
+    }
+}
@@ -0,0 +1,291 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.dto.BureauResponse;
+import com.loanorigination.common.dto.CreditRequest;
+import com.loanorigination.common.dto.CreditResponse;
+import com.loanorigination.common.dto.DecisionRequest;
+import com.loanorigination.common.dto.DecisionResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The credit check pipeline must never block the thread it runs on. Collaborators answer
+ * asynchronously on non-blocking threads and record any call made from a blocking one; a
+ * {@code block()} anywhere in the pipeline would fail on those threads.
+ */
+class OrchestrationServiceTest {
+    
+    private static final Duration BUREAU_LATENCY = Duration.ofMillis(200);
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    
+    private final BureauRegistry bureauRegistry = mock(BureauRegistry.class);
+    private final BureauGateway bureauGateway = mock(BureauGateway.class);
+    private final PreBureauRuleGate preBureauRuleGate = mock(PreBureauRuleGate.class);
+    private final EarlyDecisionEvaluator earlyDecisionEvaluator = mock(EarlyDecisionEvaluator.class);
+    private final WaterfallPolicy waterfallPolicy = mock(WaterfallPolicy.class);
+    private final DecisionGateway decisionGateway = mock(DecisionGateway.class);
+    private final AuditLoggingClient auditLoggingClient = mock(AuditLoggingClient.class);
+    private final DecisionEngineClient decisionEngineClient = mock(DecisionEngineClient.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Queue<String> blockingCalls = new ConcurrentLinkedQueue<>();
+    private final Scheduler singleWorker = Schedulers.newParallel("single-worker", 1);
+    
+    private OrchestrationService service;
+    
+    @BeforeEach
+    void setUp() {
+        List<BureauRegistry.Bureau> bureaus = List.of(bureau("EXPERIAN"), bureau("EQUIFAX"));
+        when(bureauRegistry.getEnabledBureaus()).thenReturn(bureaus);
+        when(bureauRegistry.indexOf("EXPERIAN")).thenReturn(0);
+        when(bureauRegistry.indexOf("EQUIFAX")).thenReturn(1);
+        when(bureauGateway.fetch(any(), any(), anyString())).thenAnswer(invocation -> {
+            BureauRegistry.Bureau bureau = invocation.getArgument(0);
+            return respondLater("fetch " + bureau.name(), new BureauResponse(bureau.name(),
+                    new BigDecimal("720"), "SUCCESS", null, LocalDateTime.now()));
+        });
+        when(decisionGateway.getDecision(any())).thenAnswer(invocation -> respondLater("decision",
+                approved(invocation.<DecisionRequest>getArgument(0).getRequestId())));
+        when(auditLoggingClient.logEvent(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            recordThread("audit");
+            return Mono.empty();
+        });
+        
+        service = service(Map.of());
+    }
+    
+    @AfterEach
+    void tearDown() {
+        singleWorker.dispose();
+    }
+    
+    @Test
+    void everyStrategyCompletesOnNonBlockingThreads() {
+        for (BureauStrategy strategy : BureauStrategy.values()) {
+            StepVerifier.create(service.processCreditCheck(request("25000"), strategy)
+                            .subscribeOn(Schedulers.parallel()))
+                    .assertNext(response -> {
+                        assertThat(response.getStatus()).isEqualTo("APPROVED");
+                        assertThat(response.getBureauResponses()).extracting(BureauResponse::getBureauName)
+                                .containsExactly("EXPERIAN", "EQUIFAX");
+                    })
+                    .expectComplete()
+                    .verify(TIMEOUT);
+        }
+        assertThat(blockingCalls).isEmpty();
+    }
+    
+    @Test
+    void oneWorkerThreadServesManyChecksConcurrently() {
+        int checks = 50;
+        
+        // Blocking on the single worker would serialize the checks: 50 x 2 x 200ms
+        StepVerifier.create(Flux.range(0, checks)
+                        .flatMap(i -> service.processCreditCheck(request("25000"), BureauStrategy.PARALLEL,
+                                "req-" + i, CreditCheckListener.NONE).subscribeOn(singleWorker))
+                        .map(CreditResponse::getStatus))
+                .expectNextCount(checks)
+                .expectComplete()
+                .verify(Duration.ofSeconds(3));
+        assertThat(blockingCalls).isEmpty();
+    }
+    
+    @Test
+    void parallelFanOutGathersEveryRegisteredBureauInRegistryOrder() {
+        List<BureauRegistry.Bureau> bureaus = List.of(bureau("EXPERIAN"), bureau("EQUIFAX"), bureau("TRANSUNION"));
+        when(bureauRegistry.getEnabledBureaus()).thenReturn(bureaus);
+        when(bureauRegistry.indexOf("TRANSUNION")).thenReturn(2);
+        doAnswer(invocation -> {
+            BureauRegistry.Bureau bureau = invocation.getArgument(0);
+            switch (bureau.name()) {
+                case "EXPERIAN":
+                    // Answers last, but is still first in the result
+                    return Mono.delay(Duration.ofMillis(150)).thenReturn(success("EXPERIAN"));
+                case "EQUIFAX":
+                    return Mono.just(success("EQUIFAX"));
+                default:
+                    // An optional bureau that failed completes empty
+                    return Mono.empty();
+            }
+        }).when(bureauGateway).fetch(any(), any(), anyString());
+        
+        StepVerifier.create(service.processCreditCheck(request("25000"), BureauStrategy.PARALLEL))
+                .assertNext(response -> assertThat(response.getBureauResponses())
+                        .extracting(BureauResponse::getBureauName)
+                        .containsExactly("EXPERIAN", "EQUIFAX"))
+                .expectComplete()
+                .verify(TIMEOUT);
+        
+        ArgumentCaptor<DecisionRequest> decisionRequest = ArgumentCaptor.forClass(DecisionRequest.class);
+        verify(decisionGateway).getDecision(decisionRequest.capture());
+        assertThat(decisionRequest.getValue().getBureauResponses()).extracting(BureauResponse::getBureauName)
+                .containsExactly("EXPERIAN", "EQUIFAX");
+        verify(bureauGateway, times(3)).fetch(any(), any(), anyString());
+    }
+    
+    @Test
+    void productConfiguredForWaterfallPullsInRegistryOrderAndStopsWhenClearCut() {
+        OrchestrationService byProduct = service(Map.of("Auto", "waterfall"));
+        when(waterfallPolicy.isClearCut(any())).thenReturn(true);
+        CreditRequest autoLoan = request("25000");
+        autoLoan.setLoanPurpose("auto");
+        
+        StepVerifier.create(byProduct.processCreditCheck(autoLoan))
+                .assertNext(response -> assertThat(response.getBureauResponses())
+                        .extracting(BureauResponse::getBureauName)
+                        .containsExactly("EXPERIAN"))
+                .expectComplete()
+                .verify(TIMEOUT);
+        verify(bureauGateway, times(1)).fetch(any(), any(), anyString());
+        assertThat(meterRegistry.counter("orchestrator.bureau.calls.skipped", "strategy", "WATERFALL").count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.counter("orchestrator.bureau.waterfall.applications", "followup", "skipped").count())
+                .isEqualTo(1);
+    }
+    
+    @Test
+    void waterfallPullsTheNextBureauOnlyAfterTheFirstAnswered() {
+        OrchestrationService byProduct = service(Map.of("auto", "waterfall"));
+        when(waterfallPolicy.isClearCut(any())).thenReturn(false);
+        CreditRequest autoLoan = request("25000");
+        autoLoan.setLoanPurpose("Auto");
+        
+        StepVerifier.create(byProduct.processCreditCheck(autoLoan))
+                .assertNext(response -> assertThat(response.getBureauResponses())
+                        .extracting(BureauResponse::getBureauName)
+                        .containsExactly("EXPERIAN", "EQUIFAX"))
+                .expectComplete()
+                .verify(TIMEOUT);
+        InOrder order = inOrder(bureauGateway, waterfallPolicy);
+        order.verify(bureauGateway).fetch(argThat(bureau -> bureau.name().equals("EXPERIAN")), any(), anyString());
+        order.verify(waterfallPolicy).isClearCut(any());
+        order.verify(bureauGateway).fetch(argThat(bureau -> bureau.name().equals("EQUIFAX")), any(), anyString());
+    }
+    
+    @Test
+    void otherProductsAndExplicitStrategiesAreNotWaterfalled() {
+        OrchestrationService byProduct = service(Map.of("auto", "waterfall"));
+        when(waterfallPolicy.isClearCut(any())).thenReturn(true);
+        CreditRequest mortgage = request("250000");
+        mortgage.setLoanPurpose("mortgage");
+        CreditRequest autoLoan = request("25000");
+        autoLoan.setLoanPurpose("auto");
+        
+        StepVerifier.create(byProduct.processCreditCheck(mortgage))
+                .assertNext(response -> assertThat(response.getBureauResponses()).hasSize(2))
+                .expectComplete()
+                .verify(TIMEOUT);
+        StepVerifier.create(byProduct.processCreditCheck(autoLoan, BureauStrategy.PARALLEL))
+                .assertNext(response -> assertThat(response.getBureauResponses()).hasSize(2))
+                .expectComplete()
+                .verify(TIMEOUT);
+        verify(waterfallPolicy, never()).isClearCut(any());
+    }
+    
+    @Test
+    void preBureauRejectionCallsNoBureauAndRecordsTheRejection() {
+        CreditResponse rejected = new CreditResponse("req-1", "REJECTED", null, new BigDecimal("150000"),
+                "Loan amount exceeds maximum", LocalDateTime.now(), null, null);
+        when(preBureauRuleGate.check(any(), anyString()))
+                .thenReturn(new PreBureauRuleGate.Rejection(rejected, "v7"));
+        when(decisionEngineClient.recordPreBureauRejection(any(), anyString())).thenReturn(Mono.empty());
+        
+        StepVerifier.create(service.processCreditCheck(request("150000"), BureauStrategy.PARALLEL, "req-1",
+                        CreditCheckListener.NONE))
+                .expectNext(rejected)
+                .expectComplete()
+                .verify(TIMEOUT);
+        verify(bureauGateway, never()).fetch(any(), any(), anyString());
+        verify(decisionGateway, never()).getDecision(any());
+        verify(decisionEngineClient).recordPreBureauRejection(
+                argThat(decisionRequest -> decisionRequest.getBureauResponses().isEmpty()), eq("v7"));
+    }
+    
+    @Test
+    void decisionStageIsTimedWithTheDecisionModeAndOutcome() {
+        service.processCreditCheck(request("25000"), BureauStrategy.PARALLEL).block(TIMEOUT);
+        
+        assertThat(meterRegistry.get("orchestrator.stage.decision")
+                .tags("mode", "remote", "outcome", "approved").timer().count()).isEqualTo(1);
+    }
+    
+    private OrchestrationService service(Map<String, String> bureauStrategyByProduct) {
+        return new OrchestrationService(bureauRegistry, bureauGateway, preBureauRuleGate,
+                new CreditCheckCoalescer(new ApplicantKeyHasher("test-secret"),
+                        new DeadlinePolicy(Duration.ofSeconds(10), Duration.ofSeconds(20), Duration.ofSeconds(15),
+                                Duration.ofSeconds(60)),
+                        meterRegistry, Duration.ofSeconds(2)),
+                earlyDecisionEvaluator, waterfallPolicy, decisionGateway, auditLoggingClient, decisionEngineClient,
+                meterRegistry, ObservationRegistry.create(), "parallel", bureauStrategyByProduct, "remote");
+    }
+    
+    private <T> Mono<T> respondLater(String call, T value) {
+        recordThread(call);
+        return Mono.delay(BUREAU_LATENCY, singleWorker)
+                .map(tick -> value)
+                .doOnNext(response -> recordThread(call + " response"));
+    }
+    
+    private void recordThread(String call) {
+        if (!Schedulers.isInNonBlockingThread()) {
+            blockingCalls.add(call + " on " + Thread.currentThread().getName());
+        }
+    }
+    
+    private static BureauResponse success(String bureauName) {
+        return new BureauResponse(bureauName, new BigDecimal("720"), "SUCCESS", null, LocalDateTime.now());
+    }
+    
+    private static DecisionResult approved(String requestId) {
+        DecisionResult result = new DecisionResult();
+        result.setRequestId(requestId);
+        result.setDecision("APPROVED");
+        result.setCreditScore(new BigDecimal("720"));
+        result.setReason("All rules passed");
+        return result;
+    }
+    
+    private static BureauRegistry.Bureau bureau(String name) {
+        return new BureauRegistry.Bureau(name, "http://" + name.toLowerCase(), null, 1, Duration.ofSeconds(2),
+                false, null, null, null);
+    }
+    
+    private static CreditRequest request(String loanAmount) {
+        CreditRequest request = new CreditRequest();
+        request.setSsn("123-45-6789");
+        request.setFirstName("Jane");
+        request.setLastName("Doe");
+        request.setLoanAmount(new BigDecimal(loanAmount));
+        return request;
+    }
+}
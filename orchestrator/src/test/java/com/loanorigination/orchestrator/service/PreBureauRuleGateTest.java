@@ -0,0 +1,99 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.dto.CreditRequest;
+import com.loanorigination.common.dto.DecisionReasoning;
+import com.loanorigination.common.rules.Rulebook;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.loanorigination.common.rules.RuleFixtures.rule;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PreBureauRuleGateTest {
+    
+    private final ActiveRulesCache activeRulesCache = mock(ActiveRulesCache.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PreBureauRuleGate gate = new PreBureauRuleGate(activeRulesCache, meterRegistry, true);
+    
+    @BeforeEach
+    void setUp() {
+        when(activeRulesCache.getDecisionMode()).thenReturn("rules");
+        when(activeRulesCache.getRulebook()).thenReturn(Rulebook.compile("v7", List.of(
+                rule("MIN_SCORE", "CREDIT_SCORE", ">=", "650"),
+                rule("MAX_LOAN", "LOAN_AMOUNT", "<=", "100000"),
+                rule("MIN_AGE", "AGE_LIMIT", ">=", "18"))));
+    }
+    
+    @Test
+    void rejectsAnOverLimitLoanWithTheRuleSetVersion() {
+        PreBureauRuleGate.Rejection rejection = gate.check(request("150000", 35), "req-1");
+        
+        assertThat(rejection).isNotNull();
+        assertThat(rejection.ruleSetVersion()).isEqualTo("v7");
+        assertThat(rejection.response().getStatus()).isEqualTo("REJECTED");
+        assertThat(rejection.response().getBureauResponses()).isEmpty();
+        assertThat(rejection.response().getReasoning().getRuleEvaluations())
+                .extracting(DecisionReasoning.RuleEvaluation::getRuleName, DecisionReasoning.RuleEvaluation::isPassed)
+                .containsExactly(tuple("MAX_LOAN", false), tuple("MIN_AGE", true));
+        assertThat(meterRegistry.counter("orchestrator.prebureau.rejections", "rule", "MAX_LOAN").count())
+                .isEqualTo(1);
+    }
+    
+    @Test
+    void reasoningListsEveryFailedRuleAsTheDecisionEngineDoes() {
+        PreBureauRuleGate.Rejection rejection = gate.check(request("150000", 17), "req-1");
+        
+        assertThat(rejection.response().getDecisionReason())
+                .isEqualTo(activeRulesCache.getRulebook().rule(1).getFailureReason());
+        assertThat(rejection.response().getReasoning().getSummary()).isEqualTo(
+                "Loan REJECTED before credit bureau checks. Failed rules: MAX_LOAN, MIN_AGE. Loan amount: 150000");
+        assertThat(rejection.response().getReasoning().getRuleEvaluations())
+                .noneMatch(DecisionReasoning.RuleEvaluation::isPassed);
+    }
+    
+    @Test
+    void letsEligibleApplicationsThroughWithoutJudgingTheScore() {
+        assertThat(gate.check(request("25000", 35), "req-1")).isNull();
+    }
+    
+    @Test
+    void rejectsAnUnderageApplicant() {
+        assertThat(gate.check(request("25000", 17), "req-1").response().getDecisionReason()).isNotBlank();
+    }
+    
+    @Test
+    void isSkippedWhenTheRulesDoNotDecide() {
+        for (String mode : new String[] {"llm", null}) {
+            when(activeRulesCache.getDecisionMode()).thenReturn(mode);
+            
+            assertThat(gate.check(request("150000", 35), "req-1")).as(String.valueOf(mode)).isNull();
+        }
+        assertThat(meterRegistry.find("orchestrator.prebureau.rejections").counter()).isNull();
+    }
+    
+    @Test
+    void isSkippedWhenDisabledOrBeforeRulesAreLoaded() {
+        assertThat(new PreBureauRuleGate(activeRulesCache, meterRegistry, false).check(request("150000", 35), "req-1"))
+                .isNull();
+        
+        when(activeRulesCache.getRulebook()).thenReturn(null);
+        assertThat(gate.check(request("150000", 35), "req-1")).isNull();
+    }
+    
+    private static CreditRequest request(String loanAmount, int age) {
+        CreditRequest request = new CreditRequest();
+        request.setSsn("123-45-6789");
+        request.setFirstName("Jane");
+        request.setLastName("Doe");
+        request.setLoanAmount(new BigDecimal(loanAmount));
+        request.setApplicantAge(age);
+        return request;
+    }
+}
@@ -0,0 +1,71 @@
+package com.loanorigination.orchestrator.service;
+
+import com.loanorigination.common.dto.BureauResponse;
+import com.loanorigination.common.rules.Rulebook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.loanorigination.common.rules.RuleFixtures.rule;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WaterfallPolicyTest {
+    
+    private final ActiveRulesCache activeRulesCache = mock(ActiveRulesCache.class);
+    private final WaterfallPolicy policy = new WaterfallPolicy(activeRulesCache, new BigDecimal("50"));
+    
+    @BeforeEach
+    void setUp() {
+        when(activeRulesCache.getRulebook()).thenReturn(Rulebook.compile("v1", List.of(
+                rule("MIN_SCORE", "CREDIT_SCORE", ">=", "650"),
+                rule("PRIME_SCORE", "CREDIT_SCORE", ">=", "750"),
+                rule("MAX_AMOUNT", "LOAN_AMOUNT", "<=", "100000"))));
+    }
+    
+    @Test
+    void scoreFarFromEveryCutoffIsClearCut() {
+        assertThat(policy.isClearCut(List.of(scored("EXPERIAN", "820")))).isTrue();
+        assertThat(policy.isClearCut(List.of(scored("EXPERIAN", "520")))).isTrue();
+    }
+    
+    @Test
+    void scoreWithinTheBandOfAnyCutoffIsNotClearCut() {
+        assertThat(policy.isClearCut(List.of(scored("EXPERIAN", "690")))).isFalse();
+        assertThat(policy.isClearCut(List.of(scored("EXPERIAN", "790")))).isFalse();
+        assertThat(policy.isClearCut(List.of(scored("EXPERIAN", "600")))).isFalse();
+    }
+    
+    @Test
+    void averagesEveryScoreReceivedSoFar() {
+        assertThat(policy.isClearCut(List.of(scored("EXPERIAN", "820"), scored("EQUIFAX", "660")))).isFalse();
+    }
+    
+    @Test
+    void keepsPullingUntilEnoughBureausHaveAnswered() {
+        when(activeRulesCache.getRulebook()).thenReturn(Rulebook.compile("v2", List.of(
+                rule("MIN_SCORE", "CREDIT_SCORE", ">=", "650"),
+                rule("MIN_BUREAUS", "BUREAU_RESPONSE", ">=", "2"))));
+        
+        assertThat(policy.isClearCut(List.of(scored("EXPERIAN", "820")))).isFalse();
+        assertThat(policy.isClearCut(List.of(scored("EXPERIAN", "820"),
+                new BureauResponse("EQUIFAX", null, "FAILED", "Service unavailable", null)))).isFalse();
+        assertThat(policy.isClearCut(List.of(scored("EXPERIAN", "820"), scored("EQUIFAX", "810")))).isTrue();
+    }
+    
+    @Test
+    void keepsPullingWithoutAScoreOrRules() {
+        assertThat(policy.isClearCut(List.of(
+                new BureauResponse("EXPERIAN", null, "FAILED", "Service unavailable", null)))).isFalse();
+        
+        when(activeRulesCache.getRulebook()).thenReturn(null);
+        assertThat(policy.isClearCut(List.of(scored("EXPERIAN", "820")))).isFalse();
+    }
+    
+    static BureauResponse scored(String bureauName, String score) {
+        return new BureauResponse(bureauName, new BigDecimal(score), "SUCCESS", null, null);
+    }
+}
@@ -0,0 +1,106 @@
+package com.loanorigination.orchestrator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loanorigination.common.dto.BureauResponse;
+import com.loanorigination.common.dto.DecisionRequest;
+import com.loanorigination.common.dto.DecisionResult;
+import com.loanorigination.common.rules.Rulebook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.loanorigination.common.rules.RuleFixtures.rule;
+
+/**
+ * Compares encode/decode time of the JSON and CBOR wire formats for a decision request and
+ * its result, reasoning included. Payload sizes are logged once per fork from the setup. Run with
+ * {@code mvn -pl orchestrator -Pbenchmark test-compile exec:exec -Dbenchmark=WireFormatBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+    
+    private static final Logger log = LoggerFactory.getLogger(WireFormatBenchmark.class);
+    
+    @Param({"json", "cbor"})
+    private String format;
+    
+    private ObjectMapper mapper;
+    private DecisionRequest request;
+    private DecisionResult result;
+    private byte[] encodedRequest;
+    private byte[] encodedResult;
+    
+    @Setup
+    public void encode() throws IOException {
+        mapper = "cbor".equals(format)
+                ? Jackson2ObjectMapperBuilder.cbor().build()
+                : Jackson2ObjectMapperBuilder.json().build();
+        request = sampleRequest("benchmark-wire-format");
+        result = InProcessDecisionGateway.evaluate(sampleRulebook(), request, true);
+        encodedRequest = mapper.writeValueAsBytes(request);
+        encodedResult = mapper.writeValueAsBytes(result);
+        log.info("{} payloads: request {} bytes, result {} bytes", format, encodedRequest.length,
+                encodedResult.length);
+    }
+    
+    @Benchmark
+    public byte[] encodeRequest() throws IOException {
+        return mapper.writeValueAsBytes(request);
+    }
+    
+    @Benchmark
+    public DecisionRequest decodeRequest() throws IOException {
+        return mapper.readValue(encodedRequest, DecisionRequest.class);
+    }
+    
+    @Benchmark
+    public byte[] encodeResult() throws IOException {
+        return mapper.writeValueAsBytes(result);
+    }
+    
+    @Benchmark
+    public DecisionResult decodeResult() throws IOException {
+        return mapper.readValue(encodedResult, DecisionResult.class);
+    }
+    
+    static DecisionRequest sampleRequest(String requestId) {
+        DecisionRequest request = new DecisionRequest(requestId, new BigDecimal("25000"), List.of(
+                new BureauResponse("EXPERIAN", new BigDecimal("720"), "SUCCESS", null, LocalDateTime.now()),
+                new BureauResponse("EQUIFAX", new BigDecimal("705"), "SUCCESS", null, LocalDateTime.now())));
+        request.setAnnualIncome(new BigDecimal("85000"));
+        request.setTotalDebt(new BigDecimal("12000"));
+        request.setMonthlyCashflow(new BigDecimal("2400"));
+        request.setApplicantAge(new BigDecimal("35"));
+        return request;
+    }
+    
+    static Rulebook sampleRulebook() {
+        return Rulebook.compile("benchmark", List.of(
+                rule("Minimum Credit Score", "CREDIT_SCORE", ">=", "650"),
+                rule("Maximum Loan Amount", "LOAN_AMOUNT", "<=", "100000"),
+                rule("Minimum Bureau Responses", "BUREAU_RESPONSE", ">=", "1"),
+                rule("Minimum Age", "AGE_LIMIT", ">=", "18")));
+    }
+}
@@ -28,6 +28,7 @@ public class OrchestratorClient {
     public Mono<CreditResponse> submitCreditRequest(CreditRequest request) {
         return webClient.post()
                 .uri("/api/credit/check")
+                .header("X-Channel", "sms")
                 .contentType(MediaType.APPLICATION_JSON)
                 .accept(MediaType.APPLICATION_JSON)
                 .bodyValue(request)